@@ -49,6 +49,9 @@ public interface IActivation extends Serializable {
      * (b) The parameter gradients dL/dw, where w is the weights in the activation function. For activation functions
      *     with no gradients, this will be null.
      *
+     * Implementations are allowed to overwrite "in", and return it as dL/dz, to avoid allocation of derivative arrays.
+     * Epsilon array is never modified.
+     *
      * @param in      Input, before applying the activation function (z, or 'preOut')
      * @param epsilon Gradient to be backpropagated: dL/da, where L is the loss function
      * @return        dL/dz and dL/dw, for weights w (null if activatino function has no weights)
@@ -59,7 +59,7 @@ public class ActivationELU extends BaseActivationFunction {
     public Pair<INDArray, INDArray> backprop(INDArray in, INDArray epsilon) {
         // no support in ELU native to override alpha
         if (alpha != 1.00) {
-            INDArray dLdz = Nd4j.getExecutioner().execAndReturn(new ELUDerivative(in.dup()));
+            INDArray dLdz = Nd4j.getExecutioner().execAndReturn(new ELUDerivative(in));
             dLdz.muli(alpha);
             BooleanIndexing.replaceWhere(dLdz, 1, Conditions.equals(alpha));
 
@@ -59,12 +59,12 @@ public class ActivationRReLU extends BaseActivationFunction {
 
     @Override
     public Pair<INDArray, INDArray> backprop(INDArray in, INDArray epsilon) {
+        // derivative is built in place: 1 for positive inputs first, and alpha for the rest
+        BooleanIndexing.replaceWhere(in, 1.0, Conditions.greaterThan(0.0));
+        BooleanIndexing.replaceWhere(in, alpha, Conditions.lessThanOrEqual(0.0));
+        in.muli(epsilon);
 
-        INDArray dLdz = Nd4j.ones(in.shape());
-        BooleanIndexing.replaceWhere(dLdz, alpha, Conditions.lessThanOrEqual(0.0));
-        dLdz.muli(epsilon);
-
-        return new Pair<>(dLdz, null);
+        return new Pair<>(in, null);
     }
 
     @Override
@@ -47,10 +47,13 @@ public class ActivationSoftmax extends BaseActivationFunction {
         //        Nd4j.getExecutioner().execAndReturn(new SoftMax(in).derivative());
         //        return in;
 
+        // dL/dz = out * (epsilon - sum(out * epsilon, 1)), with single temporary array of input size
         INDArray out = Nd4j.getExecutioner().execAndReturn(new SoftMax(in));
 
-        INDArray x = out.mul(epsilon).sum(1);
-        INDArray dLdz = out.mul(epsilon.subColumnVector(x));
+        INDArray temp = out.mul(epsilon);
+        INDArray x = temp.sum(1);
+        temp.assign(epsilon).subiColumnVector(x);
+        INDArray dLdz = out.muli(temp);
 
         return new Pair<>(dLdz, null);
     }
@@ -31,4 +31,32 @@ public interface TADManager {
      * This method removes all cached shape buffers
      */
     void purgeBuffers();
+
+    /**
+     * This method returns number of bytes currently used by cached TAD buffers
+     *
+     * @return
+     */
+    long getCachedBytes();
+
+    /**
+     * This method returns number of TAD requests served from cache
+     *
+     * @return
+     */
+    long getCacheHits();
+
+    /**
+     * This method returns number of TAD requests that required TAD calculation
+     *
+     * @return
+     */
+    long getCacheMisses();
+
+    /**
+     * This method returns number of TAD entries evicted from cache
+     *
+     * @return
+     */
+    long getCacheEvictions();
 }
@@ -630,14 +630,53 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     }
 
     /**
-     * Gets a copy of example i
+     * Gets a copy of examples at given indexes, in the same order as indexes.
+     * Features, labels and masks are gathered with single pullRows op each.
      *
-     * @param i the example to getFromOrigin
-     * @return the example at i (one example)
+     * @param i the examples to getFromOrigin
+     * @return the examples at i
      */
     @Override
     public DataSet get(int[] i) {
-        return new DataSet(getFeatures().getRows(i), getLabels().getRows(i));
+        DataSet ds = new DataSet(pullRows(getFeatures(), i), pullRows(getLabels(), i), pullRows(featuresMask, i),
+                        pullRows(labelsMask, i));
+
+        if (exampleMetaData != null && exampleMetaData.size() == numExamples()) {
+            List<Serializable> meta = new ArrayList<>(i.length);
+            for (int idx : i)
+                meta.add(exampleMetaData.get(idx));
+            ds.setExampleMetaData(meta);
+        }
+
+        ds.setLabelNames(labelNames);
+        ds.setColumnNames(columnNames);
+        return ds;
+    }
+
+    /**
+     * This method gathers examples at given indexes into new array.
+     * Arrays with rank > 2 are gathered as [numExamples, exampleLength] matrix, reshaped in their own order,
+     * so no extra copies are made for dense arrays.
+     *
+     * @param array
+     * @param indexes
+     * @return
+     */
+    private static INDArray pullRows(INDArray array, int[] indexes) {
+        if (array == null)
+            return null;
+
+        char order = array.ordering();
+        if (array.rank() == 2)
+            return Nd4j.pullRows(array, 1, indexes, order);
+
+        int[] shape = array.shape();
+        INDArray matrix = array.reshape(order, shape[0], array.length() / shape[0]);
+        INDArray rows = Nd4j.pullRows(matrix, 1, indexes, order);
+
+        int[] newShape = shape.clone();
+        newShape[0] = indexes.length;
+        return rows.reshape(order, newShape);
     }
 
     /**
@@ -650,8 +689,9 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     @Override
     public List<DataSet> batchBy(int num) {
         List<DataSet> batched = Lists.newArrayList();
-        for (List<DataSet> splitBatch : Lists.partition(asList(), num)) {
-            batched.add(DataSet.merge(splitBatch));
+        int numExamples = numExamples();
+        for (int from = 0; from < numExamples; from += num) {
+            batched.add(get(ArrayUtil.range(from, Math.min(from + num, numExamples))));
         }
         return batched;
     }
@@ -820,7 +860,8 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
 
     /**
      * Splits a dataset in to test and train randomly.
-     * This will modify the dataset in place to shuffle it before splitting into test/train!
+     * Examples are gathered by shuffled indexes, so this dataset isn't modified. Order of examples is
+     * the same shuffle(long) would produce with the seed taken from rng.
      *
      * @param numHoldout the number to hold out for training
      * @param  rng Random Number Generator to use to shuffle the dataset
@@ -828,9 +869,23 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public SplitTestAndTrain splitTestAndTrain(int numHoldout, Random rng) {
+        int numExamples = numExamples();
+        validateSplit(numExamples, numHoldout);
+
         long seed = rng.nextLong();
-        this.shuffle(seed);
-        return splitTestAndTrain(numHoldout);
+        List<Integer> indexes = new ArrayList<>(numExamples);
+        for (int i = 0; i < numExamples; i++)
+            indexes.add(i);
+
+        // same permutation as shuffle(seed) applies to arrays
+        ArrayUtil.shuffleWithMap(indexes, ArrayUtil.buildInterleavedVector(new Random(seed), numExamples));
+
+        int[] order = new int[numExamples];
+        for (int i = 0; i < numExamples; i++)
+            order[i] = indexes.get(i);
+
+        return new SplitTestAndTrain(get(Arrays.copyOfRange(order, 0, numHoldout)),
+                        get(Arrays.copyOfRange(order, numHoldout, numExamples)));
     }
 
     /**
@@ -842,13 +897,8 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     @Override
     public SplitTestAndTrain splitTestAndTrain(int numHoldout) {
         int numExamples = numExamples();
-        if (numExamples <= 1)
-            throw new IllegalStateException(
-                            "Cannot split DataSet with <= 1 rows (data set has " + numExamples + " example)");
-        if (numHoldout >= numExamples)
-            throw new IllegalArgumentException(
-                            "Unable to split on size equal or larger than the number of rows (# numExamples="
-                                            + numExamples + ", numHoldout=" + numHoldout + ")");
+        validateSplit(numExamples, numHoldout);
+
         DataSet first = new DataSet();
         DataSet second = new DataSet();
         switch (features.rank()) {
@@ -908,6 +958,16 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
         return new SplitTestAndTrain(first, second);
     }
 
+    private static void validateSplit(int numExamples, int numHoldout) {
+        if (numExamples <= 1)
+            throw new IllegalStateException(
+                            "Cannot split DataSet with <= 1 rows (data set has " + numExamples + " example)");
+        if (numHoldout >= numExamples)
+            throw new IllegalArgumentException(
+                            "Unable to split on size equal or larger than the number of rows (# numExamples="
+                                            + numExamples + ", numHoldout=" + numHoldout + ")");
+    }
+
 
     /**
      * Returns the labels for the dataset
@@ -1108,22 +1168,22 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public DataSet sample(int numSamples, org.nd4j.linalg.api.rng.Random rng, boolean withReplacement) {
-        INDArray examples = Nd4j.create(numSamples, getFeatures().columns());
-        INDArray outcomes = Nd4j.create(numSamples, numOutcomes());
+        if (!withReplacement && numSamples > numExamples())
+            throw new IllegalArgumentException("Unable to sample " + numSamples + " examples without replacement from "
+                            + numExamples() + " examples");
+
+        int[] picked = new int[numSamples];
         Set<Integer> added = new HashSet<>();
         for (int i = 0; i < numSamples; i++) {
-            int picked = rng.nextInt(numExamples());
+            int idx = rng.nextInt(numExamples());
             if (!withReplacement)
-                while (added.contains(picked))
-                    picked = rng.nextInt(numExamples());
-
-
-            examples.putRow(i, get(picked).getFeatures());
-            outcomes.putRow(i, get(picked).getLabels());
+                while (!added.add(idx))
+                    idx = rng.nextInt(numExamples());
 
+            picked[i] = idx;
         }
-        return new DataSet(examples, outcomes);
 
+        return new DataSet(pullRows(getFeatures(), picked), pullRows(getLabels(), picked));
     }
 
     @Override
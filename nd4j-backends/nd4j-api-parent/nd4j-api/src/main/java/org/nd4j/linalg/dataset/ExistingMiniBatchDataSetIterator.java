@@ -17,11 +17,11 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
 
     public static final String DEFAULT_PATTERN = "dataset-%d.bin";
 
-    private int currIdx;
     private File rootDir;
     private int totalBatches = -1;
     private DataSetPreProcessor dataSetPreProcessor;
     private final String pattern;
+    private final PrefetchingDataSetLoader loader;
 
     /**
      * Create with the given root directory, using the default filename pattern {@link #DEFAULT_PATTERN}
@@ -38,9 +38,40 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
      *                   integer, starting at 0.
      */
     public ExistingMiniBatchDataSetIterator(File rootDir, String pattern) {
+        this(rootDir, pattern, 0, 0);
+    }
+
+    /**
+     *
+     * @param rootDir       The root directory to use
+     * @param pattern       The filename pattern to use
+     * @param prefetchSize  Number of files loaded ahead of time. 0 disables prefetch
+     * @param loaderThreads Number of threads loading files in parallel
+     */
+    public ExistingMiniBatchDataSetIterator(File rootDir, String pattern, int prefetchSize, int loaderThreads) {
+        this(rootDir, pattern, prefetchSize, loaderThreads, false, 0L);
+    }
+
+    /**
+     *
+     * @param rootDir       The root directory to use
+     * @param pattern       The filename pattern to use
+     * @param prefetchSize  Number of files loaded ahead of time. 0 disables prefetch
+     * @param loaderThreads Number of threads loading files in parallel
+     * @param shuffle       If true, files are read in different random order every epoch
+     * @param seed          Seed used for shuffling
+     */
+    public ExistingMiniBatchDataSetIterator(File rootDir, String pattern, int prefetchSize, int loaderThreads,
+                    boolean shuffle, long seed) {
         this.rootDir = rootDir;
         totalBatches = rootDir.list().length;
         this.pattern = pattern;
+        this.loader = new PrefetchingDataSetLoader(new PrefetchingDataSetLoader.Loader() {
+            @Override
+            public DataSet load(int index) throws IOException {
+                return read(index);
+            }
+        }, totalBatches, prefetchSize, loaderThreads, shuffle, seed);
     }
 
     @Override
@@ -71,12 +102,13 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
 
     @Override
     public boolean asyncSupported() {
-        return true;
+        // there's no need for another async wrapper, if files are already loaded ahead of time
+        return !loader.isPrefetching();
     }
 
     @Override
     public void reset() {
-        currIdx = 0;
+        loader.reset();
     }
 
     @Override
@@ -86,7 +118,7 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
 
     @Override
     public int cursor() {
-        return currIdx;
+        return loader.cursor();
     }
 
     @Override
@@ -111,7 +143,7 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
 
     @Override
     public boolean hasNext() {
-        return currIdx < totalBatches;
+        return loader.hasNext();
     }
 
     @Override
@@ -121,16 +153,11 @@ public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next() {
-        try {
-            DataSet ret = read(currIdx);
-            if (dataSetPreProcessor != null)
-                dataSetPreProcessor.preProcess(ret);
-            currIdx++;
-
-            return ret;
-        } catch (IOException e) {
-            throw new IllegalStateException("Unable to read dataset");
-        }
+        DataSet ret = loader.next();
+        if (dataSetPreProcessor != null)
+            dataSetPreProcessor.preProcess(ret);
+
+        return ret;
     }
 
     private DataSet read(int idx) throws IOException {
@@ -18,12 +18,12 @@ import java.util.UUID;
 public class MiniBatchFileDataSetIterator implements DataSetIterator {
     private int batchSize;
     private List<String[]> paths;
-    private int currIdx;
     private File rootDir;
     private int totalExamples;
     private int totalLabels;
     private int totalBatches = -1;
     private DataSetPreProcessor dataSetPreProcessor;
+    private PrefetchingDataSetLoader loader;
 
 
 
@@ -46,6 +46,23 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
      */
     public MiniBatchFileDataSetIterator(DataSet baseData, int batchSize, boolean delete, File rootDir)
                     throws IOException {
+        this(baseData, batchSize, delete, rootDir, 0, 0, false, 0L);
+    }
+
+    /**
+     *
+     * @param baseData the base dataset
+     * @param batchSize the batch size to split by
+     * @param delete if true, files will be deleted on JVM shutdown
+     * @param rootDir the directory to save mini batches to
+     * @param prefetchSize number of mini batches loaded ahead of time. 0 disables prefetch
+     * @param loaderThreads number of threads loading mini batches in parallel
+     * @param shuffle if true, mini batches are read in different random order every epoch
+     * @param seed seed used for shuffling
+     * @throws IOException
+     */
+    public MiniBatchFileDataSetIterator(DataSet baseData, int batchSize, boolean delete, File rootDir,
+                    int prefetchSize, int loaderThreads, boolean shuffle, long seed) throws IOException {
         if (baseData.numExamples() < batchSize)
             throw new IllegalAccessError("Number of examples smaller than batch size");
         this.batchSize = batchSize;
@@ -62,7 +79,6 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
                     }
                 }
             }));
-        currIdx = 0;
         paths = new ArrayList<>();
         totalExamples = baseData.numExamples();
         totalLabels = baseData.numOutcomes();
@@ -76,6 +92,13 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
             if (offset >= totalExamples)
                 break;
         }
+
+        loader = new PrefetchingDataSetLoader(new PrefetchingDataSetLoader.Loader() {
+            @Override
+            public DataSet load(int index) throws IOException {
+                return read(index);
+            }
+        }, paths.size(), prefetchSize, loaderThreads, shuffle, seed);
     }
 
     /**
@@ -115,12 +138,13 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
 
     @Override
     public boolean asyncSupported() {
-        return true;
+        // there's no need for another async wrapper, if mini batches are already loaded ahead of time
+        return !loader.isPrefetching();
     }
 
     @Override
     public void reset() {
-        currIdx = 0;
+        loader.reset();
     }
 
     @Override
@@ -130,7 +154,7 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
 
     @Override
     public int cursor() {
-        return currIdx;
+        return loader.cursor();
     }
 
     @Override
@@ -155,7 +179,7 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
 
     @Override
     public boolean hasNext() {
-        return currIdx < totalBatches;
+        return loader.hasNext();
     }
 
     @Override
@@ -165,16 +189,11 @@ public class MiniBatchFileDataSetIterator implements DataSetIterator {
 
     @Override
     public DataSet next() {
-        try {
-            DataSet ret = read(currIdx);
-            if (dataSetPreProcessor != null)
-                dataSetPreProcessor.preProcess(ret);
-            currIdx++;
-
-            return ret;
-        } catch (IOException e) {
-            throw new IllegalStateException("Unable to read dataset");
-        }
+        DataSet ret = loader.next();
+        if (dataSetPreProcessor != null)
+            dataSetPreProcessor.preProcess(ret);
+
+        return ret;
     }
 
     private DataSet read(int idx) throws IOException {
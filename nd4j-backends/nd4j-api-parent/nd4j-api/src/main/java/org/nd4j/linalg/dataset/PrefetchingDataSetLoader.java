@@ -0,0 +1,201 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads indexed DataSets for file-backed iterators, optionally ahead of time on a pool of loader threads.
+ *
+ * DataSets are always returned in the order of the current epoch, either sequential or shuffled,
+ * regardless of the order loader threads finish their work in.
+ *
+ * Loader threads are started on first use, and released once the last DataSet of the epoch was requested,
+ * or on reset(). Threads are daemons and time out when idle, so loader abandoned in the middle of epoch
+ * doesn't keep them around either.
+ */
+public class PrefetchingDataSetLoader {
+
+    /**
+     * This interface describes actual loading of DataSet by its index
+     */
+    public interface Loader {
+        DataSet load(int index) throws IOException;
+    }
+
+    private final Loader loader;
+    private final int numBatches;
+    private final int prefetchSize;
+    private final int loaderThreads;
+    private final boolean shuffle;
+    private final Random random;
+
+    private final int[] order;
+    private int cursor = 0;
+    private int submitted = 0;
+
+    private final Deque<Future<DataSet>> queue = new ArrayDeque<>();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * @param loader       actual DataSet loader
+     * @param numBatches   number of DataSets available
+     * @param prefetchSize number of DataSets loaded ahead, including the one requested by next().
+     *                     0 disables prefetch, so DataSets are loaded within next()
+     * @param loaderThreads number of threads used for loading
+     * @param shuffle      if true, order of DataSets will be shuffled on every reset
+     * @param seed         seed used for shuffling
+     */
+    public PrefetchingDataSetLoader(@NonNull Loader loader, int numBatches, int prefetchSize, int loaderThreads,
+                    boolean shuffle, long seed) {
+        if (prefetchSize > 0 && loaderThreads < 1)
+            throw new IllegalArgumentException("Number of loader threads should be positive value");
+
+        this.loader = loader;
+        this.numBatches = numBatches;
+        this.prefetchSize = prefetchSize;
+        this.loaderThreads = loaderThreads;
+        this.shuffle = shuffle;
+        this.random = new Random(seed);
+
+        this.order = new int[numBatches];
+        for (int i = 0; i < numBatches; i++)
+            order[i] = i;
+
+        if (shuffle)
+            shuffle(order, random);
+    }
+
+    private ThreadPoolExecutor createExecutor() {
+        // idle loader threads are released, so abandoned iterator doesn't keep them around
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(loaderThreads, loaderThreads, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            private final AtomicInteger counter = new AtomicInteger(0);
+
+                            @Override
+                            public Thread newThread(Runnable r) {
+                                Thread t = new Thread(r, "DataSet loader-" + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            }
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * This method keeps up to prefetchSize loads in flight
+     */
+    private void fill() {
+        while (submitted < numBatches && queue.size() < prefetchSize) {
+            final int index = order[submitted++];
+            queue.addLast(executor.submit(new Callable<DataSet>() {
+                @Override
+                public DataSet call() throws Exception {
+                    return loader.load(index);
+                }
+            }));
+        }
+    }
+
+    public boolean hasNext() {
+        return cursor < numBatches;
+    }
+
+    public DataSet next() {
+        if (!hasNext())
+            throw new IllegalStateException("No more DataSets available");
+
+        try {
+            if (!isPrefetching())
+                return loader.load(order[cursor]);
+
+            if (executor == null)
+                executor = createExecutor();
+
+            // keeping prefetch window filled up, current DataSet included
+            fill();
+            Future<DataSet> current = queue.pollFirst();
+
+            // last DataSet of the epoch is already loading, so loader threads aren't needed anymore
+            if (queue.isEmpty() && submitted == numBatches)
+                release();
+
+            return current.get();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read dataset", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Unable to read dataset", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to read dataset", e.getCause());
+        } finally {
+            cursor++;
+        }
+    }
+
+    public void reset() {
+        for (Future<DataSet> future : queue)
+            future.cancel(false);
+
+        queue.clear();
+        release();
+        cursor = 0;
+        submitted = 0;
+
+        if (shuffle)
+            shuffle(order, random);
+    }
+
+    public int cursor() {
+        return cursor;
+    }
+
+    public boolean isPrefetching() {
+        return prefetchSize > 0;
+    }
+
+    /**
+     * This method lets loader threads finish tasks already submitted, and stop afterwards
+     */
+    private void release() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private static void shuffle(int[] array, Random random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    /**
+     * This method stops loader threads, if any
+     */
+    public void shutdown() {
+        for (Future<DataSet> future : queue)
+            future.cancel(false);
+
+        queue.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
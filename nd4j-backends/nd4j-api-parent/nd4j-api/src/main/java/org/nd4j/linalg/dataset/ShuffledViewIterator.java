@@ -0,0 +1,158 @@
+package org.nd4j.linalg.dataset;
+
+import lombok.NonNull;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Iterate over a dataset in shuffled order, without touching the dataset itself.
+ *
+ * Only permutation of example indexes is shuffled on each reset(), and minibatch is gathered from the original
+ * dataset with single pullRows op per array, when it's requested. So shuffling costs O(numExamples) of int
+ * swaps, instead of moving whole dataset in memory.
+ */
+public class ShuffledViewIterator implements DataSetIterator {
+    private final int batchSize;
+    private final DataSet data;
+    private final int[] order;
+    private final Random rng;
+    private int cursor = 0;
+    private DataSetPreProcessor preProcessor;
+
+    public ShuffledViewIterator(DataSet data, int batchSize) {
+        this(data, batchSize, System.currentTimeMillis());
+    }
+
+    public ShuffledViewIterator(@NonNull DataSet data, int batchSize, long seed) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size should be positive value");
+
+        this.batchSize = batchSize;
+        this.data = data;
+        this.rng = new Random(seed);
+
+        this.order = new int[data.numExamples()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+
+        shuffle();
+    }
+
+    /**
+     * Fisher-Yates shuffle of example indexes
+     */
+    protected void shuffle() {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+    }
+
+    /**
+     * This method returns copy of current permutation of example indexes
+     *
+     * @return
+     */
+    public int[] getOrder() {
+        return Arrays.copyOf(order, order.length);
+    }
+
+    @Override
+    public DataSet next(int num) {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        int[] indexes = Arrays.copyOfRange(order, cursor, Math.min(cursor + num, order.length));
+        DataSet next = data.get(indexes);
+        if (preProcessor != null)
+            preProcessor.preProcess(next);
+
+        cursor += indexes.length;
+        return next;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < order.length;
+    }
+
+    @Override
+    public int totalExamples() {
+        return data.numExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        return data.numInputs();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return data.numOutcomes();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean asyncSupported() {
+        //Already all in memory
+        return false;
+    }
+
+    /**
+     * Resets cursor, and shuffles examples for the next epoch
+     */
+    @Override
+    public void reset() {
+        cursor = 0;
+        shuffle();
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public int cursor() {
+        return cursor;
+    }
+
+    @Override
+    public int numExamples() {
+        return data.numExamples();
+    }
+
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return data.getLabelNamesList();
+    }
+
+    @Override
+    public void remove() {}
+}
@@ -7,7 +7,6 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import java.util.Arrays;
@@ -251,7 +250,7 @@ public class DataSetUtil {
     public static Pair<INDArray,INDArray> merge2d(INDArray[] arrays, INDArray[] masks) {
         int cols = arrays[0].columns();
 
-        INDArray[] temp = new INDArray[arrays.length];
+        int nExamples = 0;
         boolean hasMasks = false;
         for (int i = 0; i < arrays.length; i++) {
             if (arrays[i].columns() != cols) {
@@ -259,14 +258,14 @@ public class DataSetUtil {
                         + cols + ", ithNCols=" + arrays[i].columns() + ")");
             }
 
-            temp[i] = arrays[i];
+            nExamples += arrays[i].size(0);
 
             if(masks != null && masks[i] != null && masks[i] != null){
                 hasMasks = true;
             }
         }
 
-        INDArray out = Nd4j.specialConcat(0, temp);
+        INDArray out = mergeExamples(Nd4j.createUninitialized(new int[] {nExamples, cols}), arrays);
         INDArray outMask = null;
         if(hasMasks){
             outMask = DataSetUtil.mergePerOutputMasks2d(out.shape(), arrays, masks);
@@ -289,17 +288,16 @@ public class DataSetUtil {
 
         INDArray outMask = Nd4j.ones(outShape);   //Initialize to 'all present' (1s)
 
+        ExampleCopier copier = new ExampleCopier(outMask);
         int rowsSoFar = 0;
         for (int i = 0; i < masks.length; i++) {
             int thisRows = numExamplesPerArr[i];  //Mask itself may be null -> all present, but may include multiple examples
-            if(masks[i] == null){
-                continue;
+            if(masks[i] != null){
+                copier.put(rowsSoFar, masks[i]);
             }
-
-            outMask.put(new INDArrayIndex[] {NDArrayIndex.interval(rowsSoFar, rowsSoFar + thisRows), NDArrayIndex.all()},
-                    masks[i]);
             rowsSoFar += thisRows;
         }
+        copier.copy();
         return outMask;
     }
 
@@ -362,81 +360,71 @@ public class DataSetUtil {
         }
 
         boolean needMask = hasMask || lengthsDiffer;
-        INDArray arr = Nd4j.create(totalExamples, size, maxLength);
-        INDArray mask = (needMask && maskRank != 3 ? Nd4j.ones(totalExamples, maxLength) : null);
 
-        //Now, merge the time series (and if necessary, mask arrays):
-        int examplesSoFar = 0;
-        if (!lengthsDiffer && !needMask) {
+        //Output is allocated once. Padding of shorter time series has to be zeros, everything else gets overwritten
+        int[] outShape = new int[] {totalExamples, size, maxLength};
+        INDArray arr = lengthsDiffer ? Nd4j.create(outShape) : Nd4j.createUninitialized(outShape);
+
+        if (!needMask) {
             //Simplest case: same length, no mask arrays
+            return new Pair<>(mergeExamples(arr, arrays), null);
+        }
+
+        //Either different length, or have mask arrays (or, both)
+        ExampleCopier copier = new ExampleCopier(arr);
+        INDArray mask;
+        int examplesSoFar = 0;
+        if((lengthsDiffer && !hasMask) || maskRank == 2) {
+            //Standard per-example masking required: initialize to 'all present', and then mask the ends
+            mask = Nd4j.ones(totalExamples, maxLength);
+            ExampleCopier maskCopier = new ExampleCopier(mask);
             for (int i = 0; i < arrays.length; i++) {
-                int thisNExamples = arrays[i].size(0);
-                arr.put(new INDArrayIndex[] {NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                        NDArrayIndex.all(), NDArrayIndex.all()}, arrays[i]);
+                INDArray a = arrays[i];
+                int thisNExamples = a.size(0);
+                int thisLength = a.size(2);
+                copier.put(examplesSoFar, a);
+
+                int maskLength = thisLength;
+                if (masks != null && masks[i] != null) {
+                    maskLength = masks[i].size(1);
+                    maskCopier.put(examplesSoFar, masks[i]);
+                }
+
+                if (maskLength < maxLength) {
+                    //Set end mask array to zero...
+                    mask.get(NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
+                                    NDArrayIndex.interval(maskLength, maxLength)).assign(0);
+                }
+
                 examplesSoFar += thisNExamples;
             }
-            return new Pair<>(arr, null);
-        } else {
-            //Either different length, or have mask arrays (or, both)
-            if((lengthsDiffer && !hasMask) || maskRank == 2) {
-                //Standard per-example masking required
-                for (int i = 0; i < arrays.length; i++) {
-                    INDArray a = arrays[i];
-                    int thisNExamples = a.size(0);
-                    int thisLength = a.size(2);
-                    arr.put(new INDArrayIndex[]{NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                            NDArrayIndex.all(), NDArrayIndex.interval(0, thisLength)}, a);
-
-                    if (masks != null && masks[i] != null && masks[i] != null) {
-                        INDArray origMask = masks[i];
-                        int maskLength = origMask.size(1);
-                        mask.put(new INDArrayIndex[]{NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                                NDArrayIndex.interval(0, maskLength)}, origMask);
-                        if (maskLength < maxLength) {
-                            //Set end mask array to zero...
-                            mask.put(new INDArrayIndex[]{
-                                            NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                                            NDArrayIndex.interval(maskLength, maxLength)},
-                                    Nd4j.zeros(thisNExamples, maxLength - maskLength));
-                        }
-                    } else {
-                        if (thisLength < maxLength) {
-                            //Mask the end
-                            mask.put(new INDArrayIndex[]{
-                                            NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                                            NDArrayIndex.interval(thisLength, maxLength)},
-                                    Nd4j.zeros(thisNExamples, maxLength - thisLength));
-                        }
-                    }
-
-                    examplesSoFar += thisNExamples;
-                }
-            } else if(maskRank == 3){
-                //Per output masking required. May also be variable length
-                mask = Nd4j.create(arr.shape());
-                for( int i=0; i<arrays.length; i++ ){
-                    INDArray m = masks[i];
-                    INDArray a = arrays[i];
-                    int thisNExamples = a.size(0);
-                    int thisLength = a.size(2);
-                    arr.put(new INDArrayIndex[]{NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                            NDArrayIndex.all(), NDArrayIndex.interval(0, thisLength)}, a);
-
-                    if(m == null){
-                        //This mask is null -> equivalent to "all present"
-                        mask.get(NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples), NDArrayIndex.all(),
-                                NDArrayIndex.interval(0,thisLength)).assign(1);
-                    } else {
-                        mask.put(new INDArrayIndex[]{NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples),
-                                NDArrayIndex.all(), NDArrayIndex.interval(0,thisLength)}, m);
-                    }
-
-                    examplesSoFar += thisNExamples;
+            maskCopier.copy();
+        } else if(maskRank == 3){
+            //Per output masking required. May also be variable length
+            mask = Nd4j.create(outShape);
+            ExampleCopier maskCopier = new ExampleCopier(mask);
+            for( int i=0; i<arrays.length; i++ ){
+                INDArray m = masks[i];
+                INDArray a = arrays[i];
+                int thisNExamples = a.size(0);
+                int thisLength = a.size(2);
+                copier.put(examplesSoFar, a);
+
+                if(m == null){
+                    //This mask is null -> equivalent to "all present"
+                    mask.get(NDArrayIndex.interval(examplesSoFar, examplesSoFar + thisNExamples), NDArrayIndex.all(),
+                            NDArrayIndex.interval(0,thisLength)).assign(1);
+                } else {
+                    maskCopier.put(examplesSoFar, m);
                 }
-            } else {
-                throw new UnsupportedOperationException("Cannot merge time series with mask rank " + maskRank);
+
+                examplesSoFar += thisNExamples;
             }
+            maskCopier.copy();
+        } else {
+            throw new UnsupportedOperationException("Cannot merge time series with mask rank " + maskRank);
         }
+        copier.copy();
 
         return new Pair<>(arr, mask);
     }
@@ -468,7 +456,6 @@ public class DataSetUtil {
 
         int nExamples = 0;
         int[] shape = arrays[0].shape();
-        INDArray[] temp = new INDArray[arrays.length];
         boolean hasMasks = false;
         for (int i = 0; i < arrays.length; i++) {
             nExamples += arrays[i].size(0);
@@ -484,7 +471,6 @@ public class DataSetUtil {
                                     + ", data[" + i + "].shape = " + Arrays.toString(thisShape));
             }
 
-            temp[i] = arrays[i];
             if(masks != null && masks[i] != null && masks[i] != null){
                 hasMasks = true;
                 if(masks[i].rank() != 2){
@@ -494,7 +480,9 @@ public class DataSetUtil {
             }
         }
 
-        INDArray out = Nd4j.specialConcat(0, temp);
+        int[] outShape = shape.clone();
+        outShape[0] = nExamples;
+        INDArray out = mergeExamples(Nd4j.createUninitialized(outShape), arrays);
         INDArray outMask = null;
         if(hasMasks){
             outMask = DataSetUtil.mergePerOutputMasks2d(out.shape(), arrays, masks);
@@ -502,4 +490,22 @@ public class DataSetUtil {
 
         return new Pair<>(out, outMask);
     }
+
+    /**
+     * This method copies examples from given arrays into preallocated target, one after another
+     *
+     * @param target preallocated array, with size(0) equal to total number of examples
+     * @param arrays arrays to merge
+     * @return target
+     */
+    private static INDArray mergeExamples(INDArray target, INDArray[] arrays) {
+        ExampleCopier copier = new ExampleCopier(target);
+        int examplesSoFar = 0;
+        for (INDArray array : arrays) {
+            copier.put(examplesSoFar, array);
+            examplesSoFar += array.size(0);
+        }
+        copier.copy();
+        return target;
+    }
 }
@@ -0,0 +1,154 @@
+package org.nd4j.linalg.dataset.api;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.INDArrayIndex;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This class copies examples from a number of source arrays into single preallocated target array,
+ * i.e. it's what merge of DataSets is built on.
+ *
+ * If target and all sources are dense 'c' ordered arrays, and every source example has the same shape as target
+ * example, each source occupies contiguous block of target memory. In this case all sources are copied with bulk
+ * memcpy, in parallel if there's enough data. Otherwise every source is assigned to the target view.
+ */
+class ExampleCopier {
+    /**
+     * Bulk copies are split between threads only if there's at least this number of bytes to copy
+     */
+    protected static final long PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private final INDArray target;
+    private final List<INDArray> sources = new ArrayList<>();
+    private final List<Integer> offsets = new ArrayList<>();
+    private boolean bulk;
+
+    ExampleCopier(@NonNull INDArray target) {
+        this.target = target;
+        this.bulk = target.ordering() == 'c' && !target.isView() && !target.isCompressed()
+                        && target.elementWiseStride() == 1;
+    }
+
+    /**
+     * This method schedules copy of source examples into target, starting from given example.
+     * Source may be shorter than target along any dimension except 0, then only leading part of target is filled.
+     *
+     * @param firstExample index of first target example
+     * @param source
+     */
+    void put(int firstExample, @NonNull INDArray source) {
+        if (source.rank() != target.rank())
+            throw new IllegalStateException("Can't copy array of rank " + source.rank() + " into array of rank "
+                            + target.rank());
+
+        if (bulk)
+            bulk = canCopyBulk(source);
+
+        sources.add(source);
+        offsets.add(firstExample);
+    }
+
+    private boolean canCopyBulk(INDArray source) {
+        if (source.ordering() != 'c' || source.isCompressed() || source.elementWiseStride() != 1
+                        || source.data().dataType() != target.data().dataType())
+            return false;
+
+        for (int d = 1; d < target.rank(); d++)
+            if (source.size(d) != target.size(d))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * This method executes all scheduled copies
+     */
+    void copy() {
+        if (!bulk) {
+            for (int i = 0; i < sources.size(); i++)
+                assign(offsets.get(i), sources.get(i));
+            return;
+        }
+
+        final long elementSize = target.data().getElementSize();
+        final long exampleLength = target.length() / target.size(0);
+        final long targetAddress = address(target);
+
+        AffinityManager affinityManager = Nd4j.getAffinityManager();
+        affinityManager.ensureLocation(target, AffinityManager.Location.HOST);
+
+        long totalBytes = 0;
+        List<Callable<Void>> copies = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            INDArray source = sources.get(i);
+            affinityManager.ensureLocation(source, AffinityManager.Location.HOST);
+
+            final long dst = targetAddress + offsets.get(i) * exampleLength * elementSize;
+            final long src = address(source);
+            final long bytes = source.length() * elementSize;
+            totalBytes += bytes;
+
+            copies.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    Pointer.memcpy(pointer(dst), pointer(src), bytes);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            if (copies.size() > 1 && totalBytes >= PARALLEL_THRESHOLD) {
+                for (Future<Void> future : ExecutorServiceProvider.getExecutorService().invokeAll(copies))
+                    future.get();
+            } else {
+                for (Callable<Void> copy : copies)
+                    copy.call();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        affinityManager.tagLocation(target, AffinityManager.Location.HOST);
+    }
+
+    private void assign(int firstExample, INDArray source) {
+        INDArrayIndex[] indexes = new INDArrayIndex[target.rank()];
+        indexes[0] = NDArrayIndex.interval(firstExample, firstExample + source.size(0));
+        for (int d = 1; d < indexes.length; d++)
+            indexes[d] = source.size(d) == target.size(d) ? NDArrayIndex.all()
+                            : NDArrayIndex.interval(0, source.size(d));
+
+        target.get(indexes).assign(source);
+    }
+
+    private static long address(INDArray array) {
+        // addressPointer() already takes buffer offset into account
+        return array.data().addressPointer().address();
+    }
+
+    private static Pointer pointer(final long hostAddress) {
+        // parameter can't be named "address" here, it would be shadowed by Pointer.address field
+        return new Pointer() {
+            {
+                address = hostAddress;
+            }
+        };
+    }
+}
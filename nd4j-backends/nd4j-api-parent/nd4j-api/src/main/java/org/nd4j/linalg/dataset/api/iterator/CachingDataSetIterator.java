@@ -3,6 +3,7 @@ package org.nd4j.linalg.dataset.api.iterator;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
+import org.nd4j.linalg.dataset.api.iterator.cache.TieredDataSetCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -132,6 +133,9 @@ public class CachingDataSetIterator implements DataSetIterator {
         DataSet ds;
 
         if (usingCache) {
+            if (cache instanceof TieredDataSetCache)
+                prefetch((TieredDataSetCache) cache);
+
             ds = cache.get(key);
         } else {
             ds = sourceIterator.next();
@@ -143,6 +147,21 @@ public class CachingDataSetIterator implements DataSetIterator {
         return ds;
     }
 
+    /**
+     * Asks the cache to read next few DataSets in background, while current one is being consumed
+     */
+    private void prefetch(TieredDataSetCache tieredCache) {
+        int prefetchSize = tieredCache.getPrefetchSize();
+        if (prefetchSize < 1)
+            return;
+
+        String[] keys = new String[prefetchSize];
+        for (int i = 0; i < prefetchSize; i++)
+            keys[i] = makeKey(currentIndex + 1 + i);
+
+        tieredCache.prefetch(keys);
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException();
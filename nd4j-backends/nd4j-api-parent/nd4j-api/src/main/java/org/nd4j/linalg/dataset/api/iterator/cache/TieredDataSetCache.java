@@ -0,0 +1,531 @@
+package org.nd4j.linalg.dataset.api.iterator.cache;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.BasicNDArrayCompressor;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataSetCache with byte-bounded memory tier, backed by directory on disk.
+ *
+ * Every DataSet is written to disk by background writer threads, and as long as memory budget allows, it's
+ * also kept in memory in serialized form. Since training iterates over the same keys in the same order every epoch,
+ * memory tier doesn't evict anything: LRU would evict every entry right before its next use.
+ * Entries that didn't fit into memory are read from disk, ahead of time if {@link #prefetch(String...)} is used.
+ * At most prefetchSize reads are kept waiting for get(), older ones are cancelled.
+ *
+ * Optionally, arrays are compressed on disk with {@link BasicNDArrayCompressor}. Uncompressed cache directory is
+ * compatible with {@link InFileDataSetCache}.
+ */
+public class TieredDataSetCache implements DataSetCache {
+    private static final Logger log = LoggerFactory.getLogger(TieredDataSetCache.class);
+
+    private final File cacheDirectory;
+    private final long memoryBytes;
+    private final String compression;
+    private final int prefetchSize;
+
+    private final Map<String, byte[]> memoryTier = new HashMap<>();
+    private long usedBytes = 0;
+
+    // entries that were not written to disk yet
+    private final ConcurrentHashMap<String, byte[]> pendingWrites = new ConcurrentHashMap<>();
+    // prefetched entries in order of prefetch() calls, guarded by itself
+    private final LinkedHashMap<String, Future<DataSet>> prefetched = new LinkedHashMap<>();
+
+    // writes of the same key always go to the same single-threaded writer, so they are never reordered
+    private final ExecutorService[] writers;
+    private final ExecutorService readers;
+
+    private final AtomicLong memoryHits = new AtomicLong(0);
+    private final AtomicLong prefetchHits = new AtomicLong(0);
+    private final AtomicLong diskReads = new AtomicLong(0);
+
+    protected TieredDataSetCache(@NonNull File cacheDirectory, long memoryBytes, int writerThreads,
+                    int prefetchSize, String compression) {
+        if (cacheDirectory.exists() && !cacheDirectory.isDirectory()) {
+            throw new IllegalArgumentException("can't use path " + cacheDirectory + " as file cache directory "
+                            + "because it already exists, but is not a directory");
+        }
+
+        if (writerThreads < 1)
+            throw new IllegalArgumentException("Number of writer threads should be positive value");
+
+        this.cacheDirectory = cacheDirectory;
+        this.memoryBytes = memoryBytes;
+        this.prefetchSize = prefetchSize;
+        this.compression = compression;
+
+        ThreadFactory writerFactory = new DaemonFactory("DataSetCache writer");
+        this.writers = new ExecutorService[writerThreads];
+        for (int i = 0; i < writerThreads; i++)
+            this.writers[i] = Executors.newSingleThreadExecutor(writerFactory);
+        this.readers = Executors.newFixedThreadPool(Math.max(1, Math.min(prefetchSize, 4)),
+                        new DaemonFactory("DataSetCache reader"));
+    }
+
+    private File resolveKey(String key) {
+        String filename = key.replaceAll("[^a-zA-Z0-9.-]", "_");
+        return new File(cacheDirectory, filename);
+    }
+
+    private File namespaceFile(String namespace) {
+        String filename = String.format("%s-complete.txt", namespace);
+        return new File(cacheDirectory, filename);
+    }
+
+    @Override
+    public boolean isComplete(String namespace) {
+        return namespaceFile(namespace).exists();
+    }
+
+    /**
+     * PLEASE NOTE: marking namespace as complete blocks until all pending writes are done,
+     * so complete namespace on disk never misses entries
+     */
+    @Override
+    public void setComplete(String namespace, boolean value) {
+        File file = namespaceFile(namespace);
+        if (value) {
+            flush();
+
+            if (!file.exists()) {
+                file.getParentFile().mkdirs();
+                try {
+                    file.createNewFile();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        } else {
+            if (file.exists())
+                file.delete();
+        }
+    }
+
+    @Override
+    public DataSet get(String key) {
+        byte[] bytes;
+        synchronized (memoryTier) {
+            bytes = memoryTier.get(key);
+        }
+
+        if (bytes == null)
+            bytes = pendingWrites.get(key);
+
+        if (bytes != null) {
+            memoryHits.incrementAndGet();
+            cancelPrefetch(key);
+            return deserialize(bytes);
+        }
+
+        Future<DataSet> future;
+        synchronized (prefetched) {
+            future = prefetched.remove(key);
+        }
+        if (future != null) {
+            try {
+                DataSet ds = future.get();
+                if (ds != null) {
+                    prefetchHits.incrementAndGet();
+                    return ds;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                log.warn("Prefetch of key [{}] failed, reading it again", key, e.getCause());
+            }
+        }
+
+        File file = resolveKey(key);
+        if (!file.exists())
+            return null;
+
+        diskReads.incrementAndGet();
+        return read(file);
+    }
+
+    @Override
+    public void put(String key, DataSet dataSet) {
+        // DataSet gets serialized right away, so later changes to it won't affect cached copy
+        final byte[] bytes = serialize(dataSet);
+
+        cancelPrefetch(key);
+
+        synchronized (memoryTier) {
+            byte[] previous = memoryTier.remove(key);
+            if (previous != null)
+                usedBytes -= previous.length;
+
+            if (usedBytes + bytes.length <= memoryBytes) {
+                memoryTier.put(key, bytes);
+                usedBytes += bytes.length;
+            }
+        }
+
+        final String k = key;
+        pendingWrites.put(k, bytes);
+        writers[(k.hashCode() & Integer.MAX_VALUE) % writers.length].submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // newer put of the same key is queued after this one, so there's no need to write stale data
+                    if (pendingWrites.get(k) != bytes)
+                        return;
+
+                    write(resolveKey(k), bytes);
+
+                    // byte arrays are compared by reference here
+                    pendingWrites.remove(k, bytes);
+                } catch (Exception e) {
+                    // entry stays in pendingWrites, so it's still available for reads
+                    log.error("Failed to write key [{}] to disk", k, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean contains(String key) {
+        synchronized (memoryTier) {
+            if (memoryTier.containsKey(key))
+                return true;
+        }
+
+        if (pendingWrites.containsKey(key))
+            return true;
+
+        synchronized (prefetched) {
+            if (prefetched.containsKey(key))
+                return true;
+        }
+
+        File file = resolveKey(key);
+        if (file.exists() && !file.isFile())
+            throw new IllegalStateException("ERROR: DataSet cache path " + file + " exists but is not a file");
+
+        return file.exists();
+    }
+
+    /**
+     * This method schedules background reads of given keys from disk.
+     * Keys that are kept in memory, or don't exist in cache, are ignored.
+     *
+     * PLEASE NOTE: only prefetchSize reads are kept waiting for get(), the oldest ones are cancelled
+     *
+     * @param keys
+     */
+    public void prefetch(String... keys) {
+        for (final String key : keys) {
+            if (pendingWrites.containsKey(key))
+                continue;
+
+            synchronized (memoryTier) {
+                if (memoryTier.containsKey(key))
+                    continue;
+            }
+
+            final File file = resolveKey(key);
+            if (!file.isFile())
+                continue;
+
+            synchronized (prefetched) {
+                if (prefetched.containsKey(key))
+                    continue;
+
+                prefetched.put(key, readers.submit(new Callable<DataSet>() {
+                    @Override
+                    public DataSet call() throws Exception {
+                        diskReads.incrementAndGet();
+                        return read(file);
+                    }
+                }));
+
+                // reads that nobody asked for are evicted, so they don't stay around forever
+                Iterator<Future<DataSet>> iterator = prefetched.values().iterator();
+                while (prefetched.size() > Math.max(1, prefetchSize)) {
+                    iterator.next().cancel(true);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void cancelPrefetch(String key) {
+        Future<DataSet> future;
+        synchronized (prefetched) {
+            future = prefetched.remove(key);
+        }
+
+        if (future != null)
+            future.cancel(true);
+    }
+
+    /**
+     * This method returns number of prefetched entries, not requested via get() yet
+     *
+     * @return
+     */
+    public int getNumberOfPrefetched() {
+        synchronized (prefetched) {
+            return prefetched.size();
+        }
+    }
+
+    /**
+     * This method drops memory tier, and cancels all pending prefetches.
+     * Entries written to disk, or still waiting to be written, stay in cache.
+     */
+    public void clear() {
+        synchronized (prefetched) {
+            for (Future<DataSet> future : prefetched.values())
+                future.cancel(true);
+
+            prefetched.clear();
+        }
+
+        synchronized (memoryTier) {
+            memoryTier.clear();
+            usedBytes = 0;
+        }
+    }
+
+    /**
+     * This method returns number of keys that consumer is expected to prefetch ahead
+     * @return
+     */
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * This method blocks until all pending writes are done
+     */
+    public void flush() {
+        // writers are single-threaded, so empty task completes only after everything queued before it
+        Future<?>[] barriers = new Future<?>[writers.length];
+        for (int i = 0; i < writers.length; i++)
+            barriers[i] = writers[i].submit(new Runnable() {
+                @Override
+                public void run() {}
+            });
+
+        try {
+            for (Future<?> barrier : barriers)
+                barrier.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * This method waits for pending writes, and stops background threads
+     */
+    public void shutdown() {
+        flush();
+        clear();
+        readers.shutdownNow();
+        for (ExecutorService writer : writers)
+            writer.shutdown();
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public long getUsedMemoryBytes() {
+        synchronized (memoryTier) {
+            return usedBytes;
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getPrefetchHits() {
+        return prefetchHits.get();
+    }
+
+    public long getDiskReads() {
+        return diskReads.get();
+    }
+
+    protected void write(File file, byte[] bytes) throws IOException {
+        File parentDir = file.getParentFile();
+        if (!parentDir.exists() && !parentDir.mkdirs() && !parentDir.exists())
+            throw new IllegalStateException("ERROR: cannot create parent directory: " + parentDir);
+
+        // data is written to temporary file first, so readers never see partial entries
+        File tmp = new File(parentDir, file.getName() + ".tmp");
+        if (compression == null) {
+            try (FileOutputStream fos = new FileOutputStream(tmp, false)) {
+                fos.write(bytes);
+            }
+        } else {
+            compress(deserialize(bytes)).save(tmp);
+        }
+
+        if (file.exists())
+            file.delete();
+
+        if (!tmp.renameTo(file))
+            throw new IOException("Can't rename " + tmp + " to " + file);
+    }
+
+    protected DataSet read(File file) {
+        DataSet ds = new DataSet();
+        ds.load(file);
+
+        if (compression != null)
+            decompress(ds);
+
+        return ds;
+    }
+
+    protected DataSet compress(DataSet ds) {
+        BasicNDArrayCompressor compressor = BasicNDArrayCompressor.getInstance();
+
+        INDArray features = ds.getFeatures() == null ? null : compressor.compress(ds.getFeatures(), compression);
+        INDArray labels = ds.getLabels() == ds.getFeatures() ? features
+                        : ds.getLabels() == null ? null : compressor.compress(ds.getLabels(), compression);
+        INDArray featuresMask = ds.getFeaturesMaskArray() == null ? null
+                        : compressor.compress(ds.getFeaturesMaskArray(), compression);
+        INDArray labelsMask = ds.getLabelsMaskArray() == null ? null
+                        : compressor.compress(ds.getLabelsMaskArray(), compression);
+
+        return new DataSet(features, labels, featuresMask, labelsMask);
+    }
+
+    protected void decompress(DataSet ds) {
+        INDArray[] arrays = new INDArray[] {ds.getFeatures(), ds.getLabels(), ds.getFeaturesMaskArray(),
+                        ds.getLabelsMaskArray()};
+
+        for (INDArray array : arrays)
+            if (array != null && array.isCompressed())
+                Nd4j.getCompressor().decompressi(array);
+    }
+
+    protected static byte[] serialize(DataSet dataSet) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        dataSet.save(os);
+        return os.toByteArray();
+    }
+
+    protected static DataSet deserialize(byte[] bytes) {
+        DataSet ds = new DataSet();
+        ds.load(new ByteArrayInputStream(bytes));
+        return ds;
+    }
+
+    private static class DaemonFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger(0);
+
+        private DaemonFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+    public static class Builder {
+        private File cacheDirectory;
+        private long memoryBytes = 256L * 1024L * 1024L;
+        private int writerThreads = 2;
+        private int prefetchSize = 4;
+        private String compression = null;
+
+        public Builder(@NonNull File cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public Builder(@NonNull Path cacheDirectory) {
+            this(cacheDirectory.toFile());
+        }
+
+        public Builder(@NonNull String cacheDirectory) {
+            this(new File(cacheDirectory));
+        }
+
+        /**
+         * Maximal number of bytes used by serialized DataSets kept in memory. Default value: 256MB
+         *
+         * @param memoryBytes
+         * @return
+         */
+        public Builder memoryBytes(long memoryBytes) {
+            this.memoryBytes = memoryBytes;
+            return this;
+        }
+
+        /**
+         * Number of background threads writing DataSets to disk. Default value: 2
+         *
+         * @param writerThreads
+         * @return
+         */
+        public Builder writerThreads(int writerThreads) {
+            this.writerThreads = writerThreads;
+            return this;
+        }
+
+        /**
+         * Number of keys consumer should prefetch ahead. Default value: 4
+         *
+         * @param prefetchSize
+         * @return
+         */
+        public Builder prefetchSize(int prefetchSize) {
+            this.prefetchSize = prefetchSize;
+            return this;
+        }
+
+        /**
+         * Compression algorithm used for arrays on disk, i.e. "GZIP". Default value: null, no compression
+         *
+         * @param algorithm
+         * @return
+         */
+        public Builder compression(String algorithm) {
+            this.compression = algorithm;
+            return this;
+        }
+
+        public TieredDataSetCache build() {
+            return new TieredDataSetCache(cacheDirectory, memoryBytes, writerThreads, prefetchSize, compression);
+        }
+    }
+}
@@ -102,6 +102,49 @@ public abstract class AbstractDataSetNormalizer<S extends NormalizerStats> exten
         iterator.reset();
     }
 
+    /**
+     * Fit the given model, using multiple threads. Every thread collects statistics of its own share of data,
+     * and results are merged afterwards. Results are equal to {@link #fit(DataSetIterator)} within floating point
+     * tolerance.
+     *
+     * @param iterator for the data to iterate over
+     * @param workers number of worker threads
+     */
+    public void fit(@NonNull DataSetIterator iterator, int workers) {
+        if (workers > 1 && !canMergeBuilders(newBuilder()))
+            throw new UnsupportedOperationException("Statistics of " + getClass().getSimpleName()
+                            + " can't be merged, so it can't be fit in parallel");
+
+        final S.Builder[] featureNormBuilders = new S.Builder[workers];
+        final S.Builder[] labelNormBuilders = new S.Builder[workers];
+        for (int i = 0; i < workers; i++) {
+            featureNormBuilders[i] = newBuilder();
+            labelNormBuilders[i] = newBuilder();
+        }
+
+        iterator.reset();
+        fitParallel(iterator, workers, new PartialFit<org.nd4j.linalg.dataset.DataSet>() {
+            @Override
+            public void fit(org.nd4j.linalg.dataset.DataSet next, int worker) {
+                featureNormBuilders[worker].addFeatures(next);
+                if (fitLabels) {
+                    labelNormBuilders[worker].addLabels(next);
+                }
+            }
+        });
+
+        for (int i = 1; i < workers; i++) {
+            mergeBuilders(featureNormBuilders[0], featureNormBuilders[i]);
+            mergeBuilders(labelNormBuilders[0], labelNormBuilders[i]);
+        }
+
+        featureStats = (S) featureNormBuilders[0].build();
+        if (fitLabels) {
+            labelStats = (S) labelNormBuilders[0].build();
+        }
+        iterator.reset();
+    }
+
     protected abstract S.Builder newBuilder();
 
     /**
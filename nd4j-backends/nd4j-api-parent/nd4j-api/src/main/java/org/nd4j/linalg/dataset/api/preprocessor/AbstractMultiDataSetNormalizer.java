@@ -114,6 +114,57 @@ public abstract class AbstractMultiDataSetNormalizer<S extends NormalizerStats>
         }
     }
 
+    /**
+     * Fit an iterator, using multiple threads. Every thread collects statistics of its own share of data,
+     * and results are merged afterwards. Results are equal to {@link #fit(MultiDataSetIterator)} within floating
+     * point tolerance.
+     *
+     * @param iterator for the data to iterate over
+     * @param workers number of worker threads
+     */
+    public void fit(@NonNull MultiDataSetIterator iterator, int workers) {
+        if (workers > 1 && !canMergeBuilders(newBuilder()))
+            throw new UnsupportedOperationException("Statistics of " + getClass().getSimpleName()
+                            + " can't be merged, so it can't be fit in parallel");
+
+        final List<List<S.Builder>> featureNormBuilders = new ArrayList<>();
+        final List<List<S.Builder>> labelNormBuilders = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            featureNormBuilders.add(new ArrayList<S.Builder>());
+            labelNormBuilders.add(new ArrayList<S.Builder>());
+        }
+
+        iterator.reset();
+        fitParallel(iterator, workers, new PartialFit<MultiDataSet>() {
+            @Override
+            public void fit(MultiDataSet next, int worker) {
+                fitPartial(next, featureNormBuilders.get(worker), labelNormBuilders.get(worker));
+            }
+        });
+
+        featureStats = buildList(mergeBuilders(featureNormBuilders));
+        if (isFitLabel()) {
+            labelStats = buildList(mergeBuilders(labelNormBuilders));
+        }
+    }
+
+    private List<S.Builder> mergeBuilders(List<List<S.Builder>> perWorker) {
+        List<S.Builder> result = new ArrayList<>();
+        for (List<S.Builder> builders : perWorker) {
+            // worker might have received no data at all
+            if (builders.isEmpty())
+                continue;
+
+            if (result.isEmpty()) {
+                result.addAll(builders);
+            } else {
+                for (int i = 0; i < builders.size(); i++)
+                    mergeBuilders(result.get(i), builders.get(i));
+            }
+        }
+        return result;
+    }
+
     private List<S> buildList(@NonNull List<S.Builder> builders) {
         List<S> result = new ArrayList<>(builders.size());
         for (S.Builder builder : builders) {
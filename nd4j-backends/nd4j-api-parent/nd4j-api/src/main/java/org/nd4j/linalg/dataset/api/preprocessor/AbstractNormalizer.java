@@ -1,6 +1,14 @@
 package org.nd4j.linalg.dataset.api.preprocessor;
 
+import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.MinMaxStats;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.NormalizerStats;
+
 import java.io.Serializable;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Abstract base class for normalizers for both DataSet and MultiDataSet processing
@@ -16,4 +24,111 @@ public abstract class AbstractNormalizer implements Serializable {
                             "API_USE_ERROR: Preprocessors have to be explicitly fit before use. Usage: .fit(dataset) or .fit(datasetiterator)");
         }
     }
+
+    /**
+     * This method returns true if statistics collected by given builder can be merged with
+     * {@link #mergeBuilders(NormalizerStats.Builder, NormalizerStats.Builder)}, i.e. normalizer can be fit in parallel.
+     * Subclasses using their own statistics should override both methods.
+     *
+     * @param builder
+     * @return
+     */
+    protected boolean canMergeBuilders(NormalizerStats.Builder builder) {
+        return builder instanceof DistributionStats.Builder || builder instanceof MinMaxStats.Builder;
+    }
+
+    /**
+     * This method merges statistics collected by another builder into target builder
+     *
+     * @param target builder to merge into
+     * @param other builder to merge in, it's not modified
+     */
+    protected void mergeBuilders(NormalizerStats.Builder target, NormalizerStats.Builder other) {
+        if (target instanceof DistributionStats.Builder && other instanceof DistributionStats.Builder) {
+            ((DistributionStats.Builder) target).merge((DistributionStats.Builder) other);
+        } else if (target instanceof MinMaxStats.Builder && other instanceof MinMaxStats.Builder) {
+            ((MinMaxStats.Builder) target).merge((MinMaxStats.Builder) other);
+        } else {
+            throw new IllegalStateException("Can't merge statistics builders of types ["
+                            + target.getClass().getName() + "] and [" + other.getClass().getName() + "]");
+        }
+    }
+
+    /**
+     * Consumer of the items produced by iterator, with index of the worker it's called from
+     */
+    protected interface PartialFit<T> {
+        void fit(T item, int worker);
+    }
+
+    /**
+     * This method pulls items from the iterator on the calling thread, and passes them to the given number of
+     * worker threads. Each worker is expected to accumulate its own partial statistics, merged by the caller afterwards.
+     *
+     * @param iterator iterator to consume
+     * @param workers number of worker threads
+     * @param partialFit per-item fitting function
+     */
+    protected <T> void fitParallel(Iterator<T> iterator, int workers, final PartialFit<T> partialFit) {
+        if (workers < 1)
+            throw new IllegalArgumentException("Number of workers should be positive value");
+
+        final Object poison = new Object();
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(workers * 2);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            final int worker = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            Object item = queue.take();
+                            if (item == poison)
+                                break;
+
+                            // after a failure we just drain the queue, so producer never blocks
+                            if (failure.get() == null)
+                                partialFit.fit((T) item, worker);
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                        // keep consuming, so producer doesn't get stuck on full queue
+                        drain(queue, poison);
+                    }
+                }
+            }, "Normalizer fit " + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        try {
+            while (iterator.hasNext() && failure.get() == null)
+                queue.put(iterator.next());
+
+            for (int i = 0; i < workers; i++)
+                queue.put(poison);
+
+            for (Thread thread : threads)
+                thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread thread : threads)
+                thread.interrupt();
+            throw new RuntimeException(e);
+        }
+
+        if (failure.get() != null)
+            throw new RuntimeException("Parallel fit failed", failure.get());
+    }
+
+    private static void drain(BlockingQueue<Object> queue, Object poison) {
+        try {
+            while (queue.take() != poison);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,166 @@
+package org.nd4j.linalg.dataset.api.preprocessor;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.indexer.DoubleIndexer;
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Single-pass, in-place per-feature affine transform: x = x * scale[f] + shift[f], where f is index along dimension 1.
+ * Both standardization and min-max scaling (and their reverts) are expressed this way.
+ *
+ * For time series (rank 3) optional mask of shape [examples, timesteps] is applied within the same pass,
+ * so no intermediate arrays are created, and data is touched only once.
+ *
+ * Transform works on host memory, so it's used with CPU backend only: on backends with device memory
+ * every call would copy data to host and back.
+ */
+public class FusedNormalizerTransform {
+    /**
+     * Fused transform is disabled by default, since it's single-threaded, and isn't proven faster than broadcast ops,
+     * see NormalizerBenchmark in nd4j-perf. It can be enabled with -Dorg.nd4j.normalizer.fused=true
+     */
+    private static volatile boolean enabled =
+                    Boolean.parseBoolean(System.getProperty("org.nd4j.normalizer.fused", "false"));
+
+    private static volatile Boolean hostBackend;
+
+    private FusedNormalizerTransform() {}
+
+    /**
+     * This method returns true if normalizers use fused transform where possible
+     *
+     * @return
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method enables or disables fused transform for all normalizers
+     *
+     * @param reallyEnable
+     */
+    public static void setEnabled(boolean reallyEnable) {
+        enabled = reallyEnable;
+    }
+
+    /**
+     * This method checks, if current backend keeps arrays in host memory
+     *
+     * @return
+     */
+    public static boolean isBackendSupported() {
+        if (hostBackend == null)
+            hostBackend = "CpuBackend".equals(Nd4j.getBackend().getClass().getSimpleName());
+
+        return hostBackend;
+    }
+
+    /**
+     * This method checks, if fused transform can be applied to the given array:
+     * it should be enabled, backend should be CPU, and array should be FLOAT or DOUBLE, with rank 2 or higher
+     *
+     * @param array
+     * @return
+     */
+    public static boolean canApply(@NonNull INDArray array) {
+        if (!enabled || !isBackendSupported() || array.isCompressed() || array.rank() < 2)
+            return false;
+
+        DataBuffer.Type type = array.data().dataType();
+        return type == DataBuffer.Type.FLOAT || type == DataBuffer.Type.DOUBLE;
+    }
+
+    /**
+     * This method applies x = x * scale[f] + shift[f] in place, and multiplies time series by mask, if it's defined
+     *
+     * @param array array to transform, with features along dimension 1
+     * @param mask  mask array of shape [examples, timesteps], only used for rank 3 arrays. May be null
+     * @param scale per-feature multiplier
+     * @param shift per-feature addition
+     */
+    public static void apply(@NonNull INDArray array, INDArray mask, @NonNull double[] scale, @NonNull double[] shift) {
+        int features = array.size(1);
+        if (scale.length != features || shift.length != features)
+            throw new IllegalStateException("Number of features [" + features + "] doesn't match length of statistics ["
+                            + scale.length + "]");
+
+        if (array.rank() != 3)
+            mask = null;
+
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+        if (mask != null)
+            Nd4j.getAffinityManager().ensureLocation(mask, AffinityManager.Location.HOST);
+
+        DataBuffer data = array.data();
+        DataBuffer maskData = mask == null ? null : mask.data();
+        boolean isDouble = data.dataType() == DataBuffer.Type.DOUBLE;
+        DoubleIndexer doubles = isDouble ? (DoubleIndexer) data.indexer() : null;
+        FloatIndexer floats = isDouble ? null : (FloatIndexer) data.indexer();
+
+        int[] shape = array.shape();
+        int[] stride = array.stride();
+        int rank = shape.length;
+
+        // innermost dimension is walked as a run, the rest of dimensions are walked as odometer
+        int inner = rank - 1;
+        int runLength = shape[inner];
+        long runStride = stride[inner];
+        long maskStride0 = mask == null ? 0 : mask.stride(0);
+        long maskStride1 = mask == null ? 0 : mask.stride(1);
+
+        int[] idx = new int[rank];
+        long runs = array.length() / runLength;
+        long base = data.offset();
+
+        for (long r = 0; r < runs; r++) {
+            for (int e = 0; e < runLength; e++) {
+                // for rank 2 features are the innermost dimension
+                int f = rank == 2 ? e : idx[1];
+                long position = base + e * runStride;
+
+                double value = isDouble ? doubles.get(position) : floats.get(position);
+                value = value * scale[f] + shift[f];
+
+                if (maskData != null)
+                    value *= maskData.getDouble(idx[0] * maskStride0 + e * maskStride1);
+
+                if (isDouble)
+                    doubles.put(position, value);
+                else
+                    floats.put(position, (float) value);
+            }
+
+            // advancing to the next run
+            for (int k = rank - 2; k >= 0; k--) {
+                idx[k]++;
+                base += stride[k];
+                if (idx[k] < shape[k])
+                    break;
+
+                base -= (long) stride[k] * shape[k];
+                idx[k] = 0;
+            }
+        }
+
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+    }
+
+    /**
+     * This method returns values of the row vector as double[]
+     *
+     * @param vector
+     * @return
+     */
+    static double[] toArray(INDArray vector) {
+        double[] result = new double[vector.length()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = vector.getDouble(i);
+
+        return result;
+    }
+}
@@ -47,6 +47,19 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, MinMaxStats stats) {
+        if (FusedNormalizerTransform.canApply(array)) {
+            // x = (x - lower) / range * (maxRange - minRange) + minRange, as single pass
+            double[] scale = FusedNormalizerTransform.toArray(stats.getRange());
+            double[] shift = FusedNormalizerTransform.toArray(stats.getLower());
+            for (int i = 0; i < scale.length; i++) {
+                scale[i] = (maxRange - minRange) / scale[i];
+                shift[i] = minRange - shift[i] * scale[i];
+            }
+
+            FusedNormalizerTransform.apply(array, maskArray, scale, shift);
+            return;
+        }
+
         if (array.rank() <= 2) {
             array.subiRowVector(stats.getLower());
             array.diviRowVector(stats.getRange());
@@ -77,6 +90,19 @@ public class MinMaxStrategy implements NormalizerStrategy<MinMaxStats>, Serializ
      */
     @Override
     public void revert(INDArray array, INDArray maskArray, MinMaxStats stats) {
+        if (FusedNormalizerTransform.canApply(array)) {
+            // x = (x - minRange) / (maxRange - minRange) * range + lower, as single pass
+            double[] scale = FusedNormalizerTransform.toArray(stats.getRange());
+            double[] shift = FusedNormalizerTransform.toArray(stats.getLower());
+            for (int i = 0; i < scale.length; i++) {
+                scale[i] = scale[i] / (maxRange - minRange);
+                shift[i] = shift[i] - minRange * scale[i];
+            }
+
+            FusedNormalizerTransform.apply(array, maskArray, scale, shift);
+            return;
+        }
+
         // Subtract target range minimum value
         array.subi(minRange);
         // Scale by target range
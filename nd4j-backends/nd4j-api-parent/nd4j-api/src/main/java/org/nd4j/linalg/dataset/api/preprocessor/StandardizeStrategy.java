@@ -29,6 +29,19 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
      */
     @Override
     public void preProcess(INDArray array, INDArray maskArray, DistributionStats stats) {
+        if (FusedNormalizerTransform.canApply(array)) {
+            // x = (x - mean) / std, as single pass: x * (1 / std) - mean / std
+            double[] scale = std(stats);
+            double[] shift = FusedNormalizerTransform.toArray(stats.getMean());
+            for (int i = 0; i < scale.length; i++) {
+                scale[i] = 1.0 / scale[i];
+                shift[i] = -shift[i] * scale[i];
+            }
+
+            FusedNormalizerTransform.apply(array, maskArray, scale, shift);
+            return;
+        }
+
         if (array.rank() <= 2) {
             array.subiRowVector(stats.getMean());
             array.diviRowVector(filteredStd(stats));
@@ -54,6 +67,12 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
      */
     @Override
     public void revert(INDArray array, INDArray maskArray, DistributionStats stats) {
+        if (FusedNormalizerTransform.canApply(array)) {
+            FusedNormalizerTransform.apply(array, maskArray, std(stats),
+                            FusedNormalizerTransform.toArray(stats.getMean()));
+            return;
+        }
+
         if (array.rank() <= 2) {
             array.muliRowVector(filteredStd(stats));
             array.addiRowVector(stats.getMean());
@@ -86,4 +105,14 @@ public class StandardizeStrategy implements NormalizerStrategy<DistributionStats
         BooleanIndexing.replaceWhere(stdCopy, 1.0, Conditions.equals(0));
         return stdCopy;
     }
+
+    private static double[] std(DistributionStats stats) {
+        // same as filteredStd(), but without touching the stats
+        double[] std = FusedNormalizerTransform.toArray(stats.getStd());
+        for (int i = 0; i < std.length; i++)
+            if (std[i] == 0.0)
+                std[i] = 1.0;
+
+        return std;
+    }
 }
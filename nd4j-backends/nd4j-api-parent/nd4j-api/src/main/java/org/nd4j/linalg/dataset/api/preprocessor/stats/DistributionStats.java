@@ -69,7 +69,7 @@ public class DistributionStats implements NormalizerStats {
      * large set of data
      */
     public static class Builder implements NormalizerStats.Builder<DistributionStats> {
-        private int runningCount = 0;
+        private long runningCount = 0;
         private INDArray runningMean;
         private INDArray runningVariance;
 
@@ -102,40 +102,46 @@ public class DistributionStats implements NormalizerStats {
                 // null pointer exceptions.
                 return this;
             }
-            INDArray mean = data.mean(0);
-            INDArray variance = data.var(false, 0);
-            int count = data.size(0);
+            combine(data.mean(0), data.var(false, 0), data.size(0));
 
+            return this;
+        }
+
+        /**
+         * Merge statistics of another builder into this one
+         *
+         * @param other builder to merge in, it's not modified
+         */
+        public Builder merge(@NonNull Builder other) {
+            if (other.runningMean != null)
+                combine(other.runningMean, other.runningVariance, other.runningCount);
+
+            return this;
+        }
+
+        /**
+         * Combines running statistics with mean and population variance of another set of rows,
+         * see Chan et al. "Updating Formulae and a Pairwise Algorithm for Computing Sample Variances"
+         */
+        private void combine(INDArray mean, INDArray variance, long count) {
             if (runningMean == null) {
-                // First batch
-                runningMean = mean;
-                runningVariance = variance;
+                // First batch. Reduction ops may return the same array, so we don't want to modify it in-place later
+                runningMean = mean.dup();
+                runningVariance = variance.dup();
                 runningCount = count;
-
-                if(data.size(0) == 1){
-                    //Handle edge case: currently, reduction ops may return the same array
-                    //But we don't want to modify this array in-place later
-                    runningMean = runningMean.dup();
-                    runningVariance = runningVariance.dup();
-                }
-            } else {
-                // Update running variance
-                INDArray deltaSquared = Transforms.pow(mean.subRowVector(runningMean), 2);
-                INDArray mB = variance.muli(count);
-                runningVariance.muli(runningCount).addiRowVector(mB)
-                                .addiRowVector(deltaSquared
-                                                .muli((float) (runningCount * count) / (runningCount + count)))
-                                .divi(runningCount + count);
-
-                // Update running count
-                runningCount += count;
-
-                // Update running mean
-                INDArray xMinusMean = data.subRowVector(runningMean);
-                runningMean.addi(xMinusMean.sum(0).divi(runningCount));
+                return;
             }
 
-            return this;
+            long total = runningCount + count;
+            INDArray delta = mean.subRowVector(runningMean);
+
+            // M2 = M2a + M2b + delta^2 * na * nb / n, and variance is M2 / n
+            runningVariance.muli(runningCount).addiRowVector(variance.mul(count))
+                            .addiRowVector(delta.mul(delta).muli((double) runningCount * count / total))
+                            .divi(total);
+
+            runningMean.addiRowVector(delta.muli((double) count / total));
+            runningCount = total;
         }
 
         /**
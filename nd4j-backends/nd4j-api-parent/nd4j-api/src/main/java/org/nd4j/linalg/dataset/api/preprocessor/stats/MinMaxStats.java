@@ -121,6 +121,26 @@ public class MinMaxStats implements NormalizerStats {
             return this;
         }
 
+        /**
+         * Merge bounds of another builder into this one
+         *
+         * @param other builder to merge in, it's not modified
+         */
+        public MinMaxStats.Builder merge(@NonNull MinMaxStats.Builder other) {
+            if (other.runningLower == null)
+                return this;
+
+            if (runningLower == null) {
+                runningLower = other.runningLower.dup();
+                runningUpper = other.runningUpper.dup();
+            } else {
+                Transforms.min(runningLower, other.runningLower, false);
+                Transforms.max(runningUpper, other.runningUpper, false);
+            }
+
+            return this;
+        }
+
         /**
          * Create a DistributionStats object from the data ingested so far. Can be used multiple times when updating
          * online.
@@ -81,6 +81,8 @@ import org.nd4j.linalg.memory.MemoryManager;
 import org.nd4j.linalg.memory.provider.BasicWorkspaceManager;
 import org.nd4j.linalg.string.NDArrayStrings;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.serde.binary.BinarySerde;
+import org.nd4j.serde.binary.StreamingSerde;
 
 import java.io.*;
 import java.lang.ref.ReferenceQueue;
@@ -2446,8 +2448,15 @@ public class Nd4j {
         //BaseDataBuffer.write(...) doesn't know about strides etc, so dup (or equiv. strategy) is necessary here
         //Furthermore, because we only want to save the *actual* data for a view (not the full data), the shape info
         // (mainly strides, offset, element-wise stride) may be different in the duped array vs. the view array
-        if (arr.isView())
+        //Whenever possible, view is streamed along its strides instead, producing the same output as dup would
+        if (arr.isView()) {
+            if (StreamingSerde.canStream(arr)) {
+                StreamingSerde.writeView(arr, dataOutputStream);
+                return;
+            }
+
             arr = arr.dup();
+        }
 
         arr.shapeInfoDataBuffer().write(dataOutputStream);
         arr.data().write(dataOutputStream);
@@ -2460,6 +2469,12 @@ public class Nd4j {
      * @throws IOException
      */
     public static void saveBinary(INDArray arr, File saveTo) throws IOException {
+        if (BinarySerde.isSupported(arr.data().dataType())) {
+            BinarySerde.writeArrayToDisk(arr, saveTo);
+            return;
+        }
+
+        // legacy stream format, for data types binary format can't hold
         BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(saveTo));
         DataOutputStream dos = new DataOutputStream(bos);
         Nd4j.write(arr, dos);
@@ -2476,6 +2491,10 @@ public class Nd4j {
      * @throws IOException
      */
     public static INDArray readBinary(File read) throws IOException {
+        if (BinarySerde.isBinaryFormat(read))
+            return BinarySerde.readFromDisk(read);
+
+        // legacy stream format
         BufferedInputStream bis = new BufferedInputStream(new FileInputStream(read));
         DataInputStream dis = new DataInputStream(bis);
         INDArray ret = Nd4j.read(dis);
@@ -2484,6 +2503,24 @@ public class Nd4j {
     }
 
 
+    /**
+     * Map a binary ndarray from the given file into memory, without copying its data.
+     * Changes to the returned array are never written back to the file.
+     *
+     * Files saved in legacy stream format are read via {@link #readBinary(File)}
+     *
+     * @param file the file to map
+     * @return the mapped ndarray
+     * @throws IOException
+     */
+    public static INDArray mmapBinary(File file) throws IOException {
+        if (BinarySerde.isBinaryFormat(file))
+            return BinarySerde.mapFromDisk(file);
+
+        return readBinary(file);
+    }
+
+
     /**
      * Clear nans from an ndarray
      *
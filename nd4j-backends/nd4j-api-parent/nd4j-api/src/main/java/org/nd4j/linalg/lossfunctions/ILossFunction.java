@@ -63,7 +63,8 @@ public interface ILossFunction extends Serializable {
 
     /**
      * Compute both the score (loss function value) and gradient. This is equivalent to calling {@link #computeScore(INDArray, INDArray, IActivation, INDArray, boolean)}
-     * and {@link #computeGradient(INDArray, INDArray, IActivation, INDArray)} individually
+     * and {@link #computeGradient(INDArray, INDArray, IActivation, INDArray)} individually, but implementations
+     * may apply the activation function only once, and share intermediate arrays between score and gradient
      *
      * @param labels       Label/expected output
      * @param preOutput    Output of the model (neural network)
@@ -153,10 +153,60 @@ public class LossBinaryXENT implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (activationFn instanceof ActivationSoftmax) {
+            // score uses LogSoftMax here, so there's nothing to share with gradient
+            return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
+                            computeGradient(labels, preOutput, activationFn, mask));
+        }
+
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
+
+        INDArray output = activationFn.getActivation(preOutput.dup(), true);
+        INDArray oneMinusOutput = output.rsub(1);
+
+        // dL/da = (output - labels) / (output * (1-output))
+        INDArray dLda = output.sub(labels).divi(output.mul(oneMinusOutput));
+
+        INDArray scoreArr = Transforms.log(output, false).muli(labels);
+        Transforms.log(oneMinusOutput, false);
+        oneMinusOutput.muli(labels.rsub(1));
+        scoreArr.addi(oneMinusOutput);
+
+        if (weights != null) {
+            scoreArr.muliRowVector(weights);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+
+            if (LossUtil.isPerOutputMasking(dLda, mask))
+                LossUtil.applyMask(dLda, mask);
+        }
+
+        double score = -scoreArr.sumNumber().doubleValue();
+        if (average) {
+            score /= scoreArr.size(0);
+        }
+
+        INDArray grad = activationFn.backprop(preOutput, dLda).getFirst();
+        if (weights != null) {
+            grad.muliRowVector(weights);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(grad, mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, grad);
     }
 
 
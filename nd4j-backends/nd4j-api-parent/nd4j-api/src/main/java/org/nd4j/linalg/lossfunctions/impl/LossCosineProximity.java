@@ -111,10 +111,54 @@ public class LossCosineProximity implements ILossFunction {
     @Override
     public org.apache.commons.math3.util.Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+        if (mask != null && !mask.isColumnVector()) {
+            throw new UnsupportedOperationException("Expected column vector mask array for LossCosineProximity."
+                            + " Got mask array with shape " + Arrays.toString(mask.shape())
+                            + "; per-output masking is not supported for LossCosineProximity");
+        }
+
+        // activation is applied once, and both score and gradient are derived from the same norms and dot products
+        INDArray yhat = activationFn.getActivation(preOutput.dup(), true);
+        INDArray yL2norm = labels.norm2(1);
+
+        INDArray yhatL2norm = yhat.norm2(1);
+        INDArray yhatL2normSq = yhatL2norm.mul(yhatL2norm);
+
+        INDArray yhatDotyL1norm = labels.mul(yhat).sum(1);
+
+        INDArray dLda = labels.mulColumnVector(yhatL2normSq);
+        dLda.subi(yhat.mulColumnVector(yhatDotyL1norm));
+
+        yL2norm = Transforms.max(yL2norm, Nd4j.EPS_THRESHOLD, false);
+        yhatL2norm = Transforms.max(yhatL2norm, Nd4j.EPS_THRESHOLD, false);
+        yhatL2normSq = Transforms.max(yhatL2normSq, Nd4j.EPS_THRESHOLD, false);
+
+        dLda.diviColumnVector(yL2norm);
+        dLda.diviColumnVector(yhatL2norm.mul(yhatL2normSq));
+        dLda.muli(-1);
+
+        // score is -(y.yhat) / (||y|| * ||yhat||) per example
+        INDArray scoreArr = yhatDotyL1norm.divi(yhatL2norm).divi(yL2norm);
+        if (mask != null) {
+            scoreArr.muli(mask);
+        }
+
+        double score = -scoreArr.sumNumber().doubleValue();
+        if (average)
+            score /= scoreArr.size(0);
+
+        INDArray gradients = activationFn.backprop(preOutput, dLda).getFirst();
+        if (mask != null) {
+            gradients.muliColumnVector(mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, gradients);
     }
 
     @Override
@@ -93,10 +93,41 @@ public class LossKLD implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+        INDArray output = activationFn.getActivation(preOutput.dup(), true);
+
+        // gradient uses output before clipping, so it goes first
+        INDArray dLda = labels.div(output).negi();
+
+        // Clip output and labels to be between Nd4j.EPS_THREsHOLD and 1, i.e. a valid non-zero probability
+        output = Transforms.min(Transforms.max(output, Nd4j.EPS_THRESHOLD, false), 1, false);
+        INDArray clippedLabels = Transforms.min(Transforms.max(labels, Nd4j.EPS_THRESHOLD, true), 1, false);
+
+        INDArray scoreArr = Transforms.log(output.rdivi(clippedLabels), false).muli(clippedLabels);
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+
+            if (LossUtil.isPerOutputMasking(dLda, mask))
+                LossUtil.applyMask(dLda, mask);
+        }
+
+        double score = scoreArr.sumNumber().doubleValue();
+        if (average) {
+            score /= scoreArr.size(0);
+        }
+
+        INDArray grad = activationFn.backprop(preOutput, dLda).getFirst();
+        if (mask != null) {
+            LossUtil.applyMask(grad, mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, grad);
     }
 
 
@@ -133,10 +133,47 @@ public class LossL1 implements ILossFunction {
     @Override
     public org.apache.commons.math3.util.Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
+
+        // activation is applied once, and both score and gradient are derived from the same difference array
+        INDArray output = activationFn.getActivation(preOutput.dup(), true);
+        INDArray diff = output.subi(labels);
+
+        // dL/da = sign(output - labels), score is |output - labels|
+        INDArray dLda = Nd4j.getExecutioner().execAndReturn(new Sign(diff.dup()));
+        INDArray scoreArr = Nd4j.getExecutioner().execAndReturn(Nd4j.getOpFactory().createTransform("abs", diff));
+
+        if (weights != null) {
+            scoreArr.muliRowVector(weights);
+            dLda.muliRowVector(weights);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+
+            if (LossUtil.isPerOutputMasking(dLda, mask))
+                LossUtil.applyMask(dLda, mask);
+        }
+
+        double score = scoreArr.sumNumber().doubleValue();
+        if (average)
+            score /= scoreArr.size(0);
+
+        INDArray gradients = activationFn.backprop(preOutput, dLda).getFirst();
+        if (mask != null) {
+            LossUtil.applyMask(gradients, mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, gradients);
     }
 
     @Override
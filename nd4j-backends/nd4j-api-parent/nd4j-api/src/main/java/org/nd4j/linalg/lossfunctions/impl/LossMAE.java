@@ -1,6 +1,7 @@
 package org.nd4j.linalg.lossfunctions.impl;
 
 import lombok.EqualsAndHashCode;
+import org.apache.commons.math3.util.Pair;
 import org.nd4j.linalg.activations.IActivation;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
@@ -51,6 +52,13 @@ public class LossMAE extends LossL1 {
         return gradients;
     }
 
+    @Override
+    public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
+                    INDArray mask, boolean average) {
+        Pair<Double, INDArray> pair = super.computeGradientAndScore(labels, preOutput, activationFn, mask, average);
+        return new Pair<>(pair.getFirst() / labels.size(1), pair.getSecond().divi(labels.size(1)));
+    }
+
     @Override
     public String toString() {
         if (weights == null)
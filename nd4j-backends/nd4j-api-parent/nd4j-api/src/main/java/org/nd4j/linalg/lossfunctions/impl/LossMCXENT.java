@@ -164,10 +164,63 @@ public class LossMCXENT implements ILossFunction {
     @Override
     public Pair<Double, INDArray> computeGradientAndScore(INDArray labels, INDArray preOutput, IActivation activationFn,
                     INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+        if (weights != null && weights.length() != preOutput.size(1)) {
+            throw new IllegalStateException("Weights vector (length " + weights.length()
+                            + ") does not match output.size(1)=" + preOutput.size(1));
+        }
+
+        INDArray scoreArr;
+        INDArray grad;
+        if (activationFn instanceof ActivationSoftmax) {
+            if (mask != null && LossUtil.isPerOutputMasking(preOutput, mask)) {
+                throw new UnsupportedOperationException("Per output masking for MCXENT + softmax: not supported");
+            }
+
+            // softmax output is derived from LogSoftMax, so activation is applied only once
+            INDArray logsoftmax = Nd4j.getExecutioner().execAndReturn(new LogSoftMax(preOutput.dup()));
+            INDArray output = Transforms.exp(logsoftmax, true);
+            scoreArr = logsoftmax.muli(labels);
+
+            if (weights != null) {
+                INDArray temp = labels.mulRowVector(weights);
+                INDArray col = temp.sum(1);
+                grad = output.muliColumnVector(col).subi(temp);
+            } else {
+                grad = output.subi(labels);
+            }
+        } else {
+            INDArray output = activationFn.getActivation(preOutput.dup(), true);
+            scoreArr = Transforms.log(output, true).muli(labels);
+
+            INDArray dLda = output.rdivi(labels).negi();
+            grad = activationFn.backprop(preOutput, dLda).getFirst();
+
+            if (weights != null) {
+                grad.muliRowVector(weights);
+            }
+        }
+
+        if (weights != null) {
+            scoreArr.muliRowVector(weights);
+        }
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+            LossUtil.applyMask(grad, mask);
+        }
+
+        double score = -scoreArr.sumNumber().doubleValue();
+        if (average) {
+            score /= scoreArr.size(0);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, grad);
     }
 
 
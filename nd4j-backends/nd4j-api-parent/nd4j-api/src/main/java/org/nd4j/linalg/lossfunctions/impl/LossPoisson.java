@@ -88,11 +88,41 @@ public class LossPoisson implements ILossFunction {
     @Override
     public org.apache.commons.math3.util.Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
-        //Yes - will implement in round two. Just want to get done now.
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+
+        // activation is applied once, and both score and gradient are derived from it
+        INDArray yHat = activationFn.getActivation(preOutput.dup(), true);
+
+        // dL/da = 1 - y/yhat
+        INDArray dLda = labels.div(yHat).rsubi(1);
+
+        // score is yhat - y * log(yhat)
+        INDArray scoreArr = Transforms.log(yHat);
+        scoreArr.muli(labels);
+        scoreArr = yHat.subi(scoreArr);
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+
+            if (LossUtil.isPerOutputMasking(dLda, mask))
+                LossUtil.applyMask(dLda, mask);
+        }
+
+        double score = scoreArr.sumNumber().doubleValue();
+        if (average)
+            score /= scoreArr.size(0);
+
+        INDArray gradients = activationFn.backprop(preOutput, dLda).getFirst();
+        if (mask != null) {
+            LossUtil.applyMask(gradients, mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, gradients);
     }
 
     @Override
@@ -94,10 +94,41 @@ public class LossSquaredHinge implements ILossFunction {
     @Override
     public org.apache.commons.math3.util.Pair<Double, INDArray> computeGradientAndScore(INDArray labels,
                     INDArray preOutput, IActivation activationFn, INDArray mask, boolean average) {
-        //TODO: probably a more efficient way to do this...
+        if (labels.size(1) != preOutput.size(1)) {
+            throw new IllegalArgumentException("Labels array numColumns (size(1) = " + labels.size(1)
+                            + ") does not match output layer" + " number of outputs (nOut = " + preOutput.size(1)
+                            + ") ");
+
+        }
+
+        // activation is applied once, and both score and gradient are derived from max(0, 1-y*yhat)
+        INDArray output = activationFn.getActivation(preOutput.dup(), true);
+        INDArray scoreArr = output.muli(labels).rsubi(1.0); //1 - y*yhat
+
+        if (mask != null) {
+            LossUtil.applyMask(scoreArr, mask);
+        }
+
+        BooleanIndexing.replaceWhere(scoreArr, 0.0, Conditions.lessThan(0.0)); //max(0,1-y*yhat)
+
+        // dL/da = -2 * y * max(0, 1-y*yhat)
+        INDArray dLda = labels.mul(-2).muli(scoreArr);
+
+        scoreArr.muli(scoreArr);
+        double score = scoreArr.sumNumber().doubleValue();
+        if (average)
+            score /= scoreArr.size(0);
+
+        if (mask != null && LossUtil.isPerOutputMasking(dLda, mask)) {
+            LossUtil.applyMask(dLda, mask);
+        }
+
+        INDArray gradients = activationFn.backprop(preOutput, dLda).getFirst();
+        if (mask != null) {
+            LossUtil.applyMask(gradients, mask);
+        }
 
-        return new Pair<>(computeScore(labels, preOutput, activationFn, mask, average),
-                        computeGradient(labels, preOutput, activationFn, mask));
+        return new Pair<>(score, gradients);
     }
 
     @Override
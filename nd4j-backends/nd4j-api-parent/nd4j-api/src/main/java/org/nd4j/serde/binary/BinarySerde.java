@@ -0,0 +1,480 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.indexer.DoubleRawIndexer;
+import org.bytedeco.javacpp.indexer.FloatRawIndexer;
+import org.bytedeco.javacpp.indexer.IntRawIndexer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.CompressedDataBuffer;
+import org.nd4j.linalg.compression.CompressionDescriptor;
+import org.nd4j.linalg.compression.CompressionType;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Binary on-disk format for INDArrays, suitable for memory mapping.
+ *
+ * File layout (everything is little-endian):
+ * <pre>
+ *  0: magic bytes, see {@link #MAGIC}
+ *  8: int format version
+ * 12: int header length, which is also offset of the data. Always multiple of {@link #ALIGNMENT}
+ * 16: int data type ordinal
+ * 20: int shape info length
+ * 24: long data length in bytes
+ * 32: long number of elements
+ * 40: long original length in bytes (compressed arrays only)
+ * 48: long original element size (compressed arrays only)
+ * 56: int compression type ordinal, or -1 for uncompressed arrays
+ * 60: short length of compression algorithm name, followed by UTF-8 name itself
+ *   : shape info ints
+ *   : padding up to header length
+ *   : raw data
+ * </pre>
+ *
+ * Since data is aligned and stored in little-endian order, on little-endian hosts
+ * uncompressed arrays can be mapped into memory without any copies, see {@link #mapFromDisk(File)}.
+ */
+@Slf4j
+public class BinarySerde {
+    public static final byte[] MAGIC = new byte[] {(byte) 0x93, 'N', 'D', '4', 'J', 'B', 'I', 'N'};
+    public static final int VERSION = 1;
+    public static final int ALIGNMENT = 64;
+
+    // fixed part of the header, before compression algorithm name
+    private static final int FIXED_HEADER_LENGTH = 62;
+    // maximal size of single ByteBuffer window used for file IO
+    private static final long CHUNK_SIZE = 64L * 1024L * 1024L;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BinarySerde() {}
+
+    /**
+     * This method returns true if given file starts with magic bytes of this format
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static boolean isBinaryFormat(@NonNull File file) throws IOException {
+        if (file.length() < MAGIC.length)
+            return false;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] magic = new byte[MAGIC.length];
+            raf.readFully(magic);
+            return Arrays.equals(MAGIC, magic);
+        }
+    }
+
+    /**
+     * This method returns true if arrays of given data type can be stored in binary format.
+     * Everything else (i.e. HALF) should be saved in legacy stream format.
+     *
+     * @param type
+     * @return
+     */
+    public static boolean isSupported(@NonNull DataBuffer.Type type) {
+        switch (type) {
+            case DOUBLE:
+            case FLOAT:
+            case INT:
+            case COMPRESSED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * This method saves given INDArray to the file, using binary format described above
+     *
+     * @param arr
+     * @param file
+     * @throws IOException
+     */
+    public static void writeArrayToDisk(@NonNull INDArray arr, @NonNull File file) throws IOException {
+        if (!isSupported(arr.data().dataType()))
+            throw new ND4JIllegalStateException("Data type [" + arr.data().dataType()
+                            + "] isn't supported by binary format");
+
+        // views are saved as the actual data only, streamed along their strides when possible
+        boolean stream = arr.isView() && StreamingSerde.canStream(arr);
+        if (arr.isView() && !stream)
+            arr = arr.dup();
+
+        DataBuffer data = arr.data();
+        int[] shapeInfo = stream
+                        ? Nd4j.getShapeInfoProvider().createShapeInformation(arr.shape(), arr.ordering()).asInt()
+                        : arr.shapeInfoDataBuffer().asInt();
+
+        Header header = new Header();
+        header.shapeInfo = shapeInfo;
+        header.type = data.dataType();
+        if (arr.isCompressed()) {
+            CompressionDescriptor descriptor = ((CompressedDataBuffer) data).getCompressionDescriptor();
+            header.dataLength = descriptor.getCompressedLength();
+            header.numberOfElements = descriptor.getNumberOfElements();
+            header.originalLength = descriptor.getOriginalLength();
+            header.originalElementSize = descriptor.getOriginalElementSize();
+            header.compressionType = descriptor.getCompressionType();
+            header.compressionAlgorithm = descriptor.getCompressionAlgorithm();
+        } else {
+            header.dataLength = arr.length() * (long) data.getElementSize();
+            header.numberOfElements = arr.length();
+        }
+
+        ByteBuffer headerBuffer = header.toByteBuffer();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            FileChannel channel = raf.getChannel();
+            while (headerBuffer.hasRemaining())
+                channel.write(headerBuffer);
+
+            if (stream) {
+                final FileChannel target = channel;
+                ByteBuffer buffer =
+                                ByteBuffer.allocateDirect(StreamingSerde.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                StreamingSerde.walk(arr, arr.ordering(), buffer, new StreamingSerde.ChunkConsumer() {
+                    @Override
+                    public void consume(ByteBuffer chunk) throws IOException {
+                        while (chunk.hasRemaining())
+                            target.write(chunk);
+                    }
+                });
+                return;
+            }
+
+            // compressed data is opaque, so it never gets swapped
+            int elementSize = arr.isCompressed() ? 1 : data.getElementSize();
+            writeFully(channel, headerBuffer.limit(), data.addressPointer(), header.dataLength, elementSize);
+        }
+    }
+
+    /**
+     * This method reads INDArray from the file, into regular DataBuffer
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static INDArray readFromDisk(@NonNull File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            Header header = Header.read(channel);
+
+            DataBuffer data;
+            if (header.isCompressed()) {
+                BytePointer pointer = new BytePointer(header.dataLength);
+                readFully(channel, header.headerLength, pointer, header.dataLength, 1);
+                data = decompress(header, pointer);
+            } else {
+                data = createBuffer(header.type, header.numberOfElements);
+                readFully(channel, header.headerLength, data.addressPointer(), header.dataLength,
+                                data.getElementSize());
+                data = toGlobalType(data);
+            }
+
+            return Nd4j.createArrayFromShapeBuffer(data, Nd4j.createBufferDetached(header.shapeInfo));
+        }
+    }
+
+    /**
+     * This method maps INDArray stored in file directly into memory.
+     *
+     * For uncompressed arrays of the global data type, DataBuffer of the result is backed by the mapped file itself,
+     * so nothing gets copied, and pages are loaded lazily by OS. Mapping is private, so in-place changes to the
+     * resulting array are never written back to the file.
+     *
+     * PLEASE NOTE: compressed arrays, arrays of other data types, read-only files and data regions larger then 2GB
+     * can't be mapped, so they are read via {@link #readFromDisk(File)} instead.
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static INDArray mapFromDisk(@NonNull File file) throws IOException {
+        // private mapping requires channel opened for writing, even though nothing is ever written back
+        if (!file.canWrite()) {
+            log.warn("File [{}] is read-only and can't be mapped into memory, reading it instead",
+                            file.getAbsolutePath());
+            return readFromDisk(file);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            Header header = Header.read(channel);
+
+            if (header.isCompressed() || header.type != Nd4j.dataType() || header.dataLength > Integer.MAX_VALUE) {
+                log.warn("Array in [{}] can't be mapped into memory, reading it instead", file.getAbsolutePath());
+                return readFromDisk(file);
+            }
+
+            MappedByteBuffer mapped =
+                            channel.map(FileChannel.MapMode.PRIVATE, header.headerLength, header.dataLength);
+            mapped.order(ByteOrder.nativeOrder());
+            if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN)
+                swapBytes(mapped, Nd4j.sizeOfDataType(header.type));
+
+            // javacpp pointer keeps reference to the mapped buffer, so mapping stays alive as long as DataBuffer does
+            DataBuffer data = wrap(mapped, header.type, header.numberOfElements);
+
+            return Nd4j.createArrayFromShapeBuffer(data, Nd4j.createBufferDetached(header.shapeInfo));
+        }
+    }
+
+    private static DataBuffer wrap(ByteBuffer buffer, DataBuffer.Type type, long length) {
+        switch (type) {
+            case DOUBLE: {
+                DoublePointer pointer = new DoublePointer(buffer.asDoubleBuffer());
+                return Nd4j.createBuffer(pointer, type, length, DoubleRawIndexer.create(pointer));
+            }
+            case FLOAT: {
+                FloatPointer pointer = new FloatPointer(buffer.asFloatBuffer());
+                return Nd4j.createBuffer(pointer, type, length, FloatRawIndexer.create(pointer));
+            }
+            case INT: {
+                IntPointer pointer = new IntPointer(buffer.asIntBuffer());
+                return Nd4j.createBuffer(pointer, type, length, IntRawIndexer.create(pointer));
+            }
+            default:
+                throw new ND4JIllegalStateException("Unsupported data type: [" + type + "]");
+        }
+    }
+
+    private static DataBuffer createBuffer(DataBuffer.Type type, long length) {
+        switch (type) {
+            case DOUBLE: {
+                DoublePointer pointer = new DoublePointer(length);
+                return Nd4j.createBuffer(pointer, type, length, DoubleRawIndexer.create(pointer));
+            }
+            case FLOAT: {
+                FloatPointer pointer = new FloatPointer(length);
+                return Nd4j.createBuffer(pointer, type, length, FloatRawIndexer.create(pointer));
+            }
+            case INT: {
+                IntPointer pointer = new IntPointer(length);
+                return Nd4j.createBuffer(pointer, type, length, IntRawIndexer.create(pointer));
+            }
+            default:
+                throw new ND4JIllegalStateException("Unsupported data type: [" + type + "]");
+        }
+    }
+
+    /**
+     * Same as legacy stream format, we convert floating point data to the global data type
+     */
+    private static DataBuffer toGlobalType(DataBuffer buffer) {
+        if (buffer.dataType() == Nd4j.dataType() || buffer.dataType() == DataBuffer.Type.INT)
+            return buffer;
+
+        log.warn("Loading an array with type different from what is set globally. Expect precision loss");
+        DataBuffer result = Nd4j.createBuffer(buffer.length());
+        for (long e = 0; e < buffer.length(); e++)
+            result.put(e, buffer.getDouble(e));
+
+        return result;
+    }
+
+    private static DataBuffer decompress(Header header, Pointer pointer) {
+        CompressionDescriptor descriptor = new CompressionDescriptor();
+        descriptor.setCompressedLength(header.dataLength);
+        descriptor.setCompressionAlgorithm(header.compressionAlgorithm);
+        descriptor.setCompressionType(header.compressionType);
+        descriptor.setOriginalLength(header.originalLength);
+        descriptor.setOriginalElementSize(header.originalElementSize);
+        descriptor.setNumberOfElements(header.numberOfElements);
+
+        return Nd4j.getCompressor().decompress(new CompressedDataBuffer(pointer, descriptor));
+    }
+
+    /**
+     * This method returns ByteBuffer window over given memory region
+     */
+    static ByteBuffer window(Pointer pointer, long offset, long length) {
+        BytePointer bytes = new BytePointer(pointer);
+        bytes.capacity(offset + length);
+        return bytes.position(offset).limit(offset + length).asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    private static void writeFully(FileChannel channel, long position, Pointer pointer, long length,
+                    int elementSize) throws IOException {
+        boolean swap = elementSize > 1 && ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN;
+        for (long done = 0; done < length;) {
+            long chunk = Math.min(CHUNK_SIZE, length - done);
+            ByteBuffer buffer = window(pointer, done, chunk);
+            if (swap) {
+                ByteBuffer swapped = ByteBuffer.allocate((int) chunk).order(ByteOrder.nativeOrder());
+                swapped.put(buffer);
+                swapped.flip();
+                swapBytes(swapped, elementSize);
+                buffer = swapped;
+            }
+
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+
+            done += chunk;
+        }
+    }
+
+    private static void readFully(FileChannel channel, long position, Pointer pointer, long length, int elementSize)
+                    throws IOException {
+        boolean swap = elementSize > 1 && ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN;
+        for (long done = 0; done < length;) {
+            long chunk = Math.min(CHUNK_SIZE, length - done);
+            ByteBuffer buffer = window(pointer, done, chunk);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0)
+                    throw new ND4JIllegalStateException("Unexpected end of file: data is truncated");
+                position += read;
+            }
+
+            if (swap) {
+                buffer.rewind();
+                swapBytes(buffer, elementSize);
+            }
+
+            done += chunk;
+        }
+    }
+
+    /**
+     * In-place byte swap of all elements within buffer
+     */
+    private static void swapBytes(ByteBuffer buffer, int elementSize) {
+        ByteBuffer bb = buffer.duplicate().order(ByteOrder.nativeOrder());
+        switch (elementSize) {
+            case 2: {
+                java.nio.ShortBuffer b = bb.asShortBuffer();
+                for (int e = 0; e < b.limit(); e++)
+                    b.put(e, Short.reverseBytes(b.get(e)));
+                break;
+            }
+            case 4: {
+                java.nio.IntBuffer b = bb.asIntBuffer();
+                for (int e = 0; e < b.limit(); e++)
+                    b.put(e, Integer.reverseBytes(b.get(e)));
+                break;
+            }
+            case 8: {
+                java.nio.LongBuffer b = bb.asLongBuffer();
+                for (int e = 0; e < b.limit(); e++)
+                    b.put(e, Long.reverseBytes(b.get(e)));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static class Header {
+        private int headerLength;
+        private DataBuffer.Type type;
+        private int[] shapeInfo;
+        private long dataLength;
+        private long numberOfElements;
+        private long originalLength;
+        private long originalElementSize;
+        private CompressionType compressionType;
+        private String compressionAlgorithm;
+
+        private boolean isCompressed() {
+            return type == DataBuffer.Type.COMPRESSED;
+        }
+
+        private ByteBuffer toByteBuffer() {
+            byte[] algorithm = compressionAlgorithm == null ? new byte[0] : compressionAlgorithm.getBytes(UTF8);
+            int length = FIXED_HEADER_LENGTH + algorithm.length + shapeInfo.length * 4;
+            headerLength = (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+
+            ByteBuffer buffer = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(headerLength);
+            buffer.putInt(type.ordinal());
+            buffer.putInt(shapeInfo.length);
+            buffer.putLong(dataLength);
+            buffer.putLong(numberOfElements);
+            buffer.putLong(originalLength);
+            buffer.putLong(originalElementSize);
+            buffer.putInt(compressionType == null ? -1 : compressionType.ordinal());
+            buffer.putShort((short) algorithm.length);
+            buffer.put(algorithm);
+            for (int e = 0; e < shapeInfo.length; e++)
+                buffer.putInt(shapeInfo[e]);
+
+            buffer.rewind();
+            return buffer;
+        }
+
+        private static Header read(FileChannel channel) throws IOException {
+            ByteBuffer prefix = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, prefix, 0);
+
+            byte[] magic = new byte[MAGIC.length];
+            prefix.get(magic);
+            if (!Arrays.equals(MAGIC, magic))
+                throw new ND4JIllegalStateException("File doesn't contain INDArray in binary format");
+
+            int version = prefix.getInt();
+            if (version > VERSION)
+                throw new ND4JIllegalStateException("Unsupported binary format version: [" + version + "]");
+
+            Header header = new Header();
+            header.headerLength = prefix.getInt();
+
+            ByteBuffer buffer = ByteBuffer.allocate(header.headerLength).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer, 0);
+            buffer.position(16);
+
+            header.type = DataBuffer.Type.values()[buffer.getInt()];
+            int shapeInfoLength = buffer.getInt();
+            header.dataLength = buffer.getLong();
+            header.numberOfElements = buffer.getLong();
+            header.originalLength = buffer.getLong();
+            header.originalElementSize = buffer.getLong();
+            int compressionType = buffer.getInt();
+            header.compressionType = compressionType < 0 ? null : CompressionType.values()[compressionType];
+            byte[] algorithm = new byte[buffer.getShort()];
+            buffer.get(algorithm);
+            header.compressionAlgorithm = algorithm.length == 0 ? null : new String(algorithm, UTF8);
+
+            header.shapeInfo = new int[shapeInfoLength];
+            for (int e = 0; e < shapeInfoLength; e++)
+                header.shapeInfo[e] = buffer.getInt();
+
+            return header;
+        }
+
+        private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0)
+                    throw new ND4JIllegalStateException("Unexpected end of file: header is truncated");
+                position += read;
+            }
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.Pointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.util.AllocUtil;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Serialization of INDArray views without intermediate dup().
+ *
+ * View is walked along its strides, and contiguous runs of elements are copied into a small reusable buffer,
+ * which is flushed to the consumer once it's full. Output is exactly the same as for the dup() of the view.
+ */
+public class StreamingSerde {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private StreamingSerde() {}
+
+    /**
+     * This interface describes receiver of the serialized data.
+     * Chunk is valid only within the call, since its buffer gets reused afterwards.
+     */
+    public interface ChunkConsumer {
+        void consume(ByteBuffer chunk) throws IOException;
+    }
+
+    /**
+     * This method checks, if given array can be serialized without dup()
+     *
+     * @param arr
+     * @return
+     */
+    public static boolean canStream(@NonNull INDArray arr) {
+        if (arr.isCompressed() || arr instanceof IComplexNDArray)
+            return false;
+
+        // dup() always produces array of the global data type, so we only stream arrays that don't need conversion
+        DataBuffer.Type type = arr.data().dataType();
+        return type == Nd4j.dataType() && (type == DataBuffer.Type.FLOAT || type == DataBuffer.Type.DOUBLE);
+    }
+
+    /**
+     * This method writes given view to the stream, in the same format as Nd4j.write(arr.dup(), out) does
+     *
+     * @param arr
+     * @param out
+     * @throws IOException
+     */
+    public static void writeView(@NonNull INDArray arr, @NonNull final DataOutputStream out) throws IOException {
+        if (arr.length() >= Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Length of data buffer can not be >= Integer.MAX_VALUE on output");
+
+        // dup() returns array in global order
+        char order = Nd4j.order();
+        Nd4j.getShapeInfoProvider().createShapeInformation(arr.shape(), order).write(out);
+
+        out.writeUTF(AllocUtil.getAllocationModeFromContext().name());
+        out.writeInt(arr.length());
+        out.writeUTF(arr.data().dataType().name());
+
+        // DataOutputStream is big-endian
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        walk(arr, order, buffer, new ChunkConsumer() {
+            @Override
+            public void consume(ByteBuffer chunk) throws IOException {
+                out.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+            }
+        });
+    }
+
+    /**
+     * This method walks all elements of the array in the given order, and passes them to the consumer,
+     * using provided buffer as intermediate storage. Byte order of the output is byte order of the buffer.
+     *
+     * @param arr
+     * @param order
+     * @param buffer
+     * @param consumer
+     * @throws IOException
+     */
+    public static void walk(@NonNull INDArray arr, char order, @NonNull ByteBuffer buffer,
+                    @NonNull ChunkConsumer consumer) throws IOException {
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        DataBuffer data = arr.data();
+        DataBuffer.Type type = data.dataType();
+        int elementSize = data.getElementSize();
+
+        int[] shape = arr.shape();
+        int[] stride = arr.stride();
+        int rank = shape.length;
+
+        // innermost dimension is walked as a single run, the rest of dimensions are walked as odometer
+        int inner = order == 'c' ? rank - 1 : 0;
+        int runLength = shape[inner];
+        long runStride = stride[inner];
+        boolean contiguous = runLength == 1 || runStride == 1;
+
+        Pointer pointer = contiguous ? data.addressPointer() : null;
+
+        int[] idx = new int[rank];
+        long runs = arr.length() / runLength;
+        long base = 0;
+
+        buffer.clear();
+        for (long r = 0; r < runs; r++) {
+            if (contiguous) {
+                copyRun(pointer, type, elementSize, base, runLength, buffer, consumer);
+            } else {
+                for (int e = 0; e < runLength; e++) {
+                    if (buffer.remaining() < elementSize)
+                        flush(buffer, consumer);
+
+                    if (type == DataBuffer.Type.DOUBLE)
+                        buffer.putDouble(data.getDouble(base + e * runStride));
+                    else
+                        buffer.putFloat(data.getFloat(base + e * runStride));
+                }
+            }
+
+            // advancing to the next run
+            for (int i = 0; i < rank; i++) {
+                int k = order == 'c' ? rank - 1 - i : i;
+                if (k == inner)
+                    continue;
+
+                idx[k]++;
+                base += stride[k];
+                if (idx[k] < shape[k])
+                    break;
+
+                base -= (long) stride[k] * shape[k];
+                idx[k] = 0;
+            }
+        }
+
+        if (buffer.position() > 0)
+            flush(buffer, consumer);
+    }
+
+    private static void copyRun(Pointer pointer, DataBuffer.Type type, int elementSize, long offset, int length,
+                    ByteBuffer buffer, ChunkConsumer consumer) throws IOException {
+        for (int done = 0; done < length;) {
+            int count = Math.min(length - done, buffer.remaining() / elementSize);
+            if (count == 0) {
+                flush(buffer, consumer);
+                continue;
+            }
+
+            ByteBuffer src = BinarySerde.window(pointer, (offset + done) * elementSize, (long) count * elementSize);
+            ByteBuffer dst = buffer.slice().order(buffer.order());
+            if (type == DataBuffer.Type.DOUBLE)
+                dst.asDoubleBuffer().put(src.asDoubleBuffer());
+            else
+                dst.asFloatBuffer().put(src.asFloatBuffer());
+
+            buffer.position(buffer.position() + count * elementSize);
+            done += count;
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, ChunkConsumer consumer) throws IOException {
+        buffer.flip();
+        consumer.consume(buffer);
+        buffer.clear();
+    }
+}
@@ -75,4 +75,24 @@ public class BasicTADManager implements TADManager {
     public void purgeBuffers() {
         // no-op
     }
+
+    @Override
+    public long getCachedBytes() {
+        return 0L;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return 0L;
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return 0L;
+    }
+
+    @Override
+    public long getCacheEvictions() {
+        return 0L;
+    }
 }
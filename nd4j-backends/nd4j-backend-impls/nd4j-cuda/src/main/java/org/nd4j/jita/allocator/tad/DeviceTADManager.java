@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author raver119@gmail.com
@@ -25,6 +26,10 @@ public class DeviceTADManager extends BasicTADManager {
     protected List<Map<TadDescriptor, Pair<DataBuffer, DataBuffer>>> tadCache = new ArrayList<>();
     private Semaphore lock = new Semaphore(1);
 
+    private AtomicLong cachedBytes = new AtomicLong(0);
+    private AtomicLong cacheHit = new AtomicLong(0);
+    private AtomicLong cacheMiss = new AtomicLong(0);
+
     public DeviceTADManager() {
         int numDevices = Nd4j.getAffinityManager().getNumberOfDevices();
 
@@ -49,9 +54,36 @@ public class DeviceTADManager extends BasicTADManager {
             tadCache.add(i, new ConcurrentHashMap<TadDescriptor, Pair<DataBuffer, DataBuffer>>());
         }
 
+        cachedBytes.set(0);
+
         super.purgeBuffers();
     }
 
+    @Override
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHit.get();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMiss.get();
+    }
+
+    /**
+     * Device TAD cache is never evicted, TADs stay in constant memory until purgeBuffers() is called
+     *
+     * @return always 0
+     */
+    @Override
+    public long getCacheEvictions() {
+        return 0L;
+    }
+
     @Override
     public Pair<DataBuffer, DataBuffer> getTADOnlyShapeInfo(INDArray array, int[] dimension) {
         /*
@@ -103,6 +135,13 @@ public class DeviceTADManager extends BasicTADManager {
             // And we just need to replace DevicePointer with constant pointer
             tadCache.get(deviceId).put(descriptor, buffers);
             log.trace("Using TAD from cache...");
+
+            cacheMiss.incrementAndGet();
+            cachedBytes.addAndGet(buffers.getFirst().length() * buffers.getFirst().getElementSize());
+            if (buffers.getSecond() != null)
+                cachedBytes.addAndGet(buffers.getSecond().length() * buffers.getSecond().getElementSize());
+        } else {
+            cacheHit.incrementAndGet();
         }
 
         return tadCache.get(deviceId).get(descriptor);
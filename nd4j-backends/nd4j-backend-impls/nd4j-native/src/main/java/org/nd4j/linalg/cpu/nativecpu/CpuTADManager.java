@@ -1,5 +1,10 @@
 package org.nd4j.linalg.cpu.nativecpu;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import lombok.NonNull;
 import org.apache.commons.math3.util.Pair;
 import org.bytedeco.javacpp.IntPointer;
@@ -12,22 +17,67 @@ import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.cache.TadDescriptor;
 import org.nd4j.nativeblas.NativeOps;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * TADManager implementation with TAD cache bounded by size in bytes.
+ *
+ * Since offsets buffer length is array.length() / tadLength, number of entries alone says nothing about memory used,
+ * so each entry is weighted by its shape + offsets buffers size. Least recently used TADs are evicted once
+ * {@link #CACHE_BYTES} limit is reached.
+ *
+ * Guava enforces maximumWeight per segment, so cache is built with concurrencyLevel 1 to keep the whole byte limit
+ * available to a single segment. Reads stay lock-free, only TAD creation is serialized.
+ *
+ * PLEASE NOTE: evicted buffers are not released explicitly, they might be still in use by ops in flight.
+ *
  * @author raver119@gmail.com
  */
 public class CpuTADManager implements TADManager {
-    private Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache = new ConcurrentHashMap<>();
+    public static final String CACHE_BYTES = "org.nd4j.tad.cache.bytes";
+    private static final long DEFAULT_CACHE_BYTES = 128L * 1024L * 1024L;
+
+    private final long maxBytes;
+    private final Cache<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache;
     private NativeOps nativeOps;
     private ConstantHandler constantHandler;
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
+
+    private AtomicLong cachedBytes = new AtomicLong(0);
+    private AtomicLong cacheHit = new AtomicLong(0);
+    private AtomicLong cacheMiss = new AtomicLong(0);
 
     public CpuTADManager() {
-        //
+        this(Long.parseLong(System.getProperty(CACHE_BYTES, String.valueOf(DEFAULT_CACHE_BYTES))));
+    }
+
+    public CpuTADManager(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maxBytes).recordStats()
+                        .weigher(new Weigher<TadDescriptor, Pair<DataBuffer, DataBuffer>>() {
+                            @Override
+                            public int weigh(TadDescriptor key, Pair<DataBuffer, DataBuffer> value) {
+                                return (int) Math.min(Integer.MAX_VALUE, sizeOf(value));
+                            }
+                        }).removalListener(new RemovalListener<TadDescriptor, Pair<DataBuffer, DataBuffer>>() {
+                            @Override
+                            public void onRemoval(
+                                            RemovalNotification<TadDescriptor, Pair<DataBuffer, DataBuffer>> notification) {
+                                cachedBytes.addAndGet(-sizeOf(notification.getValue()));
+                            }
+                        }).build();
+    }
+
+    protected static long sizeOf(Pair<DataBuffer, DataBuffer> pair) {
+        long size = 0;
+        if (pair.getFirst() != null)
+            size += pair.getFirst().length() * pair.getFirst().getElementSize();
+
+        if (pair.getSecond() != null)
+            size += pair.getSecond().length() * pair.getSecond().getElementSize();
+
+        return size;
     }
 
     public void init(@NonNull NativeOps nativeOps, @NonNull ConstantHandler constantHandler) {
@@ -40,54 +90,96 @@ public class CpuTADManager implements TADManager {
      */
     @Override
     public void purgeBuffers() {
-        cache = new ConcurrentHashMap<>();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHit.get();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMiss.get();
     }
 
     @Override
-    public Pair<DataBuffer, DataBuffer> getTADOnlyShapeInfo(INDArray array, int[] dimension) {
+    public long getCacheEvictions() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * This method returns maximal number of bytes TAD cache is allowed to hold
+     * @return
+     */
+    public long getMaxCacheBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public Pair<DataBuffer, DataBuffer> getTADOnlyShapeInfo(final INDArray array, final int[] dimension) {
         if (dimension == null || dimension[0] == Integer.MAX_VALUE) {
             return new Pair<>(array.shapeInfoDataBuffer(), null);
         } else {
             TadDescriptor descriptor = new TadDescriptor(array, dimension);
 
-            if (!cache.containsKey(descriptor)) {
-                int dimensionLength = dimension.length;
+            Pair<DataBuffer, DataBuffer> pair = cache.getIfPresent(descriptor);
+            if (pair != null) {
+                cacheHit.incrementAndGet();
+                return pair;
+            }
 
-                // FIXME: this is fast triage, remove it later
-                int targetRank = array.rank(); //dimensionLength <= 1 ? 2 : dimensionLength;
-                int offsetLength;
-                int tadLength = 1;
-                for (int i = 0; i < dimensionLength; i++) {
-                    tadLength *= array.shape()[dimension[i]];
-                }
+            cacheMiss.incrementAndGet();
+            try {
+                // only one thread will build TAD for any given descriptor
+                return cache.get(descriptor, new Callable<Pair<DataBuffer, DataBuffer>>() {
+                    @Override
+                    public Pair<DataBuffer, DataBuffer> call() throws Exception {
+                        Pair<DataBuffer, DataBuffer> pair = buildTAD(array, dimension);
+                        cachedBytes.addAndGet(sizeOf(pair));
+                        return pair;
+                    }
+                });
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    protected Pair<DataBuffer, DataBuffer> buildTAD(INDArray array, int[] dimension) {
+        int dimensionLength = dimension.length;
 
-                offsetLength = array.length() / tadLength;
+        // FIXME: this is fast triage, remove it later
+        int targetRank = array.rank(); //dimensionLength <= 1 ? 2 : dimensionLength;
+        int offsetLength;
+        int tadLength = 1;
+        for (int i = 0; i < dimensionLength; i++) {
+            tadLength *= array.shape()[dimension[i]];
+        }
 
-                DataBuffer outputBuffer = new IntBuffer(targetRank * 2 + 4);
-                DataBuffer offsetsBuffer = new IntBuffer(offsetLength);
+        offsetLength = array.length() / tadLength;
 
-                DataBuffer dimensionBuffer = constantHandler.getConstantBuffer(dimension);
-                Pointer dimensionPointer = dimensionBuffer.addressPointer();
+        DataBuffer outputBuffer = new IntBuffer(targetRank * 2 + 4);
+        DataBuffer offsetsBuffer = new IntBuffer(offsetLength);
 
-                Pointer xShapeInfo = array.shapeInfoDataBuffer().addressPointer();
-                Pointer targetPointer = outputBuffer.addressPointer();
-                Pointer offsetsPointer = offsetsBuffer.addressPointer();
+        DataBuffer dimensionBuffer = constantHandler.getConstantBuffer(dimension);
+        Pointer dimensionPointer = dimensionBuffer.addressPointer();
 
-                nativeOps.tadOnlyShapeInfo((IntPointer) xShapeInfo, (IntPointer) dimensionPointer, dimension.length,
-                                (IntPointer) targetPointer, (IntPointer) offsetsPointer);
+        Pointer xShapeInfo = array.shapeInfoDataBuffer().addressPointer();
+        Pointer targetPointer = outputBuffer.addressPointer();
+        Pointer offsetsPointer = offsetsBuffer.addressPointer();
 
+        nativeOps.tadOnlyShapeInfo((IntPointer) xShapeInfo, (IntPointer) dimensionPointer, dimension.length,
+                        (IntPointer) targetPointer, (IntPointer) offsetsPointer);
 
-                // If the line below will be uncommented, shapes from JVM will be used on native side
-                //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
-                Pair<DataBuffer, DataBuffer> pair = new Pair<>(outputBuffer, offsetsBuffer);
-                if (counter.get() < MAX_ENTRIES) {
-                    counter.incrementAndGet();
-                    cache.put(descriptor, pair);
-                }
-                return pair;
-            }
 
-            return cache.get(descriptor);
-        }
+        // If the line below will be uncommented, shapes from JVM will be used on native side
+        //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
+        return new Pair<>(outputBuffer, offsetsBuffer);
     }
 }
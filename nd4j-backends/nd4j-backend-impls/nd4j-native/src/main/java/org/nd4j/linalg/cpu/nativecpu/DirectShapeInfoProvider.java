@@ -1,53 +1,111 @@
 package org.nd4j.linalg.cpu.nativecpu;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseShapeInfoProvider;
 import org.nd4j.linalg.api.shape.ShapeDescriptor;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * ShapeInfoProvider with bounded LRU cache of shape buffers.
+ *
+ * Cache size is controlled via {@link #CACHE_SIZE} system property.
+ * Least recently used descriptors are evicted once the limit is reached,
+ * so hot shapes stay resident regardless of the order they were first seen in.
+ *
+ * PLEASE NOTE: evicted buffers are never freed explicitly, since they might be still
+ * in use by live INDArrays. They are just dropped from cache, and released by GC once unreferenced.
+ *
  * @author raver119@gmail.com
  */
 @Slf4j
 public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
-    private Map<ShapeDescriptor, DataBuffer> shapeCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
+    public static final String CACHE_SIZE = "org.nd4j.shapeinfo.cache.size";
+    private static final long DEFAULT_CACHE_SIZE = 5000;
+
+    private final long maxEntries;
+    private final Cache<ShapeDescriptor, DataBuffer> shapeCache;
+
+    private AtomicLong cacheHit = new AtomicLong(0);
+    private AtomicLong cacheMiss = new AtomicLong(0);
+
+    public DirectShapeInfoProvider() {
+        this(Long.parseLong(System.getProperty(CACHE_SIZE, String.valueOf(DEFAULT_CACHE_SIZE))));
+    }
+
+    public DirectShapeInfoProvider(long maxEntries) {
+        this.maxEntries = maxEntries;
+        this.shapeCache = CacheBuilder.newBuilder().maximumSize(maxEntries).recordStats().build();
+    }
 
     @Override
-    public DataBuffer createShapeInformation(int[] shape, int[] stride, int offset, int elementWiseStride, char order) {
+    public DataBuffer createShapeInformation(final int[] shape, final int[] stride, int offset,
+                    final int elementWiseStride, final char order) {
 
         // We enforce offset to 0 in shapeBuffer, since we need it for cache efficiency + we don't actually use offset value @ native side
         offset = 0;
 
         ShapeDescriptor descriptor = new ShapeDescriptor(shape, stride, offset, elementWiseStride, order);
-        if (!shapeCache.containsKey(descriptor)) {
-            if (counter.get() < MAX_ENTRIES) {
-                synchronized (this) {
-                    if (!shapeCache.containsKey(descriptor)) {
-                        counter.incrementAndGet();
-                        DataBuffer buffer =
-                                        super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-                        shapeCache.put(descriptor, buffer);
-
-                        return buffer;
-                    } else
-                        return shapeCache.get(descriptor);
-                }
-            } else {
-                return super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-            }
+        DataBuffer buffer = shapeCache.getIfPresent(descriptor);
+        if (buffer != null) {
+            cacheHit.incrementAndGet();
+            return buffer;
         }
 
-        return shapeCache.get(descriptor);
+        cacheMiss.incrementAndGet();
+        try {
+            // cache guarantees that only one thread creates buffer for the same descriptor
+            return shapeCache.get(descriptor, new Callable<DataBuffer>() {
+                @Override
+                public DataBuffer call() throws Exception {
+                    return DirectShapeInfoProvider.super.createShapeInformation(shape, stride, 0, elementWiseStride,
+                                    order);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     @Override
     public void purgeCache() {
-        shapeCache = new ConcurrentHashMap<>();
+        shapeCache.invalidateAll();
+    }
+
+    /**
+     * This method returns maximal number of shape buffers kept in cache
+     * @return
+     */
+    public long getMaxCacheSize() {
+        return maxEntries;
+    }
+
+    /**
+     * This method returns number of shape buffers currently cached
+     * @return
+     */
+    public long getCachedEntries() {
+        return shapeCache.size();
+    }
+
+    public long getCacheHits() {
+        return cacheHit.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMiss.get();
+    }
+
+    /**
+     * This method returns number of shape buffers evicted from cache so far
+     * @return
+     */
+    public long getCacheEvictions() {
+        return shapeCache.stats().evictionCount();
     }
 }
@@ -1,78 +1,347 @@
 package org.nd4j.linalg.cpu.nativecpu.cache;
 
+import org.apache.commons.math3.util.Pair;
 import org.nd4j.linalg.api.buffer.DataBuffer;
-import org.nd4j.linalg.cache.ArrayDescriptor;
 import org.nd4j.linalg.cache.BasicConstantHandler;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * Content-addressed pool of constant buffers.
+ *
+ * Constants are looked up by hash of their content, and compared against stored copy of the java array,
+ * so lookup doesn't allocate anything on cache hit. Pool is bounded by {@link #CACHE_BYTES} bytes, counting both
+ * the off-heap buffer and the heap copy used for comparison. Least recently used constants are evicted once that
+ * limit is reached.
+ *
+ * PLEASE NOTE: evicted buffers are not released explicitly, they might be still in use by ops in flight.
+ *
  * @author raver119@gmail.com
  */
 public class ConstantBuffersCache extends BasicConstantHandler {
-    protected Map<ArrayDescriptor, DataBuffer> buffersCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
+    public static final String CACHE_BYTES = "org.nd4j.constant.cache.bytes";
+    private static final long DEFAULT_CACHE_BYTES = 32L * 1024L * 1024L;
+    private static final int INITIAL_BUCKETS = 256;
+
+    private static final int INT = 1;
+    private static final int FLOAT = 2;
+    private static final int DOUBLE = 3;
+
+    private final long maxBytes;
+
+    /**
+     * Buckets are chains of immutable entries, so readers never need a lock.
+     * All modifications are happening under lock on this cache instance.
+     */
+    private volatile AtomicReferenceArray<Entry> buckets = new AtomicReferenceArray<>(INITIAL_BUCKETS);
+    private int entries = 0;
+
+    // logical clock, advanced on every cache miss. Entries remember the last tick they were used at.
+    private volatile long tick = 0;
+
+    private AtomicLong cachedBytes = new AtomicLong(0);
+    private AtomicLong cacheHit = new AtomicLong(0);
+    private AtomicLong cacheMiss = new AtomicLong(0);
+    private AtomicLong cacheEvictions = new AtomicLong(0);
+
+    private static class Entry {
+        private final int hash;
+        private final int type;
+        private final Object array;
+        private final DataBuffer buffer;
+        private final long bytes;
+        private final Entry next;
+
+        // shared between all copies of this entry, so tick set by reader on stale copy isn't lost
+        private final AtomicLong lastAccess;
+
+        private Entry(int hash, int type, Object array, DataBuffer buffer, long bytes, Entry next, long lastAccess) {
+            this.hash = hash;
+            this.type = type;
+            this.array = array;
+            this.buffer = buffer;
+            this.bytes = bytes;
+            this.next = next;
+            this.lastAccess = new AtomicLong(lastAccess);
+        }
+
+        private Entry(Entry origin, Entry next) {
+            this.hash = origin.hash;
+            this.type = origin.type;
+            this.array = origin.array;
+            this.buffer = origin.buffer;
+            this.bytes = origin.bytes;
+            this.next = next;
+            this.lastAccess = origin.lastAccess;
+        }
+    }
+
+    public ConstantBuffersCache() {
+        this(Long.parseLong(System.getProperty(CACHE_BYTES, String.valueOf(DEFAULT_CACHE_BYTES))));
+    }
+
+    public ConstantBuffersCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
 
     @Override
     public DataBuffer getConstantBuffer(int[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
+        int hash = hash(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        DataBuffer buffer = lookup(hash, INT, array);
+        if (buffer != null)
+            return buffer;
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        synchronized (this) {
+            buffer = lookup(hash, INT, array);
+            if (buffer == null) {
+                buffer = Nd4j.createBufferDetached(array);
+                store(hash, INT, array.clone(), buffer);
             }
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public DataBuffer getConstantBuffer(float[] array) {
+        int hash = hash(array);
+
+        DataBuffer buffer = lookup(hash, FLOAT, array);
+        if (buffer != null)
+            return buffer;
+
+        synchronized (this) {
+            buffer = lookup(hash, FLOAT, array);
+            if (buffer == null) {
+                buffer = Nd4j.createBufferDetached(array);
+                store(hash, FLOAT, array.clone(), buffer);
+            }
+        }
+
+        return buffer;
+    }
+
+    @Override
+    public DataBuffer getConstantBuffer(double[] array) {
+        int hash = hash(array);
+
+        DataBuffer buffer = lookup(hash, DOUBLE, array);
+        if (buffer != null)
             return buffer;
+
+        synchronized (this) {
+            buffer = lookup(hash, DOUBLE, array);
+            if (buffer == null) {
+                buffer = Nd4j.createBufferDetached(array);
+                store(hash, DOUBLE, array.clone(), buffer);
+            }
         }
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     /**
      * This method removes all cached constants
      */
     @Override
-    public void purgeConstants() {
-        buffersCache = new ConcurrentHashMap<>();
+    public synchronized void purgeConstants() {
+        buckets = new AtomicReferenceArray<>(INITIAL_BUCKETS);
+        entries = 0;
+        cachedBytes.set(0);
     }
 
-    @Override
-    public DataBuffer getConstantBuffer(float[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
+    /**
+     * This method returns number of bytes used by cached constants
+     * @return
+     */
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    /**
+     * This method returns maximal number of bytes this cache is allowed to hold
+     * @return
+     */
+    public long getMaxCacheBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int getCachedEntries() {
+        return entries;
+    }
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+    public long getCacheHits() {
+        return cacheHit.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMiss.get();
+    }
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+    public long getCacheEvictions() {
+        return cacheEvictions.get();
+    }
+
+    private DataBuffer lookup(int hash, int type, Object array) {
+        AtomicReferenceArray<Entry> table = buckets;
+        for (Entry e = table.get(hash & (table.length() - 1)); e != null; e = e.next) {
+            if (e.hash == hash && e.type == type && contentEquals(type, e.array, array)) {
+                long current = tick;
+                if (e.lastAccess.get() != current)
+                    e.lastAccess.set(current);
+
+                cacheHit.incrementAndGet();
+                return e.buffer;
             }
-            return buffer;
         }
 
-        return buffersCache.get(descriptor);
+        return null;
     }
 
-    @Override
-    public DataBuffer getConstantBuffer(double[] array) {
-        ArrayDescriptor descriptor = new ArrayDescriptor(array);
+    /**
+     * PLEASE NOTE: this method should be called under lock only
+     */
+    private void store(int hash, int type, Object array, DataBuffer buffer) {
+        cacheMiss.incrementAndGet();
+
+        // both off-heap buffer and heap copy of the array are held by cache
+        long bytes = buffer.length() * buffer.getElementSize() + heapBytes(type, array);
+        long current = ++tick;
+
+        // constant that doesn't fit into cache at all is just returned detached
+        if (bytes > maxBytes)
+            return;
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        if (cachedBytes.get() + bytes > maxBytes)
+            evict(bytes);
 
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
+        if (entries >= buckets.length() * 2)
+            resize();
+
+        AtomicReferenceArray<Entry> table = buckets;
+        int idx = hash & (table.length() - 1);
+        table.set(idx, new Entry(hash, type, array, buffer, bytes, table.get(idx), current));
+
+        entries++;
+        cachedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * This method evicts least recently used constants, until there's enough room for required number of bytes.
+     * We free a quarter of the pool at once, so misses on a full pool don't have to sort entries every time.
+     */
+    private void evict(long required) {
+        long limit = maxBytes - maxBytes / 4;
+
+        // access ticks are updated concurrently by readers, so we sort on their snapshot
+        AtomicReferenceArray<Entry> table = buckets;
+        List<Pair<Long, Entry>> candidates = new ArrayList<>(entries);
+        for (int i = 0; i < table.length(); i++)
+            for (Entry e = table.get(i); e != null; e = e.next)
+                candidates.add(new Pair<>(e.lastAccess.get(), e));
+
+        Collections.sort(candidates, new Comparator<Pair<Long, Entry>>() {
+            @Override
+            public int compare(Pair<Long, Entry> o1, Pair<Long, Entry> o2) {
+                return o1.getFirst().compareTo(o2.getFirst());
             }
-            return buffer;
+        });
+
+        for (Pair<Long, Entry> victim : candidates) {
+            if (cachedBytes.get() + required <= limit)
+                break;
+
+            remove(table, victim.getSecond());
         }
+    }
+
+    private void remove(AtomicReferenceArray<Entry> table, Entry victim) {
+        int idx = victim.hash & (table.length() - 1);
+        Entry head = table.get(idx);
+
+        // entry might have been copied by previous removal from the same bucket, so we match by stored array
+        Entry target = head;
+        while (target != null && target.array != victim.array)
+            target = target.next;
+
+        if (target == null)
+            return;
+
+        // entries are immutable, so everything before victim gets copied
+        Entry newHead = target.next;
+        for (Entry e = head; e != target; e = e.next)
+            newHead = new Entry(e, newHead);
+
+        table.set(idx, newHead);
+
+        entries--;
+        cachedBytes.addAndGet(-target.bytes);
+        cacheEvictions.incrementAndGet();
+    }
+
+    private void resize() {
+        AtomicReferenceArray<Entry> table = buckets;
+        AtomicReferenceArray<Entry> newTable = new AtomicReferenceArray<>(table.length() * 2);
+        for (int i = 0; i < table.length(); i++) {
+            for (Entry e = table.get(i); e != null; e = e.next) {
+                int idx = e.hash & (newTable.length() - 1);
+                newTable.set(idx, new Entry(e, newTable.get(idx)));
+            }
+        }
+
+        buckets = newTable;
+    }
+
+    private static long heapBytes(int type, Object array) {
+        switch (type) {
+            case INT:
+                return ((int[]) array).length * 4L;
+            case FLOAT:
+                return ((float[]) array).length * 4L;
+            case DOUBLE:
+                return ((double[]) array).length * 8L;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean contentEquals(int type, Object stored, Object array) {
+        switch (type) {
+            case INT:
+                return Arrays.equals((int[]) stored, (int[]) array);
+            case FLOAT:
+                return Arrays.equals((float[]) stored, (float[]) array);
+            case DOUBLE:
+                return Arrays.equals((double[]) stored, (double[]) array);
+            default:
+                return false;
+        }
+    }
+
+    private static int spread(int h) {
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return h;
+    }
+
+    private static int hash(int[] array) {
+        return spread(31 * INT + Arrays.hashCode(array));
+    }
+
+    private static int hash(float[] array) {
+        return spread(31 * FLOAT + Arrays.hashCode(array));
+    }
 
-        return buffersCache.get(descriptor);
+    private static int hash(double[] array) {
+        return spread(31 * DOUBLE + Arrays.hashCode(array));
     }
 }
@@ -0,0 +1,72 @@
+package org.nd4j.linalg.cpu.nativecpu;
+
+import org.apache.commons.math3.util.Pair;
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.ConstantHandler;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.nativeblas.NativeOpsHolder;
+
+import static org.junit.Assert.*;
+
+public class CpuTADManagerTest {
+
+    private CpuTADManager createManager(long maxBytes) {
+        ConstantHandler constantHandler = Nd4j.getConstantHandler();
+
+        CpuTADManager manager = new CpuTADManager(maxBytes);
+        manager.init(NativeOpsHolder.getInstance().getDeviceNativeOps(), constantHandler);
+        return manager;
+    }
+
+    @Test
+    public void testCacheHit1() {
+        CpuTADManager manager = createManager(1024 * 1024);
+        INDArray array = Nd4j.create(10, 20);
+
+        Pair<DataBuffer, DataBuffer> first = manager.getTADOnlyShapeInfo(array, new int[] {1});
+        Pair<DataBuffer, DataBuffer> second = manager.getTADOnlyShapeInfo(array, new int[] {1});
+
+        assertTrue(first == second);
+        assertEquals(1, manager.getCacheHits());
+        assertEquals(1, manager.getCacheMisses());
+
+        // TAD shape buffer is rank * 2 + 4 ints, plus 10 offsets
+        assertEquals((2 * 2 + 4 + 10) * 4, manager.getCachedBytes());
+    }
+
+    @Test
+    public void testBytesLimit1() {
+        CpuTADManager manager = createManager(16 * 1024);
+
+        for (int e = 1; e < 200; e++) {
+            INDArray array = Nd4j.create(e, 10);
+            Pair<DataBuffer, DataBuffer> pair = manager.getTADOnlyShapeInfo(array, new int[] {1});
+
+            assertEquals(e, pair.getSecond().length());
+            assertTrue(manager.getCachedBytes() <= manager.getMaxCacheBytes());
+        }
+
+        assertTrue(manager.getCacheEvictions() > 0);
+
+        manager.purgeBuffers();
+        assertEquals(0, manager.getCachedBytes());
+    }
+
+    @Test
+    public void testBytesLimit2() {
+        CpuTADManager manager = createManager(16 * 1024);
+
+        // 5 TADs of ~3KB each fit into 16KB only if the limit isn't split between cache segments
+        long expected = 0;
+        for (int e = 740; e < 745; e++) {
+            INDArray array = Nd4j.create(e, 10);
+            manager.getTADOnlyShapeInfo(array, new int[] {1});
+            expected += (2 * 2 + 4 + e) * 4;
+        }
+
+        assertEquals(0, manager.getCacheEvictions());
+        assertEquals(expected, manager.getCachedBytes());
+    }
+}
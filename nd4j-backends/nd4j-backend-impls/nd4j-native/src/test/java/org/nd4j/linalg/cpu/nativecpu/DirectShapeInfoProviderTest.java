@@ -0,0 +1,57 @@
+package org.nd4j.linalg.cpu.nativecpu;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import static org.junit.Assert.*;
+
+public class DirectShapeInfoProviderTest {
+
+    @Test
+    public void testCacheHit1() {
+        DirectShapeInfoProvider provider = new DirectShapeInfoProvider(10);
+
+        DataBuffer first = provider.createShapeInformation(new int[] {3, 4}, 'c');
+        DataBuffer second = provider.createShapeInformation(new int[] {3, 4}, 'c');
+
+        assertTrue(first == second);
+        assertEquals(1, provider.getCacheHits());
+        assertEquals(1, provider.getCacheMisses());
+        assertEquals(1, provider.getCachedEntries());
+    }
+
+    @Test
+    public void testEviction1() {
+        DirectShapeInfoProvider provider = new DirectShapeInfoProvider(10);
+
+        DataBuffer hot = provider.createShapeInformation(new int[] {1, 1}, 'c');
+        DataBuffer cold = provider.createShapeInformation(new int[] {2, 2}, 'c');
+
+        for (int e = 3; e < 1000; e++) {
+            provider.createShapeInformation(new int[] {e, e}, 'c');
+
+            // hot shape is used all the time, so it should never be evicted
+            assertTrue(hot == provider.createShapeInformation(new int[] {1, 1}, 'c'));
+        }
+
+        assertTrue(provider.getCachedEntries() <= 10);
+        assertTrue(provider.getCacheEvictions() > 0);
+
+        // cold shape was never touched again, so it should be evicted: next request gets a new buffer
+        assertFalse(cold == provider.createShapeInformation(new int[] {2, 2}, 'c'));
+
+        // evicted buffer is still valid for whoever holds it
+        assertArrayEquals(new int[] {2, 2, 2, 2, 1, 0, 1, 99}, cold.asInt());
+    }
+
+    @Test
+    public void testPurge1() {
+        DirectShapeInfoProvider provider = new DirectShapeInfoProvider(10);
+
+        DataBuffer first = provider.createShapeInformation(new int[] {3, 4}, 'c');
+        provider.purgeCache();
+
+        assertEquals(0, provider.getCachedEntries());
+        assertFalse(first == provider.createShapeInformation(new int[] {3, 4}, 'c'));
+    }
+}
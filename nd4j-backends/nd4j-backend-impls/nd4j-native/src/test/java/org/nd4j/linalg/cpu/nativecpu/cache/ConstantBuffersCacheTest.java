@@ -0,0 +1,90 @@
+package org.nd4j.linalg.cpu.nativecpu.cache;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.factory.Nd4j;
+
+import static org.junit.Assert.*;
+
+public class ConstantBuffersCacheTest {
+
+    @Test
+    public void testContentLookup1() {
+        Nd4j.create(1);
+        ConstantBuffersCache cache = new ConstantBuffersCache(1024 * 1024);
+
+        int[] array = new int[] {1, 2, 3};
+        DataBuffer first = cache.getConstantBuffer(array);
+
+        // same content in different java array should hit the same buffer
+        DataBuffer second = cache.getConstantBuffer(new int[] {1, 2, 3});
+        assertTrue(first == second);
+
+        // cached content should not depend on original array anymore
+        array[0] = 5;
+        assertTrue(first == cache.getConstantBuffer(new int[] {1, 2, 3}));
+        assertFalse(first == cache.getConstantBuffer(array));
+
+        assertEquals(2, cache.getCacheHits());
+        assertEquals(2, cache.getCacheMisses());
+        assertEquals(2, cache.getCachedEntries());
+        // 12 bytes off-heap + 12 bytes of heap copy, per entry
+        assertEquals(48, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testEvictionAfterResize1() {
+        Nd4j.create(1);
+        ConstantBuffersCache cache = new ConstantBuffersCache(64 * 1024);
+
+        DataBuffer hot = cache.getConstantBuffer(new int[] {-1});
+
+        // enough entries to get buckets resized (and entries copied) a few times before eviction kicks in
+        for (int e = 0; e < 10000; e++) {
+            cache.getConstantBuffer(new int[] {e, e + 1});
+
+            if (e % 100 == 0)
+                assertTrue(hot == cache.getConstantBuffer(new int[] {-1}));
+        }
+
+        assertTrue(cache.getCacheEvictions() > 0);
+        assertTrue(cache.getCachedBytes() <= cache.getMaxCacheBytes());
+        assertTrue(hot == cache.getConstantBuffer(new int[] {-1}));
+    }
+
+    @Test
+    public void testTypesSeparation1() {
+        Nd4j.create(1);
+        ConstantBuffersCache cache = new ConstantBuffersCache(1024 * 1024);
+
+        DataBuffer ints = cache.getConstantBuffer(new int[] {0, 0});
+        DataBuffer floats = cache.getConstantBuffer(new float[] {0f, 0f});
+        DataBuffer doubles = cache.getConstantBuffer(new double[] {0.0, 0.0});
+
+        assertFalse(ints == floats);
+        assertFalse(floats == doubles);
+        assertEquals(3, cache.getCachedEntries());
+    }
+
+    @Test
+    public void testEviction1() {
+        Nd4j.create(1);
+        ConstantBuffersCache cache = new ConstantBuffersCache(4096);
+
+        DataBuffer hot = cache.getConstantBuffer(new int[] {-1});
+
+        for (int e = 0; e < 5000; e++) {
+            DataBuffer buffer = cache.getConstantBuffer(new int[] {e, e + 1});
+            assertEquals(e + 1, buffer.getInt(1));
+
+            assertTrue(hot == cache.getConstantBuffer(new int[] {-1}));
+            assertTrue(cache.getCachedBytes() <= cache.getMaxCacheBytes());
+        }
+
+        assertTrue(cache.getCacheEvictions() > 0);
+
+        cache.purgeConstants();
+        assertEquals(0, cache.getCachedBytes());
+        assertEquals(0, cache.getCachedEntries());
+    }
+}
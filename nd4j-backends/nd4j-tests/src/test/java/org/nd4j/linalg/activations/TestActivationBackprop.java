@@ -0,0 +1,98 @@
+package org.nd4j.linalg.activations;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.activations.impl.*;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.transforms.SoftMax;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Backprop is computed in place on input array, here we check results against straightforward implementations
+ */
+@RunWith(Parameterized.class)
+public class TestActivationBackprop extends BaseNd4jTest {
+
+    public TestActivationBackprop(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testInPlace() {
+        IActivation[] activations = new IActivation[] {new ActivationSigmoid(), new ActivationTanH(),
+                        new ActivationReLU(), new ActivationELU(), new ActivationELU(2.0), new ActivationCube()};
+
+        for (IActivation activation : activations) {
+            INDArray in = Nd4j.randn(4, 5);
+            INDArray epsilon = Nd4j.randn(4, 5);
+            INDArray epsilonCopy = epsilon.dup();
+
+            assertSame(activation.toString(), in, activation.backprop(in, epsilon).getFirst());
+            assertEquals(activation.toString(), epsilonCopy, epsilon);
+        }
+    }
+
+    @Test
+    public void testSoftmaxBackprop() {
+        INDArray in = Nd4j.randn(4, 5);
+        INDArray epsilon = Nd4j.randn(4, 5);
+        INDArray epsilonCopy = epsilon.dup();
+
+        INDArray out = Nd4j.getExecutioner().execAndReturn(new SoftMax(in.dup()));
+        INDArray x = out.mul(epsilon).sum(1);
+        INDArray exp = out.mul(epsilon.subColumnVector(x));
+
+        INDArray dLdz = new ActivationSoftmax().backprop(in, epsilon).getFirst();
+
+        assertEquals(exp, dLdz);
+        assertEquals(epsilonCopy, epsilon);
+    }
+
+    @Test
+    public void testELUBackprop() {
+        double alpha = 2.0;
+        INDArray in = Nd4j.randn(4, 5);
+        INDArray epsilon = Nd4j.randn(4, 5);
+
+        INDArray exp = Nd4j.create(4, 5);
+        for (int i = 0; i < in.length(); i++) {
+            double z = in.getDouble(i);
+            exp.putScalar(i, (z < 0 ? alpha * Math.exp(z) : 1.0) * epsilon.getDouble(i));
+        }
+
+        INDArray dLdz = new ActivationELU(alpha).backprop(in, epsilon).getFirst();
+
+        assertEquals(exp, dLdz);
+    }
+
+    @Test
+    public void testRReLUBackprop() {
+        ActivationRReLU activation = new ActivationRReLU();
+        INDArray in = Nd4j.randn(4, 5);
+        INDArray epsilon = Nd4j.randn(4, 5);
+
+        activation.getActivation(in.dup(), true);
+        INDArray alpha = activation.getAlpha();
+
+        INDArray exp = Nd4j.create(4, 5);
+        for (int i = 0; i < in.length(); i++) {
+            double derivative = in.getDouble(i) > 0 ? 1.0 : alpha.getDouble(i);
+            exp.putScalar(i, derivative * epsilon.getDouble(i));
+        }
+
+        INDArray dLdz = activation.backprop(in, epsilon).getFirst();
+
+        assertEquals(exp, dLdz);
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
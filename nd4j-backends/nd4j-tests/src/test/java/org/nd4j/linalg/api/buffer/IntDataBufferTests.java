@@ -42,11 +42,7 @@ public class IntDataBufferTests extends BaseNd4jTest {
 
         Nd4j.saveBinary(intArray, tempFile);
 
-        InputStream stream = new FileInputStream(tempFile);
-        BufferedInputStream bis = new BufferedInputStream(stream);
-        DataInputStream dis = new DataInputStream(bis);
-
-        INDArray loaded = Nd4j.read(dis);
+        INDArray loaded = Nd4j.readBinary(tempFile);
 
         assertEquals(DataBuffer.Type.INT, loaded.data().dataType());
         assertEquals(DataBuffer.Type.INT, loaded.shapeInfoDataBuffer().dataType());
@@ -13,9 +13,11 @@ import org.nd4j.linalg.dataset.api.iterator.SamplingDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InFileDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InMemoryDataSetCache;
+import org.nd4j.linalg.dataset.api.iterator.cache.TieredDataSetCache;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -54,6 +56,72 @@ public class CachingDataSetIteratorTest extends BaseNd4jTest {
         FileUtils.deleteDirectory(cacheDir.toFile());
     }
 
+    @Test
+    public void testTiered() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+
+        // memory tier fits only some of the DataSets, the rest is read from disk
+        TieredDataSetCache cache = new TieredDataSetCache.Builder(cacheDir).memoryBytes(10000).prefetchSize(2).build();
+
+        runDataSetTest(cache);
+
+        assertTrue(cache.getUsedMemoryBytes() > 0);
+        assertTrue(cache.getUsedMemoryBytes() <= 10000);
+        assertTrue(cache.getMemoryHits() > 0);
+        assertTrue(cache.getDiskReads() > 0);
+
+        cache.shutdown();
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testTieredCompressed() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+
+        TieredDataSetCache cache = new TieredDataSetCache.Builder(cacheDir).memoryBytes(0).compression("GZIP")
+                        .build();
+
+        runDataSetTest(cache);
+        assertEquals(0, cache.getMemoryHits());
+
+        cache.shutdown();
+
+        // compressed DataSets of ones and zeros take ~ 320 bytes per file, compared to 4000+ bytes for uncompressed ones
+        for (File file : cacheDir.toFile().listFiles())
+            if (file.getName().endsWith(".bin"))
+                assertTrue(file.length() < 2000);
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testTieredPrefetchEviction() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+
+        // nothing is kept in memory, so every key can be prefetched
+        TieredDataSetCache cache = new TieredDataSetCache.Builder(cacheDir).memoryBytes(0).prefetchSize(2).build();
+        for (int i = 0; i < 5; i++)
+            cache.put("key-" + i, new DataSet(Nd4j.valueArrayOf(1, 4, i), Nd4j.zeros(1, 2)));
+        cache.flush();
+
+        // reads that are never consumed get evicted
+        cache.prefetch("key-0", "key-1", "key-2", "key-3");
+        assertEquals(2, cache.getNumberOfPrefetched());
+
+        assertEquals(3.0, cache.get("key-3").getFeatures().getDouble(0), 0.0);
+        assertEquals(1, cache.getNumberOfPrefetched());
+        assertEquals(1, cache.getPrefetchHits());
+
+        cache.clear();
+        assertEquals(0, cache.getNumberOfPrefetched());
+
+        // evicted keys are still available from disk
+        assertEquals(0.0, cache.get("key-0").getFeatures().getDouble(0), 0.0);
+
+        cache.shutdown();
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
     private void runDataSetTest(DataSetCache cache) {
         int rows = 500;
         int inputColumns = 100;
@@ -68,6 +68,88 @@ public class DataSetTest extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testShuffledViewIterator() {
+        DataSet data = new IrisDataSetIterator(150, 150).next();
+        DataSet original = data.copy();
+
+        ShuffledViewIterator iter = new ShuffledViewIterator(data, 32, 119);
+        for (int epoch = 0; epoch < 2; epoch++) {
+            int[] order = iter.getOrder();
+            Set<Integer> seen = new HashSet<>();
+
+            int count = 0;
+            while (iter.hasNext()) {
+                DataSet next = iter.next();
+                for (int i = 0; i < next.numExamples(); i++) {
+                    int idx = order[count * 32 + i];
+                    assertTrue(seen.add(idx));
+                    assertEquals(original.getFeatures().getRow(idx), next.getFeatures().getRow(i));
+                    assertEquals(original.getLabels().getRow(idx), next.getLabels().getRow(i));
+                }
+                count++;
+            }
+
+            assertEquals(5, count);
+            assertEquals(150, seen.size());
+
+            iter.reset();
+            assertFalse(Arrays.equals(order, iter.getOrder()));
+        }
+
+        // dataset itself should stay intact
+        assertEquals(original, data);
+    }
+
+    @Test
+    public void testGetIndexes() {
+        int nExamples = 7;
+        INDArray f = Nd4j.rand(new int[] {nExamples, 3, 5}, 'f');
+        INDArray l = Nd4j.rand(new int[] {nExamples, 2, 5}, 'f');
+        INDArray fm = Nd4j.rand(nExamples, 5);
+        INDArray lm = Nd4j.rand(nExamples, 5);
+
+        DataSet ds = new DataSet(f, l, fm, lm);
+        List<Serializable> meta = new ArrayList<>();
+        for (int i = 0; i < nExamples; i++)
+            meta.add("example_" + i);
+        ds.setExampleMetaData(meta);
+
+        int[] indexes = new int[] {5, 0, 3, 3};
+        DataSet sub = ds.get(indexes);
+
+        assertArrayEquals(new int[] {4, 3, 5}, sub.getFeatures().shape());
+        assertArrayEquals(new int[] {4, 2, 5}, sub.getLabels().shape());
+        for (int i = 0; i < indexes.length; i++) {
+            INDArrayIndex[] idx = new INDArrayIndex[] {NDArrayIndex.point(indexes[i]), all(), all()};
+            INDArrayIndex[] subIdx = new INDArrayIndex[] {NDArrayIndex.point(i), all(), all()};
+
+            assertEquals(f.get(idx), sub.getFeatures().get(subIdx));
+            assertEquals(l.get(idx), sub.getLabels().get(subIdx));
+            assertEquals(fm.getRow(indexes[i]), sub.getFeaturesMaskArray().getRow(i));
+            assertEquals(lm.getRow(indexes[i]), sub.getLabelsMaskArray().getRow(i));
+            assertEquals("example_" + indexes[i], sub.getExampleMetaData().get(i));
+        }
+    }
+
+    @Test
+    public void testBatchByAndSample() {
+        DataSet data = new IrisDataSetIterator(150, 150).next();
+
+        List<DataSet> batches = data.batchBy(40);
+        assertEquals(4, batches.size());
+        assertEquals(30, batches.get(3).numExamples());
+        assertEquals(data.getFeatures().getRow(125), batches.get(3).getFeatures().getRow(5));
+        assertEquals(data.getLabels().getRow(41), batches.get(1).getLabels().getRow(1));
+
+        DataSet sample = data.sample(150, false);
+        assertEquals(150, sample.numExamples());
+
+        // without replacement, every example should be picked exactly once
+        assertEquals(data.getFeatures().sumNumber().doubleValue(), sample.getFeatures().sumNumber().doubleValue(),
+                        1e-3);
+    }
+
     @Test
     public void testSplitTestAndTrain() throws Exception {
         INDArray labels = FeatureUtil.toOutcomeMatrix(new int[] {0, 0, 0, 0, 0, 0, 0, 0}, 1);
@@ -110,6 +192,40 @@ public class DataSetTest extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testSplitTestAndTrainRngKeepsSource() throws Exception {
+        DataSet data = new IrisDataSetIterator(150, 150).next();
+        List<Serializable> meta = new ArrayList<>();
+        for (int i = 0; i < data.numExamples(); i++)
+            meta.add("example_" + i);
+        data.setExampleMetaData(meta);
+
+        DataSet original = data.copy();
+
+        SplitTestAndTrain split = data.splitTestAndTrain(100, new Random(42));
+        assertEquals(100, split.getTrain().numExamples());
+        assertEquals(50, split.getTest().numExamples());
+
+        // source dataset should stay intact
+        assertEquals(original.getFeatures(), data.getFeatures());
+        assertEquals(original.getLabels(), data.getLabels());
+        assertEquals(meta, data.getExampleMetaData());
+
+        // every example ends up in exactly one of the parts, together with its label and metadata
+        Set<Serializable> seen = new HashSet<>();
+        for (DataSet part : new DataSet[] {split.getTrain(), split.getTest()}) {
+            for (int i = 0; i < part.numExamples(); i++) {
+                Serializable m = part.getExampleMetaData().get(i);
+                assertTrue(seen.add(m));
+
+                int idx = meta.indexOf(m);
+                assertEquals(data.getFeatures().getRow(idx), part.getFeatures().getRow(i));
+                assertEquals(data.getLabels().getRow(idx), part.getLabels().getRow(i));
+            }
+        }
+        assertEquals(150, seen.size());
+    }
+
     @Test
     public void testLabelCounts() {
         DataSet x0 = new IrisDataSetIterator(150, 150).next();
@@ -510,6 +626,34 @@ public class DataSetTest extends BaseNd4jTest {
         assertEquals(expLM2d, merged3d2d.getLabelsMaskArray());
     }
 
+    @Test
+    public void testMergeMasksNullFirst() {
+        //First mask is null (all present) - following masks should still end up at their own rows
+        INDArray f1 = Nd4j.create(new double[][] {{1, 2, 3}, {4, 5, 6}});
+        INDArray f2 = Nd4j.create(new double[][] {{7, 8, 9}});
+        INDArray l1 = Nd4j.create(new double[][] {{1, 0}, {0, 1}});
+        INDArray l2 = Nd4j.create(new double[][] {{1, 0}});
+        INDArray lm2 = Nd4j.create(new double[][] {{0, 1}});
+
+        DataSet merged = DataSet.merge(Arrays.asList(new DataSet(f1, l1, null, null), new DataSet(f2, l2, null, lm2)));
+
+        assertEquals(Nd4j.create(new double[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}), merged.getFeatures());
+        assertEquals(Nd4j.create(new double[][] {{1, 0}, {0, 1}, {1, 0}}), merged.getLabels());
+        assertEquals(Nd4j.create(new double[][] {{1, 1}, {1, 1}, {0, 1}}), merged.getLabelsMaskArray());
+
+        //Same for time series with per-output masks
+        INDArray ts1 = Nd4j.linspace(1, 12, 12).reshape('c', 2, 2, 3);
+        INDArray ts2 = Nd4j.linspace(13, 18, 6).reshape('c', 1, 2, 3);
+        INDArray tsm2 = Nd4j.create(new double[] {1, 0, 1, 0, 1, 0}, new int[] {1, 2, 3});
+
+        merged = DataSet.merge(Arrays.asList(new DataSet(ts1, ts1, null, null), new DataSet(ts2, ts2, null, tsm2)));
+
+        INDArray expMask = Nd4j.ones(3, 2, 3);
+        expMask.get(interval(2, 3), all(), all()).assign(tsm2);
+        assertEquals(Nd4j.linspace(1, 18, 18).reshape('c', 3, 2, 3), merged.getLabels());
+        assertEquals(expMask, merged.getLabelsMaskArray());
+    }
+
     @Test
     public void testShuffle4d() {
         int nSamples = 10;
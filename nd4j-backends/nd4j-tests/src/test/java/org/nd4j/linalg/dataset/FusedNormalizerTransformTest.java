@@ -0,0 +1,161 @@
+package org.nd4j.linalg.dataset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastDivOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastMulOp;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastSubOp;
+import org.nd4j.linalg.dataset.api.preprocessor.FusedNormalizerTransform;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerMinMaxScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class FusedNormalizerTransformTest extends BaseNd4jTest {
+    private boolean initialEnabled;
+
+    public FusedNormalizerTransformTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Before
+    public void setUp() {
+        // fused transform is opt-in
+        initialEnabled = FusedNormalizerTransform.isEnabled();
+        FusedNormalizerTransform.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        FusedNormalizerTransform.setEnabled(initialEnabled);
+    }
+
+    @Test
+    public void testCanApply() {
+        INDArray array = Nd4j.rand(10, 5);
+        assertEquals(FusedNormalizerTransform.isBackendSupported(), FusedNormalizerTransform.canApply(array));
+
+        FusedNormalizerTransform.setEnabled(false);
+        assertFalse(FusedNormalizerTransform.canApply(array));
+    }
+
+    @Test
+    public void testApply2d() {
+        INDArray array = Nd4j.rand(20, 5).muli(10);
+        INDArray scale = Nd4j.create(new double[] {1, 2, 3, 4, 5});
+        INDArray shift = Nd4j.create(new double[] {-1, 0, 1, 2, 3});
+
+        INDArray exp = array.mulRowVector(scale).addiRowVector(shift);
+        FusedNormalizerTransform.apply(array, null, scale.data().asDouble(), shift.data().asDouble());
+
+        assertEquals(exp, array);
+    }
+
+    @Test
+    public void testApply2dView() {
+        INDArray base = Nd4j.rand('f', 30, 10);
+        INDArray array = base.get(NDArrayIndex.interval(5, 25), NDArrayIndex.interval(2, 7));
+        INDArray copy = base.dup();
+        double[] scale = new double[] {1, 2, 3, 4, 5};
+        double[] shift = new double[] {-1, 0, 1, 2, 3};
+
+        INDArray exp = array.mulRowVector(Nd4j.create(scale)).addiRowVector(Nd4j.create(shift));
+        FusedNormalizerTransform.apply(array, null, scale, shift);
+
+        assertEquals(exp, array);
+
+        // elements outside of the view should stay intact
+        copy.get(NDArrayIndex.interval(5, 25), NDArrayIndex.interval(2, 7)).assign(exp);
+        assertEquals(copy, base);
+    }
+
+    @Test
+    public void testApply3dMasked() {
+        INDArray array = Nd4j.rand(new int[] {4, 3, 6});
+        INDArray mask = Nd4j.ones(4, 6);
+        mask.putScalar(0, 5, 0.0);
+        mask.putScalar(2, 0, 0.0);
+        mask.putScalar(3, 3, 0.0);
+
+        INDArray scale = Nd4j.create(new double[] {2, 3, 4});
+        INDArray shift = Nd4j.create(new double[] {1, -1, 0.5});
+
+        INDArray exp = array.dup();
+        Nd4j.getExecutioner().exec(new BroadcastMulOp(exp, scale, exp, 1));
+        Nd4j.getExecutioner().exec(new BroadcastSubOp(exp, shift.neg(), exp, 1));
+        Nd4j.getExecutioner().exec(new BroadcastMulOp(exp, mask, exp, 0, 2));
+
+        FusedNormalizerTransform.apply(array, mask, scale.data().asDouble(), shift.data().asDouble());
+
+        assertEquals(exp, array);
+        assertEquals(0.0, array.getDouble(0, 1, 5), 0.0);
+        assertEquals(0.0, array.getDouble(2, 2, 0), 0.0);
+    }
+
+    @Test
+    public void testApply4d() {
+        INDArray array = Nd4j.rand(new int[] {2, 3, 4, 5});
+        INDArray scale = Nd4j.create(new double[] {0.5, 2, 4});
+        INDArray shift = Nd4j.create(new double[] {0, 1, 2});
+
+        INDArray exp = array.dup();
+        Nd4j.getExecutioner().exec(new BroadcastMulOp(exp, scale, exp, 1));
+        Nd4j.getExecutioner().exec(new BroadcastSubOp(exp, shift.neg(), exp, 1));
+
+        FusedNormalizerTransform.apply(array, null, scale.data().asDouble(), shift.data().asDouble());
+
+        assertEquals(exp, array);
+    }
+
+    @Test
+    public void testStandardizeRoundtrip() {
+        INDArray features = Nd4j.rand(new int[] {8, 4, 10}).muli(100).addi(20);
+        INDArray labels = Nd4j.rand(new int[] {8, 2, 10});
+        DataSet dataSet = new DataSet(features, labels);
+
+        NormalizerStandardize normalizer = new NormalizerStandardize();
+        normalizer.fit(dataSet);
+
+        INDArray exp = features.dup();
+        Nd4j.getExecutioner().exec(new BroadcastSubOp(exp, normalizer.getMean(), exp, 1));
+        Nd4j.getExecutioner().exec(new BroadcastDivOp(exp, normalizer.getStd(), exp, 1));
+
+        DataSet copy = dataSet.copy();
+        normalizer.transform(copy);
+        assertTrue(exp.equalsWithEps(copy.getFeatures(), 1e-5));
+
+        normalizer.revert(copy);
+        assertTrue(features.equalsWithEps(copy.getFeatures(), 1e-3));
+    }
+
+    @Test
+    public void testMinMaxRoundtrip() {
+        INDArray features = Nd4j.rand(50, 6).muli(30).subi(10);
+        DataSet dataSet = new DataSet(features, Nd4j.zeros(50, 1));
+
+        NormalizerMinMaxScaler normalizer = new NormalizerMinMaxScaler(-1, 1);
+        normalizer.fit(dataSet);
+
+        DataSet copy = dataSet.copy();
+        normalizer.transform(copy);
+        assertEquals(-1.0, copy.getFeatures().minNumber().doubleValue(), 1e-5);
+        assertEquals(1.0, copy.getFeatures().maxNumber().doubleValue(), 1e-5);
+
+        normalizer.revert(copy);
+        assertTrue(features.equalsWithEps(copy.getFeatures(), 1e-4));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -6,11 +6,19 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.util.ArrayUtil;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 
 /**
@@ -50,6 +58,102 @@ public class MiniBatchFileDataSetIteratorTest extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testPrefetch1() throws Exception {
+        DataSet load = new IrisDataSetIterator(150, 150).next();
+        File rootDir = Files.createTempDirectory("nd4j-minibatch-test").toFile();
+
+        MiniBatchFileDataSetIterator sequential = new MiniBatchFileDataSetIterator(load, 10, false, rootDir);
+        MiniBatchFileDataSetIterator prefetched = new MiniBatchFileDataSetIterator(load, 10, false, rootDir, 3, 4,
+                        false, 0L);
+
+        for (int epoch = 0; epoch < 2; epoch++) {
+            sequential.reset();
+            prefetched.reset();
+
+            // prefetched mini batches are still returned in order
+            int cnt = 0;
+            while (sequential.hasNext()) {
+                assertTrue(prefetched.hasNext());
+                assertEquals(load.get(ArrayUtil.range(cnt * 10, cnt * 10 + 10)), prefetched.next());
+                sequential.next();
+                cnt++;
+            }
+            assertFalse(prefetched.hasNext());
+            assertEquals(15, cnt);
+        }
+
+        FileUtils.deleteDirectory(rootDir);
+    }
+
+    @Test
+    public void testShuffledPrefetch1() throws Exception {
+        File rootDir = Files.createTempDirectory("nd4j-minibatch-test").toFile();
+        for (int i = 0; i < 20; i++)
+            new DataSet(Nd4j.valueArrayOf(1, 4, i), Nd4j.create(1, 2))
+                            .save(new File(rootDir, String.format(ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN, i)));
+
+        ExistingMiniBatchDataSetIterator first = new ExistingMiniBatchDataSetIterator(rootDir,
+                        ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN, 4, 2, true, 119L);
+        ExistingMiniBatchDataSetIterator second = new ExistingMiniBatchDataSetIterator(rootDir,
+                        ExistingMiniBatchDataSetIterator.DEFAULT_PATTERN, 4, 2, true, 119L);
+        assertFalse(first.asyncSupported());
+
+        List<Integer> epoch1 = new ArrayList<>();
+        while (first.hasNext()) {
+            int value = first.next().getFeatures().getInt(0);
+            assertEquals(value, second.next().getFeatures().getInt(0));
+            epoch1.add(value);
+        }
+
+        first.reset();
+        List<Integer> epoch2 = new ArrayList<>();
+        while (first.hasNext())
+            epoch2.add(first.next().getFeatures().getInt(0));
+
+        // every file is read exactly once per epoch, in different order
+        assertNotEquals(epoch1, epoch2);
+        Collections.sort(epoch1);
+        Collections.sort(epoch2);
+        assertEquals(epoch1, epoch2);
+        for (int i = 0; i < 20; i++)
+            assertEquals(i, epoch1.get(i).intValue());
+
+        FileUtils.deleteDirectory(rootDir);
+    }
+
+    @Test
+    public void testPrefetchWindow() throws Exception {
+        final AtomicInteger started = new AtomicInteger(0);
+        final AtomicInteger consumed = new AtomicInteger(0);
+        final AtomicInteger maxAhead = new AtomicInteger(0);
+
+        PrefetchingDataSetLoader loader = new PrefetchingDataSetLoader(new PrefetchingDataSetLoader.Loader() {
+            @Override
+            public DataSet load(int index) throws IOException {
+                int ahead = started.incrementAndGet() - consumed.get();
+                if (ahead > maxAhead.get())
+                    maxAhead.set(ahead);
+
+                return new DataSet(Nd4j.valueArrayOf(1, 4, index), Nd4j.create(1, 2));
+            }
+        }, 20, 3, 4, false, 0L);
+
+        for (int epoch = 0; epoch < 2; epoch++) {
+            loader.reset();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, loader.next().getFeatures().getInt(0));
+                consumed.incrementAndGet();
+            }
+            assertFalse(loader.hasNext());
+        }
+
+        // no more than prefetchSize DataSets are loaded ahead of the consumer
+        assertTrue(maxAhead.get() <= 3);
+        assertEquals(40, started.get());
+        loader.shutdown();
+    }
+
     @Override
     public char ordering() {
         return 'f';
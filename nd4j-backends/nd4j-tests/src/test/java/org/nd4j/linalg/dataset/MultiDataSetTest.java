@@ -248,6 +248,39 @@ public class MultiDataSetTest extends BaseNd4jTest {
         assertEquals(expOut1, merged.getLabels(1));
     }
 
+    @Test
+    public void testMergingManyDense() {
+        //Enough data to get copies split between threads, mixed with views and 'f' ordered arrays
+        int nRows = 64;
+        INDArray expIn0 = Nd4j.rand(nRows, 1024);
+        INDArray expIn1 = Nd4j.rand(new int[] {nRows, 3, 8, 8});
+        INDArray expOut = Nd4j.rand(nRows, 10);
+
+        for (boolean dense : new boolean[] {true, false}) {
+            List<MultiDataSet> list = new ArrayList<>();
+            for (int i = 0; i < nRows; i += 4) {
+                INDArrayIndex interval = NDArrayIndex.interval(i, i + 4);
+                INDArray in0 = expIn0.get(interval, NDArrayIndex.all());
+                INDArray in1 = expIn1.get(interval, NDArrayIndex.all(), NDArrayIndex.all(), NDArrayIndex.all());
+                INDArray out = expOut.get(interval, NDArrayIndex.all());
+
+                if (dense)
+                    list.add(new MultiDataSet(new INDArray[] {in0.dup('c'), in1.dup('c')},
+                                    new INDArray[] {out.dup('c')}));
+                else
+                    list.add(new MultiDataSet(new INDArray[] {i % 8 == 0 ? in0 : in0.dup('f'), in1.dup('f')},
+                                    new INDArray[] {out.dup('f')}));
+            }
+
+            MultiDataSet merged = MultiDataSet.merge(list);
+            assertEquals(expIn0, merged.getFeatures(0));
+            assertEquals(expIn1, merged.getFeatures(1));
+            assertEquals(expOut, merged.getLabels(0));
+            assertNull(merged.getFeaturesMaskArrays());
+            assertNull(merged.getLabelsMaskArrays());
+        }
+    }
+
     @Test
     public void testMergingTimeSeriesEqualLength() {
         int tsLength = 8;
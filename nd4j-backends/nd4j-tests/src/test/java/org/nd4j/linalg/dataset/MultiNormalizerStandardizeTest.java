@@ -69,6 +69,13 @@ public class MultiNormalizerStandardizeTest extends BaseNd4jTest {
         assertExpectedMeanStd();
     }
 
+    @Test
+    public void testMultipleInputsAndOutputsWithParallelIterator() {
+        MultiDataSetIterator iter = new TestMultiDataSetIterator(16, data);
+        SUT.fit(iter, 4);
+        assertExpectedMeanStd();
+    }
+
     @Test
     public void testRevertFeaturesINDArray() {
         SUT.fit(data);
@@ -80,6 +80,24 @@ public class NormalizerMinMaxScalerTest extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testParallelFit() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray features = Nd4j.rand(500, 5).subi(0.5).muli(100);
+        DataSet sampleDataSet = new DataSet(features, Nd4j.zeros(500, 2));
+
+        NormalizerMinMaxScaler serial = new NormalizerMinMaxScaler();
+        serial.fit(new TestDataSetIterator(sampleDataSet, 9));
+
+        NormalizerMinMaxScaler parallel = new NormalizerMinMaxScaler();
+        parallel.fit(new TestDataSetIterator(sampleDataSet, 9), 3);
+
+        assertEquals(serial.getMin(), parallel.getMin());
+        assertEquals(serial.getMax(), parallel.getMax());
+        assertEquals(features.min(0), parallel.getMin());
+        assertEquals(features.max(0), parallel.getMax());
+    }
+
     @Test
     public void testRevert() {
         double tolerancePerc = 1; // 1% of correct value
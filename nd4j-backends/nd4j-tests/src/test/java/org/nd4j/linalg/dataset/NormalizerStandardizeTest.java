@@ -8,6 +8,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.TestDataSetIterator;
 import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.dataset.api.preprocessor.stats.DistributionStats;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.ops.transforms.Transforms;
@@ -76,6 +77,55 @@ public class NormalizerStandardizeTest extends BaseNd4jTest {
         assertTrue(maxStdDeltaPerc < tolerancePerc);
     }
 
+    @Test
+    public void testParallelFit() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray features = Nd4j.rand(1000, 5).muli(100).addi(50);
+        INDArray labels = Nd4j.rand(1000, 3).muli(10);
+        DataSet sampleDataSet = new DataSet(features, labels);
+
+        NormalizerStandardize serial = new NormalizerStandardize();
+        serial.fitLabel(true);
+        serial.fit(new TestDataSetIterator(sampleDataSet, 7));
+
+        NormalizerStandardize parallel = new NormalizerStandardize();
+        parallel.fitLabel(true);
+        parallel.fit(new TestDataSetIterator(sampleDataSet, 7), 4);
+
+        // values are ~100, so this is ~1e-4 relative tolerance
+        double tolerance = 1e-2;
+        assertArrayEquals(serial.getMean().data().asDouble(), parallel.getMean().data().asDouble(), tolerance);
+        assertArrayEquals(serial.getStd().data().asDouble(), parallel.getStd().data().asDouble(), tolerance);
+        assertArrayEquals(serial.getLabelMean().data().asDouble(), parallel.getLabelMean().data().asDouble(),
+                        tolerance);
+        assertArrayEquals(serial.getLabelStd().data().asDouble(), parallel.getLabelStd().data().asDouble(),
+                        tolerance);
+
+        // and both are close to statistics of the whole data set
+        assertArrayEquals(features.mean(0).data().asDouble(), parallel.getMean().data().asDouble(), tolerance);
+        assertArrayEquals(features.std(false, 0).data().asDouble(), parallel.getStd().data().asDouble(), tolerance);
+    }
+
+    @Test
+    public void testMergeStatsBuilders() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray first = Nd4j.rand(100, 5).muli(10);
+        INDArray second = Nd4j.rand(30, 5).muli(10).addi(5);
+
+        DistributionStats.Builder merged = new DistributionStats.Builder().add(first, null);
+        merged.merge(new DistributionStats.Builder().add(second, null));
+
+        DistributionStats expected = new DistributionStats.Builder().add(Nd4j.vstack(first, second), null).build();
+        DistributionStats actual = merged.build();
+
+        assertArrayEquals(expected.getMean().data().asDouble(), actual.getMean().data().asDouble(), 1e-4);
+        assertArrayEquals(expected.getStd().data().asDouble(), actual.getStd().data().asDouble(), 1e-4);
+
+        // empty builder doesn't change anything
+        merged.merge(new DistributionStats.Builder());
+        assertEquals(actual.getMean(), merged.build().getMean());
+    }
+
     @Test
     public void testTransform() {
         /*Random dataset is generated such that
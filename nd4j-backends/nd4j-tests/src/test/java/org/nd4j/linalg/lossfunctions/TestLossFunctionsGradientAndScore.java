@@ -0,0 +1,101 @@
+package org.nd4j.linalg.lossfunctions;
+
+import org.apache.commons.math3.util.Pair;
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.activations.IActivation;
+import org.nd4j.linalg.activations.impl.ActivationIdentity;
+import org.nd4j.linalg.activations.impl.ActivationSigmoid;
+import org.nd4j.linalg.activations.impl.ActivationSoftmax;
+import org.nd4j.linalg.activations.impl.ActivationTanH;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.lossfunctions.impl.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * computeGradientAndScore() computes score and gradient in one go, so here we check it against
+ * separate computeScore() and computeGradient() calls
+ */
+public class TestLossFunctionsGradientAndScore extends BaseNd4jTest {
+    private static final int MINIBATCH = 5;
+    private static final int OUTPUTS = 4;
+
+    public TestLossFunctionsGradientAndScore(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testGradientAndScore() {
+        INDArray weights = Nd4j.create(new double[] {0.5, 1.0, 2.0, 1.5});
+
+        ILossFunction[] losses = new ILossFunction[] {new LossL2(), new LossL2(weights), new LossMSE(),
+                        new LossMCXENT(), new LossMCXENT(weights), new LossNegativeLogLikelihood(),
+                        new LossBinaryXENT(), new LossBinaryXENT(weights), new LossKLD(), new LossL1(),
+                        new LossL1(weights), new LossMAE(), new LossMAPE(), new LossMSLE(), new LossPoisson(),
+                        new LossHinge(), new LossSquaredHinge(), new LossCosineProximity()};
+
+        IActivation[][] activations = new IActivation[][] {{new ActivationIdentity(), new ActivationTanH()},
+                        {new ActivationIdentity(), new ActivationSigmoid()},
+                        {new ActivationIdentity(), new ActivationSoftmax()},
+                        {new ActivationSoftmax(), new ActivationSigmoid()},
+                        {new ActivationSoftmax(), new ActivationSigmoid()},
+                        {new ActivationSoftmax()},
+                        {new ActivationSigmoid(), new ActivationSoftmax()},
+                        {new ActivationSigmoid()},
+                        {new ActivationSoftmax(), new ActivationSigmoid()},
+                        {new ActivationIdentity(), new ActivationTanH()},
+                        {new ActivationIdentity(), new ActivationSigmoid()},
+                        {new ActivationIdentity(), new ActivationSoftmax()},
+                        {new ActivationIdentity(), new ActivationSigmoid()},
+                        {new ActivationSigmoid(), new ActivationSoftmax()},
+                        {new ActivationSigmoid(), new ActivationSoftmax()},
+                        {new ActivationIdentity(), new ActivationTanH()},
+                        {new ActivationIdentity(), new ActivationTanH()},
+                        {new ActivationIdentity(), new ActivationTanH()}};
+
+        INDArray exampleMask = Nd4j.create(new double[] {1, 0, 1, 1, 0}, new int[] {MINIBATCH, 1});
+        INDArray outputMask = Nd4j.rand(MINIBATCH, OUTPUTS).gt(0.3);
+
+        Nd4j.getRandom().setSeed(119);
+        for (int l = 0; l < losses.length; l++) {
+            for (IActivation activation : activations[l]) {
+                boolean softmax = activation instanceof ActivationSoftmax;
+                boolean perOutputMask = !(softmax && losses[l] instanceof LossMCXENT)
+                                && !(losses[l] instanceof LossCosineProximity);
+
+                INDArray[] masks = perOutputMask ? new INDArray[] {null, exampleMask, outputMask}
+                                : new INDArray[] {null, exampleMask};
+
+                for (INDArray mask : masks) {
+                    INDArray labels = Nd4j.rand(MINIBATCH, OUTPUTS);
+                    INDArray preOutput = Nd4j.randn(MINIBATCH, OUTPUTS);
+
+                    String msg = losses[l] + ", " + activation + ", mask: " + (mask == null ? "none"
+                                    : mask == exampleMask ? "per example" : "per output");
+
+                    // some activations modify preOutput during backprop, so each call gets its own copy
+                    for (boolean average : new boolean[] {true, false}) {
+                        double expScore = losses[l].computeScore(labels, preOutput.dup(), activation, mask,
+                                        average);
+                        INDArray expGradient = losses[l].computeGradient(labels, preOutput.dup(), activation, mask);
+
+                        Pair<Double, INDArray> pair = losses[l].computeGradientAndScore(labels, preOutput.dup(),
+                                        activation, mask, average);
+
+                        assertEquals(msg, expScore, pair.getFirst(), Math.abs(expScore) * 1e-5);
+                        assertTrue(msg, expGradient.equalsWithEps(pair.getSecond(), 1e-5));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
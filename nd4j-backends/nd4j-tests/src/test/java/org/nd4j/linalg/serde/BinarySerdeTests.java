@@ -0,0 +1,137 @@
+package org.nd4j.linalg.serde;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(Parameterized.class)
+@Slf4j
+public class BinarySerdeTests extends BaseNd4jTest {
+    public BinarySerdeTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testReadWrite1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 60, 60).reshape(3, 4, 5);
+
+        File tempFile = File.createTempFile("binarySerde", "bin");
+        tempFile.deleteOnExit();
+
+        Nd4j.saveBinary(array, tempFile);
+        assertTrue(BinarySerde.isBinaryFormat(tempFile));
+
+        // header is aligned, so file is header + raw data
+        assertEquals(0, (tempFile.length() - 60 * Nd4j.sizeOfDataType()) % BinarySerde.ALIGNMENT);
+
+        INDArray restored = Nd4j.readBinary(tempFile);
+        assertEquals(array, restored);
+        assertArrayEquals(array.shape(), restored.shape());
+    }
+
+    @Test
+    public void testMmap1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+
+        File tempFile = File.createTempFile("binarySerde", "bin");
+        tempFile.deleteOnExit();
+
+        Nd4j.saveBinary(array, tempFile);
+
+        INDArray mapped = Nd4j.mmapBinary(tempFile);
+        assertEquals(array, mapped);
+
+        // mapping is private, so in-place changes don't touch the file
+        mapped.addi(1.0);
+        assertEquals(array.add(1.0), mapped);
+        assertEquals(array, Nd4j.readBinary(tempFile));
+    }
+
+    @Test
+    public void testView1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 100, 100).reshape(10, 10);
+        INDArray view = array.getColumn(3);
+
+        File tempFile = File.createTempFile("binarySerde", "bin");
+        tempFile.deleteOnExit();
+
+        Nd4j.saveBinary(view, tempFile);
+
+        assertEquals(view, Nd4j.readBinary(tempFile));
+        assertEquals(view, Nd4j.mmapBinary(tempFile));
+    }
+
+    @Test
+    public void testLegacyFormat1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 10, 10);
+
+        File tempFile = File.createTempFile("binarySerde", "bin");
+        tempFile.deleteOnExit();
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            Nd4j.write(array, dos);
+        }
+
+        assertFalse(BinarySerde.isBinaryFormat(tempFile));
+        assertEquals(array, Nd4j.readBinary(tempFile));
+        assertEquals(array, Nd4j.mmapBinary(tempFile));
+    }
+
+    @Test
+    public void testHalfReadWrite1() throws Exception {
+        DataBuffer.Type initialType = Nd4j.dataType();
+        try {
+            Nd4j.setDataType(DataBuffer.Type.HALF);
+
+            INDArray array;
+            try {
+                array = Nd4j.linspace(1, 20, 20).reshape(4, 5);
+            } catch (UnsupportedOperationException e) {
+                // not every backend supports FP16
+                assumeTrue(false);
+                return;
+            }
+
+            File tempFile = File.createTempFile("binarySerde", "bin");
+            tempFile.deleteOnExit();
+
+            // binary format can't hold HALF, so legacy stream format is used instead
+            Nd4j.saveBinary(array, tempFile);
+            assertFalse(BinarySerde.isBinaryFormat(tempFile));
+
+            assertEquals(array, Nd4j.readBinary(tempFile));
+            assertEquals(array, Nd4j.mmapBinary(tempFile));
+        } finally {
+            Nd4j.setDataType(initialType);
+        }
+    }
+
+    @Test
+    public void testSupportedTypes1() {
+        assertTrue(BinarySerde.isSupported(DataBuffer.Type.FLOAT));
+        assertTrue(BinarySerde.isSupported(DataBuffer.Type.DOUBLE));
+        assertTrue(BinarySerde.isSupported(DataBuffer.Type.INT));
+        assertTrue(BinarySerde.isSupported(DataBuffer.Type.COMPRESSED));
+        assertFalse(BinarySerde.isSupported(DataBuffer.Type.HALF));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -0,0 +1,103 @@
+package org.nd4j.linalg.serde;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.serde.binary.StreamingSerde;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+@Slf4j
+public class StreamingSerdeTests extends BaseNd4jTest {
+    public StreamingSerdeTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    private static byte[] legacyBytes(INDArray view) throws Exception {
+        INDArray dup = view.dup();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        dup.shapeInfoDataBuffer().write(dos);
+        dup.data().write(dos);
+        dos.flush();
+        return bos.toByteArray();
+    }
+
+    private static byte[] streamedBytes(INDArray view) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        StreamingSerde.writeView(view, dos);
+        dos.flush();
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void testSameFormat1() throws Exception {
+        INDArray array = Nd4j.linspace(1, 600, 600).reshape(10, 20, 3);
+
+        INDArray[] views = new INDArray[] {array.getRow(3), array.tensorAlongDimension(2, 0, 2),
+                        array.get(NDArrayIndex.interval(2, 7), NDArrayIndex.all(), NDArrayIndex.point(1)),
+                        array.get(NDArrayIndex.all(), NDArrayIndex.interval(1, 2, 15), NDArrayIndex.all()),
+                        array.permute(2, 0, 1).slice(1)};
+
+        for (INDArray view : views) {
+            assertTrue(view.isView());
+            assertArrayEquals(legacyBytes(view), streamedBytes(view));
+        }
+    }
+
+    @Test
+    public void testSameFormat2() throws Exception {
+        INDArray array = Nd4j.linspace(1, 400, 400).reshape('f', 20, 20);
+
+        INDArray[] views = new INDArray[] {array.getRow(5), array.getColumn(5),
+                        array.get(NDArrayIndex.interval(3, 17), NDArrayIndex.interval(0, 2, 20))};
+
+        for (INDArray view : views) {
+            assertTrue(view.isView());
+            assertArrayEquals(legacyBytes(view), streamedBytes(view));
+        }
+    }
+
+    @Test
+    public void testLargeView1() throws Exception {
+        // view spanning multiple buffer flushes
+        INDArray array = Nd4j.rand(300, 200);
+        INDArray view = array.get(NDArrayIndex.interval(10, 290), NDArrayIndex.interval(5, 195));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(bos, view);
+
+        INDArray restored = Nd4j.read(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(view, restored);
+    }
+
+    @Test
+    public void testBinaryView1() throws Exception {
+        INDArray array = Nd4j.rand(300, 200);
+        INDArray view = array.get(NDArrayIndex.interval(10, 290), NDArrayIndex.interval(5, 195));
+
+        File tempFile = File.createTempFile("streamingSerde", "bin");
+        tempFile.deleteOnExit();
+
+        Nd4j.saveBinary(view, tempFile);
+        assertEquals(view, Nd4j.readBinary(tempFile));
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
@@ -102,7 +102,6 @@ public abstract class BaseDataBuffer implements DataBuffer {
         this.length = length;
         this.allocationMode = AllocationMode.JAVACPP;
         this.underlyingLength = length;
-        this.wrappedDataBuffer = this;
 
         this.pointer = pointer;
         setIndexer(indexer);
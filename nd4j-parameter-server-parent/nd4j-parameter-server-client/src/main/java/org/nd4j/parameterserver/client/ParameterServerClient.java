@@ -30,6 +30,11 @@ import java.util.concurrent.atomic.AtomicReference;
  * getArray() is used for retrieving the master ndarray's current
  * state from the parameter server.
  *
+ * If encodingThreshold is set, pushNDArray sends threshold encoded
+ * updates instead of dense arrays: only elements that accumulated
+ * at least threshold are sent (as +-threshold), the rest is kept
+ * in a residual and carried over to the next push.
+ *
  * @author Adam Gibson
  */
 @Data
@@ -57,6 +62,10 @@ public class ParameterServerClient implements NDArrayCallback {
     private ObjectMapper objectMapper = new ObjectMapper();
     private Aeron aeron;
     private boolean compressArray = true;
+    //threshold for sparse updates, 0 means dense updates
+    private double encodingThreshold;
+    //updates accumulated, but not sent yet due to encoding threshold
+    private INDArray residual;
 
     /**
      * Tracks number of
@@ -176,8 +185,10 @@ public class ParameterServerClient implements NDArrayCallback {
         int streamToPublish = Integer.parseInt(split[2]);
         String channel = AeronUtil.aeronChannel(split[0], port);
         log.debug("Parameter server client publishing to " + ndarraySendUrl);
+        //encoded messages are never compressed on top
+        boolean compress = isCompressArray() && message.getEncoding() == NDArrayMessage.ArrayEncoding.NONE;
         try (AeronNDArrayPublisher publisher = AeronNDArrayPublisher.builder().streamId(streamToPublish)
-                        .compress(isCompressArray()).aeron(aeron).channel(channel).build()) {
+                        .compress(compress).aeron(aeron).channel(channel).build()) {
             publisher.publish(message);
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -191,10 +202,30 @@ public class ParameterServerClient implements NDArrayCallback {
      * host;port:stream
      * where stream is the stream for connecting
      * to a listening aeron server
+     *
+     * If encoding threshold is set, arr is added to the residual
+     * and only the part of it that reached threshold is sent.
      * @param arr the array to send
      */
     public void pushNDArray(INDArray arr) {
-        pushNDArrayMessage(NDArrayMessage.wholeArrayUpdate(arr));
+        if (encodingThreshold <= 0) {
+            pushNDArrayMessage(NDArrayMessage.wholeArrayUpdate(arr));
+            return;
+        }
+
+        NDArrayMessage message;
+        synchronized (this) {
+            if (residual == null)
+                residual = arr.dup();
+            else
+                residual.addi(arr);
+
+            message = NDArrayMessage.thresholdEncoded(residual, encodingThreshold);
+        }
+
+        //nothing reached threshold yet, everything stays in residual
+        if (message != null)
+            pushNDArrayMessage(message);
     }
 
 
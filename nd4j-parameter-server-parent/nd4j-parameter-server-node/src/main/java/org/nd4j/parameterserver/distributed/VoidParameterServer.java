@@ -7,15 +7,21 @@ import org.apache.commons.math3.util.Pair;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.*;
+import org.nd4j.parameterserver.distributed.logic.allreduce.RingAllReducer;
+import org.nd4j.parameterserver.distributed.logic.allreduce.TreeAllReducer;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.sequence.BasicSequenceProvider;
+import org.nd4j.parameterserver.distributed.logic.threading.HashedWorkerPool;
 import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.*;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.*;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.training.impl.SkipGramTrainer;
+import org.nd4j.parameterserver.distributed.transport.BaseTransport;
 import org.nd4j.parameterserver.distributed.transport.MulticastTransport;
 import org.nd4j.parameterserver.distributed.transport.RoutedTransport;
 import org.nd4j.parameterserver.distributed.transport.Transport;
@@ -73,6 +79,12 @@ public class VoidParameterServer {
 
     protected Storage storage = new WordVectorStorage();
 
+    // available on Shards only, for RING_ALLREDUCE and TREE_ALLREDUCE execution modes
+    protected transient AllReducer allReducer;
+
+    // available on Shards only, if VoidConfiguration.numberOfWorkers > 0
+    protected transient HashedWorkerPool workers;
+
     protected Map<String, Frame<TrainingMessage>> frames = new ConcurrentHashMap<>();
 
     protected static final int numThreads = Runtime.getRuntime().availableProcessors() * 2;
@@ -182,6 +194,16 @@ public class VoidParameterServer {
 
                 this.transport = transport;
 
+                // all-reduce modes send segments to specific Shards, so we fail early if transport can't do that
+                if ((voidConfiguration.getExecutionMode() == ExecutionMode.RING_ALLREDUCE
+                                || voidConfiguration.getExecutionMode() == ExecutionMode.TREE_ALLREDUCE)
+                                && !transport.isPeerDeliverySupported()) {
+                    initLocker.set(false);
+                    throw new ND4JIllegalStateException("ExecutionMode " + voidConfiguration.getExecutionMode()
+                                    + " can't be used with " + transport.getClass().getSimpleName()
+                                    + ", please use RoutedTransport instead");
+                }
+
                 // first we need to check, if our current IP matches designated shards or backup
                 if (nodeRole == NodeRole.NONE && (voidConfiguration.getForcedRole() == null
                                 || voidConfiguration.getForcedRole() == NodeRole.NONE)) {
@@ -235,6 +257,25 @@ public class VoidParameterServer {
                                     voidConfiguration.getUnicastPort(), shardIndex);
                 }
 
+                if (nodeRole == NodeRole.SHARD) {
+                    if (voidConfiguration.getExecutionMode() == ExecutionMode.RING_ALLREDUCE)
+                        allReducer = new RingAllReducer();
+                    else if (voidConfiguration.getExecutionMode() == ExecutionMode.TREE_ALLREDUCE)
+                        allReducer = new TreeAllReducer();
+
+                    if (allReducer != null)
+                        allReducer.init(voidConfiguration, this.transport, shardIndex);
+
+                    if (voidConfiguration.getNumberOfWorkers() > 0) {
+                        // workers altogether hold no more messages than incoming queue of transport does
+                        int capacity = voidConfiguration.getMessageQueueCapacity() > 0
+                                        ? voidConfiguration.getMessageQueueCapacity()
+                                        : BaseTransport.DEFAULT_QUEUE_CAPACITY;
+                        workers = new HashedWorkerPool(voidConfiguration.getNumberOfWorkers(),
+                                        Math.max(1, capacity / voidConfiguration.getNumberOfWorkers()));
+                    }
+                }
+
 
                 // TODO: we need real ip only if this is a shard *FOR NOW*, but later we'll need it for client as well
 
@@ -248,12 +289,16 @@ public class VoidParameterServer {
                             runner.set(true);
                             while (runner.get()) {
                                 try {
-                                    //VoidMessage message = transport.takeMessage();
-
                                     //                                    if (nodeRole == NodeRole.SHARD)
                                     //                                        log.info("Processing message: {}", message.getClass().getSimpleName());
 
-                                    handleMessage(transport.takeMessage());
+                                    VoidMessage message = transport.takeMessage();
+
+                                    // transport was shut down, nothing else will arrive
+                                    if (message == null)
+                                        break;
+
+                                    handleMessage(message);
 
                                 } catch (ND4JIllegalStateException e) {
                                     throw new RuntimeException(e);
@@ -344,6 +389,9 @@ public class VoidParameterServer {
             //transport.sendMessage(new ShutdownRequestMessage());
             transport.shutdown();
 
+            if (workers != null)
+                workers.shutdown();
+
             executor.shutdown();
 
         }
@@ -399,7 +447,33 @@ public class VoidParameterServer {
         //      log.info("sI_{}: Processing message: [{}]", shardIndex, message.getClass().getSimpleName());
 
         message.attachContext(voidConfiguration, trainer, clipboard, transport, storage, nodeRole, shardIndex);
-        message.processMessage();
+
+        if (message instanceof DistributedAllReduceMessage && allReducer != null)
+            ((DistributedAllReduceMessage) message).attachReducer(allReducer);
+
+        if (workers == null)
+            message.processMessage();
+        else if (message instanceof Frame)
+            ((Frame<?>) message).processMessage(workers);
+        else
+            workers.execute(message.getOriginatorId(), message.getTaskId(), message::processMessage);
+    }
+
+    /**
+     * This method sums given array with arrays passed by all other Shards, using ring or tree all-reduce,
+     * depending on ExecutionMode. Result is stored in the given array.
+     *
+     * PLEASE NOTE: This method is blocking, and all Shards should call it for the same sequence of arrays
+     *
+     * @param array
+     * @return
+     */
+    public INDArray allReduce(@NonNull INDArray array) {
+        if (allReducer == null)
+            throw new ND4JIllegalStateException(
+                            "allReduce() is available only on Shards, with RING_ALLREDUCE or TREE_ALLREDUCE execution mode");
+
+        return allReducer.allReduce(array);
     }
 
     /**
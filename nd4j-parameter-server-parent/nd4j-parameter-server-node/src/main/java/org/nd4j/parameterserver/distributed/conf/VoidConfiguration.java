@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
 import org.nd4j.parameterserver.distributed.enums.FaultToleranceStrategy;
+import org.nd4j.parameterserver.distributed.enums.IdleMode;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 
 import java.io.Serializable;
@@ -48,6 +49,29 @@ public class VoidConfiguration implements Serializable {
     private long responseTimeframe;
     private long responseTimeout;
 
+    // This values have effect only for RoutedTransport: small outgoing messages are coalesced into batches
+    private boolean messageBatching;
+    // max time in microseconds message can wait for batch to be filled, 0 means batch is flushed as soon as sender thread gets to it
+    private long messageBatchDelay;
+    // max batch size in bytes, 0 means max payload length of single Aeron frame
+    private int messageBatchSize;
+    // max number of messages queued for sender thread per connection, producers are blocked once it's full
+    private int messageOutboxCapacity;
+
+    // This value has effect only for RING_ALLREDUCE and TREE_ALLREDUCE execution modes:
+    // arrays are reduced in segments of this length, so transfers are pipelined
+    private int allReduceSegmentLength;
+
+    // capacity of incoming messages queue, senders are backpressured once it's full
+    private int messageQueueCapacity;
+    // how transport threads wait for incoming messages
+    private IdleMode idleMode;
+
+    // This value has effect only on Shards: messages are processed by pool of workers, hashed by originatorId and taskId.
+    // So messages of the same task are processed in order, and unrelated tasks run in parallel.
+    // 0 means messages are processed by transport handler threads right away
+    private int numberOfWorkers;
+
     public void setStreamId(int streamId) {
         if (streamId < 1)
             throw new ND4JIllegalStateException("You can't use streamId 0, please specify other one");
@@ -98,5 +122,13 @@ public class VoidConfiguration implements Serializable {
         private long retransmitTimeout = 1000;
         private long responseTimeframe = 500;
         private long responseTimeout = 30000;
+        private boolean messageBatching = true;
+        private long messageBatchDelay = 0;
+        private int messageBatchSize = 0;
+        private int messageOutboxCapacity = 8192;
+        private int allReduceSegmentLength = 16384;
+        private int messageQueueCapacity = 65536;
+        private IdleMode idleMode = IdleMode.BLOCK;
+        private int numberOfWorkers = Runtime.getRuntime().availableProcessors();
     }
 }
@@ -1,8 +1,22 @@
 package org.nd4j.parameterserver.distributed.enums;
 
 /**
+ * DISTRIBUTED: model is split between Shards
+ * AVERAGING: each Shard keeps full copy of the model, copies are averaged
+ * RING_ALLREDUCE, TREE_ALLREDUCE: same as AVERAGING, but copies are reduced between Shards with ring or tree all-reduce,
+ * see {@link org.nd4j.parameterserver.distributed.logic.AllReducer}
+ *
  * @author raver119@gmail.com
  */
 public enum ExecutionMode {
-    DISTRIBUTED, AVERAGING,
+    DISTRIBUTED, AVERAGING, RING_ALLREDUCE, TREE_ALLREDUCE,;
+
+    /**
+     * This method returns TRUE if each Shard keeps full copy of the model in this mode
+     *
+     * @return
+     */
+    public boolean isReplicated() {
+        return this != DISTRIBUTED;
+    }
 }
@@ -0,0 +1,46 @@
+package org.nd4j.parameterserver.distributed.enums;
+
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.SleepingIdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This enum describes how transport threads wait for work
+ *
+ * BUSY_SPIN: lowest latency, but each waiting thread burns whole CPU core
+ * YIELD: spins with Thread.yield(), so other threads can make progress on the same core
+ * PARK: parks thread for 1 microsecond between checks
+ * BACKOFF: spins first, then yields, then parks for up to 100 microseconds
+ * BLOCK: same as PARK, but threads consuming incoming messages block once queue stays empty for a while,
+ * until next message arrives. This mode uses least CPU, so it's the best choice when there are more threads than cores
+ */
+public enum IdleMode {
+    BUSY_SPIN, YIELD, PARK, BACKOFF, BLOCK,;
+
+    /**
+     * This method creates new IdleStrategy instance for this mode.
+     *
+     * PLEASE NOTE: IdleStrategy instances are stateful, so each thread should use its own instance
+     *
+     * @return
+     */
+    public IdleStrategy createIdleStrategy() {
+        switch (this) {
+            case BUSY_SPIN:
+                return new BusySpinIdleStrategy();
+            case YIELD:
+                return new YieldingIdleStrategy();
+            case PARK:
+            case BLOCK:
+                return new SleepingIdleStrategy(TimeUnit.MICROSECONDS.toNanos(1));
+            case BACKOFF:
+            default:
+                return new BackoffIdleStrategy(100, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                                TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+}
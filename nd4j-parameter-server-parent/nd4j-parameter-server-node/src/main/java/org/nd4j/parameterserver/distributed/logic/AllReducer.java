@@ -0,0 +1,34 @@
+package org.nd4j.parameterserver.distributed.logic;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+import org.nd4j.parameterserver.distributed.transport.Transport;
+
+/**
+ * This interface describes collective reduction of arrays between Shards:
+ * each Shard passes its own array, and gets back elementwise sum of arrays from all Shards.
+ *
+ * PLEASE NOTE: all Shards should call allReduce() for the same sequence of arrays, in the same order
+ */
+public interface AllReducer {
+
+    void init(VoidConfiguration voidConfiguration, Transport transport, short shardIndex);
+
+    /**
+     * This method sums given array with arrays passed by all other Shards. Result is stored in the given array.
+     *
+     * PLEASE NOTE: This method is blocking
+     *
+     * @param array
+     * @return the same array
+     */
+    INDArray allReduce(INDArray array);
+
+    /**
+     * This method handles part of the reduction, received from other Shard
+     *
+     * @param message
+     */
+    void processMessage(DistributedAllReduceMessage message);
+}
@@ -0,0 +1,292 @@
+package org.nd4j.parameterserver.distributed.logic.allreduce;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.logic.AllReducer;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+import org.nd4j.parameterserver.distributed.transport.Transport;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Basic all-reduce implementation: operation bookkeeping and segmentation of arrays.
+ *
+ * Array is split into partitions (defined by implementation), and each partition is split into segments of at most
+ * {@link VoidConfiguration#getAllReduceSegmentLength()} elements. Segments are reduced independently, so transfer
+ * of one segment overlaps with reduction of others. Segments are views of the original array,
+ * so incoming data is accumulated in place.
+ *
+ * Each allReduce() call gets sequential operation id, so all Shards have to call it in the same order.
+ * Segments arriving before local allReduce() call are kept aside, and processed as soon as that call happens.
+ */
+@Slf4j
+public abstract class BaseAllReducer implements AllReducer {
+    public static final int DEFAULT_SEGMENT_LENGTH = 16384;
+
+    protected VoidConfiguration voidConfiguration;
+    protected Transport transport;
+    protected short shardIndex;
+    protected int numberOfShards;
+    protected int segmentLength;
+
+    protected final Map<Long, Operation> operations = new ConcurrentHashMap<>();
+
+    // guarded by this
+    protected long operationsCounter = 0;
+    protected final Map<Long, List<DistributedAllReduceMessage>> pending = new HashMap<>();
+
+    @Override
+    public void init(@NonNull VoidConfiguration voidConfiguration, @NonNull Transport transport, short shardIndex) {
+        this.voidConfiguration = voidConfiguration;
+        this.transport = transport;
+        this.shardIndex = shardIndex;
+        this.numberOfShards = voidConfiguration.getNumberOfShards();
+        this.segmentLength = voidConfiguration.getAllReduceSegmentLength() > 0
+                        ? voidConfiguration.getAllReduceSegmentLength() : DEFAULT_SEGMENT_LENGTH;
+
+        if (shardIndex < 0 || shardIndex >= numberOfShards)
+            throw new ND4JIllegalStateException(
+                            "ShardIndex [" + shardIndex + "] is out of range for [" + numberOfShards + "] Shards");
+    }
+
+    /**
+     * State of single all-reduce operation
+     */
+    protected static class Operation {
+        protected final long id;
+        // single contiguous c-ordered block
+        protected final INDArray array;
+        // segment s covers [starts[s], starts[s + 1])
+        protected final int[] starts;
+        protected final int[] partitions;
+        // implementation-specific per-segment counters
+        protected AtomicIntegerArray counters;
+
+        protected final AtomicInteger remaining = new AtomicInteger(0);
+        protected final CountDownLatch latch = new CountDownLatch(1);
+        protected volatile Throwable error;
+
+        protected Operation(long id, INDArray array, int[] starts, int[] partitions) {
+            this.id = id;
+            this.array = array;
+            this.starts = starts;
+            this.partitions = partitions;
+        }
+
+        protected int numberOfSegments() {
+            return partitions.length;
+        }
+
+        protected int length(int segment) {
+            return starts[segment + 1] - starts[segment];
+        }
+
+        /**
+         * This method returns view of the given segment
+         */
+        protected INDArray segment(int segment) {
+            int length = length(segment);
+            return Nd4j.create(array.data(), new int[] {1, length}, new int[] {length, 1},
+                            array.offset() + starts[segment], 'c');
+        }
+
+        protected void processed() {
+            if (remaining.decrementAndGet() == 0)
+                latch.countDown();
+        }
+
+        protected void fail(Throwable t) {
+            error = t;
+            latch.countDown();
+        }
+    }
+
+    /**
+     * This method returns partition boundaries for array of given length: partition p covers [result[p], result[p + 1])
+     *
+     * @param length
+     * @return
+     */
+    protected abstract int[] partitions(int length);
+
+    /**
+     * This method returns number of segments this Shard will receive within given operation
+     *
+     * @param operation
+     * @return
+     */
+    protected abstract int expectedMessages(Operation operation);
+
+    /**
+     * This method is called before operation becomes visible to incoming messages
+     *
+     * @param operation
+     */
+    protected void prepare(Operation operation) {
+        //
+    }
+
+    /**
+     * This method sends out segments this Shard starts with
+     *
+     * @param operation
+     */
+    protected abstract void start(Operation operation);
+
+    /**
+     * This method applies received segment, and forwards it further if needed
+     *
+     * @param operation
+     * @param message
+     */
+    protected abstract void handle(Operation operation, DistributedAllReduceMessage message);
+
+    protected Operation createOperation(long id, INDArray array) {
+        int[] boundaries = partitions(array.length());
+
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> partitions = new ArrayList<>();
+        for (int p = 0; p < boundaries.length - 1; p++) {
+            for (int start = boundaries[p]; start < boundaries[p + 1]; start += segmentLength) {
+                starts.add(start);
+                partitions.add(p);
+            }
+        }
+        starts.add(array.length());
+
+        int[] s = new int[starts.size()];
+        for (int i = 0; i < s.length; i++)
+            s[i] = starts.get(i);
+
+        int[] p = new int[partitions.size()];
+        for (int i = 0; i < p.length; i++)
+            p[i] = partitions.get(i);
+
+        Operation operation = new Operation(id, array, s, p);
+        operation.remaining.set(expectedMessages(operation));
+        if (operation.remaining.get() == 0)
+            operation.latch.countDown();
+
+        prepare(operation);
+        return operation;
+    }
+
+    /**
+     * This method sums given array with arrays passed by all other Shards. Result is stored in the given array.
+     *
+     * PLEASE NOTE: This method is blocking, and waits for at most responseTimeout milliseconds
+     *
+     * @param array
+     * @return the same array
+     */
+    @Override
+    public INDArray allReduce(@NonNull INDArray array) {
+        if (numberOfShards < 2)
+            return array;
+
+        // segments are views over single contiguous block, and element order has to be the same on all Shards
+        INDArray buffer = array.isView() || array.ordering() != 'c' ? array.dup('c') : array;
+
+        Operation operation;
+        List<DistributedAllReduceMessage> early;
+        synchronized (this) {
+            operation = createOperation(operationsCounter++, buffer);
+            operations.put(operation.id, operation);
+            early = pending.remove(operation.id);
+        }
+
+        try {
+            start(operation);
+
+            if (early != null)
+                for (DistributedAllReduceMessage message : early)
+                    process(operation, message);
+
+            long timeout = voidConfiguration.getResponseTimeout();
+            if (timeout > 0) {
+                if (!operation.latch.await(timeout, TimeUnit.MILLISECONDS))
+                    throw new ND4JIllegalStateException("sI_" + shardIndex + ": all-reduce [" + operation.id
+                                    + "] timed out, " + operation.remaining.get() + " segments weren't received");
+            } else
+                operation.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            operations.remove(operation.id);
+        }
+
+        if (operation.error != null)
+            throw new ND4JIllegalStateException("sI_" + shardIndex + ": all-reduce [" + operation.id + "] failed",
+                            operation.error);
+
+        if (buffer != array)
+            array.assign(buffer);
+
+        return array;
+    }
+
+    /**
+     * This method handles segment received from other Shard
+     *
+     * @param message
+     */
+    @Override
+    public void processMessage(@NonNull DistributedAllReduceMessage message) {
+        Operation operation;
+        synchronized (this) {
+            operation = operations.get(message.getTaskId());
+            if (operation == null) {
+                if (message.getTaskId() < operationsCounter) {
+                    log.warn("sI_{}: dropping segment [{}] of finished all-reduce [{}]", shardIndex,
+                                    message.getSegment(), message.getTaskId());
+                    return;
+                }
+
+                // local allReduce() call didn't happen yet
+                List<DistributedAllReduceMessage> list = pending.get(message.getTaskId());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    pending.put(message.getTaskId(), list);
+                }
+                list.add(message);
+                return;
+            }
+        }
+
+        process(operation, message);
+    }
+
+    protected void process(Operation operation, DistributedAllReduceMessage message) {
+        try {
+            int segment = message.getSegment();
+            if (segment < 0 || segment >= operation.numberOfSegments() || message.getPayload() == null
+                            || message.getPayload().length() != operation.length(segment))
+                throw new ND4JIllegalStateException("sI_" + shardIndex + ": segment [" + segment + "] of all-reduce ["
+                                + operation.id + "] doesn't match local array");
+
+            handle(operation, message);
+            operation.processed();
+        } catch (Exception e) {
+            log.error("sI_{}: all-reduce [{}] failed", shardIndex, operation.id, e);
+            operation.fail(e);
+        }
+    }
+
+    protected void send(Operation operation, int target, int phase, int segment) {
+        transport.sendMessage(new DistributedAllReduceMessage(operation.id, (short) target, phase, segment,
+                        operation.segment(segment)));
+    }
+}
@@ -0,0 +1,69 @@
+package org.nd4j.parameterserver.distributed.logic.allreduce;
+
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+
+/**
+ * Ring all-reduce: array is split into one partition per Shard, and each Shard talks only to the next one in the ring.
+ *
+ * Reduce-scatter phase: Shard r starts with partition r, and every Shard adds received segment to its own copy
+ * and passes the sum further. After N - 1 hops Shard r holds fully reduced partition r + 1.
+ * All-gather phase: reduced partitions travel the ring once again, overwriting local copies.
+ *
+ * Each Shard sends and receives 2 * (N - 1) / N of the array, regardless of number of Shards.
+ */
+public class RingAllReducer extends BaseAllReducer {
+
+    @Override
+    protected int[] partitions(int length) {
+        int[] result = new int[numberOfShards + 1];
+        for (int p = 0; p <= numberOfShards; p++)
+            result[p] = (int) ((long) length * p / numberOfShards);
+
+        return result;
+    }
+
+    protected int next() {
+        return (shardIndex + 1) % numberOfShards;
+    }
+
+    @Override
+    protected int expectedMessages(Operation operation) {
+        int cnt = 0;
+        for (int partition : operation.partitions) {
+            // reduce-scatter brings all partitions but our own
+            if (partition != shardIndex)
+                cnt++;
+
+            // all-gather brings all partitions but the one reduced here
+            if (partition != next())
+                cnt++;
+        }
+        return cnt;
+    }
+
+    @Override
+    protected void start(Operation operation) {
+        for (int s = 0; s < operation.numberOfSegments(); s++)
+            if (operation.partitions[s] == shardIndex)
+                send(operation, next(), 0, s);
+    }
+
+    @Override
+    protected void handle(Operation operation, DistributedAllReduceMessage message) {
+        int s = message.getSegment();
+        int partition = operation.partitions[s];
+
+        if (message.getPhase() == 0) {
+            operation.segment(s).addi(message.getPayload());
+
+            // if we're the last hop - segment is fully reduced now, and all-gather starts from here
+            send(operation, next(), partition == next() ? 1 : 0, s);
+        } else {
+            operation.segment(s).assign(message.getPayload());
+
+            // all-gather stops right before the Shard which reduced this partition
+            if (partition != (shardIndex + 2) % numberOfShards)
+                send(operation, next(), 1, s);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.nd4j.parameterserver.distributed.logic.allreduce;
+
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tree all-reduce: Shards form binary tree rooted at Shard 0, Shard r has children 2r + 1 and 2r + 2.
+ *
+ * Each segment is summed up the tree as soon as all children delivered it, and fully reduced segment is
+ * broadcast back down from the root. Segments move independently, so reduction of one segment overlaps with
+ * broadcast of others.
+ *
+ * Only log(N) hops are needed, so this mode has lower latency than ring for small arrays and large number of Shards.
+ */
+public class TreeAllReducer extends BaseAllReducer {
+    private final Object[] locks = new Object[64];
+
+    public TreeAllReducer() {
+        for (int i = 0; i < locks.length; i++)
+            locks[i] = new Object();
+    }
+
+    @Override
+    protected int[] partitions(int length) {
+        return new int[] {0, length};
+    }
+
+    protected int parent() {
+        return (shardIndex - 1) / 2;
+    }
+
+    protected int numberOfChildren() {
+        return Math.max(0, Math.min(2, numberOfShards - (2 * shardIndex + 1)));
+    }
+
+    @Override
+    protected int expectedMessages(Operation operation) {
+        int perSegment = numberOfChildren() + (shardIndex == 0 ? 0 : 1);
+        return operation.numberOfSegments() * perSegment;
+    }
+
+    @Override
+    protected void prepare(Operation operation) {
+        operation.counters = new AtomicIntegerArray(operation.numberOfSegments());
+        for (int s = 0; s < operation.numberOfSegments(); s++)
+            operation.counters.set(s, numberOfChildren());
+    }
+
+    @Override
+    protected void start(Operation operation) {
+        // leaves start reduction, everyone else waits for children
+        if (numberOfChildren() == 0)
+            for (int s = 0; s < operation.numberOfSegments(); s++)
+                reduced(operation, s);
+    }
+
+    @Override
+    protected void handle(Operation operation, DistributedAllReduceMessage message) {
+        int s = message.getSegment();
+
+        if (message.getPhase() == 0) {
+            // both children might deliver the same segment at once
+            synchronized (locks[s % locks.length]) {
+                operation.segment(s).addi(message.getPayload());
+            }
+
+            if (operation.counters.decrementAndGet(s) == 0)
+                reduced(operation, s);
+        } else {
+            operation.segment(s).assign(message.getPayload());
+            broadcast(operation, s);
+        }
+    }
+
+    /**
+     * This method is called once given segment is summed up with all children
+     */
+    protected void reduced(Operation operation, int segment) {
+        if (shardIndex == 0)
+            broadcast(operation, segment);
+        else
+            send(operation, parent(), 0, segment);
+    }
+
+    protected void broadcast(Operation operation, int segment) {
+        for (int c = 0; c < numberOfChildren(); c++)
+            send(operation, 2 * shardIndex + 1 + c, 1, segment);
+    }
+}
@@ -34,11 +34,10 @@ public class Clipboard {
     public boolean pin(@NonNull VoidAggregation aggregation) {
         RequestDescriptor descriptor =
                         RequestDescriptor.createDescriptor(aggregation.getOriginatorId(), aggregation.getTaskId());
-        VoidAggregation existing = clipboard.get(descriptor);
+        VoidAggregation existing = clipboard.putIfAbsent(descriptor, aggregation);
         if (existing == null) {
             existing = aggregation;
             trackingCounter.incrementAndGet();
-            clipboard.put(descriptor, aggregation);
         }
 
         existing.accumulateAggregation(aggregation);
@@ -72,8 +71,7 @@ public class Clipboard {
     public VoidAggregation unpin(long originatorId, long taskId) {
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(originatorId, taskId);
         VoidAggregation aggregation;
-        if ((aggregation = clipboard.get(descriptor)) != null) {
-            clipboard.remove(descriptor);
+        if ((aggregation = clipboard.remove(descriptor)) != null) {
             trackingCounter.decrementAndGet();
 
             // FIXME: we don't want this here
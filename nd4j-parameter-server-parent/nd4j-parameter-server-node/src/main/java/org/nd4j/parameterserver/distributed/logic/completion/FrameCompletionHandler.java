@@ -35,10 +35,7 @@ public class FrameCompletionHandler {
      */
     public void addHook(Long originatorId, Long frameId, Long messageId) {
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(originatorId, frameId);
-        if (!frames.containsKey(descriptor))
-            frames.put(descriptor, new FrameDescriptor(originatorId));
-
-        frames.get(descriptor).addMessage(messageId);
+        frames.computeIfAbsent(descriptor, (d) -> new FrameDescriptor(originatorId)).addMessage(messageId);
     }
 
     public void notifyFrame(RequestDescriptor descriptor, Long messageId) {
@@ -52,6 +49,25 @@ public class FrameCompletionHandler {
         notifyFrame(RequestDescriptor.createDescriptor(originatorId, frameId), messageId);
     }
 
+    /**
+     * This method marks message as finished, and returns FrameDescriptor if that was the last message of the frame.
+     * Frame is removed from tracking at the same time, so only one caller gets non-null result for each frame,
+     * even if messages of this frame are finished by different threads.
+     *
+     * @param descriptor
+     * @param messageId
+     * @return FrameDescriptor if frame is complete now, null otherwise
+     */
+    public FrameDescriptor completeMessage(RequestDescriptor descriptor, Long messageId) {
+        FrameDescriptor frameDescriptor = frames.get(descriptor);
+
+        if (frameDescriptor != null && frameDescriptor.finishedMessage(messageId)
+                        && frames.remove(descriptor, frameDescriptor))
+            return frameDescriptor;
+
+        return null;
+    }
+
     public boolean isCompleted(RequestDescriptor descriptor) {
         if (isTrackingFrame(descriptor)) {
             // FIXME: double spending possible here
@@ -72,11 +88,7 @@ public class FrameCompletionHandler {
     }
 
     public FrameDescriptor getCompletedFrameInfo(RequestDescriptor descriptor) {
-        try {
-            return frames.get(descriptor);
-        } finally {
-            frames.remove(descriptor);
-        }
+        return frames.remove(descriptor);
     }
 
     public FrameDescriptor getCompletedFrameInfo(long originatorId, long frameId) {
@@ -109,12 +121,16 @@ public class FrameCompletionHandler {
             messages.incrementAndGet();
         }
 
-        public void finishedMessage(Long messageId) {
+        /**
+         * @param messageId
+         * @return TRUE if that was the last message of the frame, FALSE otherwise
+         */
+        public boolean finishedMessage(Long messageId) {
             AtomicBoolean boo = states.get(messageId);
             if (boo != null)
                 boo.set(true);
 
-            finished.incrementAndGet();
+            return finished.incrementAndGet() == messages.get();
         }
 
         public int getIncompleteNumber() {
@@ -0,0 +1,158 @@
+package org.nd4j.parameterserver.distributed.logic.threading;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of worker threads, each one with its own queue of tasks.
+ *
+ * Tasks are hashed onto workers by originatorId and taskId, so all tasks with the same key are executed
+ * by the same thread, in the order they were submitted. Tasks with different keys run in parallel.
+ *
+ * Since taskIds are sequential, consecutive tasks of the same originator are spread over all workers evenly.
+ *
+ * Worker queues are bounded: execute() blocks while target queue is full, so slow worker stalls the caller,
+ * and backpressure reaches the transport.
+ */
+@Slf4j
+public class HashedWorkerPool {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    // TRUE for worker threads of any pool
+    private static final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> false);
+
+    protected final ArrayBlockingQueue<Runnable>[] queues;
+    protected final Thread[] workers;
+    protected final AtomicBoolean runner = new AtomicBoolean(true);
+
+    public HashedWorkerPool(int numberOfWorkers) {
+        this(numberOfWorkers, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param numberOfWorkers
+     * @param queueCapacity max number of tasks waiting for each worker
+     */
+    public HashedWorkerPool(int numberOfWorkers, int queueCapacity) {
+        if (numberOfWorkers < 1)
+            throw new ND4JIllegalStateException("Number of workers should be positive value");
+
+        if (queueCapacity < 1)
+            throw new ND4JIllegalStateException("Queue capacity should be positive value");
+
+        queues = new ArrayBlockingQueue[numberOfWorkers];
+        workers = new Thread[numberOfWorkers];
+
+        for (int w = 0; w < numberOfWorkers; w++) {
+            final ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues[w] = queue;
+
+            workers[w] = new Thread(() -> {
+                workerThread.set(true);
+                try {
+                    while (runner.get()) {
+                        Runnable task = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (task == null)
+                            continue;
+
+                        try {
+                            task.run();
+                        } catch (Exception e) {
+                            // we can't let worker die: all further tasks hashed onto it would never run
+                            log.error("Task failed", e);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // pool is shut down
+                }
+            });
+
+            workers[w].setDaemon(true);
+            workers[w].setName("VoidParameterServer worker thread " + w);
+            workers[w].start();
+        }
+    }
+
+    /**
+     * This method returns TRUE if current thread is worker thread of any HashedWorkerPool
+     *
+     * @return
+     */
+    public static boolean isWorkerThread() {
+        return workerThread.get();
+    }
+
+    /**
+     * This method schedules given task for execution, blocking while queue of the target worker is full.
+     * Tasks with the same originatorId and taskId are executed sequentially, in submission order.
+     *
+     * @param originatorId
+     * @param taskId
+     * @param task
+     */
+    public void execute(long originatorId, long taskId, @NonNull Runnable task) {
+        ArrayBlockingQueue<Runnable> queue = queues[getWorkerIndex(originatorId, taskId)];
+
+        try {
+            do {
+                if (!runner.get()) {
+                    log.warn("HashedWorkerPool is shut down, dropping task");
+                    return;
+                }
+            } while (!queue.offer(task, 100, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ND4JIllegalStateException("Interrupted while waiting for worker queue");
+        }
+    }
+
+    /**
+     * This method returns index of worker responsible for given key
+     *
+     * @param originatorId
+     * @param taskId
+     * @return
+     */
+    public int getWorkerIndex(long originatorId, long taskId) {
+        return (int) Math.floorMod(originatorId * 31 + taskId, (long) queues.length);
+    }
+
+    public int getNumberOfWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * Number of tasks waiting for execution
+     *
+     * @return
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (ArrayBlockingQueue<Runnable> queue : queues)
+            size += queue.size();
+
+        return size;
+    }
+
+    /**
+     * This method stops all workers. Tasks that weren't started yet are discarded.
+     */
+    public void shutdown() {
+        runner.set(false);
+
+        try {
+            for (Thread worker : workers)
+                worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (ArrayBlockingQueue<Runnable> queue : queues)
+            queue.clear();
+    }
+}
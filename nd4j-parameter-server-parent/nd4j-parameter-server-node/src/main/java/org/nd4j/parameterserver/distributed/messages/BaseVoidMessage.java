@@ -7,6 +7,7 @@ import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
@@ -39,7 +40,8 @@ public abstract class BaseVoidMessage implements VoidMessage {
 
     @Override
     public byte[] asBytes() {
-        return SerializationUtils.serialize(this);
+        return VoidMessageCodec.isSupported(this) ? VoidMessageCodec.encodeToBytes(this)
+                        : SerializationUtils.serialize(this);
     }
 
     @Override
@@ -49,7 +51,9 @@ public abstract class BaseVoidMessage implements VoidMessage {
 
 
     public UnsafeBuffer asUnsafeBuffer() {
-        return new UnsafeBuffer(asBytes());
+        // encoded message is wrapped as is, without copying it into byte[] of exact length
+        return VoidMessageCodec.isSupported(this) ? VoidMessageCodec.encodeToBuffer(this)
+                        : new UnsafeBuffer(SerializationUtils.serialize(this));
     }
 
     @Override
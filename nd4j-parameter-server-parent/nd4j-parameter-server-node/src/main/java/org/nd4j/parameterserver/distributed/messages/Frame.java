@@ -11,6 +11,11 @@ import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
+import org.nd4j.parameterserver.distributed.logic.threading.HashedWorkerPool;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
@@ -26,7 +31,7 @@ import java.util.List;
  * @author raver119@gmail.com
  */
 @Slf4j
-public class Frame<T extends TrainingMessage> implements Serializable, Iterable<T>, VoidMessage {
+public class Frame<T extends TrainingMessage> implements Serializable, Iterable<T>, BinaryMessage {
 
     @Getter(AccessLevel.PROTECTED)
     @Setter(AccessLevel.PROTECTED)
@@ -54,7 +59,7 @@ public class Frame<T extends TrainingMessage> implements Serializable, Iterable<
     @Setter(AccessLevel.PRIVATE)
     protected transient int retransmitCount = 0;
 
-    protected Frame() {
+    public Frame() {
 
     }
 
@@ -146,12 +151,42 @@ public class Frame<T extends TrainingMessage> implements Serializable, Iterable<
 
     @Override
     public byte[] asBytes() {
-        return SerializationUtils.serialize(this);
+        return VoidMessageCodec.isSupported(this) ? VoidMessageCodec.encodeToBytes(this)
+                        : SerializationUtils.serialize(this);
     }
 
     @Override
     public UnsafeBuffer asUnsafeBuffer() {
-        return new UnsafeBuffer(asBytes());
+        return VoidMessageCodec.isSupported(this) ? VoidMessageCodec.encodeToBuffer(this)
+                        : new UnsafeBuffer(SerializationUtils.serialize(this));
+    }
+
+    @Override
+    public boolean isEncodable() {
+        for (T message : list)
+            if (!VoidMessageCodec.isSupported(message))
+                return false;
+
+        return true;
+    }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putLong(originatorId).putLong(taskId).putShort(targetId).putInt(list.size());
+        for (T message : list)
+            encoder.putMessage(message);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        originatorId = decoder.getLong();
+        taskId = decoder.getLong();
+        targetId = decoder.getShort();
+
+        int size = decoder.getInt();
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(decoder.getMessage());
     }
 
     @Override
@@ -183,25 +218,48 @@ public class Frame<T extends TrainingMessage> implements Serializable, Iterable<
     public void processMessage() {
         //        log.info("Processing frame {} of {} messages... Originator: {}", this.getTaskId(), list.size(), originatorId);
 
-        // we register all messages first
+        registerMessages();
+
+        //list.parallelStream().forEach((message) -> {
+        for (TrainingMessage message : list) {
+            processRounds(message);
+        } ;
+    }
+
+    /**
+     * This method hands over messages of this Frame to worker pool, so they are processed in parallel.
+     * Messages are hashed by originatorId and taskId, so follow-up messages of the same task get to the same worker.
+     *
+     * @param workers
+     */
+    public void processMessage(@NonNull HashedWorkerPool workers) {
+        registerMessages();
+
+        for (TrainingMessage message : list)
+            workers.execute(message.getOriginatorId(), message.getTaskId(), () -> processRounds(message));
+    }
+
+    /**
+     * We register all messages for completion tracking first, so frame can't be reported as completed too early
+     */
+    protected void registerMessages() {
         //      if(list == null || trainer == null)
         //          return;
         if (trainer != null && transport != null)
             list.forEach((message) -> {
                 trainer.addCompletionHook(getOriginatorId(), getTaskId(), message.getTaskId());
             });
+    }
 
-        //list.parallelStream().forEach((message) -> {
-        for (TrainingMessage message : list) {
-            if (trainer != null && transport != null)
-                message.attachContext(voidConfiguration, trainer, clipboard, transport, storage, role, shardIndex);
+    protected void processRounds(TrainingMessage message) {
+        if (trainer != null && transport != null)
+            message.attachContext(voidConfiguration, trainer, clipboard, transport, storage, role, shardIndex);
 
-            // if there's more then 1 round should be applied
-            for (int i = 0; i < message.getCounter(); i++) {
-                //log.info("Firing message {}; originator: {}; frameId: {}; taskId: {}", message.getClass().getSimpleName(), message.getOriginatorId(), message.getFrameId(), message.getTaskId());
-                message.processMessage();
-            }
-        } ;
+        // if there's more then 1 round should be applied
+        for (int i = 0; i < message.getCounter(); i++) {
+            //log.info("Firing message {}; originator: {}; frameId: {}; taskId: {}", message.getClass().getSimpleName(), message.getOriginatorId(), message.getFrameId(), message.getTaskId());
+            message.processMessage();
+        }
     }
 
     @Override
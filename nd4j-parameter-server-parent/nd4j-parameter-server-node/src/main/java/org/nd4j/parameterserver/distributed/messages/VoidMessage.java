@@ -1,6 +1,7 @@
 package org.nd4j.parameterserver.distributed.messages;
 
 import lombok.extern.slf4j.Slf4j;
+import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.apache.commons.io.input.ClassLoaderObjectInputStream;
 import org.apache.commons.lang3.SerializationUtils;
@@ -8,6 +9,7 @@ import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
@@ -37,6 +39,9 @@ public interface VoidMessage extends Serializable {
     UnsafeBuffer asUnsafeBuffer();
 
     static <T extends VoidMessage> T fromBytes(byte[] array) {
+        if (VoidMessageCodec.isEncoded(new UnsafeBuffer(array), 0, array.length))
+            return VoidMessageCodec.decode(array);
+
         try {
             ObjectInputStream in = new ClassLoaderObjectInputStream(Thread.currentThread().getContextClassLoader(),
                             new ByteArrayInputStream(array));
@@ -49,6 +54,24 @@ public interface VoidMessage extends Serializable {
         //return SerializationUtils.deserialize(array);
     }
 
+    /**
+     * This method restores VoidMessage from the given buffer. Messages encoded with VoidMessageCodec are decoded
+     * directly from the buffer, everything else goes through Java deserialization.
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    static <T extends VoidMessage> T fromBuffer(DirectBuffer buffer, int offset, int length) {
+        if (VoidMessageCodec.isEncoded(buffer, offset, length))
+            return VoidMessageCodec.decode(buffer, offset, length);
+
+        byte[] data = new byte[length];
+        buffer.getBytes(offset, data);
+        return fromBytes(data);
+    }
+
     /**
      * This method initializes message for further processing
      */
@@ -4,13 +4,14 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.agrona.concurrent.UnsafeBuffer;
-import org.apache.commons.lang3.SerializationUtils;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 
 import java.io.Serializable;
 import java.util.*;
@@ -21,7 +22,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  * @author raver119@gmail.com
  */
 @Slf4j
-public abstract class BaseAggregation extends BaseVoidMessage implements VoidAggregation, Serializable {
+public abstract class BaseAggregation extends BaseVoidMessage implements VoidAggregation, BinaryMessage, Serializable {
     @Getter
     @Setter
     protected short aggregationType = -1;
@@ -107,17 +108,26 @@ public abstract class BaseAggregation extends BaseVoidMessage implements VoidAgg
     }
 
     @Override
-    public byte[] asBytes() {
-        return SerializationUtils.serialize(this);
+    public short getTargetId() {
+        return (short) -1;
     }
 
     @Override
-    public UnsafeBuffer asUnsafeBuffer() {
-        return new UnsafeBuffer(asBytes());
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putShort(aggregationType).putShort(aggregationWidth).putInt(numberOfElements).putShort(shardIndex)
+                        .putArray(payload);
     }
 
     @Override
-    public short getTargetId() {
-        return (short) -1;
+    public void decodeBody(MessageDecoder decoder) {
+        aggregationType = decoder.getShort();
+        aggregationWidth = decoder.getShort();
+        numberOfElements = decoder.getInt();
+        shardIndex = decoder.getShort();
+        payload = decoder.getArray();
+
+        // transient state is left the same way Java deserialization leaves it
+        chunks = null;
+        chunksCounter = null;
     }
 }
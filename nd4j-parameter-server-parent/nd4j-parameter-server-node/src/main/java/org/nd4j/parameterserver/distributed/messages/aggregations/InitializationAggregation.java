@@ -11,7 +11,7 @@ import org.nd4j.parameterserver.distributed.messages.complete.InitializationComp
 @Slf4j
 public class InitializationAggregation extends BaseAggregation {
 
-    protected InitializationAggregation() {
+    public InitializationAggregation() {
         super();
     }
 
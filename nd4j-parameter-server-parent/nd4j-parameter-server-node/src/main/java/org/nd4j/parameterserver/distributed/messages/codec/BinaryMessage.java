@@ -0,0 +1,35 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+/**
+ * This interface describes VoidMessage that can be encoded by {@link VoidMessageCodec} without Java serialization.
+ *
+ * Common fields (messageType, originatorId, taskId, targetId) of BaseVoidMessage are handled by codec itself,
+ * so implementations only write and read their own fields, in the same order.
+ */
+public interface BinaryMessage extends VoidMessage {
+
+    /**
+     * This method writes message-specific fields
+     *
+     * @param encoder
+     */
+    void encodeBody(MessageEncoder encoder);
+
+    /**
+     * This method reads message-specific fields, written by encodeBody()
+     *
+     * @param decoder
+     */
+    void decodeBody(MessageDecoder decoder);
+
+    /**
+     * This method returns TRUE if this message instance can be encoded, i.e. all nested messages are encodable as well
+     *
+     * @return
+     */
+    default boolean isEncodable() {
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import lombok.NonNull;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+import java.nio.ByteOrder;
+
+/**
+ * Sequential reader of message fields written by {@link MessageEncoder}.
+ *
+ * Reads directly from the incoming buffer, so received fragments don't have to be copied into byte[] first.
+ */
+public class MessageDecoder {
+    private final DirectBuffer buffer;
+    private final int limit;
+    private int position;
+
+    public MessageDecoder(@NonNull DirectBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void require(int bytes) {
+        if (bytes < 0 || position + bytes > limit)
+            throw new ND4JIllegalStateException("Message is truncated: " + bytes + " more bytes requested at position "
+                            + position + ", but message ends at " + limit);
+    }
+
+    public byte getByte() {
+        require(1);
+        return buffer.getByte(position++);
+    }
+
+    public boolean getBoolean() {
+        return getByte() != 0;
+    }
+
+    public short getShort() {
+        require(2);
+        short value = buffer.getShort(position, MessageEncoder.ORDER);
+        position += 2;
+        return value;
+    }
+
+    public int getInt() {
+        require(4);
+        int value = buffer.getInt(position, MessageEncoder.ORDER);
+        position += 4;
+        return value;
+    }
+
+    public long getLong() {
+        require(8);
+        long value = buffer.getLong(position, MessageEncoder.ORDER);
+        position += 8;
+        return value;
+    }
+
+    public float getFloat() {
+        require(4);
+        float value = buffer.getFloat(position, MessageEncoder.ORDER);
+        position += 4;
+        return value;
+    }
+
+    public double getDouble() {
+        require(8);
+        double value = buffer.getDouble(position, MessageEncoder.ORDER);
+        position += 8;
+        return value;
+    }
+
+    public Integer getInteger() {
+        return getBoolean() ? getInt() : null;
+    }
+
+    public int[] getIntArray() {
+        int length = getInt();
+        if (length < 0)
+            return null;
+
+        require(length * 4);
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = buffer.getInt(position, MessageEncoder.ORDER);
+            position += 4;
+        }
+        return result;
+    }
+
+    public byte[] getByteArray() {
+        int length = getInt();
+        if (length < 0)
+            return null;
+
+        require(length);
+        byte[] result = new byte[length];
+        buffer.getBytes(position, result);
+        position += length;
+        return result;
+    }
+
+    public INDArray getArray() {
+        byte typeId = getByte();
+        if (typeId < 0)
+            return null;
+
+        DataBuffer.Type type = DataBuffer.Type.values()[typeId];
+        char order = (char) getByte();
+        int[] shape = getIntArray();
+
+        INDArray array = Nd4j.createUninitialized(shape, order);
+        DataBuffer data = array.data();
+        int length = array.length();
+
+        if (type == data.dataType()) {
+            // same type on both sides, so it's single copy from message into array memory
+            int bytes = length * data.getElementSize();
+            require(bytes);
+
+            UnsafeBuffer target = new UnsafeBuffer(data.addressPointer().address(), bytes);
+            target.putBytes(0, buffer, position, bytes);
+            position += bytes;
+        } else if (type == DataBuffer.Type.FLOAT) {
+            require(length * 4);
+            for (int i = 0; i < length; i++, position += 4)
+                data.put(i, buffer.getFloat(position, ByteOrder.nativeOrder()));
+        } else if (type == DataBuffer.Type.DOUBLE) {
+            require(length * 8);
+            for (int i = 0; i < length; i++, position += 8)
+                data.put(i, buffer.getDouble(position, ByteOrder.nativeOrder()));
+        } else
+            throw new ND4JIllegalStateException("Can't convert array of type [" + type + "] into [" + data.dataType()
+                            + "]");
+
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+        return array;
+    }
+
+    /**
+     * Nested message, written with MessageEncoder.putMessage()
+     */
+    public <T extends VoidMessage> T getMessage() {
+        return VoidMessageCodec.decode(this);
+    }
+}
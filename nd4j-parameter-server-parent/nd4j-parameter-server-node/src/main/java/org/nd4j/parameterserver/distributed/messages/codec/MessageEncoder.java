@@ -0,0 +1,170 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import lombok.NonNull;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+import java.nio.ByteOrder;
+
+/**
+ * Sequential writer of message fields over growing Agrona buffer. All values are little-endian.
+ *
+ * INDArray payloads are copied straight from the array memory into the message buffer, without intermediate copies.
+ */
+public class MessageEncoder {
+    protected static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final ExpandableArrayBuffer buffer;
+    private int position = 0;
+
+    public MessageEncoder() {
+        this(256);
+    }
+
+    public MessageEncoder(int initialCapacity) {
+        buffer = new ExpandableArrayBuffer(initialCapacity);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public MessageEncoder putByte(byte value) {
+        buffer.putByte(position, value);
+        position += 1;
+        return this;
+    }
+
+    public MessageEncoder putBoolean(boolean value) {
+        return putByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    public MessageEncoder putShort(short value) {
+        buffer.putShort(position, value, ORDER);
+        position += 2;
+        return this;
+    }
+
+    public MessageEncoder putInt(int value) {
+        buffer.putInt(position, value, ORDER);
+        position += 4;
+        return this;
+    }
+
+    public MessageEncoder putLong(long value) {
+        buffer.putLong(position, value, ORDER);
+        position += 8;
+        return this;
+    }
+
+    public MessageEncoder putFloat(float value) {
+        buffer.putFloat(position, value, ORDER);
+        position += 4;
+        return this;
+    }
+
+    public MessageEncoder putDouble(double value) {
+        buffer.putDouble(position, value, ORDER);
+        position += 8;
+        return this;
+    }
+
+    /**
+     * Nullable Integer, stored as presence flag followed by value
+     */
+    public MessageEncoder putInteger(Integer value) {
+        putBoolean(value != null);
+        if (value != null)
+            putInt(value);
+        return this;
+    }
+
+    /**
+     * Nullable int[], stored as length (-1 for null) followed by elements
+     */
+    public MessageEncoder putIntArray(int[] array) {
+        if (array == null)
+            return putInt(-1);
+
+        putInt(array.length);
+        for (int value : array)
+            putInt(value);
+        return this;
+    }
+
+    /**
+     * Nullable byte[], stored as length (-1 for null) followed by bytes
+     */
+    public MessageEncoder putByteArray(byte[] array) {
+        if (array == null)
+            return putInt(-1);
+
+        putInt(array.length);
+        buffer.putBytes(position, array);
+        position += array.length;
+        return this;
+    }
+
+    /**
+     * Nullable INDArray: data type ordinal (-1 for null), order, rank, shape, and raw data in native byte order
+     */
+    public MessageEncoder putArray(INDArray array) {
+        if (array == null)
+            return putByte((byte) -1);
+
+        if (array.isCompressed()) {
+            array = array.dup();
+            Nd4j.getCompressor().decompressi(array);
+        }
+
+        // views are flattened, so data is always contiguous
+        if (array.isView())
+            array = array.dup(array.ordering());
+
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        DataBuffer data = array.data();
+        putByte((byte) data.dataType().ordinal());
+        putByte((byte) array.ordering());
+        putIntArray(array.shape());
+
+        int length = array.length() * data.getElementSize();
+        UnsafeBuffer source = new UnsafeBuffer(data.addressPointer().address(), length);
+        buffer.putBytes(position, source, 0, length);
+        position += length;
+        return this;
+    }
+
+    /**
+     * Nested message, with its own type id and header
+     */
+    public MessageEncoder putMessage(@NonNull VoidMessage message) {
+        VoidMessageCodec.encode(message, this);
+        return this;
+    }
+
+    /**
+     * This method returns buffer containing encoded message. Returned buffer shares memory with this encoder.
+     *
+     * @return
+     */
+    public UnsafeBuffer toBuffer() {
+        return new UnsafeBuffer(buffer.byteArray(), 0, position);
+    }
+
+    /**
+     * This method returns copy of encoded message
+     *
+     * @return
+     */
+    public byte[] toBytes() {
+        byte[] result = new byte[position];
+        buffer.getBytes(0, result);
+        return result;
+    }
+}
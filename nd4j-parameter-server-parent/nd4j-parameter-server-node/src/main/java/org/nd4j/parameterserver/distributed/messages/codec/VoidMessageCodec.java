@@ -0,0 +1,277 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import lombok.NonNull;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
+import org.nd4j.parameterserver.distributed.messages.aggregations.InitializationAggregation;
+import org.nd4j.parameterserver.distributed.messages.aggregations.VectorAggregation;
+import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.InitializationCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.IntroductionCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.VectorCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedCbowDotMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedSgDotMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedSkipGramMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedVectorMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.CbowRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.VectorRequestMessage;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binary codec for VoidMessages, used instead of Java serialization for messages on the hot path.
+ *
+ * Layout: magic, version and message type id, followed by BaseVoidMessage header fields
+ * (messageType, originatorId, taskId, targetId), followed by message-specific body.
+ * Messages are created through registered factories, so decoding doesn't involve reflection.
+ *
+ * Messages which aren't registered here still go through Java serialization. Both formats can be told apart
+ * by their first bytes, see {@link #isEncoded(DirectBuffer, int, int)}
+ *
+ * Multiple encoded messages can be coalesced into single batch: header with reserved type id 0 and number of messages,
+ * followed by length-prefixed messages. Each batched message keeps its own header, so it can be decoded in place.
+ *
+ * PLEASE NOTE: type ids are part of the wire format, so they should never be reused or reordered.
+ */
+public class VoidMessageCodec {
+    // 'V', 'D' as little-endian short. Java serialization streams always start with 0xACED
+    public static final short MAGIC = (short) 0x4456;
+    public static final byte VERSION = 1;
+
+    // reserved type id for batches of messages
+    public static final short BATCH = 0;
+    // magic, version, type id, number of messages
+    public static final int BATCH_HEADER_LENGTH = 9;
+    // length prefix of each message within batch
+    public static final int BATCH_ENTRY_OVERHEAD = 4;
+
+    private static final int MAX_TYPES = 64;
+
+    private static final Class<?>[] classes = new Class<?>[MAX_TYPES];
+    private static final Supplier<?>[] factories = new Supplier<?>[MAX_TYPES];
+    private static final Map<Class<?>, Short> ids = new IdentityHashMap<>();
+
+    static {
+        register(1, SkipGramRequestMessage.class, SkipGramRequestMessage::new);
+        register(2, CbowRequestMessage.class, CbowRequestMessage::new);
+        register(3, Frame.class, Frame::new);
+        register(4, DistributedSgDotMessage.class, DistributedSgDotMessage::new);
+        register(5, DistributedCbowDotMessage.class, DistributedCbowDotMessage::new);
+        register(6, DistributedSkipGramMessage.class, DistributedSkipGramMessage::new);
+        register(7, DotAggregation.class, DotAggregation::new);
+        register(8, VectorAggregation.class, VectorAggregation::new);
+        register(9, InitializationAggregation.class, InitializationAggregation::new);
+        register(10, VectorRequestMessage.class, VectorRequestMessage::new);
+        register(11, DistributedVectorMessage.class, DistributedVectorMessage::new);
+        register(12, VectorCompleteMessage.class, VectorCompleteMessage::new);
+        register(13, FrameCompleteMessage.class, FrameCompleteMessage::new);
+        register(14, InitializationCompleteMessage.class, InitializationCompleteMessage::new);
+        register(15, IntroductionCompleteMessage.class, IntroductionCompleteMessage::new);
+        register(16, DistributedAllReduceMessage.class, DistributedAllReduceMessage::new);
+    }
+
+    private VoidMessageCodec() {}
+
+    private static <T extends BinaryMessage> void register(int id, Class<T> clazz, Supplier<T> factory) {
+        if (classes[id] != null)
+            throw new ND4JIllegalStateException("Message type id [" + id + "] is already taken");
+
+        classes[id] = clazz;
+        factories[id] = factory;
+        ids.put(clazz, (short) id);
+    }
+
+    /**
+     * This method checks, if given message can be encoded with this codec
+     *
+     * @param message
+     * @return
+     */
+    public static boolean isSupported(@NonNull VoidMessage message) {
+        return ids.containsKey(message.getClass()) && ((BinaryMessage) message).isEncodable();
+    }
+
+    /**
+     * This method checks, if given bytes were produced by this codec
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static boolean isEncoded(@NonNull DirectBuffer buffer, int offset, int length) {
+        return length >= 5 && buffer.getShort(offset, MessageEncoder.ORDER) == MAGIC;
+    }
+
+    /**
+     * This method encodes given message into new buffer
+     *
+     * @param message
+     * @return
+     */
+    public static MessageEncoder encode(@NonNull VoidMessage message) {
+        MessageEncoder encoder = new MessageEncoder();
+        encoder.putShort(MAGIC).putByte(VERSION);
+        encode(message, encoder);
+        return encoder;
+    }
+
+    public static UnsafeBuffer encodeToBuffer(@NonNull VoidMessage message) {
+        return encode(message).toBuffer();
+    }
+
+    public static byte[] encodeToBytes(@NonNull VoidMessage message) {
+        return encode(message).toBytes();
+    }
+
+    protected static void encode(VoidMessage message, MessageEncoder encoder) {
+        Short id = ids.get(message.getClass());
+        if (id == null)
+            throw new ND4JIllegalStateException(
+                            "Message [" + message.getClass().getSimpleName() + "] isn't supported by VoidMessageCodec");
+
+        encoder.putShort(id);
+
+        if (message instanceof BaseVoidMessage) {
+            BaseVoidMessage base = (BaseVoidMessage) message;
+            encoder.putInt(base.getMessageType()).putLong(base.getOriginatorId()).putLong(base.getTaskId())
+                            .putShort(base.getTargetId());
+        }
+
+        ((BinaryMessage) message).encodeBody(encoder);
+    }
+
+    /**
+     * This method decodes message from the given buffer
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static <T extends VoidMessage> T decode(@NonNull DirectBuffer buffer, int offset, int length) {
+        MessageDecoder decoder = new MessageDecoder(buffer, offset, length);
+        if (decoder.getShort() != MAGIC)
+            throw new ND4JIllegalStateException("Buffer doesn't contain encoded VoidMessage");
+
+        byte version = decoder.getByte();
+        if (version != VERSION)
+            throw new ND4JIllegalStateException("Unsupported VoidMessage encoding version: [" + version + "]");
+
+        return decode(decoder);
+    }
+
+    public static <T extends VoidMessage> T decode(@NonNull byte[] bytes) {
+        return decode(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+
+    protected static <T extends VoidMessage> T decode(MessageDecoder decoder) {
+        short id = decoder.getShort();
+        if (id <= 0 || id >= MAX_TYPES || factories[id] == null)
+            throw new ND4JIllegalStateException("Unknown message type id: [" + id + "]");
+
+        BinaryMessage message = (BinaryMessage) factories[id].get();
+
+        if (message instanceof BaseVoidMessage) {
+            BaseVoidMessage base = (BaseVoidMessage) message;
+            base.setMessageType(decoder.getInt());
+            base.setOriginatorId(decoder.getLong());
+            base.setTaskId(decoder.getLong());
+            base.setTargetId(decoder.getShort());
+        }
+
+        message.decodeBody(decoder);
+        return (T) message;
+    }
+
+    /**
+     * This method checks, if given bytes contain batch of messages
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static boolean isBatch(@NonNull DirectBuffer buffer, int offset, int length) {
+        return length >= BATCH_HEADER_LENGTH && isEncoded(buffer, offset, length)
+                        && buffer.getShort(offset + 3, MessageEncoder.ORDER) == BATCH;
+    }
+
+    /**
+     * This method writes batch header into given buffer
+     *
+     * @param buffer
+     * @param offset
+     * @param numberOfMessages
+     * @return number of bytes written
+     */
+    public static int putBatchHeader(@NonNull MutableDirectBuffer buffer, int offset, int numberOfMessages) {
+        buffer.putShort(offset, MAGIC, MessageEncoder.ORDER);
+        buffer.putByte(offset + 2, VERSION);
+        buffer.putShort(offset + 3, BATCH, MessageEncoder.ORDER);
+        buffer.putInt(offset + 5, numberOfMessages, MessageEncoder.ORDER);
+        return BATCH_HEADER_LENGTH;
+    }
+
+    /**
+     * This method appends already encoded message to the batch
+     *
+     * @param buffer
+     * @param offset
+     * @param message whole buffer is treated as single message
+     * @return number of bytes written
+     */
+    public static int putBatchEntry(@NonNull MutableDirectBuffer buffer, int offset, @NonNull DirectBuffer message) {
+        int length = message.capacity();
+        buffer.putInt(offset, length, MessageEncoder.ORDER);
+        buffer.putBytes(offset + BATCH_ENTRY_OVERHEAD, message, 0, length);
+        return BATCH_ENTRY_OVERHEAD + length;
+    }
+
+    /**
+     * This method decodes all messages of the batch
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static List<VoidMessage> decodeBatch(@NonNull DirectBuffer buffer, int offset, int length) {
+        if (!isBatch(buffer, offset, length))
+            throw new ND4JIllegalStateException("Buffer doesn't contain batch of VoidMessages");
+
+        MessageDecoder decoder = new MessageDecoder(buffer, offset + 5, length - 5);
+        int numberOfMessages = decoder.getInt();
+
+        List<VoidMessage> result = new ArrayList<>(numberOfMessages);
+        int position = offset + BATCH_HEADER_LENGTH;
+        int limit = offset + length;
+        for (int i = 0; i < numberOfMessages; i++) {
+            if (position + BATCH_ENTRY_OVERHEAD > limit)
+                throw new ND4JIllegalStateException("Batch is truncated at message " + i + " of " + numberOfMessages);
+
+            int messageLength = buffer.getInt(position, MessageEncoder.ORDER);
+            position += BATCH_ENTRY_OVERHEAD;
+
+            if (messageLength < 0 || position + messageLength > limit)
+                throw new ND4JIllegalStateException("Batch is truncated at message " + i + " of " + numberOfMessages);
+
+            result.add(VoidMessage.fromBuffer(buffer, position, messageLength));
+            position += messageLength;
+        }
+
+        return result;
+    }
+}
@@ -5,6 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 
 /**
  * This message contains information about finished computations for specific batch, being sent earlier
@@ -13,7 +16,7 @@ import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
  */
 @Data
 @Slf4j
-public abstract class BaseCompleteMessage extends BaseVoidMessage implements MeaningfulMessage {
+public abstract class BaseCompleteMessage extends BaseVoidMessage implements MeaningfulMessage, BinaryMessage {
 
     protected INDArray payload;
 
@@ -30,4 +33,14 @@ public abstract class BaseCompleteMessage extends BaseVoidMessage implements Mea
     public void processMessage() {
         // no-op
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putArray(payload);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        payload = decoder.getArray();
+    }
 }
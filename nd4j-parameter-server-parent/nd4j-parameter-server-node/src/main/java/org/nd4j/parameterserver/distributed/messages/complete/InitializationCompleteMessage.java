@@ -5,7 +5,7 @@ package org.nd4j.parameterserver.distributed.messages.complete;
  */
 public class InitializationCompleteMessage extends BaseCompleteMessage {
 
-    protected InitializationCompleteMessage() {
+    public InitializationCompleteMessage() {
         super(19);
     }
 
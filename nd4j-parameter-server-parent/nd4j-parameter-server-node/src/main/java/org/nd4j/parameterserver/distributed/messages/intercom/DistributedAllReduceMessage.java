@@ -0,0 +1,68 @@
+package org.nd4j.parameterserver.distributed.messages.intercom;
+
+import lombok.Data;
+import lombok.NonNull;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.parameterserver.distributed.logic.AllReducer;
+import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
+import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
+
+/**
+ * This message carries single segment of array being all-reduced, from one Shard to another one.
+ *
+ * taskId identifies all-reduce operation, targetId is the receiving Shard.
+ */
+@Data
+public class DistributedAllReduceMessage extends BaseVoidMessage implements DistributedMessage, BinaryMessage {
+    // 0 for reduction, 1 for distribution of reduced segment
+    protected byte phase;
+    protected int segment;
+    protected INDArray payload;
+
+    protected transient AllReducer reducer;
+
+    public DistributedAllReduceMessage() {
+        messageType = 24;
+    }
+
+    public DistributedAllReduceMessage(long operationId, short targetShard, int phase, int segment,
+                    @NonNull INDArray payload) {
+        this();
+        this.taskId = operationId;
+        this.targetId = targetShard;
+        this.phase = (byte) phase;
+        this.segment = segment;
+        this.payload = payload;
+    }
+
+    public void attachReducer(@NonNull AllReducer reducer) {
+        this.reducer = reducer;
+    }
+
+    /**
+     * This method will be started in context of executor, either Shard, Client or Backup node
+     */
+    @Override
+    public void processMessage() {
+        if (reducer == null)
+            throw new ND4JIllegalStateException("sI_" + shardIndex + ": AllReducer isn't available");
+
+        reducer.processMessage(this);
+    }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putByte(phase).putInt(segment).putArray(payload);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        phase = decoder.getByte();
+        segment = decoder.getInt();
+        payload = decoder.getArray();
+    }
+}
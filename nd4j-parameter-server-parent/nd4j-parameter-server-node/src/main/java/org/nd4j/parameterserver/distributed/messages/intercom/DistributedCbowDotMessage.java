@@ -11,6 +11,9 @@ import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
 import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.messages.requests.CbowRequestMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
 import org.nd4j.parameterserver.distributed.training.impl.CbowTrainer;
@@ -23,7 +26,7 @@ import java.util.Arrays;
  */
 @Data
 @Slf4j
-public class DistributedCbowDotMessage extends BaseVoidMessage implements DistributedMessage {
+public class DistributedCbowDotMessage extends BaseVoidMessage implements DistributedMessage, BinaryMessage {
     protected int[] rowsA;
     protected int[] rowsB;
 
@@ -105,7 +108,7 @@ public class DistributedCbowDotMessage extends BaseVoidMessage implements Distri
             result.putScalar(e, dot);
         }
 
-        if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
+        if (voidConfiguration.getExecutionMode().isReplicated()) {
             DotAggregation dot = new DotAggregation(taskId, (short) 1, shardIndex, result);
             dot.setTargetId((short) -1);
             dot.setOriginatorId(getOriginatorId());
@@ -119,4 +122,21 @@ public class DistributedCbowDotMessage extends BaseVoidMessage implements Distri
             transport.sendMessage(dot);
         }
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putIntArray(rowsA).putIntArray(rowsB).putInt(w1).putBoolean(useHS).putShort(negSamples)
+                        .putFloat(alpha).putByteArray(codes);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        rowsA = decoder.getIntArray();
+        rowsB = decoder.getIntArray();
+        w1 = decoder.getInt();
+        useHS = decoder.getBoolean();
+        negSamples = decoder.getShort();
+        alpha = decoder.getFloat();
+        codes = decoder.getByteArray();
+    }
 }
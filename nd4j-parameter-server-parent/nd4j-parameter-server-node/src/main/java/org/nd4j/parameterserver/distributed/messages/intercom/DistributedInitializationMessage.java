@@ -57,7 +57,7 @@ public class DistributedInitializationMessage extends BaseVoidMessage implements
             // negTable will be initalized at driver level and will be shared via message
             Nd4j.getRandom().setSeed(seed * (shardIndex + 1));
 
-            if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
+            if (voidConfiguration.getExecutionMode().isReplicated()) {
                 // each shard has full own copy
                 columnsPerShard = vectorLength;
             } else if (voidConfiguration.getExecutionMode() == ExecutionMode.DISTRIBUTED) {
@@ -10,6 +10,9 @@ import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
 import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
 import org.nd4j.parameterserver.distributed.training.impl.SkipGramTrainer;
 
@@ -20,7 +23,7 @@ import java.util.Arrays;
  */
 @Data
 @Slf4j
-public class DistributedSgDotMessage extends BaseVoidMessage implements DistributedMessage {
+public class DistributedSgDotMessage extends BaseVoidMessage implements DistributedMessage, BinaryMessage {
     protected int[] rowsA;
     protected int[] rowsB;
 
@@ -98,7 +101,7 @@ public class DistributedSgDotMessage extends BaseVoidMessage implements Distribu
             result.putScalar(e, dot);
         }
 
-        if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
+        if (voidConfiguration.getExecutionMode().isReplicated()) {
             // just local bypass
             DotAggregation dot = new DotAggregation(taskId, (short) 1, shardIndex, result);
             dot.setTargetId((short) -1);
@@ -113,4 +116,22 @@ public class DistributedSgDotMessage extends BaseVoidMessage implements Distribu
             transport.sendMessage(dot);
         }
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putIntArray(rowsA).putIntArray(rowsB).putInt(w1).putInt(w2).putBoolean(useHS).putShort(negSamples)
+                        .putFloat(alpha).putByteArray(codes);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        rowsA = decoder.getIntArray();
+        rowsB = decoder.getIntArray();
+        w1 = decoder.getInt();
+        w2 = decoder.getInt();
+        useHS = decoder.getBoolean();
+        negSamples = decoder.getShort();
+        alpha = decoder.getFloat();
+        codes = decoder.getByteArray();
+    }
 }
@@ -3,12 +3,15 @@ package org.nd4j.parameterserver.distributed.messages.intercom;
 import lombok.NonNull;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
 
 /**
  * @author raver119@gmail.com
  */
-public class DistributedSkipGramMessage extends BaseVoidMessage implements DistributedMessage {
+public class DistributedSkipGramMessage extends BaseVoidMessage implements DistributedMessage, BinaryMessage {
 
     // learning rate for this sequence
     protected double alpha;
@@ -27,7 +30,7 @@ public class DistributedSkipGramMessage extends BaseVoidMessage implements Distr
     protected long nextRandom;
 
 
-    protected DistributedSkipGramMessage() {
+    public DistributedSkipGramMessage() {
         super(23);
     }
 
@@ -47,4 +50,21 @@ public class DistributedSkipGramMessage extends BaseVoidMessage implements Distr
     public void processMessage() {
 
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putDouble(alpha).putInt(w1).putInt(w2).putIntArray(points).putByteArray(codes).putShort(negSamples)
+                        .putLong(nextRandom);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        alpha = decoder.getDouble();
+        w1 = decoder.getInt();
+        w2 = decoder.getInt();
+        points = decoder.getIntArray();
+        codes = decoder.getByteArray();
+        negSamples = decoder.getShort();
+        nextRandom = decoder.getLong();
+    }
 }
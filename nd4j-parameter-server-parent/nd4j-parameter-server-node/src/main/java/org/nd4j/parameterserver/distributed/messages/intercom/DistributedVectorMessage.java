@@ -6,13 +6,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.DistributedMessage;
 import org.nd4j.parameterserver.distributed.messages.aggregations.VectorAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 
 /**
  * @author raver119@gmail.com
  */
 @Data
 @Slf4j
-public class DistributedVectorMessage extends BaseVoidMessage implements DistributedMessage {
+public class DistributedVectorMessage extends BaseVoidMessage implements DistributedMessage, BinaryMessage {
     protected int rowIndex;
     protected int key;
 
@@ -36,4 +39,15 @@ public class DistributedVectorMessage extends BaseVoidMessage implements Distrib
         aggregation.setOriginatorId(this.getOriginatorId());
         transport.sendMessage(aggregation);
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putInt(rowIndex).putInt(key);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        rowIndex = decoder.getInt();
+        key = decoder.getInt();
+    }
 }
@@ -8,6 +8,9 @@ import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.RequestMessage;
 import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 
 /**
@@ -15,7 +18,7 @@ import org.nd4j.parameterserver.distributed.training.TrainingDriver;
  */
 @Data
 @Slf4j
-public class CbowRequestMessage extends BaseVoidMessage implements TrainingMessage, RequestMessage {
+public class CbowRequestMessage extends BaseVoidMessage implements TrainingMessage, RequestMessage, BinaryMessage {
     protected byte counter = 1;
 
     long frameId;
@@ -30,6 +33,10 @@ public class CbowRequestMessage extends BaseVoidMessage implements TrainingMessa
 
     protected int[] negatives;
 
+    public CbowRequestMessage() {
+        super();
+    }
+
     public CbowRequestMessage(@NonNull int[] syn0rows, @NonNull int[] syn1rows, int w1, byte[] codes, int negSamples,
                     double alpha, long nextRandom) {
         this.syn0rows = syn0rows;
@@ -62,4 +69,25 @@ public class CbowRequestMessage extends BaseVoidMessage implements TrainingMessa
         // TODO: apply proper join handling here
         counter++;
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putByte(counter).putLong(frameId).putInt(w1).putIntArray(syn0rows).putIntArray(syn1rows)
+                        .putDouble(alpha).putLong(nextRandom).putInt(negSamples).putByteArray(codes)
+                        .putIntArray(negatives);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        counter = decoder.getByte();
+        frameId = decoder.getLong();
+        w1 = decoder.getInt();
+        syn0rows = decoder.getIntArray();
+        syn1rows = decoder.getIntArray();
+        alpha = decoder.getDouble();
+        nextRandom = decoder.getLong();
+        negSamples = decoder.getInt();
+        codes = decoder.getByteArray();
+        negatives = decoder.getIntArray();
+    }
 }
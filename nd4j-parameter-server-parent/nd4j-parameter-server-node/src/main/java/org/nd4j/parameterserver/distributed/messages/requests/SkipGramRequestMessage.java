@@ -7,6 +7,9 @@ import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.RequestMessage;
 import org.nd4j.parameterserver.distributed.messages.TrainingMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 
 import java.util.Arrays;
@@ -21,7 +24,7 @@ import java.util.Arrays;
  */
 @Data
 @Slf4j
-public class SkipGramRequestMessage extends BaseVoidMessage implements TrainingMessage, RequestMessage {
+public class SkipGramRequestMessage extends BaseVoidMessage implements TrainingMessage, RequestMessage, BinaryMessage {
 
     // learning rate for this sequence
     protected double alpha;
@@ -45,7 +48,7 @@ public class SkipGramRequestMessage extends BaseVoidMessage implements TrainingM
 
     protected byte counter = 1;
 
-    protected SkipGramRequestMessage() {
+    public SkipGramRequestMessage() {
         super(0);
     }
 
@@ -124,4 +127,24 @@ public class SkipGramRequestMessage extends BaseVoidMessage implements TrainingM
         result = 31 * result + (int) negSamples;
         return result;
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putDouble(alpha).putLong(frameId).putInt(w1).putInt(w2).putIntArray(points).putByteArray(codes)
+                        .putIntArray(negatives).putShort(negSamples).putLong(nextRandom).putByte(counter);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        alpha = decoder.getDouble();
+        frameId = decoder.getLong();
+        w1 = decoder.getInt();
+        w2 = decoder.getInt();
+        points = decoder.getIntArray();
+        codes = decoder.getByteArray();
+        negatives = decoder.getIntArray();
+        negSamples = decoder.getShort();
+        nextRandom = decoder.getLong();
+        counter = decoder.getByte();
+    }
 }
@@ -7,6 +7,9 @@ import org.nd4j.parameterserver.distributed.logic.storage.WordVectorStorage;
 import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
 import org.nd4j.parameterserver.distributed.messages.RequestMessage;
 import org.nd4j.parameterserver.distributed.messages.aggregations.VectorAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.BinaryMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageDecoder;
+import org.nd4j.parameterserver.distributed.messages.codec.MessageEncoder;
 import org.nd4j.parameterserver.distributed.messages.intercom.DistributedVectorMessage;
 
 /**
@@ -18,12 +21,12 @@ import org.nd4j.parameterserver.distributed.messages.intercom.DistributedVectorM
  */
 @Data
 @Slf4j
-public class VectorRequestMessage extends BaseVoidMessage implements RequestMessage {
+public class VectorRequestMessage extends BaseVoidMessage implements RequestMessage, BinaryMessage {
 
     protected Integer key;
     protected int rowIndex;
 
-    protected VectorRequestMessage() {
+    public VectorRequestMessage() {
         super(7);
     }
 
@@ -66,4 +69,15 @@ public class VectorRequestMessage extends BaseVoidMessage implements RequestMess
     public boolean isBlockingMessage() {
         return true;
     }
+
+    @Override
+    public void encodeBody(MessageEncoder encoder) {
+        encoder.putInteger(key).putInt(rowIndex);
+    }
+
+    @Override
+    public void decodeBody(MessageDecoder decoder) {
+        key = decoder.getInteger();
+        rowIndex = decoder.getInt();
+    }
 }
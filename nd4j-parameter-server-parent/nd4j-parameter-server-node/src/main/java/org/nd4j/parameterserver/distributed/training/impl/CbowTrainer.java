@@ -73,7 +73,7 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
         dcdm.setTargetId((short) -1);
         dcdm.setOriginatorId(message.getOriginatorId());
 
-        if (voidConfiguration.getExecutionMode() == ExecutionMode.AVERAGING) {
+        if (voidConfiguration.getExecutionMode().isReplicated()) {
             transport.putMessage(dcdm);
         } else if (voidConfiguration.getExecutionMode() == ExecutionMode.DISTRIBUTED) {
             transport.sendMessage(dcdm);
@@ -199,21 +199,14 @@ public class CbowTrainer extends BaseTrainer<CbowRequestMessage> {
         RequestDescriptor descriptor = RequestDescriptor.createDescriptor(chain.getOriginatorId(), chain.getFrameId());
 
         if (completionHandler.isTrackingFrame(descriptor)) {
-            completionHandler.notifyFrame(chain.getOriginatorId(), chain.getFrameId(), chain.getTaskId());
-
-            if (completionHandler.isCompleted(descriptor)) {
-                FrameCompletionHandler.FrameDescriptor frameDescriptor =
-                                completionHandler.getCompletedFrameInfo(descriptor);
-
-
-                // TODO: there is possible race condition here
-                if (frameDescriptor != null) {
-                    FrameCompleteMessage fcm = new FrameCompleteMessage(chain.getFrameId());
-                    fcm.setOriginatorId(frameDescriptor.getFrameOriginatorId());
-                    transport.sendMessage(fcm);
-                } else {
-                    log.warn("Frame double spending detected");
-                }
+            // only the thread which finished last message of the frame gets descriptor here
+            FrameCompletionHandler.FrameDescriptor frameDescriptor =
+                            completionHandler.completeMessage(descriptor, chain.getTaskId());
+
+            if (frameDescriptor != null) {
+                FrameCompleteMessage fcm = new FrameCompleteMessage(chain.getFrameId());
+                fcm.setOriginatorId(frameDescriptor.getFrameOriginatorId());
+                transport.sendMessage(fcm);
             }
         } else {
             //log.info("sI_{} isn't tracking this frame: Originator: {}, frameId: {}, taskId: {}", transport.getShardIndex(), chain.getOriginatorId(), chain.getFrameId(), taskId );
@@ -12,19 +12,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
 import org.agrona.concurrent.SleepingIdleStrategy;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.IdleMode;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
+import org.nd4j.parameterserver.distributed.logic.threading.HashedWorkerPool;
 import org.nd4j.parameterserver.distributed.messages.Frame;
 import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidMessage;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -55,7 +61,28 @@ public abstract class BaseTransport implements Transport {
     protected FragmentAssembler messageHandlerForShards;
     protected FragmentAssembler messageHandlerForClients;
 
-    protected LinkedBlockingQueue<VoidMessage> messages = new LinkedBlockingQueue<>();
+    public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+    // number of idle rounds before message handling thread blocks, with IdleMode.BLOCK
+    protected static final int SPIN_ROUNDS = 128;
+
+    // bounded queue of incoming messages, see putMessage() for details on backpressure
+    protected ManyToManyConcurrentArrayQueue<VoidMessage> messages =
+                    new ManyToManyConcurrentArrayQueue<>(DEFAULT_QUEUE_CAPACITY);
+
+    // messages produced by message handling threads themselves, these never wait for space in the queue
+    protected Queue<VoidMessage> overflow = new ConcurrentLinkedQueue<>();
+
+    // TRUE for threads that consume messages via takeMessage()
+    protected ThreadLocal<Boolean> handlerThread = ThreadLocal.withInitial(() -> false);
+    protected ThreadLocal<IdleStrategy> handlerIdler = ThreadLocal.withInitial(this::createIdleStrategy);
+
+    // message handling threads blocked in takeMessage(), with IdleMode.BLOCK
+    protected final Object signal = new Object();
+    protected final AtomicInteger waiters = new AtomicInteger(0);
+
+    protected AtomicLong backpressureCount = new AtomicLong(0);
+    protected AtomicLong overflowCount = new AtomicLong(0);
 
     protected Map<Long, MeaningfulMessage> completed = new ConcurrentHashMap<>();
 
@@ -69,8 +96,6 @@ public abstract class BaseTransport implements Transport {
 
     protected AtomicLong frameCount = new AtomicLong(0);
 
-    // TODO: make this configurable?
-    protected IdleStrategy idler = new SleepingIdleStrategy(1000);
     protected IdleStrategy feedbackIdler = new SleepingIdleStrategy(100000);
 
     protected ThreadingModel threadingModel = ThreadingModel.DEDICATED_THREADS;
@@ -179,6 +204,10 @@ public abstract class BaseTransport implements Transport {
                 //log.info("Sending message to ALL Shards: {}", message.getClass().getSimpleName());
                 sendCoordinationCommand(message);
                 break;
+            case 24:
+                // this message goes to the single Shard defined by targetId
+                sendPeerCommand(message);
+                break;
             default:
                 throw new RuntimeException("Unknown messageType passed for delivery");
         }
@@ -198,14 +227,11 @@ public abstract class BaseTransport implements Transport {
          */
         // TODO: implement fragmentation handler here PROBABLY. Or forbid messages > MTU?
         //log.info("shardMessageHandler message request incoming...");
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
+        VoidMessage message = VoidMessage.fromBuffer(buffer, offset, length);
         if (message.getMessageType() == 7) {
             // if that's vector request message - it's special case, we don't send it to other shards yet
             //log.info("Shortcut for vector request");
-            messages.add(message);
+            putMessage(message);
         } else {
             // and send it away to other Shards
             publicationForShards.offer(buffer, offset, length);
@@ -224,12 +250,9 @@ public abstract class BaseTransport implements Transport {
         /**
          * All incoming internal messages are either op commands, or aggregation messages that are tied to commands
          */
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
+        VoidMessage message = VoidMessage.fromBuffer(buffer, offset, length);
 
-        messages.add(message);
+        putMessage(message);
 
         //    log.info("internalMessageHandler message request incoming: {}", message.getClass().getSimpleName());
     }
@@ -249,10 +272,7 @@ public abstract class BaseTransport implements Transport {
         // TODO: to be implemented
         //  log.info("clientMessageHandler message request incoming");
 
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        MeaningfulMessage message = (MeaningfulMessage) VoidMessage.fromBytes(data);
+        MeaningfulMessage message = (MeaningfulMessage) VoidMessage.fromBuffer(buffer, offset, length);
         completed.put(message.getTaskId(), message);
     }
 
@@ -286,6 +306,27 @@ public abstract class BaseTransport implements Transport {
     public void init(VoidConfiguration voidConfiguration, Clipboard clipboard, NodeRole role, String localIp,
                     int localPort, short shardIndex) {
         //Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdownSilent()));
+        this.voidConfiguration = voidConfiguration;
+
+        int capacity = voidConfiguration.getMessageQueueCapacity() > 0 ? voidConfiguration.getMessageQueueCapacity()
+                        : DEFAULT_QUEUE_CAPACITY;
+
+        // capacity is rounded up to power of 2 by queue itself
+        messages = new ManyToManyConcurrentArrayQueue<>(capacity);
+    }
+
+    /**
+     * This method creates IdleStrategy according to configured IdleMode
+     *
+     * @return
+     */
+    protected IdleStrategy createIdleStrategy() {
+        return getIdleMode().createIdleStrategy();
+    }
+
+    protected IdleMode getIdleMode() {
+        return voidConfiguration == null || voidConfiguration.getIdleMode() == null ? IdleMode.BLOCK
+                        : voidConfiguration.getIdleMode();
     }
 
     /**
@@ -304,11 +345,13 @@ public abstract class BaseTransport implements Transport {
 
                 // single thread for all queues. shouldn't be used in real world
                 threadA = new Thread(() -> {
+                    IdleStrategy idler = createIdleStrategy();
                     while (runner.get()) {
+                        int workCount = 0;
                         if (subscriptionForShards != null)
-                            subscriptionForShards.poll(messageHandlerForShards, 512);
+                            workCount += subscriptionForShards.poll(messageHandlerForShards, 512);
 
-                        idler.idle(subscriptionForClients.poll(messageHandlerForClients, 512));
+                        idler.idle(workCount + subscriptionForClients.poll(messageHandlerForClients, 512));
                     }
                 });
 
@@ -322,7 +365,7 @@ public abstract class BaseTransport implements Transport {
                  * We definitely might use less conditional code here, BUT i'll keep it as is,
                  * only because we want code to be obvious for people
                  */
-                final AtomicBoolean localRunner = new AtomicBoolean(false);
+                final CountDownLatch localRunner = new CountDownLatch(1);
                 if (nodeRole == NodeRole.NONE) {
                     throw new ND4JIllegalStateException("No role is set for current node!");
                 } else if (nodeRole == NodeRole.SHARD || nodeRole == NodeRole.BACKUP || nodeRole == NodeRole.MASTER) {
@@ -331,6 +374,7 @@ public abstract class BaseTransport implements Transport {
                     // setting up thread for shard->client communication listener
                     if (messageHandlerForShards != null)
                         threadB = new Thread(() -> {
+                            IdleStrategy idler = createIdleStrategy();
                             while (runner.get())
                                 idler.idle(subscriptionForShards.poll(messageHandlerForShards, 512));
 
@@ -338,7 +382,8 @@ public abstract class BaseTransport implements Transport {
 
                     // setting up thread for inter-shard communication listener
                     threadA = new Thread(() -> {
-                        localRunner.set(true);
+                        IdleStrategy idler = createIdleStrategy();
+                        localRunner.countDown();
                         while (runner.get())
                             idler.idle(subscriptionForClients.poll(messageHandlerForClients, 512));
                     });
@@ -351,7 +396,8 @@ public abstract class BaseTransport implements Transport {
                 } else {
                     // setting up thread for shard->client communication listener
                     threadA = new Thread(() -> {
-                        localRunner.set(true);
+                        IdleStrategy idler = createIdleStrategy();
+                        localRunner.countDown();
                         while (runner.get())
                             idler.idle(subscriptionForClients.poll(messageHandlerForClients, 512));
                     });
@@ -362,11 +408,11 @@ public abstract class BaseTransport implements Transport {
                 threadA.setName("VoidParamServer subscription threadA [" + nodeRole + "]");
                 threadA.start();
 
-                while (!localRunner.get())
-                    try {
-                        Thread.sleep(50);
-                    } catch (Exception e) {
-                    }
+                try {
+                    localRunner.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
                 break;
             case SAME_THREAD: {
@@ -421,30 +467,36 @@ public abstract class BaseTransport implements Transport {
      */
     @Override
     public void receiveMessage(VoidMessage message) {
-        try {
-            log.info("Message received, saving...");
-            messages.put(message);
-        } catch (Exception e) {
-            // do nothing
-        }
+        putMessage(message);
     }
 
     /**
-     * This method takes 1 message from "incoming messages" queue, blocking if queue is empty
+     * This method takes 1 message from "incoming messages" queue, waiting with configured IdleMode if queue is empty
      *
-     * @return
+     * @return message, or null if transport was shut down
      */
     @Override
     public VoidMessage takeMessage() {
+        handlerThread.set(true);
+
         if (threadingModel != ThreadingModel.SAME_THREAD) {
-            try {
-                return messages.take();
-            } catch (InterruptedException e) {
-                // probably we don't want to do anything here
-                return null;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+            IdleStrategy idler = handlerIdler.get();
+            idler.reset();
+
+            boolean blocking = getIdleMode() == IdleMode.BLOCK;
+            int rounds = 0;
+
+            VoidMessage message;
+            while ((message = pollMessage()) == null) {
+                if (!runner.get() || Thread.currentThread().isInterrupted())
+                    return null;
+
+                if (blocking && ++rounds > SPIN_ROUNDS)
+                    awaitMessage();
+                else
+                    idler.idle();
             }
+            return message;
         } else {
             /**
              * PLEASE NOTE: This branch is suitable for debugging only, should never be used in wild life
@@ -455,18 +507,75 @@ public abstract class BaseTransport implements Transport {
 
             subscriptionForClients.poll(messageHandlerForClients, 512);
 
-            return messages.poll();
+            return pollMessage();
         }
     }
 
+    /**
+     * This method blocks until putMessage() signals new message, or 100ms pass
+     */
+    protected void awaitMessage() {
+        waiters.incrementAndGet();
+        try {
+            synchronized (signal) {
+                // message might've arrived before we got here, putMessage() only signals registered waiters
+                if (messages.isEmpty() && overflow.isEmpty())
+                    signal.wait(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    protected void signalWaiters() {
+        if (waiters.get() > 0)
+            synchronized (signal) {
+                signal.notify();
+            }
+    }
+
+    protected VoidMessage pollMessage() {
+        // overflow is drained first, it only grows when message handlers can't keep up with themselves
+        VoidMessage message = overflow.poll();
+        return message != null ? message : messages.poll();
+    }
+
     /**
      * This method puts message into processing queue
      *
+     * Queue is bounded: once it's full, caller waits until message handling threads catch up.
+     * For Aeron subscription threads that means they stop polling, so Aeron flow control
+     * backpressures remote senders: their offer() calls return BACK_PRESSURED until there's room again.
+     *
+     * Message handling threads can't wait for the queue, since they would wait for themselves.
+     * Messages they produce go to separate overflow queue instead.
+     *
      * @param message
      */
     @Override
     public void putMessage(@NonNull VoidMessage message) {
-        messages.add(message);
+        if (!messages.offer(message)) {
+            // handler and worker threads can't wait here: they're the ones who drain this queue, directly or not
+            if (handlerThread.get() || HashedWorkerPool.isWorkerThread()) {
+                overflowCount.incrementAndGet();
+                overflow.add(message);
+            } else {
+                backpressureCount.incrementAndGet();
+                IdleStrategy idler = createIdleStrategy();
+                while (!messages.offer(message)) {
+                    if (!runner.get()) {
+                        log.warn("Transport is shut down, dropping message [{}]", message.getClass().getSimpleName());
+                        return;
+                    }
+
+                    idler.idle();
+                }
+            }
+        }
+
+        signalWaiters();
     }
 
     /**
@@ -478,7 +587,35 @@ public abstract class BaseTransport implements Transport {
      */
     @Override
     public VoidMessage peekMessage() {
-        return messages.peek();
+        VoidMessage message = overflow.peek();
+        return message != null ? message : messages.peek();
+    }
+
+    /**
+     * Number of messages waiting for processing
+     *
+     * @return
+     */
+    public int getQueueSize() {
+        return messages.size() + overflow.size();
+    }
+
+    /**
+     * Number of times incoming messages had to wait for space in the queue
+     *
+     * @return
+     */
+    public long getBackpressureCount() {
+        return backpressureCount.get();
+    }
+
+    /**
+     * Number of messages produced by message handling threads, that didn't fit into the queue
+     *
+     * @return
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
     }
 
     /**
@@ -491,7 +628,7 @@ public abstract class BaseTransport implements Transport {
         // TODO: we want LocalTransport to be used in such cases
         if (nodeRole == NodeRole.SHARD) {
             message.setTargetId(shardIndex);
-            messages.add(message);
+            putMessage(message);
             return;
         }
 
@@ -526,6 +663,27 @@ public abstract class BaseTransport implements Transport {
      */
     protected abstract void sendCoordinationCommand(VoidMessage message);
 
+    /**
+     * This command is possible to issue only from Shard, message is delivered to the Shard defined by its targetId
+     *
+     * @param message
+     */
+    protected void sendPeerCommand(VoidMessage message) {
+        // VoidParameterServer doesn't start with execution modes that need this, so we shouldn't ever get here
+        throw new ND4JIllegalStateException(
+                        getClass().getSimpleName() + " doesn't support delivery to specific Shard");
+    }
+
+    /**
+     * This method returns TRUE if sendPeerCommand() is implemented by this transport
+     *
+     * @return
+     */
+    @Override
+    public boolean isPeerDeliverySupported() {
+        return false;
+    }
+
     /**
      * This command is possible to issue only from Shard
      * @param message
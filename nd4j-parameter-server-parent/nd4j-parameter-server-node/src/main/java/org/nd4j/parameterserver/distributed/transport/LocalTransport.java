@@ -1,17 +1,59 @@
 package org.nd4j.parameterserver.distributed.transport;
 
 import lombok.NonNull;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidMessage;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
+ * In-process Transport implementation: Shards living within the same JVM exchange messages through queues,
+ * without any networking involved. Transports created with {@link #LocalTransport(LocalTransport)} share
+ * the same "network", so multi-Shard setups can be emulated within single process.
+ *
+ * Messages are passed through the same serialization as network transports do,
+ * so receiver never shares arrays with sender.
+ *
+ * Supported message types: Client->Shard commands (delivered to the local Shard, or to Shard 0 if current node
+ * isn't Shard), Shard->Shard commands (delivered to all Shards), and Shard->Shard messages addressed to specific Shard.
  *
  * @author raver119@gmail.com
  */
 public class LocalTransport implements Transport {
+    protected final Map<Short, LocalTransport> shards;
+
+    protected final LinkedBlockingQueue<VoidMessage> messages = new LinkedBlockingQueue<>();
+    protected final AtomicBoolean runner = new AtomicBoolean(true);
+
+    protected VoidConfiguration voidConfiguration;
+    protected Clipboard clipboard;
+    protected NodeRole nodeRole;
+    protected short shardIndex;
+    protected String ip;
+    protected int port;
+
+    public LocalTransport() {
+        this.shards = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * This constructor creates transport attached to the same in-process network as given one
+     *
+     * @param peer
+     */
+    public LocalTransport(@NonNull LocalTransport peer) {
+        this.shards = peer.shards;
+    }
+
     /**
      * This method does initialization of Transport instance
      *
@@ -22,7 +64,15 @@ public class LocalTransport implements Transport {
     @Override
     public void init(VoidConfiguration voidConfiguration, Clipboard clipboard, NodeRole role, String localIp,
                     int localPort, short shardIndex) {
+        this.voidConfiguration = voidConfiguration;
+        this.clipboard = clipboard;
+        this.nodeRole = role;
+        this.shardIndex = shardIndex;
+        this.ip = localIp;
+        this.port = localPort;
 
+        if (role == NodeRole.SHARD && shards.putIfAbsent(shardIndex, this) != null)
+            throw new ND4JIllegalStateException("Shard [" + shardIndex + "] is already attached to this network");
     }
 
     /**
@@ -31,16 +81,51 @@ public class LocalTransport implements Transport {
      * @param message
      */
     @Override
-    public void sendMessage(VoidMessage message) {
-
+    public void sendMessage(@NonNull VoidMessage message) {
+        int type = message.getMessageType();
+        if (type >= 0 && type <= 9) {
+            // Client->Shard commands
+            short target = nodeRole == NodeRole.SHARD ? shardIndex : 0;
+            message.setTargetId(target);
+            deliver(target, message);
+        } else if (type == 24) {
+            // Shard->Shard message, addressed to specific Shard
+            deliver(message.getTargetId(), message);
+        } else if (type >= 20 && type <= 29) {
+            sendMessageToAllShards(message);
+        } else
+            throw new UnsupportedOperationException("LocalTransport doesn't support messageType [" + type + "]: "
+                            + message.getClass().getSimpleName());
     }
 
     /**
      * @param message
      */
     @Override
-    public void sendMessageToAllShards(VoidMessage message) {
+    public void sendMessageToAllShards(@NonNull VoidMessage message) {
+        for (LocalTransport shard : shards.values())
+            shard.receiveMessage(copy(message));
+    }
 
+    @Override
+    public boolean isPeerDeliverySupported() {
+        return true;
+    }
+
+    protected void deliver(short target, VoidMessage message) {
+        LocalTransport shard = shards.get(target);
+        if (shard == null)
+            throw new ND4JIllegalStateException("Shard [" + target + "] isn't attached to this network");
+
+        shard.receiveMessage(copy(message));
+    }
+
+    /**
+     * This method returns copy of the message, restored from its serialized form
+     */
+    protected VoidMessage copy(VoidMessage message) {
+        UnsafeBuffer buffer = message.asUnsafeBuffer();
+        return VoidMessage.fromBuffer(buffer, 0, buffer.capacity());
     }
 
     /**
@@ -50,16 +135,25 @@ public class LocalTransport implements Transport {
      */
     @Override
     public void receiveMessage(VoidMessage message) {
-
+        putMessage(message);
     }
 
     /**
      * This method takes 1 message from "incoming messages" queue, blocking if queue is empty
      *
-     * @return
+     * @return message, or null once transport is shut down
      */
     @Override
     public VoidMessage takeMessage() {
+        try {
+            while (runner.get()) {
+                VoidMessage message = messages.poll(100, TimeUnit.MILLISECONDS);
+                if (message != null)
+                    return message;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         return null;
     }
 
@@ -70,7 +164,12 @@ public class LocalTransport implements Transport {
      */
     @Override
     public void putMessage(VoidMessage message) {
-
+        try {
+            messages.put(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -82,7 +181,7 @@ public class LocalTransport implements Transport {
      */
     @Override
     public VoidMessage peekMessage() {
-        return null;
+        return messages.peek();
     }
 
     /**
@@ -94,7 +193,7 @@ public class LocalTransport implements Transport {
      */
     @Override
     public void launch(ThreadingModel threading) {
-
+        // nothing to launch here, messages are delivered by sender threads
     }
 
     /**
@@ -102,7 +201,9 @@ public class LocalTransport implements Transport {
      */
     @Override
     public void shutdown() {
-
+        runner.set(false);
+        shards.remove(shardIndex, this);
+        messages.clear();
     }
 
     @Override
@@ -112,17 +213,18 @@ public class LocalTransport implements Transport {
 
     @Override
     public short getShardIndex() {
-        return 0;
+        return shardIndex;
     }
 
     @Override
     public short getTargetIndex() {
-        return 0;
+        return shardIndex;
     }
 
     @Override
     public void setIpAndPort(String ip, int port) {
-
+        this.ip = ip;
+        this.port = port;
     }
 
     @Override
@@ -132,11 +234,11 @@ public class LocalTransport implements Transport {
 
     @Override
     public String getIp() {
-        return null;
+        return ip;
     }
 
     @Override
     public int getPort() {
-        return 0;
+        return port;
     }
 }
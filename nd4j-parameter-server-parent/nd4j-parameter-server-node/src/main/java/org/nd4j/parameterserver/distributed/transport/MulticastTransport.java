@@ -165,7 +165,7 @@ public class MulticastTransport extends BaseTransport {
     protected synchronized void sendCoordinationCommand(VoidMessage message) {
         if (nodeRole == NodeRole.SHARD && voidConfiguration.getNumberOfShards() == 1) {
             message.setTargetId((short) -1);
-            messages.add(message);
+            putMessage(message);
             return;
         }
 
@@ -4,11 +4,16 @@ import io.aeron.Aeron;
 import io.aeron.FragmentAssembler;
 import io.aeron.Publication;
 import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.BufferClaim;
 import io.aeron.logbuffer.Header;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.io.StringUtils;
@@ -19,12 +24,13 @@ import org.nd4j.parameterserver.distributed.logic.ClientRouter;
 import org.nd4j.parameterserver.distributed.logic.RetransmissionHandler;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.messages.*;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
 import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.lang.System.setProperty;
@@ -32,6 +38,13 @@ import static java.lang.System.setProperty;
 /**
  * Transport implementation based on UDP unicast, for restricted environments, where multicast isn't available. I.e. AWS or Azure
  *
+ * Unless disabled via VoidConfiguration, outgoing messages are put into bounded per-connection queues,
+ * and dedicated sender thread coalesces them into batches, written directly into Aeron log via tryClaim().
+ * Batch is flushed once it's full, or once its oldest message waited for messageBatchDelay microseconds.
+ * With default zero delay, whatever was queued by the time sender gets to connection goes out as one batch.
+ * Producers block while connection queue is full. If Shard can't be reached, its queued messages are discarded,
+ * and all subsequent sends to that Shard throw ND4JIllegalStateException.
+ *
  * @author raver119@gmail.com
  */
 @Slf4j
@@ -45,6 +58,11 @@ public class RoutedTransport extends BaseTransport {
 
     protected long originatorId;
 
+    // service thread, responsible for batched sends
+    protected Thread threadC;
+    protected IdleStrategy senderIdler = new BackoffIdleStrategy(100, 10, TimeUnit.MICROSECONDS.toNanos(1),
+                    TimeUnit.MICROSECONDS.toNanos(100));
+
     public RoutedTransport() {
         //
     }
@@ -56,7 +74,6 @@ public class RoutedTransport extends BaseTransport {
         this.clipboard = clipboard;
         this.voidConfiguration = voidConfiguration;
         this.shardIndex = shardIndex;
-        this.messages = new LinkedBlockingQueue<>();
         //shutdown hook
         super.init(voidConfiguration, clipboard, role, localIp, localPort, shardIndex);
         setProperty("aeron.client.liveness.timeout", "30000000000");
@@ -118,7 +135,8 @@ public class RoutedTransport extends BaseTransport {
             Publication publication = aeron.addPublication(shardChannelUri, voidConfiguration.getStreamId());
 
             RemoteConnection connection = RemoteConnection.builder().ip(remoteIp).port(remotePort)
-                            .publication(publication).locker(new Object()).build();
+                            .publication(publication).locker(new Object()).shard(true).outbox(createOutbox())
+                            .build();
 
             shards.add(connection);
         }
@@ -177,16 +195,28 @@ public class RoutedTransport extends BaseTransport {
 
         // if we're the only shard - we just put message into the queue
         if (nodeRole == NodeRole.SHARD && voidConfiguration.getNumberOfShards() == 1) {
-            try {
-                messages.put(message);
-                return;
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            putMessage(message);
+            return;
         }
 
         final DirectBuffer buffer = message.asUnsafeBuffer();
 
+        if (isBatching()) {
+            for (RemoteConnection rc : shards) {
+                if (originatorId == HashUtil.getLongHash(rc.getIp() + ":" + rc.getPort())) {
+                    // this is local delivery
+                    putMessage(message);
+                } else
+                    enqueue(rc, buffer);
+            }
+            return;
+        }
+
+        // local delivery happens within caller thread, since putMessage() behavior depends on it
+        for (RemoteConnection rc : shards)
+            if (originatorId == HashUtil.getLongHash(rc.getIp() + ":" + rc.getPort()))
+                putMessage(message);
+
         // TODO: check which approach is faster, lambda, direct roll through list, or queue approach
         shards.parallelStream().forEach((rc) -> {
             RetransmissionHandler.TransmissionStatus res;
@@ -194,15 +224,8 @@ public class RoutedTransport extends BaseTransport {
             boolean delivered = false;
 
             long address = HashUtil.getLongHash(rc.getIp() + ":" + rc.getPort());
-            if (originatorId == address) {
-                // this is local delivery
-                try {
-                    messages.put(message);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
+            if (originatorId == address)
                 return;
-            }
 
             //      log.info("Trying to send [{}] to {}", message.getClass().getSimpleName(), address);
             while (!delivered) {
@@ -276,6 +299,11 @@ public class RoutedTransport extends BaseTransport {
             throw new RuntimeException();
         }
 
+        if (isBatching()) {
+            enqueue(connection, message.asUnsafeBuffer());
+            return;
+        }
+
         while (!delivered) {
             synchronized (connection.locker) {
                 result = RetransmissionHandler
@@ -336,6 +364,17 @@ public class RoutedTransport extends BaseTransport {
         if (threadA != null)
             threadA.interrupt();
 
+        if (threadC != null) {
+            try {
+                threadC.join();
+            } catch (InterruptedException e) {
+                //
+            }
+
+            // sender thread is gone, so whatever is still queued is sent from this thread, or explicitly discarded
+            drainConnections();
+        }
+
         shutdownSilent();
     }
 
@@ -347,26 +386,67 @@ public class RoutedTransport extends BaseTransport {
             router.setOriginator(message);
             message.setTargetId(getShardIndex());
 
-            try {
-                messages.put(message);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            putMessage(message);
             return;
         }
 
-        RetransmissionHandler.TransmissionStatus result;
-
         int targetShard = router.assignTarget(message);
 
         //log.info("Sending message {} to shard {}", message.getClass().getSimpleName(), targetShard);
-        boolean delivered = false;
         RemoteConnection connection = shards.get(targetShard);
 
+        if (isBatching()) {
+            enqueue(connection, message.asUnsafeBuffer());
+            return;
+        }
+
+        offerToShard(connection, message.asUnsafeBuffer());
+    }
+
+    @Override
+    public boolean isPeerDeliverySupported() {
+        return true;
+    }
+
+    /**
+     * This method delivers message to the Shard defined by message targetId
+     *
+     * @param message
+     */
+    @Override
+    protected void sendPeerCommand(VoidMessage message) {
+        RemoteConnection connection = shards.get(message.getTargetId());
+
+        if (originatorId == HashUtil.getLongHash(connection.getIp() + ":" + connection.getPort())) {
+            // this is local delivery
+            putMessage(message);
+            return;
+        }
+
+        // message is encoded right away, so it doesn't reference caller arrays after this call
+        DirectBuffer buffer = message.asUnsafeBuffer();
+
+        if (isBatching()) {
+            enqueue(connection, buffer);
+            return;
+        }
+
+        offerToShard(connection, buffer);
+    }
+
+    /**
+     * This method offers given buffer to the Shard publication, retrying on backpressure
+     *
+     * @param connection
+     * @param buffer
+     */
+    protected void offerToShard(RemoteConnection connection, DirectBuffer buffer) {
+        RetransmissionHandler.TransmissionStatus result;
+        boolean delivered = false;
+
         while (!delivered) {
             synchronized (connection.locker) {
-                result = RetransmissionHandler
-                                .getTransmissionStatus(connection.getPublication().offer(message.asUnsafeBuffer()));
+                result = RetransmissionHandler.getTransmissionStatus(connection.getPublication().offer(buffer));
             }
 
             switch (result) {
@@ -417,11 +497,19 @@ public class RoutedTransport extends BaseTransport {
          *  All of them should implement MeaningfulMessage interface
          */
 
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
+        if (VoidMessageCodec.isBatch(buffer, offset, length)) {
+            for (VoidMessage message : VoidMessageCodec.decodeBatch(buffer, offset, length))
+                dispatchMessage(message);
+        } else
+            dispatchMessage(VoidMessage.fromBuffer(buffer, offset, length));
+    }
 
+    /**
+     * This method puts received message into appropriate queue
+     *
+     * @param message
+     */
+    protected void dispatchMessage(VoidMessage message) {
         //        log.info("sI_{} received message: {}", shardIndex, message.getClass().getSimpleName());
 
         //if (messages.size() > 500)
@@ -430,46 +518,11 @@ public class RoutedTransport extends BaseTransport {
         if (message instanceof MeaningfulMessage) {
             MeaningfulMessage msg = (MeaningfulMessage) message;
             completed.put(message.getTaskId(), msg);
-        } else if (message instanceof RequestMessage) {
-            try {
-                messages.put((RequestMessage) message);
-            } catch (InterruptedException e) {
-                // do nothing
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        } else if (message instanceof DistributedMessage) {
-            try {
-                messages.put((DistributedMessage) message);
-            } catch (InterruptedException e) {
-                // do nothing
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        } else if (message instanceof TrainingMessage) {
-            try {
-                messages.put((TrainingMessage) message);
-            } catch (InterruptedException e) {
-                // do nothing
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        } else if (message instanceof VoidAggregation) {
-            try {
-                messages.put((VoidAggregation) message);
-            } catch (InterruptedException e) {
-                // do nothing
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        } else if (message instanceof Frame) {
-            try {
-                messages.put((Frame) message);
-            } catch (InterruptedException e) {
-                // do nothing
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        } else if (message instanceof RequestMessage || message instanceof DistributedMessage
+                        || message instanceof TrainingMessage || message instanceof VoidAggregation
+                        || message instanceof Frame) {
+            // this call blocks if incoming queue is full, so senders get backpressured
+            putMessage(message);
         } else {
             log.info("Unknown message: {}", message.getClass().getSimpleName());
         }
@@ -479,6 +532,31 @@ public class RoutedTransport extends BaseTransport {
     public void launch(@NonNull ThreadingModel threading) {
         super.launch(threading);
 
+        // SAME_THREAD model means no service threads, so we'll keep sending messages synchronously
+        if (voidConfiguration.isMessageBatching() && threading != ThreadingModel.SAME_THREAD) {
+            threadC = new Thread(() -> {
+                BufferClaim claim = new BufferClaim();
+                while (runner.get()) {
+                    int workCount = 0;
+                    try {
+                        for (RemoteConnection rc : shards)
+                            workCount += flushConnection(rc, claim);
+
+                        for (RemoteConnection rc : clients.values())
+                            workCount += flushConnection(rc, claim);
+                    } catch (Exception e) {
+                        log.error("Sender thread failure", e);
+                    }
+
+                    senderIdler.idle(workCount);
+                }
+            });
+
+            threadC.setDaemon(true);
+            threadC.setName("VoidParamServer sender threadC [" + nodeRole + "]");
+            threadC.start();
+        }
+
         // send introductory message
         //        if (nodeRole == NodeRole.CLIENT) {
         //            shards.parallelStream().forEach((rc) -> {
@@ -489,6 +567,228 @@ public class RoutedTransport extends BaseTransport {
         //        }
     }
 
+    /**
+     * This method creates bounded lock-free queue for messages to be sent by sender thread.
+     * Any thread can put messages there, but only sender thread takes them out.
+     *
+     * PLEASE NOTE: capacity is rounded up to the next power of 2
+     *
+     * @return
+     */
+    protected ManyToOneConcurrentArrayQueue<DirectBuffer> createOutbox() {
+        int capacity = voidConfiguration.getMessageOutboxCapacity() > 0 ? voidConfiguration.getMessageOutboxCapacity()
+                        : 8192;
+        return new ManyToOneConcurrentArrayQueue<>(capacity);
+    }
+
+    /**
+     * This method puts message into connection queue for sender thread.
+     * Caller is blocked while queue is full, and gets ND4JIllegalStateException if connection has failed
+     * or transport is shut down.
+     *
+     * @param connection
+     * @param buffer
+     */
+    protected void enqueue(RemoteConnection connection, DirectBuffer buffer) {
+        IdleStrategy idler = null;
+        while (true) {
+            if (connection.getFailure() != null)
+                throw new ND4JIllegalStateException(connection.getFailure());
+
+            if (!runner.get())
+                throw new ND4JIllegalStateException("Transport is shut down, message to ["
+                                + connection.getPublication().channel() + "] can't be sent");
+
+            if (connection.getOutbox().offer(buffer))
+                return;
+
+            if (Thread.currentThread().isInterrupted())
+                throw new ND4JIllegalStateException(
+                                "Interrupted while queueing message to [" + connection.getPublication().channel() + "]");
+
+            // queue is full, so we wait for sender thread
+            if (idler == null)
+                idler = createIdleStrategy();
+
+            idler.idle();
+        }
+    }
+
+    /**
+     * This method sends everything still queued, without waiting for batches to be filled.
+     * Messages that can't be delivered within responseTimeout are discarded with error.
+     * Called on shutdown, after sender thread is stopped.
+     */
+    protected void drainConnections() {
+        List<RemoteConnection> connections = new ArrayList<>(shards);
+        connections.addAll(clients.values());
+
+        BufferClaim claim = new BufferClaim();
+        long deadline = System.currentTimeMillis() + voidConfiguration.getResponseTimeout();
+        for (RemoteConnection rc : connections) {
+            try {
+                while (!(rc.getOutbox().isEmpty() && rc.getPending().isEmpty()) && rc.getFailure() == null
+                                && System.currentTimeMillis() < deadline) {
+                    if (flushConnection(rc, claim, true) == 0)
+                        senderIdler.idle(0);
+                }
+            } catch (Exception e) {
+                log.error("Failed to flush messages to [" + rc.getPublication().channel() + "]", e);
+            }
+
+            int discarded = rc.getOutbox().size() + rc.getPending().size();
+            if (discarded > 0) {
+                rc.getOutbox().clear();
+                rc.getPending().clear();
+                rc.setPendingBytes(0);
+                rc.setFailure("Transport shut down before " + discarded + " messages were sent to ["
+                                + rc.getPublication().channel() + "]");
+                log.error(rc.getFailure());
+            }
+        }
+    }
+
+    /**
+     * This method returns TRUE if outgoing messages are queued for sender thread
+     *
+     * @return
+     */
+    protected boolean isBatching() {
+        return threadC != null;
+    }
+
+    /**
+     * This method sends messages queued for given connection, coalescing them into batches when possible.
+     * Called from sender thread only.
+     *
+     * @param rc
+     * @param claim
+     * @return number of messages sent
+     */
+    protected int flushConnection(RemoteConnection rc, BufferClaim claim) {
+        return flushConnection(rc, claim, false);
+    }
+
+    /**
+     * This method sends messages queued for given connection, coalescing them into batches when possible.
+     *
+     * @param rc
+     * @param claim
+     * @param force if TRUE, batch is sent without waiting for it to be filled
+     * @return number of messages sent
+     */
+    protected int flushConnection(RemoteConnection rc, BufferClaim claim, boolean force) {
+        Deque<DirectBuffer> pending = rc.getPending();
+
+        DirectBuffer buffer;
+        while ((buffer = rc.getOutbox().poll()) != null) {
+            if (pending.isEmpty())
+                rc.setFirstQueued(System.nanoTime());
+
+            pending.add(buffer);
+            rc.setPendingBytes(rc.getPendingBytes() + VoidMessageCodec.BATCH_ENTRY_OVERHEAD + buffer.capacity());
+        }
+
+        if (pending.isEmpty())
+            return 0;
+
+        int limit = rc.getPublication().maxPayloadLength();
+        if (voidConfiguration.getMessageBatchSize() > 0)
+            limit = Math.min(limit, voidConfiguration.getMessageBatchSize());
+
+        // batch isn't full yet, so we can wait for more messages
+        if (!force && VoidMessageCodec.BATCH_HEADER_LENGTH + rc.getPendingBytes() < limit && System.nanoTime()
+                        - rc.getFirstQueued() < TimeUnit.MICROSECONDS.toNanos(voidConfiguration.getMessageBatchDelay()))
+            return 0;
+
+        // counting messages that fit into single frame
+        int numberOfMessages = 0;
+        int batchLength = VoidMessageCodec.BATCH_HEADER_LENGTH;
+        for (DirectBuffer message : pending) {
+            int entryLength = VoidMessageCodec.BATCH_ENTRY_OVERHEAD + message.capacity();
+            if (batchLength + entryLength > limit)
+                break;
+
+            batchLength += entryLength;
+            numberOfMessages++;
+        }
+
+        long result;
+        if (numberOfMessages < 2) {
+            // single message, or message that's too large for a frame: it's sent as is, and fragmented by Aeron if needed
+            numberOfMessages = 1;
+            result = rc.getPublication().offer(pending.peek());
+        } else {
+            result = rc.getPublication().tryClaim(batchLength, claim);
+            if (result > 0) {
+                try {
+                    MutableDirectBuffer target = claim.buffer();
+                    int position = claim.offset();
+                    position += VoidMessageCodec.putBatchHeader(target, position, numberOfMessages);
+
+                    Iterator<DirectBuffer> iterator = pending.iterator();
+                    for (int i = 0; i < numberOfMessages; i++)
+                        position += VoidMessageCodec.putBatchEntry(target, position, iterator.next());
+
+                    claim.commit();
+                } catch (RuntimeException e) {
+                    claim.abort();
+                    throw e;
+                }
+            }
+        }
+
+        switch (RetransmissionHandler.getTransmissionStatus(result)) {
+            case MESSAGE_SENT:
+                rc.getActivated().set(true);
+                rc.setFailedSince(0);
+                break;
+            case ADMIN_ACTION:
+            case BACKPRESSURE:
+                // we'll just retry on next pass
+                return 0;
+            case NOT_CONNECTED: {
+                if (rc.isShard() && !rc.getActivated().get()) {
+                    // shard might be not started yet, so we keep messages for a while
+                    long time = System.currentTimeMillis();
+                    if (rc.getFailedSince() == 0)
+                        rc.setFailedSince(time);
+
+                    if (time - rc.getFailedSince() < voidConfiguration.getRetransmitTimeout() * 20)
+                        return 0;
+
+                    rc.setFailure("Can't connect to Shard: [" + rc.getPublication().channel() + "]");
+                } else if (rc.isShard()) {
+                    rc.setFailure("Shard [" + rc.getPublication().channel()
+                                    + "] is gone. Shards reassignment is to be implemented yet");
+                }
+
+                // client dead? we can't do too much here, so messages are discarded, same as in synchronous mode
+                numberOfMessages = pending.size() + rc.getOutbox().size();
+                rc.setFailedSince(0);
+
+                if (rc.getFailure() != null) {
+                    // Shard failure is fatal: queued messages are discarded, and producers get exception on next send
+                    log.error("{}, {} messages discarded", rc.getFailure(), numberOfMessages);
+                } else {
+                    log.warn("Client [{}] isn't reachable, {} messages discarded", rc.getPublication().channel(),
+                                    numberOfMessages);
+                }
+
+                rc.getOutbox().clear();
+                pending.clear();
+                rc.setPendingBytes(0);
+                return numberOfMessages;
+            }
+        }
+
+        for (int i = 0; i < numberOfMessages; i++)
+            rc.setPendingBytes(rc.getPendingBytes() - VoidMessageCodec.BATCH_ENTRY_OVERHEAD
+                            - pending.poll().capacity());
+
+        return numberOfMessages;
+    }
+
     @Override
     public synchronized void addClient(String ip, int port) {
         Long hash = HashUtil.getLongHash(ip + ":" + port);
@@ -498,7 +798,7 @@ public class RoutedTransport extends BaseTransport {
         RemoteConnection connection = RemoteConnection.builder().ip(ip).port(port)
                         .publication(aeron.addPublication("aeron:udp?endpoint=" + ip + ":" + port,
                                         voidConfiguration.getStreamId()))
-                        .locker(new Object()).activated(new AtomicBoolean(false)).build();
+                        .locker(new Object()).activated(new AtomicBoolean(false)).outbox(createOutbox()).build();
 
 
         log.info("sI_{} {}: Adding connection: [{}] to {}:{}", shardIndex, nodeRole, hash, ip, port);
@@ -515,12 +815,25 @@ public class RoutedTransport extends BaseTransport {
         private Publication publication;
         private Object locker;
         private AtomicBoolean activated;
+        private boolean shard;
+
+        // messages queued for sender thread
+        private ManyToOneConcurrentArrayQueue<DirectBuffer> outbox;
+        // set once connection has failed, all subsequent sends throw exception with this message
+        private volatile String failure;
+
+        // fields below are accessed from sender thread only
+        private Deque<DirectBuffer> pending;
+        private int pendingBytes;
+        private long firstQueued;
+        private long failedSince;
 
 
 
         public static class RemoteConnectionBuilder {
             private Object locker = new Object();
             private AtomicBoolean activated = new AtomicBoolean();
+            private Deque<DirectBuffer> pending = new ArrayDeque<>();
         }
     }
 
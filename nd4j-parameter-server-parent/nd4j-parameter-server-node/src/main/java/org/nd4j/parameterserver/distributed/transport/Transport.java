@@ -62,6 +62,14 @@ public interface Transport {
      */
     void sendMessageToAllShards(VoidMessage message);
 
+    /**
+     * This method returns TRUE if this transport is able to deliver message to specific Shard,
+     * which is required by RING_ALLREDUCE and TREE_ALLREDUCE execution modes
+     *
+     * @return
+     */
+    boolean isPeerDeliverySupported();
+
     /**
      * This method accepts message from network
      *
@@ -72,7 +80,7 @@ public interface Transport {
     /**
      * This method takes 1 message from "incoming messages" queue, blocking if queue is empty
      *
-     * @return
+     * @return message, or null once transport is shut down
      */
     VoidMessage takeMessage();
 
@@ -0,0 +1,200 @@
+package org.nd4j.parameterserver.distributed.logic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.distributed.VoidParameterServer;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.ExecutionMode;
+import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.logic.allreduce.RingAllReducer;
+import org.nd4j.parameterserver.distributed.logic.allreduce.TreeAllReducer;
+import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+import org.nd4j.parameterserver.distributed.transport.LocalTransport;
+import org.nd4j.parameterserver.distributed.transport.MulticastTransport;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+public class AllReducerTest {
+
+    /**
+     * Shards wired via LocalTransport, each one with its own message handling thread
+     */
+    private static class Network {
+        private final AllReducer[] reducers;
+        private final LocalTransport[] transports;
+        private final Thread[] handlers;
+
+        private Network(int numberOfShards, int segmentLength, Supplier<AllReducer> factory) {
+            VoidConfiguration configuration = VoidConfiguration.builder().numberOfShards(numberOfShards)
+                            .allReduceSegmentLength(segmentLength).responseTimeout(30000).build();
+
+            reducers = new AllReducer[numberOfShards];
+            transports = new LocalTransport[numberOfShards];
+            handlers = new Thread[numberOfShards];
+
+            for (int s = 0; s < numberOfShards; s++) {
+                transports[s] = s == 0 ? new LocalTransport() : new LocalTransport(transports[0]);
+                transports[s].init(configuration, new Clipboard(), NodeRole.SHARD, "127.0.0.1", 0, (short) s);
+
+                reducers[s] = factory.get();
+                reducers[s].init(configuration, transports[s], (short) s);
+            }
+
+            for (int s = 0; s < numberOfShards; s++) {
+                final int shard = s;
+                handlers[s] = new Thread(() -> {
+                    VoidMessage message;
+                    while ((message = transports[shard].takeMessage()) != null) {
+                        assertEquals(shard, message.getTargetId());
+                        reducers[shard].processMessage((DistributedAllReduceMessage) message);
+                    }
+                });
+                handlers[s].setDaemon(true);
+                handlers[s].start();
+            }
+        }
+
+        /**
+         * Each Shard calls allReduce() from its own thread
+         */
+        private void allReduce(INDArray[] arrays) throws Exception {
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            Thread[] threads = new Thread[reducers.length];
+            for (int s = 0; s < reducers.length; s++) {
+                final int shard = s;
+                threads[s] = new Thread(() -> {
+                    try {
+                        INDArray result = reducers[shard].allReduce(arrays[shard]);
+                        assertTrue(result == arrays[shard]);
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                });
+                threads[s].start();
+            }
+
+            for (Thread thread : threads)
+                thread.join();
+
+            if (error.get() != null)
+                throw new RuntimeException(error.get());
+        }
+
+        private void shutdown() throws Exception {
+            for (int s = 0; s < reducers.length; s++) {
+                transports[s].shutdown();
+                handlers[s].join();
+            }
+        }
+    }
+
+    private void checkAllReduce(int numberOfShards, int segmentLength, int[] shape, Supplier<AllReducer> factory)
+                    throws Exception {
+        Network network = new Network(numberOfShards, segmentLength, factory);
+        try {
+            INDArray[] arrays = new INDArray[numberOfShards];
+            INDArray expected = Nd4j.zeros(shape);
+            for (int s = 0; s < numberOfShards; s++) {
+                arrays[s] = Nd4j.rand(shape, 119 + s);
+                expected.addi(arrays[s]);
+            }
+
+            network.allReduce(arrays);
+
+            for (int s = 0; s < numberOfShards; s++)
+                assertEquals("Shard " + s + " of " + numberOfShards, expected, arrays[s]);
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @Test
+    public void testRingAllReduce() throws Exception {
+        for (int shards = 2; shards <= 5; shards++) {
+            checkAllReduce(shards, 7, new int[] {13, 11}, RingAllReducer::new);
+            checkAllReduce(shards, 1000, new int[] {3, 1}, RingAllReducer::new);
+        }
+    }
+
+    @Test
+    public void testTreeAllReduce() throws Exception {
+        for (int shards = 2; shards <= 7; shards++) {
+            checkAllReduce(shards, 7, new int[] {13, 11}, TreeAllReducer::new);
+            checkAllReduce(shards, 1000, new int[] {3, 1}, TreeAllReducer::new);
+        }
+    }
+
+    @Test
+    public void testSequentialOperations() throws Exception {
+        Network network = new Network(3, 16, RingAllReducer::new);
+        try {
+            for (int i = 0; i < 10; i++) {
+                INDArray[] arrays = new INDArray[3];
+                for (int s = 0; s < 3; s++)
+                    arrays[s] = Nd4j.create(100).assign(i + s);
+
+                network.allReduce(arrays);
+
+                for (int s = 0; s < 3; s++)
+                    assertEquals(Nd4j.create(100).assign(3 * i + 3), arrays[s]);
+            }
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @Test
+    public void testViewsAndOrder() throws Exception {
+        Network network = new Network(3, 5, TreeAllReducer::new);
+        try {
+            INDArray source = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+
+            // rows 1..6 of larger matrix
+            INDArray matrix = Nd4j.zeros(8, 10);
+            INDArray view = matrix.get(NDArrayIndex.interval(1, 7), NDArrayIndex.all());
+            view.assign(source);
+
+            INDArray[] arrays = new INDArray[] {source.dup('f'), view, source.dup('c')};
+            network.allReduce(arrays);
+
+            INDArray expected = source.mul(3);
+            assertEquals(expected, arrays[0]);
+            assertEquals('f', arrays[0].ordering());
+            assertEquals(expected, view);
+            assertEquals(expected, arrays[2]);
+
+            // nothing outside of the view is touched
+            assertEquals(Nd4j.zeros(10), matrix.getRow(0));
+            assertEquals(Nd4j.zeros(10), matrix.getRow(7));
+        } finally {
+            network.shutdown();
+        }
+    }
+
+    @Test
+    public void testMulticastTransportRejected() throws Exception {
+        for (ExecutionMode mode : new ExecutionMode[] {ExecutionMode.RING_ALLREDUCE, ExecutionMode.TREE_ALLREDUCE}) {
+            VoidConfiguration configuration = VoidConfiguration.builder().executionMode(mode)
+                            .forcedRole(NodeRole.SHARD).build();
+
+            // MulticastTransport can't deliver message to specific Shard, so node shouldn't start at all
+            VoidParameterServer node = new VoidParameterServer(true) {};
+            try {
+                node.init(configuration, new MulticastTransport(), null);
+                fail("All-reduce mode was accepted with MulticastTransport");
+            } catch (ND4JIllegalStateException e) {
+                assertTrue(e.getMessage().contains(mode.toString()));
+            }
+        }
+    }
+}
@@ -3,6 +3,9 @@ package org.nd4j.parameterserver.distributed.logic;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.parameterserver.distributed.logic.completion.FrameCompletionHandler;
+import org.nd4j.parameterserver.distributed.logic.completion.RequestDescriptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -46,4 +49,34 @@ public class FrameCompletionHandlerTest {
         }
     }
 
+    /**
+     * This test checks that frame finished by multiple threads is reported as completed exactly once
+     * @throws Exception
+     */
+    @Test
+    public void testConcurrentCompletion1() throws Exception {
+        final FrameCompletionHandler handler = new FrameCompletionHandler();
+        final RequestDescriptor descriptor = RequestDescriptor.createDescriptor(123L, 15L);
+        for (int e = 0; e < 4096; e++)
+            handler.addHook(123L, 15L, (long) e);
+
+        final AtomicInteger completions = new AtomicInteger(0);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int e = thread; e < 4096; e += threads.length)
+                    if (handler.completeMessage(descriptor, (long) e) != null)
+                        completions.incrementAndGet();
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(1, completions.get());
+        assertFalse(handler.isTrackingFrame(descriptor));
+    }
+
 }
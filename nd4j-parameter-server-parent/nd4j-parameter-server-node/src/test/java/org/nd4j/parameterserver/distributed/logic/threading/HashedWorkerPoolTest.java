@@ -0,0 +1,176 @@
+package org.nd4j.parameterserver.distributed.logic.threading;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HashedWorkerPoolTest {
+    private HashedWorkerPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        pool = new HashedWorkerPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+    }
+
+    /**
+     * Tasks with the same key should be executed in submission order, by the same thread
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOrdering() throws Exception {
+        final int numKeys = 16;
+        final int numTasks = 1000;
+
+        final Map<Long, List<Integer>> results = new ConcurrentHashMap<>();
+        final Map<Long, Set<Thread>> threads = new ConcurrentHashMap<>();
+        for (long key = 0; key < numKeys; key++) {
+            results.put(key, Collections.synchronizedList(new ArrayList<>()));
+            threads.put(key, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(numKeys * numTasks);
+        for (int t = 0; t < numTasks; t++) {
+            for (long key = 0; key < numKeys; key++) {
+                final long k = key;
+                final int value = t;
+                pool.execute(119L, k, () -> {
+                    results.get(k).add(value);
+                    threads.get(k).add(Thread.currentThread());
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+        for (long key = 0; key < numKeys; key++) {
+            List<Integer> list = results.get(key);
+            assertEquals(numTasks, list.size());
+            for (int t = 0; t < numTasks; t++)
+                assertEquals(t, list.get(t).intValue());
+
+            assertEquals(1, threads.get(key).size());
+        }
+    }
+
+    /**
+     * Sequential taskIds should be spread over all workers, and task with different keys shouldn't wait for each other
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelism() throws Exception {
+        Set<Integer> indices = new HashSet<>();
+        for (long taskId = 100; taskId < 104; taskId++)
+            indices.add(pool.getWorkerIndex(-7L, taskId));
+
+        assertEquals(4, indices.size());
+
+        // first task is blocked until second one gets executed, that's possible only if they run on different workers
+        final CountDownLatch second = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        pool.execute(-7L, 100L, () -> {
+            try {
+                if (second.await(10, TimeUnit.SECONDS))
+                    done.countDown();
+            } catch (InterruptedException e) {
+                //
+            }
+        });
+        pool.execute(-7L, 101L, second::countDown);
+
+        assertTrue(done.await(15, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedTask() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        pool.execute(1L, 1L, () -> {
+            throw new RuntimeException("Expected failure");
+        });
+        pool.execute(1L, 1L, latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Producer flooding slow worker should be blocked once worker queue is full
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBoundedQueue() throws Exception {
+        final HashedWorkerPool slowPool = new HashedWorkerPool(1, 4);
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            final AtomicInteger executed = new AtomicInteger(0);
+            final AtomicBoolean submitted = new AtomicBoolean(false);
+            final int numTasks = 100;
+
+            Thread producer = new Thread(() -> {
+                for (int t = 0; t < numTasks; t++) {
+                    slowPool.execute(1L, 1L, () -> {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            //
+                        }
+                        executed.incrementAndGet();
+                    });
+                }
+                submitted.set(true);
+            });
+            producer.start();
+
+            // first task occupies worker, so only queue capacity worth of tasks can be accepted
+            for (int i = 0; i < 10; i++) {
+                Thread.sleep(50);
+                assertTrue(slowPool.getQueueSize() <= 4);
+            }
+            assertFalse(submitted.get());
+            assertEquals(4, slowPool.getQueueSize());
+            assertEquals(0, executed.get());
+
+            release.countDown();
+            producer.join(30000);
+            assertTrue(submitted.get());
+
+            for (int i = 0; i < 3000 && executed.get() < numTasks; i++)
+                Thread.sleep(10);
+
+            assertEquals(numTasks, executed.get());
+        } finally {
+            slowPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testWorkerThread() throws Exception {
+        assertFalse(HashedWorkerPool.isWorkerThread());
+
+        final AtomicBoolean flag = new AtomicBoolean(false);
+        final CountDownLatch latch = new CountDownLatch(1);
+        pool.execute(1L, 1L, () -> {
+            flag.set(HashedWorkerPool.isWorkerThread());
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(flag.get());
+    }
+}
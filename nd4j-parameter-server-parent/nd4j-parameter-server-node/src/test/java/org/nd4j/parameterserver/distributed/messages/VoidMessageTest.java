@@ -1,10 +1,22 @@
 package org.nd4j.parameterserver.distributed.messages;
 
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
+import org.nd4j.parameterserver.distributed.messages.complete.VectorCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedAllReduceMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedSgDotMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
 import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -37,4 +49,150 @@ public class VoidMessageTest {
         assertArrayEquals(message.getCodes(), restored.getCodes());
     }
 
+    @Test
+    public void testCodec1() throws Exception {
+        SkipGramRequestMessage message = new SkipGramRequestMessage(10, 12, new int[] {10, 20, 30, 40},
+                        new byte[] {(byte) 0, (byte) 0, (byte) 1, (byte) 0}, (short) 3, 0.025, 117L);
+        message.setOriginatorId(119L);
+        message.setNegatives(new int[] {7, 8, 9});
+
+        assertTrue(VoidMessageCodec.isSupported(message));
+
+        byte[] bytes = message.asBytes();
+        assertTrue(VoidMessageCodec.isEncoded(new UnsafeBuffer(bytes), 0, bytes.length));
+
+        SkipGramRequestMessage restored = VoidMessage.fromBytes(bytes);
+
+        assertEquals(message, restored);
+        assertEquals(message.getTaskId(), restored.getTaskId());
+        assertEquals(message.getOriginatorId(), restored.getOriginatorId());
+        assertEquals(message.getMessageType(), restored.getMessageType());
+        assertEquals(message.getNextRandom(), restored.getNextRandom());
+        assertArrayEquals(message.getNegatives(), restored.getNegatives());
+    }
+
+    @Test
+    public void testCodecNulls() throws Exception {
+        DistributedSgDotMessage message = new DistributedSgDotMessage(17L, new int[] {1, 2}, new int[] {3, 4}, 5, 6,
+                        new byte[] {}, true, (short) 0, 0.01f);
+        message.setRowsB(null);
+
+        DistributedSgDotMessage restored = VoidMessage.fromBytes(message.asBytes());
+
+        assertEquals(17L, restored.getTaskId());
+        assertArrayEquals(message.getRowsA(), restored.getRowsA());
+        assertNull(restored.getRowsB());
+        assertArrayEquals(new byte[] {}, restored.getCodes());
+        assertTrue(restored.isUseHS());
+        assertEquals(0.01f, restored.getAlpha(), 0.0f);
+    }
+
+    @Test
+    public void testCodecPayload() throws Exception {
+        INDArray vector = Nd4j.linspace(1, 20, 20).reshape(4, 5).getRow(2);
+        VectorCompleteMessage message = new VectorCompleteMessage(23L, vector);
+
+        // some garbage before and after message, to make sure decoding respects offset & length
+        UnsafeBuffer encoded = message.asUnsafeBuffer();
+        int length = encoded.capacity();
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[length + 20]);
+        buffer.putBytes(7, encoded, 0, length);
+
+        VectorCompleteMessage restored = VoidMessage.fromBuffer(buffer, 7, length);
+
+        assertEquals(23L, restored.getTaskId());
+        assertEquals(vector, restored.getPayload());
+
+        DotAggregation aggregation = new DotAggregation(31L, (short) 2, (short) 1, Nd4j.scalar(3.0));
+        DotAggregation restoredAggregation = VoidMessage.fromBytes(aggregation.asBytes());
+
+        assertEquals(31L, restoredAggregation.getTaskId());
+        assertEquals(2, restoredAggregation.getAggregationWidth());
+        assertEquals(1, restoredAggregation.getShardIndex());
+        assertEquals(Nd4j.scalar(3.0), restoredAggregation.getPayload());
+    }
+
+    @Test
+    public void testCodecAllReduce() throws Exception {
+        INDArray segment = Nd4j.linspace(1, 40, 40).reshape(4, 10).getRow(1);
+        DistributedAllReduceMessage message = new DistributedAllReduceMessage(7L, (short) 2, 1, 3, segment);
+
+        assertTrue(VoidMessageCodec.isSupported(message));
+
+        DistributedAllReduceMessage restored = VoidMessage.fromBytes(message.asBytes());
+
+        assertEquals(24, restored.getMessageType());
+        assertEquals(7L, restored.getTaskId());
+        assertEquals(2, restored.getTargetId());
+        assertEquals(1, restored.getPhase());
+        assertEquals(3, restored.getSegment());
+        assertEquals(segment, restored.getPayload());
+    }
+
+    @Test
+    public void testCodecFrame() throws Exception {
+        Frame<SkipGramRequestMessage> frame = new Frame<>(71L);
+        for (int i = 0; i < 5; i++)
+            frame.stackMessage(new SkipGramRequestMessage(i, i + 1, new int[] {i}, new byte[] {(byte) 1}, (short) 0,
+                            0.01, 119L));
+        frame.setOriginatorId(13L);
+
+        Frame<SkipGramRequestMessage> restored = VoidMessage.fromBytes(frame.asBytes());
+
+        assertEquals(71L, restored.getTaskId());
+        assertEquals(13L, restored.getOriginatorId());
+        assertEquals(5, restored.size());
+
+        int cnt = 0;
+        for (SkipGramRequestMessage message : restored) {
+            assertEquals(cnt, message.getW1());
+            assertEquals(71L, message.getFrameId());
+            assertEquals(13L, message.getOriginatorId());
+            cnt++;
+        }
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        // messages not covered by codec still go through Java serialization
+        IntroductionRequestMessage message = new IntroductionRequestMessage("127.0.0.1", 40123);
+        assertFalse(VoidMessageCodec.isSupported(message));
+
+        byte[] bytes = message.asBytes();
+        assertFalse(VoidMessageCodec.isEncoded(new UnsafeBuffer(bytes), 0, bytes.length));
+
+        IntroductionRequestMessage restored = VoidMessage.fromBuffer(new UnsafeBuffer(bytes), 0, bytes.length);
+        assertEquals(message.getTaskId(), restored.getTaskId());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        List<VoidMessage> messages = new ArrayList<>();
+        messages.add(new SkipGramRequestMessage(1, 2, new int[] {3}, new byte[] {(byte) 1}, (short) 0, 0.01, 119L));
+        messages.add(new IntroductionRequestMessage("127.0.0.1", 40123));
+        messages.add(new VectorCompleteMessage(5L, Nd4j.linspace(1, 5, 5)));
+
+        int length = VoidMessageCodec.BATCH_HEADER_LENGTH;
+        List<UnsafeBuffer> encoded = new ArrayList<>();
+        for (VoidMessage message : messages) {
+            encoded.add(message.asUnsafeBuffer());
+            length += VoidMessageCodec.BATCH_ENTRY_OVERHEAD + encoded.get(encoded.size() - 1).capacity();
+        }
+
+        // batch is written at some offset, the same way it happens within Aeron log
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[length + 32]);
+        int position = 16 + VoidMessageCodec.putBatchHeader(buffer, 16, encoded.size());
+        for (UnsafeBuffer message : encoded)
+            position += VoidMessageCodec.putBatchEntry(buffer, position, message);
+
+        assertEquals(16 + length, position);
+        assertTrue(VoidMessageCodec.isBatch(buffer, 16, length));
+        assertFalse(VoidMessageCodec.isBatch(encoded.get(0), 0, encoded.get(0).capacity()));
+
+        List<VoidMessage> restored = VoidMessageCodec.decodeBatch(buffer, 16, length);
+        assertEquals(3, restored.size());
+        assertEquals(messages.get(0), restored.get(0));
+        assertTrue(restored.get(1) instanceof IntroductionRequestMessage);
+        assertEquals(Nd4j.linspace(1, 5, 5), ((VectorCompleteMessage) restored.get(2)).getPayload());
+    }
 }
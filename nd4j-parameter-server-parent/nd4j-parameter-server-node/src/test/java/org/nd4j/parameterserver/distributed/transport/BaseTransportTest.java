@@ -0,0 +1,156 @@
+package org.nd4j.parameterserver.distributed.transport;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+import org.nd4j.parameterserver.distributed.enums.IdleMode;
+import org.nd4j.parameterserver.distributed.enums.NodeRole;
+import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
+import org.nd4j.parameterserver.distributed.logic.threading.HashedWorkerPool;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedVectorMessage;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for incoming messages queue of BaseTransport, without any Aeron infrastructure involved
+ */
+public class BaseTransportTest {
+    private BaseTransport transport;
+
+    private static class QueueOnlyTransport extends BaseTransport {
+        @Override
+        protected void sendCoordinationCommand(VoidMessage message) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void sendFeedbackToClient(VoidMessage message) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        VoidConfiguration configuration =
+                        VoidConfiguration.builder().messageQueueCapacity(4).idleMode(IdleMode.PARK).build();
+
+        transport = new QueueOnlyTransport();
+        transport.init(configuration, new Clipboard(), NodeRole.SHARD, "127.0.0.1", 0, (short) 0);
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        for (int i = 0; i < 4; i++)
+            transport.putMessage(new DistributedVectorMessage(i, i));
+
+        assertEquals(4, transport.getQueueSize());
+
+        for (int i = 0; i < 4; i++)
+            assertEquals(i, ((DistributedVectorMessage) transport.takeMessage()).getRowIndex());
+
+        assertEquals(0, transport.getQueueSize());
+        assertEquals(0, transport.getBackpressureCount());
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        for (int i = 0; i < 4; i++)
+            transport.putMessage(new DistributedVectorMessage(i, i));
+
+        // queue is full, so this producer has to wait for consumer
+        AtomicBoolean delivered = new AtomicBoolean(false);
+        Thread producer = new Thread(() -> {
+            transport.putMessage(new DistributedVectorMessage(4, 4));
+            delivered.set(true);
+        });
+        producer.start();
+
+        Thread.sleep(200);
+        assertFalse(delivered.get());
+        assertEquals(1, transport.getBackpressureCount());
+
+        assertEquals(0, ((DistributedVectorMessage) transport.takeMessage()).getRowIndex());
+        producer.join(5000);
+        assertTrue(delivered.get());
+
+        for (int i = 1; i < 5; i++)
+            assertEquals(i, ((DistributedVectorMessage) transport.takeMessage()).getRowIndex());
+    }
+
+    @Test
+    public void testHandlerOverflow() throws Exception {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread handler = new Thread(() -> {
+            try {
+                transport.putMessage(new DistributedVectorMessage(0, 0));
+
+                // message handling thread never waits for the queue, even if it's full
+                VoidMessage message = transport.takeMessage();
+                for (int i = 1; i <= 8; i++)
+                    transport.putMessage(new DistributedVectorMessage(i, i));
+
+                assertEquals(0, ((DistributedVectorMessage) message).getRowIndex());
+                assertEquals(8, transport.getQueueSize());
+                assertEquals(4, transport.getOverflowCount());
+                assertEquals(0, transport.getBackpressureCount());
+
+                // overflow goes first
+                for (int i = 5; i <= 8; i++)
+                    assertEquals(i, ((DistributedVectorMessage) transport.takeMessage()).getRowIndex());
+
+                for (int i = 1; i <= 4; i++)
+                    assertEquals(i, ((DistributedVectorMessage) transport.takeMessage()).getRowIndex());
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        handler.start();
+        handler.join(5000);
+
+        if (error.get() != null)
+            throw new RuntimeException(error.get());
+    }
+
+    @Test
+    public void testWorkerOverflow() throws Exception {
+        for (int i = 0; i < 4; i++)
+            transport.putMessage(new DistributedVectorMessage(i, i));
+
+        // workers are drained by handler threads, so they can't wait for the queue either
+        HashedWorkerPool pool = new HashedWorkerPool(1);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            pool.execute(1L, 1L, () -> {
+                transport.putMessage(new DistributedVectorMessage(4, 4));
+                latch.countDown();
+            });
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(5, transport.getQueueSize());
+            assertEquals(1, transport.getOverflowCount());
+            assertEquals(0, transport.getBackpressureCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        AtomicReference<VoidMessage> result = new AtomicReference<>(new DistributedVectorMessage());
+        Thread handler = new Thread(() -> result.set(transport.takeMessage()));
+        handler.start();
+
+        Thread.sleep(100);
+        transport.runner.set(false);
+        handler.join(5000);
+
+        assertFalse(handler.isAlive());
+        assertNull(result.get());
+    }
+}
@@ -0,0 +1,99 @@
+package org.nd4j.parameterserver.distributed.transport;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for outgoing messages queues of RoutedTransport, without any Aeron infrastructure involved
+ */
+public class RoutedTransportOutboxTest {
+    private RoutedTransport transport;
+    private RoutedTransport.RemoteConnection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        transport = new RoutedTransport();
+        transport.voidConfiguration =
+                        VoidConfiguration.builder().retransmitTimeout(50).messageOutboxCapacity(2).build();
+
+        connection = RoutedTransport.RemoteConnection.builder().shard(true).outbox(transport.createOutbox())
+                        .build();
+    }
+
+    @Test
+    public void testBoundedOutbox() throws Exception {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[16]);
+
+        transport.enqueue(connection, buffer);
+        transport.enqueue(connection, buffer);
+        assertEquals(2, connection.getOutbox().size());
+
+        // outbox is full, so producer has to wait for sender thread
+        AtomicBoolean delivered = new AtomicBoolean(false);
+        Thread producer = new Thread(() -> {
+            transport.enqueue(connection, buffer);
+            delivered.set(true);
+        });
+        producer.start();
+
+        Thread.sleep(200);
+        assertFalse(delivered.get());
+        assertEquals(2, connection.getOutbox().size());
+
+        connection.getOutbox().poll();
+        producer.join(5000);
+        assertTrue(delivered.get());
+        assertEquals(2, connection.getOutbox().size());
+    }
+
+    @Test
+    public void testFailedConnection() throws Exception {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[16]);
+
+        transport.enqueue(connection, buffer);
+        transport.enqueue(connection, buffer);
+
+        // producer blocked on full outbox gets exception once connection fails
+        AtomicReference<Exception> exception = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                transport.enqueue(connection, buffer);
+            } catch (Exception e) {
+                exception.set(e);
+            }
+        });
+        producer.start();
+
+        Thread.sleep(100);
+        connection.setFailure("Can't connect to Shard");
+        producer.join(5000);
+
+        assertTrue(exception.get() instanceof ND4JIllegalStateException);
+
+        // and all subsequent sends fail right away
+        try {
+            transport.enqueue(connection, buffer);
+            fail("Message to failed connection was accepted");
+        } catch (ND4JIllegalStateException e) {
+            assertEquals("Can't connect to Shard", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultCapacity() throws Exception {
+        transport.voidConfiguration = VoidConfiguration.builder().build();
+
+        ManyToOneConcurrentArrayQueue<DirectBuffer> outbox = transport.createOutbox();
+        assertEquals(8192, outbox.capacity());
+    }
+}
@@ -14,7 +14,6 @@ import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -85,11 +84,11 @@ public class RoutedTransportTest {
         clientTransport.sendMessage(message);
 
         Thread.sleep(500);
-        message = transports[0].messages.poll(1, TimeUnit.SECONDS);
+        message = transports[0].messages.poll();
         assertNotEquals(null, message);
 
         for (int t = 1; t < transports.length; t++) {
-            message = transports[t].messages.poll(1, TimeUnit.SECONDS);
+            message = transports[t].messages.poll();
             assertEquals(null, message);
         }
 
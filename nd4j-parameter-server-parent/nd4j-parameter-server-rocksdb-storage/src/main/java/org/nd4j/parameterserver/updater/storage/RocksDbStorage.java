@@ -1,89 +1,163 @@
 package org.nd4j.parameterserver.updater.storage;
 
+import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 
 import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
+ * Update storage backed by RocksDB.
+ *
+ * Updates are keyed by their index (big endian, so key order matches update order),
+ * and written in groups: they're accumulated in a {@link WriteBatch}, and committed
+ * once batchSize updates were collected, or before anything is read back from the storage.
+ * Use {@link #flush()} to commit pending updates explicitly.
+ *
+ * Stored updates can be streamed back in order via {@link #iterator()} or {@link #replay(Consumer)}.
+ *
  * Created by agibsonccc on 12/2/16.
  */
-public class RocksDbStorage extends BaseUpdateStorage implements AutoCloseable {
+public class RocksDbStorage extends BaseUpdateStorage implements AutoCloseable, Iterable<NDArrayMessage> {
     static {
         // a static method that loads the RocksDB C++ library.
         RocksDB.loadLibrary();
     }
 
+    public static final int DEFAULT_BATCH_SIZE = 64;
 
     private RocksDB db;
+    private Options options;
+    private WriteOptions writeOptions;
+    private WriteBatch batch = new WriteBatch();
+    private int batchSize;
     private int size = 0;
 
+    // reusable buffers, guarded by this
+    private final byte[] key = new byte[4];
+    private byte[] readBuffer = new byte[1024];
+
     public RocksDbStorage(String dbPath) {
+        this(dbPath, DEFAULT_BATCH_SIZE, false);
+    }
+
+    /**
+     *
+     * @param dbPath the path to the database
+     * @param batchSize number of updates committed with a single write, 1 means every update is written immediately
+     * @param sync whether every write should be synced to disk before returning
+     */
+    public RocksDbStorage(String dbPath, int batchSize, boolean sync) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size should be positive, got " + batchSize);
+
+        this.batchSize = batchSize;
         // that determines the behavior of a database.
-        Options options = new Options().setCreateIfMissing(true);
+        options = new Options().setCreateIfMissing(true);
+        writeOptions = new WriteOptions().setSync(sync);
         try {
             // a factory method that returns a RocksDB instance
             db = RocksDB.open(options, dbPath);
-            // do something
         } catch (RocksDBException e) {
-            // do some error handling
+            throw new RuntimeException(e);
+        }
 
+        // updates might be left from previous run, we continue numbering after them
+        try (RocksIterator iterator = db.newIterator()) {
+            iterator.seekToLast();
+            if (iterator.isValid())
+                size = ByteBuffer.wrap(iterator.key()).getInt() + 1;
         }
     }
 
+    private byte[] key(int index) {
+        key[0] = (byte) (index >>> 24);
+        key[1] = (byte) (index >>> 16);
+        key[2] = (byte) (index >>> 8);
+        key[3] = (byte) index;
+        return key;
+    }
+
     /**
      * Add an ndarray to the storage
      *
      * @param array the array to add
      */
     @Override
-    public void addUpdate(NDArrayMessage array) {
-        UnsafeBuffer directBuffer = (UnsafeBuffer) NDArrayMessage.toBuffer(array);
-        byte[] data = directBuffer.byteArray();
-        if (data == null) {
-            data = new byte[directBuffer.capacity()];
-            directBuffer.getBytes(0, data, 0, data.length);
-        }
-        byte[] key = ByteBuffer.allocate(4).putInt(size).array();
+    public synchronized void addUpdate(NDArrayMessage array) {
+        DirectBufferPool pool = DirectBufferPool.getInstance();
+        DirectBuffer directBuffer = NDArrayMessage.toBuffer(array, pool);
+        byte[] data = new byte[directBuffer.capacity()];
+        directBuffer.getBytes(0, data, 0, data.length);
+        pool.release(directBuffer);
+
+        // both key and value are copied into the batch, so key array can be reused
+        batch.put(key(size), data);
+        size++;
+
+        if (batch.count() >= batchSize)
+            flush();
+    }
+
+    /**
+     * Commit pending updates to the database
+     */
+    public synchronized void flush() {
+        if (batch.count() == 0)
+            return;
+
         try {
-            db.put(key, data);
+            db.write(writeOptions, batch);
         } catch (RocksDBException e) {
             throw new RuntimeException(e);
         }
-
-        size++;
-
+        batch.clear();
     }
 
     /**
      * The number of updates added
-     * to the update storage
+     * to the update storage, including
+     * the ones not committed yet
      *
      * @return
      */
     @Override
-    public int numUpdates() {
+    public synchronized int numUpdates() {
         return size;
     }
 
     /**
-     * Clear the array storage
+     * Clear the array storage.
+     * All keys are removed with a single write,
+     * and then compacted away to reclaim disk space
      */
     @Override
-    public void clear() {
-        RocksIterator iterator = db.newIterator();
-        while (iterator.isValid())
-            try {
-                db.remove(iterator.key());
-            } catch (RocksDBException e) {
-                throw new RuntimeException(e);
+    public synchronized void clear() {
+        batch.clear();
+
+        try (WriteBatch removals = new WriteBatch(); RocksIterator iterator = db.newIterator()) {
+            for (iterator.seekToFirst(); iterator.isValid(); iterator.next())
+                removals.remove(iterator.key());
+
+            if (removals.count() > 0) {
+                db.write(writeOptions, removals);
+                db.compactRange();
             }
-        iterator.close();
+        } catch (RocksDBException e) {
+            throw new RuntimeException(e);
+        }
+
         size = 0;
     }
 
@@ -95,21 +169,103 @@ public class RocksDbStorage extends BaseUpdateStorage implements AutoCloseable {
      * @return the ndarray at the specified index
      */
     @Override
-    public NDArrayMessage doGetUpdate(int index) {
-        byte[] key = ByteBuffer.allocate(4).putInt(index).array();
+    public synchronized NDArrayMessage doGetUpdate(int index) {
+        flush();
         try {
-            UnsafeBuffer unsafeBuffer = new UnsafeBuffer(db.get(key));
-            return NDArrayMessage.fromBuffer(unsafeBuffer, 0);
+            int length = db.get(key(index), readBuffer);
+            if (length == RocksDB.NOT_FOUND)
+                return null;
+
+            if (length > readBuffer.length) {
+                readBuffer = new byte[length];
+                db.get(key(index), readBuffer);
+            }
+
+            // message arrays are copied out of the buffer, so it's safe to reuse it
+            return NDArrayMessage.fromBuffer(new UnsafeBuffer(readBuffer, 0, length), 0);
         } catch (RocksDBException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Returns an iterator streaming all stored updates in the order they were added.
+     * Pending updates are committed first. The iterator holds native resources,
+     * so it should be closed if it isn't exhausted.
+     *
+     * @return the iterator over stored updates
+     */
+    @Override
+    public synchronized UpdateIterator iterator() {
+        flush();
+        return new UpdateIterator(db.newIterator());
+    }
+
+    /**
+     * Passes all stored updates
+     * to the given consumer, in the order they were added
+     * @param consumer the consumer to replay updates to
+     */
+    public void replay(Consumer<NDArrayMessage> consumer) {
+        try (UpdateIterator iterator = iterator()) {
+            while (iterator.hasNext())
+                consumer.accept(iterator.next());
+        }
+    }
+
     /**
      * Close the database
      */
     @Override
-    public void close() {
+    public synchronized void close() {
+        flush();
+        batch.close();
+        writeOptions.close();
         db.close();
+        options.close();
+    }
+
+    /**
+     * Iterator over stored updates, backed by {@link RocksIterator}
+     */
+    public static class UpdateIterator implements Iterator<NDArrayMessage>, AutoCloseable {
+        private final RocksIterator iterator;
+        private boolean closed = false;
+
+        protected UpdateIterator(RocksIterator iterator) {
+            this.iterator = iterator;
+            iterator.seekToFirst();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed)
+                return false;
+
+            if (!iterator.isValid()) {
+                close();
+                return false;
+            }
+
+            return true;
+        }
+
+        @Override
+        public NDArrayMessage next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            NDArrayMessage message = NDArrayMessage.fromBuffer(new UnsafeBuffer(iterator.value()), 0);
+            iterator.next();
+            return message;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                iterator.close();
+            }
+        }
     }
 }
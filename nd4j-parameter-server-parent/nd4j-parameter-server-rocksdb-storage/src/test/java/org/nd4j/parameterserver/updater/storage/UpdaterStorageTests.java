@@ -4,7 +4,13 @@ import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 
 /**
  * Created by agibsonccc on 12/2/16.
@@ -22,4 +28,70 @@ public class UpdaterStorageTests {
         assertEquals(0, updateStorage.numUpdates());
         updateStorage.close();
     }
+
+    @Test
+    public void testBatchedWrites() throws Exception {
+        String path = Files.createTempDirectory("rocksdb").toString();
+        try (RocksDbStorage updateStorage = new RocksDbStorage(path, 8, false)) {
+            // 20 updates with batch size 8 leaves 4 of them pending
+            for (int i = 0; i < 20; i++)
+                updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.valueArrayOf(1, 10, i)));
+
+            assertEquals(20, updateStorage.numUpdates());
+            for (int i = 0; i < 20; i++)
+                assertEquals(Nd4j.valueArrayOf(1, 10, i), updateStorage.getUpdate(i).getArr());
+
+            // larger than initial read buffer
+            updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 1000, 1000)));
+            assertEquals(Nd4j.linspace(1, 1000, 1000), updateStorage.getUpdate(20).getArr());
+        }
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        String path = Files.createTempDirectory("rocksdb").toString();
+        try (RocksDbStorage updateStorage = new RocksDbStorage(path)) {
+            for (int i = 0; i < 300; i++)
+                updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(i)));
+
+            List<NDArrayMessage> replayed = new ArrayList<>();
+            updateStorage.replay(replayed::add);
+
+            // keys are big endian, so order survives past single byte indices
+            assertEquals(300, replayed.size());
+            for (int i = 0; i < 300; i++)
+                assertEquals(i, replayed.get(i).getArr().getDouble(0), 1e-5);
+
+            int cnt = 0;
+            for (NDArrayMessage message : updateStorage)
+                assertEquals(cnt++, message.getArr().getDouble(0), 1e-5);
+            assertEquals(300, cnt);
+        }
+    }
+
+    @Test
+    public void testClearAndReopen() throws Exception {
+        String path = Files.createTempDirectory("rocksdb").toString();
+        RocksDbStorage updateStorage = new RocksDbStorage(path, 4, true);
+        for (int i = 0; i < 10; i++)
+            updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(i)));
+        updateStorage.close();
+
+        // pending updates were flushed on close, and numbering continues after them
+        updateStorage = new RocksDbStorage(path, 4, true);
+        assertEquals(10, updateStorage.numUpdates());
+        assertEquals(9.0, updateStorage.getUpdate(9).getArr().getDouble(0), 1e-5);
+
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(10)));
+        updateStorage.clear();
+        assertEquals(0, updateStorage.numUpdates());
+        assertFalse(updateStorage.iterator().hasNext());
+        updateStorage.close();
+
+        updateStorage = new RocksDbStorage(path);
+        assertEquals(0, updateStorage.numUpdates());
+        updateStorage.close();
+
+        new File(path).deleteOnExit();
+    }
 }
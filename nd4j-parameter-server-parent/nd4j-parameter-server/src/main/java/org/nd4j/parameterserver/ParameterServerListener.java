@@ -6,6 +6,7 @@ import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.parameterserver.updater.ParameterServerUpdater;
+import org.nd4j.parameterserver.updater.StripedParameterUpdater;
 import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
 import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
 
@@ -74,8 +75,13 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param dimensions the dimensions to act on for the tensor along dimension
      */
     @Override
-    public synchronized void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
-        updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+    public void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
+        if (updater.isThreadSafe())
+            updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+        else
+            synchronized (this) {
+                updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+            }
     }
 
     /**
@@ -84,18 +90,27 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param arr
      */
     @Override
-    public synchronized void onNDArray(INDArray arr) {
+    public void onNDArray(INDArray arr) {
         if (shape == null)
-            updater.update(arr.reshape(1, arr.length()), updater.ndArrayHolder().get());
-        else
+            arr = arr.reshape(1, arr.length());
+
+        if (updater.isThreadSafe())
             updater.update(arr, updater.ndArrayHolder().get());
+        else
+            synchronized (this) {
+                updater.update(arr, updater.ndArrayHolder().get());
+            }
     }
 
     /**
      * Do a final divide for averaging
      */
     public synchronized void finish() {
-        updater.ndArrayHolder().get().divi(updater.numUpdates());
+        if (updater instanceof StripedParameterUpdater)
+            ((StripedParameterUpdater) updater)
+                            .applyExclusive(() -> updater.ndArrayHolder().get().divi(updater.numUpdates()));
+        else
+            updater.ndArrayHolder().get().divi(updater.numUpdates());
     }
 
 
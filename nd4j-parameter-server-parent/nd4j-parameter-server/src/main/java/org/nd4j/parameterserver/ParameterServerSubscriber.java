@@ -30,6 +30,7 @@ import org.nd4j.parameterserver.model.SlaveConnectionInfo;
 import org.nd4j.parameterserver.model.SubscriberState;
 import org.nd4j.parameterserver.updater.ParameterServerUpdater;
 import org.nd4j.parameterserver.updater.SoftSyncParameterUpdater;
+import org.nd4j.parameterserver.updater.StripedParameterUpdater;
 import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
 import org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage;
 import org.nd4j.parameterserver.util.CheckSocket;
@@ -97,6 +98,10 @@ public class ParameterServerSubscriber implements AutoCloseable {
     private List<Integer> shape;
     @Parameter(names = {"-hbi", "--heartbeatinterval"}, description = "Heartbeat interval in ms", arity = 1)
     private int heartbeatMs = 1000;
+    @Parameter(names = {"-st", "--stripes"},
+                    description = "Number of independently locked stripes of the master array, for striped update type. Defaults to 4 per core.",
+                    arity = 1)
+    private int stripes = 0;
     private ObjectMapper objectMapper = new ObjectMapper();
     private ScheduledExecutorService scheduledExecutorService;
     @Parameter(names = {"-u", "--updatesPerEpoch"}, description = "The number of updates per epoch", arity = 1,
@@ -115,7 +120,7 @@ public class ParameterServerSubscriber implements AutoCloseable {
      * instantiating various kinds of update types
      */
     public enum UpdateType {
-        HOGWILD, SYNC, TIME_DELAYED, SOFTSYNC, CUSTOM
+        HOGWILD, SYNC, STRIPED, TIME_DELAYED, SOFTSYNC, CUSTOM
     }
 
 
@@ -264,6 +269,11 @@ public class ParameterServerSubscriber implements AutoCloseable {
                         updater = new SynchronousParameterUpdater(new InMemoryUpdateStorage(),
                                         new InMemoryNDArrayHolder(Ints.toArray(shape)), updatesPerEpoch);
                         break;
+                    case STRIPED:
+                        updater = new StripedParameterUpdater(new InMemoryUpdateStorage(),
+                                        new InMemoryNDArrayHolder(Ints.toArray(shape)), updatesPerEpoch,
+                                        stripes > 0 ? stripes : StripedParameterUpdater.DEFAULT_STRIPES);
+                        break;
                     case SOFTSYNC:
                         updater = new SoftSyncParameterUpdater();
                         break;
@@ -38,6 +38,17 @@ public interface ParameterServerUpdater {
      */
     boolean isAsync();
 
+    /**
+     * Returns true if updates
+     * may be applied by this updater
+     * from multiple threads concurrently,
+     * without external synchronization
+     * @return true if the updater is thread safe
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Get the ndarray holder for this
      * updater
@@ -0,0 +1,233 @@
+package org.nd4j.parameterserver.updater;
+
+import org.nd4j.aeron.ipc.NDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Synchronous updater that allows concurrent updates of the master array.
+ *
+ * The master array is split into contiguous stripes of its underlying buffer, each stripe
+ * guarded by its own lock. For c-ordered arrays stripes are aligned to row boundaries wherever possible,
+ * so every row belongs to exactly one stripe.
+ *
+ * Partial updates only lock the stripes their {@link INDArray#tensorAlongDimension(int, int...)} spans,
+ * so updates of disjoint tensors are applied in parallel. Whole array updates are applied stripe by stripe,
+ * so they don't block the entire array either.
+ *
+ * Locks are always acquired in ascending stripe order, which rules out deadlocks between concurrent updates.
+ */
+public class StripedParameterUpdater extends SynchronousParameterUpdater {
+    public static final int DEFAULT_STRIPES = Runtime.getRuntime().availableProcessors() * 4;
+
+    private final ReentrantLock[] locks;
+
+    /**
+     *
+     * @param updateStorage
+     * @param ndArrayHolder
+     * @param workers
+     * @param stripes number of independently locked stripes
+     */
+    public StripedParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int workers,
+                    int stripes) {
+        super(updateStorage, ndArrayHolder, workers);
+        this.locks = createLocks(stripes);
+    }
+
+    public StripedParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int workers) {
+        this(updateStorage, ndArrayHolder, workers, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Initializes this updater
+     * with {@link org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage}
+     */
+    public StripedParameterUpdater(int workers, int stripes) {
+        super(workers);
+        this.locks = createLocks(stripes);
+    }
+
+    private static ReentrantLock[] createLocks(int stripes) {
+        if (stripes < 1)
+            throw new IllegalArgumentException("Number of stripes should be positive, got " + stripes);
+
+        ReentrantLock[] locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++)
+            locks[i] = new ReentrantLock();
+
+        return locks;
+    }
+
+    /**
+     * Number of independently locked stripes
+     *
+     * @return
+     */
+    public int numStripes() {
+        return locks.length;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public Map<String, Number> status() {
+        Map<String, Number> ret = super.status();
+        ret.put("stripes", locks.length);
+        return ret;
+    }
+
+    /**
+     * Number of buffer elements covered by a single stripe of the given array
+     */
+    protected int stripeLength(INDArray result) {
+        int length = result.length();
+        int stripeLength = (length + locks.length - 1) / locks.length;
+
+        // align stripes to slices (rows for c order), unless we'll end up with too few stripes
+        if (result.rank() > 1) {
+            int slice = result.ordering() == 'c' ? result.stride(0) : result.stride(result.rank() - 1);
+            if (slice > 0 && length / slice >= locks.length)
+                stripeLength = ((stripeLength + slice - 1) / slice) * slice;
+        }
+
+        return Math.max(stripeLength, 1);
+    }
+
+    /**
+     * Striping only makes sense for arrays occupying their buffer in a single contiguous block
+     */
+    protected boolean isStripeable(INDArray result) {
+        return !result.isView() && result.length() > 1;
+    }
+
+    protected void lock(int first, int last) {
+        for (int i = first; i <= last; i++)
+            locks[i].lock();
+    }
+
+    protected void unlock(int first, int last) {
+        for (int i = last; i >= first; i--)
+            locks[i].unlock();
+    }
+
+    /**
+     * Updates result
+     * based on arr along a particular
+     * {@link INDArray#tensorAlongDimension(int, int...)},
+     * holding locks only for the stripes that tensor spans
+     *
+     * @param arr        the array to update
+     * @param result     the result ndarray to update
+     * @param idx        the index to update
+     * @param dimensions the dimensions to update
+     */
+    @Override
+    public void partialUpdate(INDArray arr, INDArray result, long idx, int... dimensions) {
+        INDArray tad = result.tensorAlongDimension((int) idx, dimensions);
+
+        int first = 0;
+        int last = locks.length - 1;
+
+        if (isStripeable(result)) {
+            // first and last buffer elements touched by this tensor
+            long start = tad.offset() - result.offset();
+            long end = start;
+            for (int i = 0; i < tad.rank(); i++) {
+                if (tad.stride(i) < 0) {
+                    start = -1;
+                    break;
+                }
+                end += (long) (tad.size(i) - 1) * tad.stride(i);
+            }
+
+            if (start >= 0) {
+                int stripeLength = stripeLength(result);
+                first = (int) Math.min(start / stripeLength, locks.length - 1);
+                last = (int) Math.min(end / stripeLength, locks.length - 1);
+            }
+        }
+
+        lock(first, last);
+        try {
+            tad.addi(arr);
+        } finally {
+            unlock(first, last);
+        }
+    }
+
+    /**
+     * Updates result
+     * based on arr, one stripe at a time
+     *
+     * @param arr    the array to update
+     * @param result the result ndarray to update
+     */
+    @Override
+    public void update(INDArray arr, INDArray result) {
+        if (!isStripeable(result) || !Arrays.equals(arr.shape(), result.shape())) {
+            lock(0, locks.length - 1);
+            try {
+                result.addi(arr);
+            } finally {
+                unlock(0, locks.length - 1);
+            }
+            return;
+        }
+
+        // we want both arrays to share the same element layout within their buffers
+        if (arr.isView() || arr.ordering() != result.ordering())
+            arr = arr.dup(result.ordering());
+
+        int length = result.length();
+        int stripeLength = stripeLength(result);
+        for (int s = 0, start = 0; s < locks.length && start < length; s++, start += stripeLength) {
+            int len = Math.min(stripeLength, length - start);
+
+            INDArray target = Nd4j.create(result.data(), new int[] {1, len}, new int[] {len, 1},
+                            result.offset() + start, 'c');
+            INDArray source = Nd4j.create(arr.data(), new int[] {1, len}, new int[] {len, 1}, arr.offset() + start,
+                            'c');
+
+            locks[s].lock();
+            try {
+                target.addi(source);
+            } finally {
+                locks[s].unlock();
+            }
+        }
+    }
+
+    /**
+     * Threshold encoded updates are scattered over the whole array, so all stripes are locked while decoding
+     *
+     * @param encoded the encoded update
+     * @param result  the result ndarray to update
+     */
+    @Override
+    public void encodedUpdate(INDArray encoded, INDArray result) {
+        applyExclusive(() -> super.encodedUpdate(encoded, result));
+    }
+
+    /**
+     * This method applies given operation to the whole master array, while all stripes are locked
+     *
+     * @param runnable
+     */
+    public void applyExclusive(Runnable runnable) {
+        lock(0, locks.length - 1);
+        try {
+            runnable.run();
+        } finally {
+            unlock(0, locks.length - 1);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.nd4j.parameterserver.updater;
 import org.nd4j.aeron.ipc.NDArrayHolder;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.updater.storage.UpdateStorage;
 import org.nd4j.shade.jackson.core.JsonProcessingException;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
@@ -132,7 +133,16 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
         int[] dimensions = message.getDimensions();
         boolean whole = dimensions.length == 1 && dimensions[0] == -1;
 
-        if (!whole)
+        if (message.getEncoding() == NDArrayMessage.ArrayEncoding.THRESHOLD) {
+            if (whole)
+                encodedUpdate(arr, ndArrayHolder.get());
+            else {
+                INDArray decoded = Nd4j.create(ndArrayHolder.get()
+                                .tensorAlongDimension((int) message.getIndex(), dimensions).shape());
+                Nd4j.getExecutioner().thresholdDecode(arr, decoded);
+                partialUpdate(decoded, ndArrayHolder.get(), message.getIndex(), dimensions);
+            }
+        } else if (!whole)
             partialUpdate(arr, ndArrayHolder.get(), message.getIndex(), dimensions);
         else
             update(arr, ndArrayHolder.get());
@@ -153,6 +163,18 @@ public class SynchronousParameterUpdater extends BaseParameterUpdater {
         result.tensorAlongDimension((int) idx, dimensions).addi(arr);
     }
 
+    /**
+     * Updates result
+     * based on threshold encoded arr,
+     * decoding it straight into result
+     *
+     * @param encoded the encoded update, see {@link NDArrayMessage#thresholdEncoded(INDArray, double)}
+     * @param result  the result ndarray to update
+     */
+    public void encodedUpdate(INDArray encoded, INDArray result) {
+        Nd4j.getExecutioner().thresholdDecode(encoded, result);
+    }
+
     /**
      * Updates result
      * based on arr
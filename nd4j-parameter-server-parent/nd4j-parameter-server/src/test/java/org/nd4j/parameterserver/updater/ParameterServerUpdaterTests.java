@@ -3,12 +3,15 @@ package org.nd4j.parameterserver.updater;
 import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeNotNull;
+import static org.junit.Assume.assumeTrue;
 
 /**
  * Created by agibsonccc on 12/2/16.
@@ -32,4 +35,41 @@ public class ParameterServerUpdaterTests {
 
     }
 
+    @Test
+    public void thresholdEncodedTest() {
+        // framing of encoded messages is covered by NDArrayMessageTest, this test needs native threshold codec
+        assumeTrue(isThresholdCodecAvailable());
+
+        ParameterServerUpdater updater = new SynchronousParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(Nd4j.zeros(1, 6)), 1);
+
+        INDArray residual = Nd4j.create(new double[] {0.5, -2.0, 0.1, 3.0, -0.01, 1.5});
+        NDArrayMessage message = NDArrayMessage.thresholdEncoded(residual, 1.0);
+        assertEquals(NDArrayMessage.ArrayEncoding.THRESHOLD, message.getEncoding());
+
+        // message goes through the same framing as it does on the wire
+        updater.update(NDArrayMessage.fromBuffer(NDArrayMessage.toBuffer(message), 0));
+
+        assertEquals(Nd4j.create(new double[] {0.0, -1.0, 0.0, 1.0, 0.0, 1.0}), updater.ndArrayHolder().get());
+        assertEquals(Nd4j.create(new double[] {0.5, -1.0, 0.1, 2.0, -0.01, 0.5}), residual);
+        assertTrue(updater.shouldReplicate());
+    }
+
+    /**
+     * Not every native build supports THRESHOLD conversion, so we check it with a tiny round trip first
+     */
+    private static boolean isThresholdCodecAvailable() {
+        try {
+            INDArray encoded = Nd4j.getExecutioner().thresholdEncode(Nd4j.create(new double[] {0.0, 2.0}), 1.0);
+            if (encoded == null)
+                return false;
+
+            INDArray decoded = Nd4j.zeros(1, 2);
+            Nd4j.getExecutioner().thresholdDecode(encoded, decoded);
+            return decoded.equals(Nd4j.create(new double[] {0.0, 1.0}));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
 }
@@ -0,0 +1,119 @@
+package org.nd4j.parameterserver.updater;
+
+import org.junit.Test;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.ParameterServerListener;
+import org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StripedParameterUpdaterTests {
+
+    @Test
+    public void testWholeUpdates() throws Exception {
+        int workers = 8;
+        final StripedParameterUpdater updater = new StripedParameterUpdater(new InMemoryUpdateStorage(),
+                        new InMemoryNDArrayHolder(Nd4j.zeros(37, 11)), workers, 4);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < workers; t++) {
+            final int val = t + 1;
+            threads.add(new Thread(() -> {
+                for (int e = 0; e < 50; e++)
+                    updater.update(Nd4j.valueArrayOf(new int[] {37, 11}, val), updater.ndArrayHolder().get());
+            }));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        // 50 * (1 + 2 + ... + 8)
+        assertEquals(Nd4j.valueArrayOf(new int[] {37, 11}, 1800.0), updater.ndArrayHolder().get());
+    }
+
+    @Test
+    public void testPartialUpdates() throws Exception {
+        final int rows = 64;
+        final INDArray column = Nd4j.onesLike(Nd4j.zeros(rows, 16).tensorAlongDimension(0, 0));
+        final StripedParameterUpdater updater = new StripedParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(Nd4j.zeros(rows, 16)), 4, 8);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int e = 0; e < 20; e++)
+                    for (int r = 0; r < rows; r++) {
+                        // rows and columns both, so tensors span one or all stripes
+                        updater.partialUpdate(Nd4j.ones(1, 16), updater.ndArrayHolder().get(), r, 1);
+                        if (r < 16)
+                            updater.partialUpdate(column, updater.ndArrayHolder().get(), r, 0);
+                    }
+            }));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(Nd4j.valueArrayOf(new int[] {rows, 16}, 160.0), updater.ndArrayHolder().get());
+    }
+
+    @Test
+    public void testMatchesSynchronousUpdater() {
+        INDArray update = Nd4j.linspace(1, 120, 120).reshape('f', 10, 12);
+
+        SynchronousParameterUpdater sync = new SynchronousParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(Nd4j.zeros(10, 12)), 1);
+        StripedParameterUpdater striped = new StripedParameterUpdater(new NoUpdateStorage(),
+                        new InMemoryNDArrayHolder(Nd4j.zeros(10, 12)), 1, 3);
+
+        for (ParameterServerUpdater updater : new ParameterServerUpdater[] {sync, striped}) {
+            updater.update(NDArrayMessage.wholeArrayUpdate(update));
+            INDArray result = updater.ndArrayHolder().get();
+            updater.partialUpdate(Nd4j.linspace(1, 12, 12), result, 3, 1);
+            updater.partialUpdate(Nd4j.linspace(1, 10, 10).reshape(result.tensorAlongDimension(7, 0).shape()),
+                            result, 7, 0);
+        }
+
+        assertEquals(sync.ndArrayHolder().get(), striped.ndArrayHolder().get());
+        assertTrue(striped.shouldReplicate());
+        assertEquals(3, striped.status().get("stripes").intValue());
+    }
+
+    @Test
+    public void testListener() throws Exception {
+        final ParameterServerListener listener = new ParameterServerListener(new int[] {1, 100},
+                        new StripedParameterUpdater(new InMemoryUpdateStorage(),
+                                        new InMemoryNDArrayHolder(Nd4j.zeros(1, 100)), 4));
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int e = 0; e < 25; e++)
+                    listener.onNDArrayMessage(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1, 100)));
+            }));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(100, listener.getUpdater().numUpdates());
+        listener.finish();
+        assertEquals(Nd4j.ones(1, 100), listener.getUpdater().ndArrayHolder().get());
+    }
+}
@@ -0,0 +1,29 @@
+package org.nd4j.linalg.benchmark.accum;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Full reduction of the array
+ */
+public class SumBenchmark extends BaseBenchmarkState {
+
+    @Param({"1000", "100000", "10000000"})
+    public int length;
+
+    private INDArray array;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(1, length);
+    }
+
+    @Benchmark
+    public Number sum() {
+        return array.sumNumber();
+    }
+}
@@ -0,0 +1,39 @@
+package org.nd4j.linalg.benchmark.addirowvector;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.broadcast.BroadcastAddOp;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Row vector broadcast, same op addiRowVector() uses. Result goes into preallocated array, so inputs stay the same
+ * across invocations and every call processes exactly the same data.
+ */
+public class AddiRowVectorBenchmark extends BaseBenchmarkState {
+
+    @Param({"64", "512", "4096"})
+    public int rows;
+
+    @Param({"64", "512", "4096"})
+    public int columns;
+
+    private INDArray array;
+    private INDArray vector;
+    private INDArray result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(rows, columns);
+        vector = create(1, columns);
+        result = create(rows, columns);
+    }
+
+    @Benchmark
+    public INDArray addiRowVector() {
+        return Nd4j.getExecutioner().execAndReturn(new BroadcastAddOp(array, vector, result, 1));
+    }
+}
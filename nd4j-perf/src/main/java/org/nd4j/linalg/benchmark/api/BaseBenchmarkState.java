@@ -0,0 +1,41 @@
+package org.nd4j.linalg.benchmark.api;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Common parameters for all benchmarks: array order and data type.
+ *
+ * State is thread-scoped, so benchmarks writing into preallocated results never share arrays between threads.
+ * Data type is global for the JVM, so it's set once per trial, before any array gets created.
+ */
+@State(Scope.Thread)
+public abstract class BaseBenchmarkState {
+
+    @Param({"c", "f"})
+    public char order;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    @Setup(Level.Trial)
+    public void setUpDataType() {
+        Nd4j.setDataType(DataBuffer.Type.valueOf(dataType));
+    }
+
+    /**
+     * This method creates random array of the given shape, in the order specified by benchmark parameters
+     *
+     * @param shape
+     * @return
+     */
+    protected INDArray create(int... shape) {
+        return Nd4j.rand(order, shape);
+    }
+}
@@ -3,29 +3,44 @@ package org.nd4j.linalg.benchmark.app;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
-import org.nd4j.linalg.benchmark.api.BenchMarkPerformer;
-import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.factory.Nd4jBackend;
-import org.reflections.Reflections;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Discovers all sub classes of benchmark performer on the class
- * path and runs each backend on the class path with each performer.
+ * Runs JMH benchmarks of this module, optionally sweeping over number of benchmark threads,
+ * and writes all results into single JSON file, suitable for tracking regressions between releases.
  *
- * You can specify the number of trials to run for each benchmark.
+ * Benchmark parameters can be overridden, i.e.: --param order=c --param dataType=FLOAT,DOUBLE
  *
  * @author Adam Gibson
  */
 public class BenchmarkRunnerApp {
-    @Option(name = "--nTrials", usage = "Number of trials to run", aliases = "-n")
-    private int nTrials = 1000;
-    @Option(name = "--run", usage = "Trials to run", aliases = "-r")
-    private String benchmarksToRun;
+    @Option(name = "--run", usage = "Regexp of benchmarks to run", aliases = "-r")
+    private String benchmarksToRun = "org.nd4j.linalg.benchmark.*";
+    @Option(name = "--forks", usage = "Number of forked JVMs per benchmark", aliases = "-f")
+    private int forks = 1;
+    @Option(name = "--warmup", usage = "Number of warmup iterations", aliases = "-w")
+    private int warmupIterations = 5;
+    @Option(name = "--iterations", usage = "Number of measurement iterations", aliases = "-i")
+    private int iterations = 10;
+    @Option(name = "--time", usage = "Duration of single iteration, in milliseconds")
+    private long iterationTime = 1000;
+    @Option(name = "--threads", usage = "Comma-separated list of benchmark thread counts", aliases = "-t")
+    private String threads = "1";
+    @Option(name = "--param", usage = "Benchmark parameter override, as name=value1,value2", aliases = "-p")
+    private List<String> params = new ArrayList<>();
+    @Option(name = "--output", usage = "JSON file for results", aliases = "-o")
+    private String output = "nd4j-perf.json";
 
     /**
      * Do the main method
@@ -33,51 +48,38 @@ public class BenchmarkRunnerApp {
      * @throws Exception if an exception is thrown
      */
     public void doMain(String[] args) throws Exception {
-        Reflections reflections = new Reflections();
         CmdLineParser parser = new CmdLineParser(this);
         try {
             parser.parseArgument(args);
         } catch (CmdLineException e) {
             System.err.println(e.getMessage());
+            parser.printUsage(System.err);
             return;
         }
 
-        ServiceLoader<Nd4jBackend> backends = ServiceLoader.load(Nd4jBackend.class);
-        Iterator<Nd4jBackend> backendIterator = backends.iterator();
-        List<Nd4jBackend> allBackends = new ArrayList<>();
-        Set<String> run = new HashSet<>();
-        if (benchmarksToRun != null) {
-            String[] split = benchmarksToRun.split(",");
-            for (String s : split)
-                run.add(s);
-        }
-        while (backendIterator.hasNext())
-            allBackends.add(backendIterator.next());
+        List<RunResult> results = new ArrayList<>();
+        for (String t : threads.split(",")) {
+            ChainedOptionsBuilder builder = new OptionsBuilder().include(benchmarksToRun).forks(forks)
+                            .mode(Mode.AverageTime).warmupIterations(warmupIterations).measurementIterations(iterations)
+                            .warmupTime(TimeValue.milliseconds(iterationTime))
+                            .measurementTime(TimeValue.milliseconds(iterationTime))
+                            .timeUnit(TimeUnit.MICROSECONDS).threads(Integer.parseInt(t.trim()))
+                            .shouldFailOnError(true);
 
+            for (String param : params) {
+                int split = param.indexOf('=');
+                if (split < 1)
+                    throw new IllegalArgumentException("Parameter should be defined as name=value1,value2: " + param);
 
-        Set<Class<? extends BenchMarkPerformer>> performers = reflections.getSubTypesOf(BenchMarkPerformer.class);
-        for (Class<? extends BenchMarkPerformer> perfClazz : performers) {
-            if (Modifier.isAbstract(perfClazz.getModifiers()) || !run.isEmpty() && !run.contains(perfClazz.getName()))
-                continue;
-            String begin = "=========================";
-            String end = "===========================";
-            System.out.println(begin + " Benchmark: " + perfClazz.getName() + " " + end);
-            for (Nd4jBackend backend : backends) {
-                Nd4j nd4j = new Nd4j();
-                nd4j.initWithBackend(backend);
-                Constructor<BenchMarkPerformer> performerConstructor =
-                                (Constructor<BenchMarkPerformer>) perfClazz.getConstructor(int.class);
-                BenchMarkPerformer performer = performerConstructor.newInstance(nTrials);
-                System.out.println("Running " + backend.getClass().getName());
-                performer.run(backend);
-                System.out.println("Backend " + backend.getClass().getName() + " took (in nanoseconds) "
-                                + performer.averageTime() + " (in milliseconds) "
-                                + TimeUnit.MILLISECONDS.convert(performer.averageTime(), TimeUnit.NANOSECONDS));
+                builder.param(param.substring(0, split), param.substring(split + 1).split(","));
             }
 
-            System.out.println(begin + end);
+            results.addAll(new Runner(builder.build()).run());
         }
 
+        // single file covering all thread counts, every record has its own "threads" field
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, output).writeOut(results);
+        System.out.println("Results of " + results.size() + " benchmarks were written to " + output);
     }
 
     public static void main(String[] args) throws Exception {
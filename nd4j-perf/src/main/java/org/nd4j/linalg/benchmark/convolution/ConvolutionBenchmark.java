@@ -0,0 +1,35 @@
+package org.nd4j.linalg.benchmark.convolution;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.nd4j.linalg.convolution.Convolution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Full 2d convolution of the matrix with the kernel
+ */
+public class ConvolutionBenchmark extends BaseBenchmarkState {
+
+    @Param({"32", "128"})
+    public int size;
+
+    @Param({"3", "7"})
+    public int kernelSize;
+
+    private INDArray input;
+    private INDArray kernel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = create(size, size);
+        kernel = create(kernelSize, kernelSize);
+    }
+
+    @Benchmark
+    public INDArray conv2d() {
+        return Convolution.conv2d(input, kernel, Convolution.Type.FULL);
+    }
+}
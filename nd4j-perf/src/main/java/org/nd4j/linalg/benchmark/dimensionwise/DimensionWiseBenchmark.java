@@ -0,0 +1,37 @@
+package org.nd4j.linalg.benchmark.dimensionwise;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Reductions along single dimension of the matrix
+ */
+public class DimensionWiseBenchmark extends BaseBenchmarkState {
+
+    @Param({"64", "512", "2048"})
+    public int rows;
+
+    @Param({"64", "512", "2048"})
+    public int columns;
+
+    private INDArray array;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(rows, columns);
+    }
+
+    @Benchmark
+    public INDArray meanAlongRows() {
+        return array.mean(0);
+    }
+
+    @Benchmark
+    public INDArray meanAlongColumns() {
+        return array.mean(1);
+    }
+}
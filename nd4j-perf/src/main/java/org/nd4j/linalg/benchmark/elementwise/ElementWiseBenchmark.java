@@ -0,0 +1,34 @@
+package org.nd4j.linalg.benchmark.elementwise;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Pairwise op over arrays of the same shape. Result goes into preallocated array, so inputs stay the same
+ * across invocations and every call processes exactly the same data.
+ */
+public class ElementWiseBenchmark extends BaseBenchmarkState {
+
+    @Param({"1000", "100000", "10000000"})
+    public int length;
+
+    private INDArray array;
+    private INDArray other;
+    private INDArray result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(1, length);
+        other = create(1, length);
+        result = create(1, length);
+    }
+
+    @Benchmark
+    public INDArray addi() {
+        return array.addi(other, result);
+    }
+}
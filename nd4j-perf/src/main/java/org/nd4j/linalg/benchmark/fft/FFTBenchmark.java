@@ -0,0 +1,30 @@
+package org.nd4j.linalg.benchmark.fft;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.nd4j.linalg.fft.FFT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Forward FFT of the row vector
+ */
+public class FFTBenchmark extends BaseBenchmarkState {
+
+    @Param({"256", "1024", "4096"})
+    public int length;
+
+    private INDArray array;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(1, length);
+    }
+
+    @Benchmark
+    public INDArray fft() {
+        return FFT.fft(array);
+    }
+}
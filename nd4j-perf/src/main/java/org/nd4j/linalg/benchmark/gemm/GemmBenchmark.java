@@ -0,0 +1,31 @@
+package org.nd4j.linalg.benchmark.gemm;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Square matrix multiplication
+ */
+public class GemmBenchmark extends BaseBenchmarkState {
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    private INDArray a;
+    private INDArray b;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        a = create(size, size);
+        b = create(size, size);
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        return a.mmul(b);
+    }
+}
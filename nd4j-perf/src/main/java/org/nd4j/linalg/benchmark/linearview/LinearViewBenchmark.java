@@ -0,0 +1,37 @@
+package org.nd4j.linalg.benchmark.linearview;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Linear view creation, and scalar access through the linear view
+ */
+public class LinearViewBenchmark extends BaseBenchmarkState {
+
+    @Param({"10000", "1000000"})
+    public int length;
+
+    private INDArray array;
+    private INDArray linearView;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(2, length / 2);
+        linearView = create(1, length).linearView();
+    }
+
+    @Benchmark
+    public INDArray resetLinearView() {
+        array.resetLinearView();
+        return array.linearView();
+    }
+
+    @Benchmark
+    public INDArray putScalar() {
+        return linearView.putScalar(1, 0);
+    }
+}
@@ -0,0 +1,82 @@
+package org.nd4j.linalg.benchmark.normalizer;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerMinMaxScaler;
+import org.nd4j.linalg.dataset.api.preprocessor.NormalizerStandardize;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Normalizer transform of features, with fused transform and with separate broadcast ops. Fused transform is
+ * switched on or off for the whole forked JVM.
+ *
+ * Transform is applied in place, so features are restored from the source before every call.
+ * That copy costs the same for both variants.
+ */
+public class NormalizerBenchmark extends BaseBenchmarkState {
+    private static final String FUSED = "-Dorg.nd4j.normalizer.fused=true";
+    private static final String BROADCAST_OPS = "-Dorg.nd4j.normalizer.fused=false";
+
+    @Param({"64", "4096"})
+    public int examples;
+
+    @Param({"16", "512"})
+    public int features;
+
+    private INDArray source;
+    private INDArray array;
+    private NormalizerStandardize standardize;
+    private NormalizerMinMaxScaler minMax;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = create(examples, features);
+        array = create(examples, features);
+
+        DataSet dataSet = new DataSet(source, Nd4j.zeros(examples, 1));
+
+        standardize = new NormalizerStandardize();
+        standardize.fit(dataSet);
+
+        minMax = new NormalizerMinMaxScaler(-1, 1);
+        minMax.fit(dataSet);
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = FUSED)
+    public INDArray standardizeFused() {
+        array.assign(source);
+        standardize.transform(array);
+        return array;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = BROADCAST_OPS)
+    public INDArray standardizeBroadcastOps() {
+        array.assign(source);
+        standardize.transform(array);
+        return array;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = FUSED)
+    public INDArray minMaxFused() {
+        array.assign(source);
+        minMax.transform(array);
+        return array;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = BROADCAST_OPS)
+    public INDArray minMaxBroadcastOps() {
+        array.assign(source);
+        minMax.transform(array);
+        return array;
+    }
+}
@@ -0,0 +1,32 @@
+package org.nd4j.linalg.benchmark.scalar;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Scalar op over the whole array. Result goes into preallocated array, so input stays the same
+ * across invocations and every call processes exactly the same data.
+ */
+public class ScalarBenchmark extends BaseBenchmarkState {
+
+    @Param({"1000", "100000", "10000000"})
+    public int length;
+
+    private INDArray array;
+    private INDArray result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(1, length);
+        result = create(1, length);
+    }
+
+    @Benchmark
+    public INDArray addi() {
+        return array.addi(1.0, result);
+    }
+}
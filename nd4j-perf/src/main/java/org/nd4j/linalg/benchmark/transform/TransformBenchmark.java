@@ -0,0 +1,40 @@
+package org.nd4j.linalg.benchmark.transform;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.transforms.Sigmoid;
+import org.nd4j.linalg.benchmark.api.BaseBenchmarkState;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Sigmoid transform, with allocation of the result and into preallocated result.
+ * Input is never modified, so every call processes exactly the same data.
+ */
+public class TransformBenchmark extends BaseBenchmarkState {
+
+    @Param({"1000", "100000", "10000000"})
+    public int length;
+
+    private INDArray array;
+    private INDArray result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = create(1, length);
+        result = create(1, length);
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        return Transforms.sigmoid(array);
+    }
+
+    @Benchmark
+    public INDArray sigmoidPreallocated() {
+        return Nd4j.getExecutioner().execAndReturn(new Sigmoid(array, result));
+    }
+}
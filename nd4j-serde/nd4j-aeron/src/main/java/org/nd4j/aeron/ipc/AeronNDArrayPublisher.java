@@ -10,6 +10,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.BusySpinIdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.slf4j.Logger;
@@ -102,26 +103,35 @@ public class AeronNDArrayPublisher implements AutoCloseable {
         log.info("Publishing to " + channel + " on stream Id " + streamId);
         //ensure default values are set
         INDArray arr = message.getArr();
-        if (isCompress())
+        //encoded arrays are already compact, and have to reach receiver as is
+        if (isCompress() && message.getEncoding() == NDArrayMessage.ArrayEncoding.NONE)
             while (!message.getArr().isCompressed())
                 Nd4j.getCompressor().compressi(arr, "GZIP");
 
 
 
-        //array is large, need to segment
-        if (NDArrayMessage.byteBufferSizeForMessage(message) >= publication.maxMessageLength()) {
-            NDArrayMessageChunk[] chunks = NDArrayMessage.chunks(message, publication.maxMessageLength() / 128);
-            for (int i = 0; i < chunks.length; i++) {
-                ByteBuffer sendBuff = NDArrayMessageChunk.toBuffer(chunks[i]);
-                sendBuff.rewind();
-                DirectBuffer buffer = new UnsafeBuffer(sendBuff);
-                sendBuffer(buffer);
+        //publication copies buffers into its log, so all of them go back to the pool once offered
+        DirectBufferPool pool = DirectBufferPool.getInstance();
+        DirectBuffer wholeBuffer = NDArrayMessage.toBuffer(message, pool);
+        try {
+            //array is large, need to segment
+            if (wholeBuffer.capacity() >= publication.maxMessageLength()) {
+                NDArrayMessageChunk[] chunks = NDArrayMessage.chunks(wholeBuffer, publication.maxMessageLength() / 128);
+                for (int i = 0; i < chunks.length; i++) {
+                    int size = NDArrayMessageChunk.sizeForMessage(chunks[i]);
+                    ByteBuffer sendBuff = NDArrayMessageChunk.toBuffer(chunks[i], pool);
+                    try {
+                        sendBuffer(new UnsafeBuffer(sendBuff, 0, size));
+                    } finally {
+                        pool.release(sendBuff);
+                    }
+                }
+            } else {
+                //send whole array
+                sendBuffer(wholeBuffer);
             }
-        } else {
-            //send whole array
-            DirectBuffer buffer = NDArrayMessage.toBuffer(message);
-            sendBuffer(buffer);
-
+        } finally {
+            pool.release(wholeBuffer);
         }
 
     }
@@ -4,6 +4,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
@@ -79,18 +80,35 @@ public class AeronNDArraySerde {
         //subset and get rid of 1 off non 1 element wise stride cases
         if (arr.isView())
             arr = arr.dup();
-        if (!arr.isCompressed()) {
-            ByteBuffer b3 = ByteBuffer.allocateDirect(byteBufferSizeFor(arr)).order(ByteOrder.nativeOrder());
-            doByteBufferPutUnCompressed(arr, b3, true);
-            return new UnsafeBuffer(b3);
-        }
-        //compressed array
-        else {
-            ByteBuffer b3 = ByteBuffer.allocateDirect(byteBufferSizeFor(arr)).order(ByteOrder.nativeOrder());
-            doByteBufferPutCompressed(arr, b3, true);
-            return new UnsafeBuffer(b3);
-        }
+        ByteBuffer b3 = ByteBuffer.allocateDirect(byteBufferSizeFor(arr)).order(ByteOrder.nativeOrder());
+        doByteBufferPut(arr, b3);
+        return new UnsafeBuffer(b3);
+    }
 
+    /**
+     * Convert an ndarray to an unsafe buffer
+     * backed by a buffer from the given pool.
+     * Capacity of the returned buffer is exactly the size of the array representation.
+     * Once the buffer isn't needed anymore, it should be returned via {@link DirectBufferPool#release(DirectBuffer)}
+     * @param arr the array to convert
+     * @param pool the pool to take the buffer from
+     * @return the unsafebuffer representation of this array
+     */
+    public static UnsafeBuffer toBuffer(INDArray arr, DirectBufferPool pool) {
+        if (arr.isView())
+            arr = arr.dup();
+        int size = byteBufferSizeFor(arr);
+        ByteBuffer b3 = pool.acquire(size);
+        doByteBufferPut(arr, b3);
+        return new UnsafeBuffer(b3, 0, size);
+    }
+
+    private static void doByteBufferPut(INDArray arr, ByteBuffer allocated) {
+        if (!arr.isCompressed())
+            doByteBufferPutUnCompressed(arr, allocated, true);
+        //compressed array
+        else
+            doByteBufferPutCompressed(arr, allocated, true);
     }
 
 
@@ -160,58 +178,99 @@ public class AeronNDArraySerde {
      * then you must pass in an offset + 4.
      * Adding 4 to the offset will cause the inter
      * @param buffer the buffer to create the array from
-     * @return the ndarray derived from this buffer
+     * @return the ndarray derived from this buffer, and a byte buffer positioned right after the array
      */
     public static Pair<INDArray, ByteBuffer> toArrayAndByteBuffer(DirectBuffer buffer, int offset) {
-        ByteBuffer byteBuffer =
-                        buffer.byteBuffer() == null
-                                        ? ByteBuffer.allocateDirect(buffer.byteArray().length).put(buffer.byteArray())
-                                                        .order(ByteOrder.nativeOrder())
-                                        : buffer.byteBuffer().order(ByteOrder.nativeOrder());
-        //bump the byte buffer to the proper position
-        byteBuffer.position(offset);
-        int rank = byteBuffer.getInt();
+        Pair<INDArray, Integer> pair = toArrayAndOffset(buffer, offset);
+
+        //view over the same memory, positioned after the array data
+        ByteBuffer byteBuffer;
+        int adjustment = buffer instanceof UnsafeBuffer ? ((UnsafeBuffer) buffer).wrapAdjustment() : 0;
+        if (buffer.byteBuffer() != null)
+            byteBuffer = buffer.byteBuffer().duplicate();
+        else if (buffer.byteArray() != null)
+            byteBuffer = ByteBuffer.wrap(buffer.byteArray());
+        else
+            throw new IllegalArgumentException("Buffer isn't backed by either ByteBuffer or byte array");
+
+        byteBuffer.order(ByteOrder.nativeOrder()).position(adjustment + pair.getRight());
+        return Pair.of(pair.getLeft(), byteBuffer);
+    }
+
+    /**
+     * Create an ndarray
+     * from the unsafe buffer.
+     *
+     * Array data is copied straight from the given buffer into memory of the new array,
+     * no intermediate buffers are involved. That works the same way for both direct and array backed buffers,
+     * regardless of data alignment within the buffer.
+     *
+     * @param buffer the buffer to create the array from
+     * @param offset the offset of the array within the buffer
+     * @return the ndarray derived from this buffer, and the offset right after the array data
+     */
+    public static Pair<INDArray, Integer> toArrayAndOffset(DirectBuffer buffer, int offset) {
+        int position = offset;
+        int rank = buffer.getInt(position, ByteOrder.nativeOrder());
         if (rank < 0)
             throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+        //compute the databuffer type from the index
+        DataBuffer.Type type = DataBuffer.Type.values()[buffer.getInt(position + 4, ByteOrder.nativeOrder())];
+        position += 8;
+
         //get the shape buffer length to create the shape information buffer
         int shapeBufferLength = Shape.shapeInfoLength(rank);
-        //create the ndarray shape information
-        DataBuffer shapeBuff = Nd4j.createBufferDetached(new int[shapeBufferLength]);
+        int[] shapeInfo = new int[shapeBufferLength];
+        for (int i = 0; i < shapeBufferLength; i++, position += 4)
+            shapeInfo[i] = buffer.getInt(position, ByteOrder.nativeOrder());
 
-        //compute the databuffer type from the index
-        DataBuffer.Type type = DataBuffer.Type.values()[byteBuffer.getInt()];
-        for (int i = 0; i < shapeBufferLength; i++) {
-            shapeBuff.put(i, byteBuffer.getInt());
-        }
+        //create the ndarray shape information
+        DataBuffer shapeBuff = Nd4j.createBufferDetached(shapeInfo);
 
         //after the rank,data type, shape buffer (of length shape buffer length) * sizeof(int)
         if (type != DataBuffer.Type.COMPRESSED) {
-            ByteBuffer slice = byteBuffer.slice();
-            //wrap the data buffer for the last bit
-            DataBuffer buff = Nd4j.createBuffer(slice, type, Shape.length(shapeBuff));
-            //advance past the data
-            int position = byteBuffer.position() + (buff.getElementSize() * (int) buff.length());
-            byteBuffer.position(position);
-            //create the final array
-            //TODO: see how to avoid dup here
-            INDArray arr = Nd4j.createArrayFromShapeBuffer(buff.dup(), shapeBuff.dup());
-            return Pair.of(arr, byteBuffer);
+            long length = Shape.length(shapeBuff);
+            DataBuffer buff = createUninitialized(type, length);
+            int bytes = (int) length * buff.getElementSize();
+            //the only copy: from the message right into the array
+            new UnsafeBuffer(buff.addressPointer().address(), bytes).putBytes(0, buffer, position, bytes);
+            position += bytes;
+
+            INDArray arr = Nd4j.createArrayFromShapeBuffer(buff, shapeBuff.dup());
+            return Pair.of(arr, position);
         } else {
-            CompressionDescriptor compressionDescriptor = CompressionDescriptor.fromByteBuffer(byteBuffer);
-            ByteBuffer slice = byteBuffer.slice();
-            //ensure that we only deal with the slice of the buffer that is actually the data
-            BytePointer byteBufferPointer = new BytePointer(slice);
-            //create a compressed array based on the rest of the data left in the buffer
-            CompressedDataBuffer compressedDataBuffer =
-                            new CompressedDataBuffer(byteBufferPointer, compressionDescriptor);
-            //TODO: see how to avoid dup()
-            INDArray arr = Nd4j.createArrayFromShapeBuffer(compressedDataBuffer.dup(), shapeBuff.dup());
-            //advance past the data
+            //descriptor is tiny, so it's read from a copy: given buffer isn't necessarily backed by ByteBuffer
+            byte[] codec = new byte[CompressionDescriptor.COMPRESSION_BYTE_BUFFER_LENGTH];
+            buffer.getBytes(position, codec);
+            CompressionDescriptor compressionDescriptor =
+                            CompressionDescriptor.fromByteBuffer(ByteBuffer.wrap(codec).order(ByteOrder.nativeOrder()));
+            position += CompressionDescriptor.COMPRESSION_BYTE_BUFFER_LENGTH;
+
             int compressLength = (int) compressionDescriptor.getCompressedLength();
-            byteBuffer.position(byteBuffer.position() + compressLength);
-            return Pair.of(arr, byteBuffer);
+            BytePointer pointer = new BytePointer(compressLength);
+            new UnsafeBuffer(pointer.address(), compressLength).putBytes(0, buffer, position, compressLength);
+            position += compressLength;
+
+            //create a compressed array based on the data we've just copied
+            CompressedDataBuffer compressedDataBuffer = new CompressedDataBuffer(pointer, compressionDescriptor);
+            INDArray arr = Nd4j.createArrayFromShapeBuffer(compressedDataBuffer, shapeBuff.dup());
+            return Pair.of(arr, position);
         }
+    }
 
+    private static DataBuffer createUninitialized(DataBuffer.Type type, long length) {
+        switch (type) {
+            case INT:
+                return Nd4j.getDataBufferFactory().createInt(length, false);
+            case DOUBLE:
+                return Nd4j.getDataBufferFactory().createDouble(length, false);
+            case FLOAT:
+                return Nd4j.getDataBufferFactory().createFloat(length, false);
+            case HALF:
+                return Nd4j.getDataBufferFactory().createHalf(length, false);
+            default:
+                throw new IllegalArgumentException("Illegal type " + type);
+        }
     }
 
 
@@ -222,7 +281,7 @@ public class AeronNDArraySerde {
      * @return the ndarray derived from this buffer
      */
     public static INDArray toArray(DirectBuffer buffer, int offset) {
-        return toArrayAndByteBuffer(buffer, offset).getLeft();
+        return toArrayAndOffset(buffer, offset).getLeft();
     }
 
     /**
@@ -4,6 +4,7 @@ import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.aeron.ipc.chunk.ChunkAccumulator;
 import org.nd4j.aeron.ipc.chunk.InMemoryChunkAccumulator;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
@@ -38,31 +39,16 @@ public class NDArrayFragmentHandler implements FragmentHandler {
      */
     @Override
     public void onFragment(DirectBuffer buffer, int offset, int length, Header header) {
-        ByteBuffer byteBuffer = buffer.byteBuffer();
-        boolean byteArrayInput = false;
-        if (byteBuffer == null) {
-            byteArrayInput = true;
-            byte[] destination = new byte[length];
-            ByteBuffer wrap = ByteBuffer.wrap(buffer.byteArray());
-            wrap.get(destination, offset, length);
-            byteBuffer = ByteBuffer.wrap(destination).order(ByteOrder.nativeOrder());
-        }
-
-
-        //only applicable for direct buffers where we don't wrap the array
-        if (!byteArrayInput) {
-            byteBuffer.position(offset);
-            byteBuffer.order(ByteOrder.nativeOrder());
-        }
-
-        int messageTypeIndex = byteBuffer.getInt();
-        if (messageTypeIndex >= NDArrayMessage.MessageType.values().length)
+        int messageTypeIndex = buffer.getInt(offset, ByteOrder.nativeOrder());
+        if (messageTypeIndex < 0 || messageTypeIndex >= NDArrayMessage.MessageType.values().length)
             throw new IllegalStateException(
                             "Illegal index on message type. Likely corrupt message. Please check the serialization of the bytebuffer. Input was bytebuffer: "
-                                            + byteArrayInput);
+                                            + (buffer.byteBuffer() != null));
         NDArrayMessage.MessageType messageType = NDArrayMessage.MessageType.values()[messageTypeIndex];
 
         if (messageType == NDArrayMessage.MessageType.CHUNKED) {
+            //accumulator copies chunk data into its place right away, so chunk can reference fragment memory
+            ByteBuffer byteBuffer = view(buffer, offset + 4, length - 4);
             NDArrayMessageChunk chunk = NDArrayMessageChunk.fromBuffer(byteBuffer, messageType);
             if (chunk.getNumChunks() < 1)
                 throw new IllegalStateException("Found invalid number of chunks " + chunk.getNumChunks()
@@ -82,4 +68,24 @@ public class NDArrayFragmentHandler implements FragmentHandler {
 
 
     }
+
+    /**
+     * ByteBuffer over the given region of the buffer, without copying wherever possible
+     */
+    private static ByteBuffer view(DirectBuffer buffer, int offset, int length) {
+        int adjustment = buffer instanceof UnsafeBuffer ? ((UnsafeBuffer) buffer).wrapAdjustment() : 0;
+        ByteBuffer view;
+        if (buffer.byteBuffer() != null)
+            view = buffer.byteBuffer().duplicate();
+        else if (buffer.byteArray() != null)
+            view = ByteBuffer.wrap(buffer.byteArray());
+        else {
+            byte[] bytes = new byte[length];
+            buffer.getBytes(offset, bytes);
+            return ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder());
+        }
+
+        view.limit(adjustment + offset + length).position(adjustment + offset);
+        return view.slice().order(ByteOrder.nativeOrder());
+    }
 }
@@ -8,6 +8,8 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.apache.commons.lang3.tuple.Pair;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
+import org.nd4j.aeron.util.DirectBufferPool;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -32,6 +34,8 @@ import java.util.UUID;
  * index: the index of the tensor along dimension for update (use -1 if there is no index, eg: when you are going to use the whole array)
  * dimensions: the dimensions to do for a tensoralongdimension update, if you intend on updating the whole array send: new int[]{ -1} which
  * will indicate to use the whole array for an update.
+ * encoding: how arr is encoded, see {@link ArrayEncoding}. Stored right after the message type, so receivers know
+ * how to apply arr before touching it.
  *
  *
  * @author Adam Gibson
@@ -47,6 +51,7 @@ public class NDArrayMessage implements Serializable {
     private int[] dimensions;
     private byte[] chunk;
     private int numChunks = 0;
+    private ArrayEncoding encoding;
     //default dimensions: a 1 length array of -1 means use the whole array for an update.
     private static int[] WHOLE_ARRAY_UPDATE = {-1};
     //represents the constant for indicating using the whole array for an update (-1)
@@ -60,6 +65,25 @@ public class NDArrayMessage implements Serializable {
         CHUNKED, WHOLE
     }
 
+    /**
+     * NONE: arr is the update itself
+     * THRESHOLD: arr is an int array produced by
+     * {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner#thresholdEncode(INDArray, double)},
+     * to be applied with {@link org.nd4j.linalg.api.ops.executioner.OpExecutioner#thresholdDecode(INDArray, INDArray)}
+     */
+    public enum ArrayEncoding {
+        NONE, THRESHOLD
+    }
+
+    /**
+     * The encoding of the array
+     * in this message
+     * @return the encoding, {@link ArrayEncoding#NONE} if none was specified
+     */
+    public ArrayEncoding getEncoding() {
+        return encoding == null ? ArrayEncoding.NONE : encoding;
+    }
+
     /**
      * Determine the number of chunks
      * @param message
@@ -109,6 +133,28 @@ public class NDArrayMessage implements Serializable {
                         .sent(getCurrentTimeUtc()).build();
     }
 
+    /**
+     * Prepare a threshold encoded whole array update.
+     * Every element of the residual with absolute value >= threshold
+     * is sent as +-threshold, and that amount is subtracted from the residual.
+     * Whatever is left in the residual should be carried over to the next update.
+     *
+     * @param residual the accumulated updates, modified in place
+     * @param threshold the threshold to use
+     * @return the message, or null if no element reached the threshold
+     */
+    public static NDArrayMessage thresholdEncoded(INDArray residual, double threshold) {
+        INDArray encoded = Nd4j.getExecutioner().thresholdEncode(residual, threshold);
+        if (encoded == null)
+            return null;
+
+        //encoded array comes with shape of the residual, but it's just a flat int buffer: header + indices
+        DataBuffer buffer = encoded.data();
+        INDArray flat = Nd4j.create(buffer, new int[] {1, (int) buffer.length()});
+        return NDArrayMessage.builder().arr(flat).dimensions(WHOLE_ARRAY_UPDATE).index(WHOLE_ARRAY_INDEX)
+                        .encoding(ArrayEncoding.THRESHOLD).sent(getCurrentTimeUtc()).build();
+    }
+
     /**
      * Factory method for creating an array
      * to send now (uses now in utc for the timestamp).
@@ -173,6 +219,7 @@ public class NDArrayMessage implements Serializable {
      * for a bytebuffer for a given ndarray message.
      * The formula is:
      * {@link AeronNDArraySerde#byteBufferSizeFor(INDArray)}
+     * + size of encoding (4)
      * + size of dimension length (4)
      * + time stamp size (8)
      * + index size (8)
@@ -182,11 +229,12 @@ public class NDArrayMessage implements Serializable {
      */
     public static int byteBufferSizeForMessage(NDArrayMessage message) {
         int enumSize = 4;
+        int encodingSize = 4;
         int nInts = 4 * message.getDimensions().length;
         int sizeofDimensionLength = 4;
         int timeStampSize = 8;
         int indexSize = 8;
-        return enumSize + nInts + sizeofDimensionLength + timeStampSize + indexSize
+        return enumSize + encodingSize + nInts + sizeofDimensionLength + timeStampSize + indexSize
                         + AeronNDArraySerde.byteBufferSizeFor(message.getArr());
     }
 
@@ -209,21 +257,24 @@ public class NDArrayMessage implements Serializable {
     public static NDArrayMessage fromChunks(NDArrayMessageChunk[] chunks) {
         int overAllCapacity = chunks[0].getChunkSize() * chunks.length;
 
-        ByteBuffer all = ByteBuffer.allocateDirect(overAllCapacity).order(ByteOrder.nativeOrder());
-        for (int i = 0; i < chunks.length; i++) {
-            ByteBuffer curr = chunks[i].getData();
-            if (curr.capacity() > chunks[0].getChunkSize()) {
-                curr.position(0).limit(chunks[0].getChunkSize());
-                curr = curr.slice();
+        //decoded message doesn't reference assembled buffer, so it goes back to the pool right away
+        DirectBufferPool pool = DirectBufferPool.getInstance();
+        ByteBuffer all = pool.acquire(overAllCapacity);
+        try {
+            for (int i = 0; i < chunks.length; i++) {
+                ByteBuffer curr = chunks[i].getData();
+                if (curr.capacity() > chunks[0].getChunkSize()) {
+                    curr.position(0).limit(chunks[0].getChunkSize());
+                    curr = curr.slice();
+                }
+                all.put(curr);
             }
-            all.put(curr);
-        }
 
-        //create an ndarray message from the given buffer
-        UnsafeBuffer unsafeBuffer = new UnsafeBuffer(all);
-        //rewind the buffer
-        all.rewind();
-        return NDArrayMessage.fromBuffer(unsafeBuffer, 0);
+            //create an ndarray message from the given buffer
+            return NDArrayMessage.fromBuffer(new UnsafeBuffer(all, 0, overAllCapacity), 0);
+        } finally {
+            pool.release(all);
+        }
     }
 
 
@@ -245,9 +296,21 @@ public class NDArrayMessage implements Serializable {
      * @return an array of buffers
      */
     public static NDArrayMessageChunk[] chunks(NDArrayMessage message, int chunkSize) {
-        int numChunks = numChunksForMessage(message, chunkSize);
+        return chunks(NDArrayMessage.toBuffer(message), chunkSize);
+    }
+
+    /**
+     * Returns an array of
+     * message chunks for the message
+     * already converted with {@link #toBuffer(NDArrayMessage)}.
+     * Chunks are views of the given buffer, so it should stay intact until all of them are sent.
+     * @param wholeBuffer the buffer containing the whole message
+     * @param chunkSize the chunk size
+     * @return an array of buffers
+     */
+    public static NDArrayMessageChunk[] chunks(DirectBuffer wholeBuffer, int chunkSize) {
+        int numChunks = (wholeBuffer.capacity() + chunkSize - 1) / chunkSize;
         NDArrayMessageChunk[] ret = new NDArrayMessageChunk[numChunks];
-        DirectBuffer wholeBuffer = NDArrayMessage.toBuffer(message);
         String messageId = UUID.randomUUID().toString();
         for (int i = 0; i < ret.length; i++) {
             //data: only grab a chunk of the data
@@ -274,8 +337,30 @@ public class NDArrayMessage implements Serializable {
     public static DirectBuffer toBuffer(NDArrayMessage message) {
         ByteBuffer byteBuffer =
                         ByteBuffer.allocateDirect(byteBufferSizeForMessage(message)).order(ByteOrder.nativeOrder());
+        doByteBufferPut(message, byteBuffer);
+        return new UnsafeBuffer(byteBuffer);
+    }
+
+    /**
+     * Convert a message to a direct buffer
+     * taken from the given pool.
+     * Capacity of the returned buffer is exactly the size of the message.
+     * Once the buffer isn't needed anymore, it should be returned via {@link DirectBufferPool#release(DirectBuffer)}
+     * @param message the message to convert
+     * @param pool the pool to take the buffer from
+     * @return a direct byte buffer representing this message.
+     */
+    public static DirectBuffer toBuffer(NDArrayMessage message, DirectBufferPool pool) {
+        int size = byteBufferSizeForMessage(message);
+        ByteBuffer byteBuffer = pool.acquire(size);
+        doByteBufferPut(message, byteBuffer);
+        return new UnsafeBuffer(byteBuffer, 0, size);
+    }
+
+    private static void doByteBufferPut(NDArrayMessage message, ByteBuffer byteBuffer) {
         //declare message type
         byteBuffer.putInt(MessageType.WHOLE.ordinal());
+        byteBuffer.putInt(message.getEncoding().ordinal());
         //perform the ndarray put on the
         if (message.getArr().isCompressed()) {
             AeronNDArraySerde.doByteBufferPutCompressed(message.getArr(), byteBuffer, false);
@@ -296,50 +381,56 @@ public class NDArrayMessage implements Serializable {
         //rewind the buffer before putting it in to the unsafe buffer
         //note that we set rewind to false in the do byte buffer put methods
         byteBuffer.rewind();
-
-        return new UnsafeBuffer(byteBuffer);
     }
 
     /**
      * Convert a direct buffer to an ndarray
      * message.
      * The format of the byte buffer is:
+     * message type
+     * encoding
      * ndarray
      * time
      * index
      * dimension length
      * dimensions
      *
-     * We use {@link AeronNDArraySerde#toArrayAndByteBuffer(DirectBuffer, int)}
-     * to read in the ndarray and just use normal {@link ByteBuffer#getInt()} and
-     * {@link ByteBuffer#getLong()} to get the things like dimensions and index
-     * and time stamp.
+     * We use {@link AeronNDArraySerde#toArrayAndOffset(DirectBuffer, int)}
+     * to read in the ndarray and just read the things like dimensions and index
+     * and time stamp right from the buffer afterwards.
      *
      *
      *
      * @param buffer the buffer to convert
      * @param offset  the offset to start at with the buffer - note that this
      *                method call assumes that the message type is specified at the beginning of the buffer.
-     *                This means whatever offset you pass in will be increased by 4 (the size of an int)
+     *                This means whatever offset you pass in will be increased by 8 (the size of message type and encoding)
      * @return the ndarray message based on this direct buffer.
      */
     public static NDArrayMessage fromBuffer(DirectBuffer buffer, int offset) {
         //skip the message type
-        Pair<INDArray, ByteBuffer> pair = AeronNDArraySerde.toArrayAndByteBuffer(buffer, offset + 4);
+        int encodingIndex = buffer.getInt(offset + 4, ByteOrder.nativeOrder());
+        if (encodingIndex < 0 || encodingIndex >= ArrayEncoding.values().length)
+            throw new IllegalArgumentException("Invalid array encoding " + encodingIndex);
+
+        ArrayEncoding encoding = ArrayEncoding.values()[encodingIndex];
+        Pair<INDArray, Integer> pair = AeronNDArraySerde.toArrayAndOffset(buffer, offset + 8);
         INDArray arr = pair.getKey();
         Nd4j.getCompressor().decompressi(arr);
-        //use the rest of the buffer, of note here the offset is already set, we should only need to use
-        ByteBuffer rest = pair.getRight();
-        long time = rest.getLong();
-        long index = rest.getLong();
+        //use the rest of the buffer, starting right after the array
+        int position = pair.getRight();
+        long time = buffer.getLong(position, ByteOrder.nativeOrder());
+        long index = buffer.getLong(position + 8, ByteOrder.nativeOrder());
         //get the array next for dimensions
-        int dimensionLength = rest.getInt();
+        int dimensionLength = buffer.getInt(position + 16, ByteOrder.nativeOrder());
         if (dimensionLength <= 0)
             throw new IllegalArgumentException("Invalid dimension length " + dimensionLength);
+        position += 20;
         int[] dimensions = new int[dimensionLength];
-        for (int i = 0; i < dimensionLength; i++)
-            dimensions[i] = rest.getInt();
-        return NDArrayMessage.builder().sent(time).arr(arr).index(index).dimensions(dimensions).build();
+        for (int i = 0; i < dimensionLength; i++, position += 4)
+            dimensions[i] = buffer.getInt(position, ByteOrder.nativeOrder());
+        return NDArrayMessage.builder().sent(time).arr(arr).index(index).dimensions(dimensions).encoding(encoding)
+                        .build();
     }
 
 }
@@ -42,7 +42,9 @@ public interface ChunkAccumulator {
     NDArrayMessage reassemble(String id);
 
     /**
-     * Accumulate chunks
+     * Accumulate chunks.
+     * Chunk data might reference transport memory which is only valid
+     * during this call, so implementations shouldn't keep references to it.
      * @param chunk the chunk to accumulate
      */
     void accumulateChunk(NDArrayMessageChunk chunk);
@@ -1,21 +1,102 @@
 package org.nd4j.aeron.ipc.chunk;
 
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.util.DirectBufferPool;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Accumulate chunks and reassemble them.
  *
+ * Each chunk is written straight into its final position within the destination buffer
+ * allocated for the whole message, so chunks can arrive in any order, and nothing is copied
+ * once the message is complete. Chunks of different messages, possibly coming from different
+ * publishers, are tracked independently by message id.
+ *
+ * Partial messages are bounded in two ways:
+ * - messages that didn't receive any chunk within the timeout are evicted
+ * - total size of destination buffers is capped, oldest incomplete messages are evicted to make room for new ones.
+ *   Complete messages waiting for reassembly are never evicted this way, if there's no room left new message is dropped
+ *
+ * Both limits can be configured via constructor, or via system properties
+ * {@link #TIMEOUT_PROPERTY} (milliseconds, 60 seconds by default) and
+ * {@link #MAX_BYTES_PROPERTY} (bytes, 4GB by default).
+ *
  * @author Adam Gibson
  */
 @Slf4j
 public class InMemoryChunkAccumulator implements ChunkAccumulator {
-    private Map<String, List<NDArrayMessageChunk>> chunks = Maps.newConcurrentMap();
+    public static final String TIMEOUT_PROPERTY = "org.nd4j.aeron.chunks.timeout";
+    public static final String MAX_BYTES_PROPERTY = "org.nd4j.aeron.chunks.maxBytes";
+
+    private final ConcurrentHashMap<String, PartialMessage> messages = new ConcurrentHashMap<>();
+    private final DirectBufferPool pool = DirectBufferPool.getInstance();
+
+    private final long timeout;
+    private final long maxBytes;
+    private volatile long lastEvictionCheck = System.currentTimeMillis();
+
+    private final AtomicLong bytesInFlight = new AtomicLong(0);
+    private final AtomicLong chunksReceived = new AtomicLong(0);
+    private final AtomicLong chunksDuplicated = new AtomicLong(0);
+    private final AtomicLong chunksDropped = new AtomicLong(0);
+    private final AtomicLong messagesReassembled = new AtomicLong(0);
+    private final AtomicLong messagesEvicted = new AtomicLong(0);
+
+    public InMemoryChunkAccumulator() {
+        this(Long.getLong(TIMEOUT_PROPERTY, 60000L), Long.getLong(MAX_BYTES_PROPERTY, 4L * 1024 * 1024 * 1024));
+    }
+
+    /**
+     *
+     * @param timeout time in milliseconds since the last chunk, after which partial message is evicted
+     * @param maxBytes max total size of all partial messages
+     */
+    public InMemoryChunkAccumulator(long timeout, long maxBytes) {
+        if (timeout <= 0 || maxBytes <= 0)
+            throw new IllegalArgumentException(
+                            "Timeout and memory limit should be positive, got " + timeout + " and " + maxBytes);
+
+        this.timeout = timeout;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Message being reassembled: destination buffer and chunks received so far
+     */
+    private static class PartialMessage {
+        private final String id;
+        private final int chunkSize;
+        private final int numChunks;
+        private final ByteBuffer buffer;
+        // actual size of the destination buffer, pool rounds requested size up
+        private final long allocatedBytes;
+        private final BitSet received;
+        private int numReceived = 0;
+        // end of the last chunk written, the last chunk is usually shorter than others
+        private int length = 0;
+        private volatile long lastUpdated = System.currentTimeMillis();
+        private boolean closed = false;
+
+        private PartialMessage(String id, int chunkSize, int numChunks, ByteBuffer buffer) {
+            this.id = id;
+            this.chunkSize = chunkSize;
+            this.numChunks = numChunks;
+            this.buffer = buffer;
+            this.allocatedBytes = buffer.capacity();
+            this.received = new BitSet(numChunks);
+        }
+
+        private synchronized boolean isComplete() {
+            return numReceived == numChunks;
+        }
+    }
 
     /**
      * Returns the number of chunks
@@ -28,9 +109,13 @@ public class InMemoryChunkAccumulator implements ChunkAccumulator {
      */
     @Override
     public int numChunksSoFar(String id) {
-        if (!chunks.containsKey(id))
+        PartialMessage message = messages.get(id);
+        if (message == null)
             return 0;
-        return chunks.get(id).size();
+
+        synchronized (message) {
+            return message.numReceived;
+        }
     }
 
     /**
@@ -41,10 +126,25 @@ public class InMemoryChunkAccumulator implements ChunkAccumulator {
      */
     @Override
     public boolean allPresent(String id) {
-        if (!chunks.containsKey(id))
-            return false;
-        List<NDArrayMessageChunk> chunkList = chunks.get(id);
-        return chunkList.size() == chunkList.get(0).getNumChunks();
+        PartialMessage message = messages.get(id);
+        return message != null && message.isComplete();
+    }
+
+    /**
+     * Returns the fraction of chunks
+     * received so far for a given id
+     *
+     * @param id the id to check for
+     * @return value in range 0..1, 0 if there's no such message
+     */
+    public double progress(String id) {
+        PartialMessage message = messages.get(id);
+        if (message == null)
+            return 0.0;
+
+        synchronized (message) {
+            return message.numReceived / (double) message.numChunks;
+        }
     }
 
     /**
@@ -61,26 +161,32 @@ public class InMemoryChunkAccumulator implements ChunkAccumulator {
      */
     @Override
     public NDArrayMessage reassemble(String id) {
-        List<NDArrayMessageChunk> chunkList = chunks.get(id);
-        if (chunkList.size() != chunkList.get(0).getNumChunks())
-            throw new IllegalStateException("Unable to reassemble message chunk " + id + " missing "
-                            + (chunkList.get(0).getNumChunks() - chunkList.size()) + "chunks");
-        //ensure the chunks are in contiguous ordering according to their chunk index
-        NDArrayMessageChunk[] inOrder = new NDArrayMessageChunk[chunkList.size()];
-        for (NDArrayMessageChunk chunk : chunkList) {
-            inOrder[chunk.getChunkIndex()] = chunk;
-        }
+        PartialMessage message = messages.get(id);
+        if (message == null)
+            throw new IllegalStateException("Unable to reassemble message chunk " + id + ": no chunks present");
 
-        //reassemble the in order chunks
-        NDArrayMessage message = NDArrayMessage.fromChunks(inOrder);
-        chunkList.clear();
-        chunks.remove(id);
-        return message;
+        synchronized (message) {
+            if (!message.isComplete())
+                throw new IllegalStateException("Unable to reassemble message chunk " + id + " missing "
+                                + (message.numChunks - message.numReceived) + "chunks");
+
+            // message might've been reassembled by another thread meanwhile
+            if (message.closed)
+                throw new IllegalStateException("Message " + id + " was already reassembled");
 
+            try {
+                //chunks are already in place, so the destination buffer is the message itself
+                NDArrayMessage ret = NDArrayMessage.fromBuffer(new UnsafeBuffer(message.buffer, 0, message.length), 0);
+                messagesReassembled.incrementAndGet();
+                return ret;
+            } finally {
+                remove(message);
+            }
+        }
     }
 
     /**
-     * Accumulate chunks in a map
+     * Accumulate chunks
      * until all chunks have been accumulated.
      * You can check all chunks are present with
      * {@link ChunkAccumulator#allPresent(String)}
@@ -88,23 +194,204 @@ public class InMemoryChunkAccumulator implements ChunkAccumulator {
      * After all chunks have been accumulated
      * you can call {@link ChunkAccumulator#reassemble(String)}
      * where the id is the id of the chunk.
+     *
+     * Chunk data is copied into the destination buffer,
+     * so the chunk isn't referenced after this call.
      * @param chunk the chunk
      */
     @Override
     public void accumulateChunk(NDArrayMessageChunk chunk) {
+        evictStale();
+
         String id = chunk.getId();
-        if (!chunks.containsKey(id)) {
-            List<NDArrayMessageChunk> list = new ArrayList<>();
-            list.add(chunk);
-            chunks.put(id, list);
-        } else {
-            List<NDArrayMessageChunk> chunkList = chunks.get(id);
-            chunkList.add(chunk);
+        int chunkSize = chunk.getChunkSize();
+        int numChunks = chunk.getNumChunks();
+        int index = chunk.getChunkIndex();
+        ByteBuffer data = chunk.getData().duplicate();
+
+        if (chunkSize < 1 || numChunks < 1 || index < 0 || index >= numChunks || data.remaining() > chunkSize)
+            throw new IllegalArgumentException("Invalid chunk " + index + " of " + numChunks + " with size "
+                            + data.remaining() + " and chunk size " + chunkSize + " for id " + id);
+
+        PartialMessage message = messages.get(id);
+        if (message == null) {
+            message = allocate(id, chunkSize, numChunks);
+            if (message == null) {
+                chunksDropped.incrementAndGet();
+                return;
+            }
+        }
+
+        if (message.chunkSize != chunkSize || message.numChunks != numChunks)
+            throw new IllegalArgumentException("Chunk " + index + " doesn't match previous chunks of message " + id);
+
+        chunksReceived.incrementAndGet();
+
+        synchronized (message) {
+            // message might've been evicted or reassembled meanwhile
+            if (message.closed) {
+                chunksDropped.incrementAndGet();
+                return;
+            }
+
+            if (message.received.get(index)) {
+                chunksDuplicated.incrementAndGet();
+                return;
+            }
+
+            //write chunk right into its place within the message
+            int offset = index * chunkSize;
+            ByteBuffer destination = message.buffer.duplicate();
+            destination.clear();
+            destination.position(offset);
+            destination.put(data);
+
+            message.received.set(index);
+            message.numReceived++;
+            message.length = Math.max(message.length, destination.position());
+            message.lastUpdated = System.currentTimeMillis();
         }
 
         log.debug("Accumulating chunk for id " + chunk.getId());
+    }
+
+    private PartialMessage allocate(String id, int chunkSize, int numChunks) {
+        long size = (long) chunkSize * numChunks;
+        long allocation = size > Integer.MAX_VALUE ? size : pool.capacityFor((int) size);
+        if (size > Integer.MAX_VALUE || allocation > maxBytes) {
+            log.warn("Message {} of {} bytes can't be reassembled: limit is {} bytes", id, size,
+                            Math.min(maxBytes, Integer.MAX_VALUE));
+            return null;
+        }
 
+        // make room by evicting the oldest incomplete messages, complete ones are about to be reassembled
+        while (bytesInFlight.get() + allocation > maxBytes) {
+            PartialMessage oldest = null;
+            for (PartialMessage message : messages.values())
+                if (!message.isComplete() && (oldest == null || message.lastUpdated < oldest.lastUpdated))
+                    oldest = message;
 
+            if (oldest == null) {
+                log.warn("Message {} of {} bytes can't be reassembled: {} bytes are held by complete messages", id,
+                                size, bytesInFlight.get());
+                return null;
+            }
+
+            int received = numChunksSoFar(oldest.id);
+            if (evictIncomplete(oldest))
+                log.warn("Evicting partial message {} to free memory: {} of {} chunks received", oldest.id,
+                                received, oldest.numChunks);
+        }
+
+        PartialMessage message = new PartialMessage(id, chunkSize, numChunks, pool.acquire((int) size));
+        PartialMessage existing = messages.putIfAbsent(id, message);
+        if (existing != null) {
+            // another thread got the first chunk of this message as well
+            pool.release(message.buffer);
+            return existing;
+        }
+
+        bytesInFlight.addAndGet(message.allocatedBytes);
+        return message;
     }
 
+    /**
+     * This method evicts partial messages which didn't receive any chunks within the timeout.
+     * It's called on every accumulated chunk, but only scans messages once per quarter of the timeout.
+     */
+    public void evictStale() {
+        long now = System.currentTimeMillis();
+        if (now - lastEvictionCheck < timeout / 4)
+            return;
+
+        lastEvictionCheck = now;
+        Iterator<PartialMessage> iterator = messages.values().iterator();
+        while (iterator.hasNext()) {
+            PartialMessage message = iterator.next();
+            if (now - message.lastUpdated >= timeout) {
+                log.warn("Evicting stale partial message {}: {} of {} chunks received", message.id,
+                                numChunksSoFar(message.id), message.numChunks);
+                evict(message);
+            }
+        }
+    }
+
+    private void evict(PartialMessage message) {
+        synchronized (message) {
+            if (message.closed)
+                return;
+
+            messagesEvicted.incrementAndGet();
+            remove(message);
+        }
+    }
+
+    private boolean evictIncomplete(PartialMessage message) {
+        synchronized (message) {
+            // last chunk might've arrived meanwhile
+            if (message.closed || message.isComplete())
+                return false;
+
+            messagesEvicted.incrementAndGet();
+            remove(message);
+            return true;
+        }
+    }
+
+    // should be called while holding lock on message
+    private void remove(PartialMessage message) {
+        message.closed = true;
+        messages.remove(message.id, message);
+        bytesInFlight.addAndGet(-message.allocatedBytes);
+        pool.release(message.buffer);
+    }
+
+    /**
+     * Number of messages being reassembled at the moment
+     */
+    public int getNumberOfPartialMessages() {
+        return messages.size();
+    }
+
+    /**
+     * Total size of destination buffers of messages being reassembled at the moment
+     */
+    public long getBytesInFlight() {
+        return bytesInFlight.get();
+    }
+
+    /**
+     * Number of chunks accepted so far, including duplicates
+     */
+    public long getNumberOfChunksReceived() {
+        return chunksReceived.get();
+    }
+
+    /**
+     * Number of chunks that were received more than once
+     */
+    public long getNumberOfDuplicatedChunks() {
+        return chunksDuplicated.get();
+    }
+
+    /**
+     * Number of chunks that were dropped, because their message was evicted or didn't fit into memory limit
+     */
+    public long getNumberOfDroppedChunks() {
+        return chunksDropped.get();
+    }
+
+    /**
+     * Number of messages reassembled so far
+     */
+    public long getNumberOfReassembledMessages() {
+        return messagesReassembled.get();
+    }
+
+    /**
+     * Number of partial messages evicted so far, due to timeout or memory limit
+     */
+    public long getNumberOfEvictedMessages() {
+        return messagesEvicted.get();
+    }
 }
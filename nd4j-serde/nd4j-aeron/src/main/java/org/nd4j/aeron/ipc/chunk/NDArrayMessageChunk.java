@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 import org.nd4j.aeron.ipc.AeronNDArraySubscriber;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.util.DirectBufferPool;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
@@ -77,6 +78,27 @@ public class NDArrayMessageChunk implements Serializable {
      */
     public static ByteBuffer toBuffer(NDArrayMessageChunk chunk) {
         ByteBuffer ret = ByteBuffer.allocateDirect(sizeForMessage(chunk)).order(ByteOrder.nativeOrder());
+        doByteBufferPut(chunk, ret);
+        return ret;
+    }
+
+    /**
+     * Convert an ndarray message chunk to a buffer
+     * taken from the given pool. The limit of the returned buffer is exactly
+     * {@link #sizeForMessage(NDArrayMessageChunk)}
+     * Once the buffer isn't needed anymore, it should be returned via {@link DirectBufferPool#release(ByteBuffer)}
+     * @param chunk the chunk to convert
+     * @param pool the pool to take the buffer from
+     * @return an {@link ByteBuffer} based on the
+     * passed in message chunk.
+     */
+    public static ByteBuffer toBuffer(NDArrayMessageChunk chunk, DirectBufferPool pool) {
+        ByteBuffer ret = pool.acquire(sizeForMessage(chunk));
+        doByteBufferPut(chunk, ret);
+        return ret;
+    }
+
+    private static void doByteBufferPut(NDArrayMessageChunk chunk, ByteBuffer ret) {
         //the messages type enum as an int
         ret.putInt(chunk.getMessageType().ordinal());
         //the number of chunks this chunk is apart of
@@ -91,7 +113,6 @@ public class NDArrayMessageChunk implements Serializable {
         ret.putInt(chunk.getChunkIndex());
         //the actual data
         ret.put(chunk.getData());
-        return ret;
     }
 
     /**
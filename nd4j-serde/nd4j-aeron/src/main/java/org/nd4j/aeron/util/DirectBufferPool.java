@@ -0,0 +1,225 @@
+package org.nd4j.aeron.util;
+
+import lombok.NonNull;
+import org.agrona.BitUtil;
+import org.agrona.BufferUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe pool of direct {@link ByteBuffer}s, used for message encoding/decoding on the hot path.
+ *
+ * Buffers are grouped into power-of-two size classes, so acquired buffer might have larger capacity than requested.
+ * Its limit is always set to the requested size though. Each size class keeps a bounded number of idle buffers,
+ * extra buffers are just left for GC on release. Requests larger than the largest pooled size class are served
+ * with plain allocation, and such buffers are never pooled.
+ *
+ * Pooled buffers are tracked while they're handed out, so only the exact buffer instance returned by acquire() can be
+ * released, and only once. Double releases, views, and foreign buffers are ignored, so no buffer can ever be
+ * handed out to two borrowers at once. Buffers that are never released are still collected by GC.
+ *
+ * Pool size is configured via system properties:
+ * {@link #MAX_BUFFER_SIZE_PROPERTY} - largest pooled size class in bytes, 16MB by default
+ * {@link #BUFFERS_PER_CLASS_PROPERTY} - number of idle buffers kept per size class, 8 by default
+ *
+ * PLEASE NOTE: buffer shouldn't be touched after it was released, including any views created from it.
+ */
+public class DirectBufferPool {
+    public static final String MAX_BUFFER_SIZE_PROPERTY = "org.nd4j.aeron.pool.maxBufferSize";
+    public static final String BUFFERS_PER_CLASS_PROPERTY = "org.nd4j.aeron.pool.buffersPerClass";
+
+    // smallest size class is 64 bytes
+    private static final int MIN_CLASS_SHIFT = 6;
+
+    private static final DirectBufferPool INSTANCE =
+                    new DirectBufferPool(Integer.getInteger(MAX_BUFFER_SIZE_PROPERTY, 16 * 1024 * 1024),
+                                    Integer.getInteger(BUFFERS_PER_CLASS_PROPERTY, 8));
+
+    private final List<ManyToManyConcurrentArrayQueue<ByteBuffer>> classes;
+    private final int maxBufferSize;
+
+    // pooled buffers handed out and not released yet, keyed by address
+    private final Map<Long, BufferReference> outstanding = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ByteBuffer> collected = new ReferenceQueue<>();
+
+    private final AtomicLong allocations = new AtomicLong(0);
+    private final AtomicLong reuses = new AtomicLong(0);
+
+    /**
+     *
+     * @param maxBufferSize largest pooled buffer size in bytes, rounded up to power of two
+     * @param buffersPerClass max number of idle buffers kept per size class
+     */
+    public DirectBufferPool(int maxBufferSize, int buffersPerClass) {
+        if (maxBufferSize < 1 || buffersPerClass < 1)
+            throw new IllegalArgumentException("Pool size should be positive, got maxBufferSize: [" + maxBufferSize
+                            + "], buffersPerClass: [" + buffersPerClass + "]");
+
+        this.maxBufferSize = Math.max(BitUtil.findNextPositivePowerOfTwo(maxBufferSize), 1 << MIN_CLASS_SHIFT);
+
+        int numClasses = sizeClass(this.maxBufferSize) + 1;
+        classes = new ArrayList<>(numClasses);
+        for (int i = 0; i < numClasses; i++)
+            classes.add(new ManyToManyConcurrentArrayQueue<ByteBuffer>(buffersPerClass));
+    }
+
+    /**
+     * Weak reference to outstanding buffer, so buffers that are never released don't leak
+     */
+    private static class BufferReference extends WeakReference<ByteBuffer> {
+        private final long address;
+
+        private BufferReference(ByteBuffer buffer, long address, ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.address = address;
+        }
+    }
+
+    /**
+     * Shared pool instance, configured via system properties
+     *
+     * @return
+     */
+    public static DirectBufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    private static int sizeClass(int size) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+        return Math.max(shift - MIN_CLASS_SHIFT, 0);
+    }
+
+    /**
+     * This method returns capacity of the buffer acquire() call would return for given size
+     *
+     * @param size number of bytes required
+     * @return
+     */
+    public int capacityFor(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Buffer size can't be negative: [" + size + "]");
+
+        return size <= maxBufferSize ? 1 << (sizeClass(size) + MIN_CLASS_SHIFT) : size;
+    }
+
+    /**
+     * This method returns direct buffer in native byte order, with position 0 and limit equal to size.
+     * Contents of the buffer are undefined.
+     *
+     * @param size number of bytes required
+     * @return
+     */
+    public ByteBuffer acquire(int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("Buffer size can't be negative: [" + size + "]");
+
+        ByteBuffer buffer = null;
+        if (size <= maxBufferSize) {
+            int sizeClass = sizeClass(size);
+            buffer = classes.get(sizeClass).poll();
+            if (buffer == null) {
+                allocations.incrementAndGet();
+                buffer = ByteBuffer.allocateDirect(1 << (sizeClass + MIN_CLASS_SHIFT));
+            } else
+                reuses.incrementAndGet();
+
+            purgeCollected();
+            long address = BufferUtil.address(buffer);
+            outstanding.put(address, new BufferReference(buffer, address, collected));
+        } else {
+            allocations.incrementAndGet();
+            buffer = ByteBuffer.allocateDirect(size);
+        }
+
+        buffer.clear();
+        buffer.limit(size);
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+
+    /**
+     * This method removes entries of buffers that were collected by GC without being released
+     */
+    private void purgeCollected() {
+        Reference<? extends ByteBuffer> reference;
+        while ((reference = collected.poll()) != null) {
+            BufferReference buffer = (BufferReference) reference;
+            outstanding.remove(buffer.address, buffer);
+        }
+    }
+
+    /**
+     * This method returns buffer to the pool.
+     * Buffers that weren't acquired from pool, were released already, or don't fit any size class are ignored.
+     *
+     * @param buffer
+     * @return true if buffer was accepted by the pool
+     */
+    public boolean release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.isReadOnly())
+            return false;
+
+        int capacity = buffer.capacity();
+        if (capacity > maxBufferSize || capacity < (1 << MIN_CLASS_SHIFT) || !BitUtil.isPowerOfTwo(capacity))
+            return false;
+
+        // only the very instance we've handed out is accepted, and only once
+        long address = BufferUtil.address(buffer);
+        BufferReference reference = outstanding.get(address);
+        if (reference == null || reference.get() != buffer || !outstanding.remove(address, reference))
+            return false;
+
+        // if this class is full already, buffer is just left for GC
+        classes.get(sizeClass(capacity)).offer(buffer);
+        return true;
+    }
+
+    /**
+     * This method returns buffer backing given DirectBuffer to the pool
+     *
+     * @param buffer
+     * @return true if buffer was accepted by the pool
+     */
+    public boolean release(@NonNull DirectBuffer buffer) {
+        return release(buffer.byteBuffer());
+    }
+
+    /**
+     * Number of pooled buffers handed out, and not released yet
+     *
+     * @return
+     */
+    public int getNumberOfOutstanding() {
+        purgeCollected();
+        return outstanding.size();
+    }
+
+    /**
+     * Number of direct buffers allocated by this pool so far
+     *
+     * @return
+     */
+    public long getNumberOfAllocations() {
+        return allocations.get();
+    }
+
+    /**
+     * Number of acquisitions served with pooled buffers so far
+     *
+     * @return
+     */
+    public long getNumberOfReuses() {
+        return reuses.get();
+    }
+}
@@ -3,6 +3,7 @@ package org.nd4j.aeron.ipc;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.Test;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -39,6 +40,36 @@ public class AeronNDArraySerdeTest {
     }
 
 
+    @Test
+    public void testToAndFromArrayBacked() {
+        INDArray arr = Nd4j.linspace(1, 30, 30).reshape(5, 6);
+        INDArray compress = Nd4j.getCompressor().compress(arr, "GZIP");
+        for (INDArray original : new INDArray[] {arr, compress}) {
+            UnsafeBuffer direct = AeronNDArraySerde.toBuffer(original);
+            byte[] bytes = new byte[direct.capacity() + 3];
+            direct.getBytes(0, bytes, 3, direct.capacity());
+
+            INDArray back = AeronNDArraySerde.toArray(new UnsafeBuffer(bytes), 3);
+            assertEquals(arr, Nd4j.getCompressor().decompress(back));
+        }
+    }
+
+    @Test
+    public void testToAndFromPooled() {
+        DirectBufferPool pool = new DirectBufferPool(1024 * 1024, 4);
+        INDArray arr = Nd4j.linspace(1, 100, 100);
+        for (int e = 0; e < 10; e++) {
+            UnsafeBuffer buffer = AeronNDArraySerde.toBuffer(arr, pool);
+            assertEquals(AeronNDArraySerde.byteBufferSizeFor(arr), buffer.capacity());
+            assertEquals(arr, AeronNDArraySerde.toArray(buffer));
+            pool.release(buffer);
+        }
+
+        assertEquals(1, pool.getNumberOfAllocations());
+        assertEquals(9, pool.getNumberOfReuses());
+    }
+
+
     @Test
     public void testToAndFromCompressedLarge() {
         INDArray arr = Nd4j.zeros((int) 1e7);
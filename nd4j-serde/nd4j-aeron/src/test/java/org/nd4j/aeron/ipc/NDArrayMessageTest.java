@@ -1,10 +1,13 @@
 package org.nd4j.aeron.ipc;
 
 import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -29,5 +32,85 @@ public class NDArrayMessageTest {
 
     }
 
+    @Test
+    public void testEncodedMessageToAndFrom() {
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(1.0));
+        assertEquals(NDArrayMessage.ArrayEncoding.NONE, message.getEncoding());
+
+        // threshold encoding layout: number of elements, original length, threshold bits, then signed 1-based indices
+        int[] encoded = new int[] {2, 10, Float.floatToIntBits(1e-3f), 3, -8};
+        INDArray arr = Nd4j.create(Nd4j.createBuffer(encoded), new int[] {1, encoded.length});
+
+        NDArrayMessage encodedMessage = NDArrayMessage.builder().arr(arr).dimensions(new int[] {-1}).index(-1)
+                        .encoding(NDArrayMessage.ArrayEncoding.THRESHOLD).build();
+        DirectBuffer buffer = NDArrayMessage.toBuffer(encodedMessage);
+        assertEquals(NDArrayMessage.byteBufferSizeForMessage(encodedMessage), buffer.capacity());
+
+        NDArrayMessage restored = NDArrayMessage.fromBuffer(buffer, 0);
+        assertEquals(NDArrayMessage.ArrayEncoding.THRESHOLD, restored.getEncoding());
+        for (int i = 0; i < encoded.length; i++)
+            assertEquals(encoded[i], restored.getArr().data().getInt(i));
+
+        assertArrayEquals(new int[] {-1}, restored.getDimensions());
+    }
+
+    @Test
+    public void testPooledMessageFromHeapBuffer() {
+        DirectBufferPool pool = new DirectBufferPool(1024 * 1024, 2);
+        NDArrayMessage message = NDArrayMessage.builder().arr(Nd4j.linspace(1, 12, 12)).dimensions(new int[] {1})
+                        .index(3).sent(NDArrayMessage.getCurrentTimeUtc()).build();
+        DirectBuffer buffer = NDArrayMessage.toBuffer(message, pool);
+        assertEquals(NDArrayMessage.byteBufferSizeForMessage(message), buffer.capacity());
+
+        // message at odd offset of array backed buffer, as it might come from aeron
+        byte[] bytes = new byte[buffer.capacity() + 7];
+        buffer.getBytes(0, bytes, 5, buffer.capacity());
+        pool.release(buffer);
+
+        NDArrayMessage restored = NDArrayMessage.fromBuffer(new UnsafeBuffer(bytes), 5);
+        assertEquals(message, restored);
 
+        // buffer was released, so next message reuses it
+        NDArrayMessage.toBuffer(message, pool);
+        assertEquals(1, pool.getNumberOfAllocations());
+        assertEquals(1, pool.getNumberOfReuses());
+    }
+
+    @Test
+    public void testThresholdEncodedFraming() {
+        // residual {0.5, -2.0, 0.1, 3.0, -0.01, 1.5} encoded with threshold 1.0: elements 2, 4 and 6, 1-based and signed
+        int[] encoded = new int[] {3, 6, Float.floatToIntBits(1.0f), -2, 4, 6};
+        INDArray arr = Nd4j.create(Nd4j.createBuffer(encoded), new int[] {1, encoded.length});
+
+        NDArrayMessage message = NDArrayMessage.builder().arr(arr).dimensions(new int[] {-1}).index(-1)
+                        .encoding(NDArrayMessage.ArrayEncoding.THRESHOLD).sent(NDArrayMessage.getCurrentTimeUtc())
+                        .build();
+
+        // same path as publisher uses for uncompressed messages
+        DirectBuffer buffer = NDArrayMessage.toBuffer(message);
+        NDArrayMessage restored = NDArrayMessage.fromBuffer(buffer, 0);
+
+        assertEquals(NDArrayMessage.ArrayEncoding.THRESHOLD, restored.getEncoding());
+        assertEquals(message.getSent(), restored.getSent());
+        assertEquals(encoded.length, restored.getArr().length());
+
+        float[] decoded = new float[restored.getArr().data().getInt(1)];
+        decode(restored.getArr(), decoded);
+        assertArrayEquals(new float[] {0.0f, -1.0f, 0.0f, 1.0f, 0.0f, 1.0f}, decoded, 0.0f);
+    }
+
+    /**
+     * Reference decoder for threshold encoded arrays: header of 3 ints (number of elements, original length,
+     * threshold bits), followed by signed 1-based indices. Each index adds +-threshold to the target.
+     */
+    private static void decode(INDArray encoded, float[] target) {
+        int numberOfElements = encoded.data().getInt(0);
+        assertEquals(target.length, encoded.data().getInt(1));
+        float threshold = Float.intBitsToFloat(encoded.data().getInt(2));
+
+        for (int e = 0; e < numberOfElements; e++) {
+            int index = encoded.data().getInt(3 + e);
+            target[Math.abs(index) - 1] += index > 0 ? threshold : -threshold;
+        }
+    }
 }
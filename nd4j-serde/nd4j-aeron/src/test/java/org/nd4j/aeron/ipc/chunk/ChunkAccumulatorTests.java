@@ -2,9 +2,10 @@ package org.nd4j.aeron.ipc.chunk;
 
 import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.aeron.util.DirectBufferPool;
 import org.nd4j.linalg.factory.Nd4j;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * Created by agibsonccc on 11/20/16.
@@ -25,4 +26,110 @@ public class ChunkAccumulatorTests {
         assertEquals(message, message1);
     }
 
+
+    @Test
+    public void testOutOfOrderAndInterleaved() {
+        InMemoryChunkAccumulator chunkAccumulator = new InMemoryChunkAccumulator();
+        NDArrayMessage first = NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 1000, 1000));
+        NDArrayMessage second = NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 300, 300).reshape(10, 30));
+        NDArrayMessageChunk[] firstChunks = NDArrayMessage.chunks(first, 128);
+        NDArrayMessageChunk[] secondChunks = NDArrayMessage.chunks(second, 100);
+
+        // two publishers, each sending its chunks in reverse order, plus one duplicate
+        for (int i = 0; i < Math.max(firstChunks.length, secondChunks.length); i++) {
+            if (i < firstChunks.length)
+                chunkAccumulator.accumulateChunk(firstChunks[firstChunks.length - 1 - i]);
+            if (i < secondChunks.length)
+                chunkAccumulator.accumulateChunk(secondChunks[secondChunks.length - 1 - i]);
+        }
+        chunkAccumulator.accumulateChunk(secondChunks[0]);
+
+        assertEquals(2, chunkAccumulator.getNumberOfPartialMessages());
+        assertEquals(1, chunkAccumulator.getNumberOfDuplicatedChunks());
+        assertTrue(chunkAccumulator.allPresent(firstChunks[0].getId()));
+        assertEquals(1.0, chunkAccumulator.progress(secondChunks[0].getId()), 1e-5);
+
+        assertEquals(second, chunkAccumulator.reassemble(secondChunks[0].getId()));
+        assertEquals(first, chunkAccumulator.reassemble(firstChunks[0].getId()));
+
+        assertEquals(0, chunkAccumulator.getNumberOfPartialMessages());
+        assertEquals(0, chunkAccumulator.getBytesInFlight());
+        assertEquals(2, chunkAccumulator.getNumberOfReassembledMessages());
+    }
+
+    @Test
+    public void testStaleEviction() throws Exception {
+        InMemoryChunkAccumulator chunkAccumulator = new InMemoryChunkAccumulator(100, Long.MAX_VALUE);
+        NDArrayMessageChunk[] lost = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000)), 128);
+        NDArrayMessageChunk[] fresh = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000)), 128);
+
+        // one chunk never arrives
+        for (int i = 1; i < lost.length; i++)
+            chunkAccumulator.accumulateChunk(lost[i]);
+
+        assertFalse(chunkAccumulator.allPresent(lost[0].getId()));
+        assertEquals(lost.length - 1, chunkAccumulator.numChunksSoFar(lost[0].getId()));
+
+        Thread.sleep(150);
+        for (int i = 0; i < fresh.length; i++)
+            chunkAccumulator.accumulateChunk(fresh[i]);
+
+        assertEquals(0, chunkAccumulator.numChunksSoFar(lost[0].getId()));
+        assertEquals(1, chunkAccumulator.getNumberOfEvictedMessages());
+        assertEquals(1, chunkAccumulator.getNumberOfPartialMessages());
+        assertEquals(Nd4j.ones(1000), chunkAccumulator.reassemble(fresh[0].getId()).getArr());
+    }
+
+    @Test
+    public void testMemoryBound() {
+        NDArrayMessageChunk[] first = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000)), 128);
+        NDArrayMessageChunk[] second = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000)), 128);
+
+        // room for a single message only, pool rounds allocations up to power of two
+        int allocation = DirectBufferPool.getInstance().capacityFor(first.length * 128);
+        InMemoryChunkAccumulator chunkAccumulator = new InMemoryChunkAccumulator(60000, allocation + 64);
+
+        chunkAccumulator.accumulateChunk(first[0]);
+        for (int i = 0; i < second.length; i++)
+            chunkAccumulator.accumulateChunk(second[i]);
+
+        // oldest partial message was evicted to make room
+        assertEquals(1, chunkAccumulator.getNumberOfEvictedMessages());
+        assertTrue(chunkAccumulator.allPresent(second[0].getId()));
+        assertEquals(allocation, chunkAccumulator.getBytesInFlight());
+
+        // message that can never fit is dropped
+        NDArrayMessageChunk[] large = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(10000)), 128);
+        chunkAccumulator.accumulateChunk(large[0]);
+        assertEquals(1, chunkAccumulator.getNumberOfDroppedChunks());
+        assertEquals(0, chunkAccumulator.numChunksSoFar(large[0].getId()));
+    }
+
+    @Test
+    public void testCompleteMessagesNotEvicted() {
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 1000, 1000));
+        NDArrayMessageChunk[] first = NDArrayMessage.chunks(message, 128);
+        NDArrayMessageChunk[] second = NDArrayMessage.chunks(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000)), 128);
+
+        int allocation = DirectBufferPool.getInstance().capacityFor(first.length * 128);
+        InMemoryChunkAccumulator chunkAccumulator = new InMemoryChunkAccumulator(60000, allocation + 64);
+
+        for (int i = 0; i < first.length; i++)
+            chunkAccumulator.accumulateChunk(first[i]);
+
+        // complete message is the oldest one, but it's waiting for reassembly, so new message is dropped instead
+        chunkAccumulator.accumulateChunk(second[0]);
+        assertEquals(0, chunkAccumulator.getNumberOfEvictedMessages());
+        assertEquals(1, chunkAccumulator.getNumberOfDroppedChunks());
+        assertEquals(0, chunkAccumulator.numChunksSoFar(second[0].getId()));
+
+        assertEquals(message, chunkAccumulator.reassemble(first[0].getId()));
+        assertEquals(0, chunkAccumulator.getBytesInFlight());
+
+        // now there's room for it
+        for (int i = 0; i < second.length; i++)
+            chunkAccumulator.accumulateChunk(second[i]);
+
+        assertEquals(Nd4j.ones(1000), chunkAccumulator.reassemble(second[0].getId()).getArr());
+    }
 }
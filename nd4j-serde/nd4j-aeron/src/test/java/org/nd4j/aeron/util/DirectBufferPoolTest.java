@@ -0,0 +1,132 @@
+package org.nd4j.aeron.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 2);
+
+        ByteBuffer buffer = pool.acquire(100);
+        assertTrue(buffer.isDirect());
+        assertEquals(ByteOrder.nativeOrder(), buffer.order());
+        assertEquals(0, buffer.position());
+        assertEquals(100, buffer.limit());
+        assertEquals(128, buffer.capacity());
+
+        // same size class should get the same buffer back
+        pool.release(buffer);
+        ByteBuffer second = pool.acquire(120);
+        assertTrue(buffer == second);
+        assertEquals(120, second.limit());
+
+        // too large to be pooled
+        ByteBuffer large = pool.acquire(5000);
+        assertEquals(5000, large.capacity());
+        pool.release(large);
+        assertFalse(large == pool.acquire(5000));
+
+        assertEquals(3, pool.getNumberOfAllocations());
+        assertEquals(1, pool.getNumberOfReuses());
+
+        assertEquals(64, pool.capacityFor(0));
+        assertEquals(128, pool.capacityFor(100));
+        assertEquals(4096, pool.capacityFor(4096));
+        assertEquals(5000, pool.capacityFor(5000));
+    }
+
+    @Test
+    public void testBoundedClasses() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 2);
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            buffers.add(pool.acquire(1000));
+
+        for (ByteBuffer buffer : buffers)
+            pool.release(buffer);
+
+        // only 2 of 4 buffers were kept
+        for (int i = 0; i < 4; i++)
+            pool.acquire(1000);
+
+        assertEquals(6, pool.getNumberOfAllocations());
+        assertEquals(2, pool.getNumberOfReuses());
+
+        // foreign buffers are ignored
+        pool.release(ByteBuffer.allocate(1024));
+        pool.release(ByteBuffer.allocateDirect(1000));
+        pool.acquire(1000);
+        assertEquals(7, pool.getNumberOfAllocations());
+    }
+
+    @Test
+    public void testInvalidRelease() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4);
+
+        ByteBuffer buffer = pool.acquire(1000);
+        assertEquals(1, pool.getNumberOfOutstanding());
+
+        // views of the pooled buffer share its memory, so they can't be accepted
+        assertFalse(pool.release(buffer.duplicate()));
+        assertFalse(pool.release(ByteBuffer.allocateDirect(1024)));
+
+        assertTrue(pool.release(buffer));
+        assertEquals(0, pool.getNumberOfOutstanding());
+
+        // second release would give the same buffer to two borrowers
+        assertFalse(pool.release(buffer));
+
+        ByteBuffer first = pool.acquire(1000);
+        ByteBuffer second = pool.acquire(1000);
+        assertTrue(first == buffer);
+        assertFalse(second == buffer);
+
+        assertEquals(2, pool.getNumberOfAllocations());
+        assertEquals(1, pool.getNumberOfReuses());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(1024 * 1024, 16);
+
+        List<Thread> threads = new ArrayList<>();
+        final List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final byte val = (byte) t;
+            threads.add(new Thread(() -> {
+                for (int e = 0; e < 1000; e++) {
+                    ByteBuffer buffer = pool.acquire(64 + e % 512);
+                    for (int i = 0; i < buffer.limit(); i++)
+                        buffer.put(i, val);
+
+                    // nobody else should touch this buffer until it's released
+                    for (int i = 0; i < buffer.limit(); i++)
+                        if (buffer.get(i) != val)
+                            synchronized (errors) {
+                                errors.add(new IllegalStateException("Buffer was shared"));
+                            }
+
+                    pool.release(buffer);
+                }
+            }));
+        }
+
+        for (Thread thread : threads)
+            thread.start();
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertTrue(errors.isEmpty());
+        assertEquals(4000, pool.getNumberOfAllocations() + pool.getNumberOfReuses());
+    }
+}